@@ -35,6 +35,13 @@ public interface Body {
    */
   long getSize();
 
+  /**
+   * Gets the data reduction of this body
+   *
+   * @return the data reduction of a {@link DataType#REDUCIBLE} body, or null for other data types
+   */
+  DataReduction getDataReduction();
+
   /**
    * Gets the content of this body
    *
@@ -0,0 +1,98 @@
+/* Copyright (c) IBM Corporation 2016. All Rights Reserved.
+ * Project name: Object Generator
+ * This project is licensed under the Apache License 2.0, see LICENSE.
+ */
+
+package com.ibm.og.api;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * The data reduction a storage system should achieve on a {@link DataType#REDUCIBLE} body. Bodies
+ * are divided into blocks of {@code blockSize} bytes; a fraction {@code 1 / dedupRatio} of blocks
+ * are unique while the remainder duplicate blocks from a pool shared by all bodies, and the content
+ * of every block compresses by {@code compressionRatio}.
+ * <p>
+ * Instances of this class are immutable.
+ *
+ * @since 1.9.0
+ */
+public class DataReduction {
+  private final double compressionRatio;
+  private final double dedupRatio;
+  private final int blockSize;
+
+  /**
+   * Constructs an instance
+   *
+   * @param compressionRatio the ratio of original to compressed size, e.g. 2.0 for 2:1
+   * @param dedupRatio the ratio of logical to unique block count, e.g. 4.0 for 4:1
+   * @param blockSize the size in bytes of the blocks which are deduplicated
+   * @throws IllegalArgumentException if compressionRatio or dedupRatio are less than 1.0, or if
+   *         blockSize is not positive
+   */
+  public DataReduction(final double compressionRatio, final double dedupRatio,
+      final int blockSize) {
+    checkArgument(compressionRatio >= 1.0, "compressionRatio must be >= 1.0 [%s]",
+        compressionRatio);
+    checkArgument(dedupRatio >= 1.0, "dedupRatio must be >= 1.0 [%s]", dedupRatio);
+    checkArgument(blockSize > 0, "blockSize must be > 0 [%s]", blockSize);
+    this.compressionRatio = compressionRatio;
+    this.dedupRatio = dedupRatio;
+    this.blockSize = blockSize;
+  }
+
+  /**
+   * @return the ratio of original to compressed size
+   */
+  public double getCompressionRatio() {
+    return this.compressionRatio;
+  }
+
+  /**
+   * @return the ratio of logical to unique block count
+   */
+  public double getDedupRatio() {
+    return this.dedupRatio;
+  }
+
+  /**
+   * @return the size in bytes of the blocks which are deduplicated
+   */
+  public int getBlockSize() {
+    return this.blockSize;
+  }
+
+  @Override
+  public String toString() {
+    return String.format("DataReduction [compressionRatio=%s, dedupRatio=%s, blockSize=%s]",
+        this.compressionRatio, this.dedupRatio, this.blockSize);
+  }
+
+  @Override
+  public int hashCode() {
+    final int prime = 31;
+    int result = 1;
+    long temp = Double.doubleToLongBits(this.compressionRatio);
+    result = prime * result + (int) (temp ^ (temp >>> 32));
+    temp = Double.doubleToLongBits(this.dedupRatio);
+    result = prime * result + (int) (temp ^ (temp >>> 32));
+    result = prime * result + this.blockSize;
+    return result;
+  }
+
+  @Override
+  public boolean equals(final Object obj) {
+    if (this == obj) {
+      return true;
+    }
+    if (obj == null || getClass() != obj.getClass()) {
+      return false;
+    }
+    final DataReduction other = (DataReduction) obj;
+    return Double.doubleToLongBits(this.compressionRatio) == Double
+        .doubleToLongBits(other.compressionRatio)
+        && Double.doubleToLongBits(this.dedupRatio) == Double.doubleToLongBits(other.dedupRatio)
+        && this.blockSize == other.blockSize;
+  }
+}
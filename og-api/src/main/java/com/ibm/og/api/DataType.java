@@ -6,10 +6,13 @@
 package com.ibm.og.api;
 
 /**
- * An enumeration of supported body data types
+ * An enumeration of supported body data types. {@code RANDOM} bodies repeat a small random buffer,
+ * while {@code UNIQUE} bodies never repeat and are reproducible from the body's random seed.
+ * {@code REDUCIBLE} bodies are reproducible from the body's random seed and compress and
+ * deduplicate according to the body's {@link DataReduction}
  * 
  * @since 1.0
  */
 public enum DataType {
-  NONE, RANDOM, ZEROES, CUSTOM;
+  NONE, RANDOM, ZEROES, CUSTOM, UNIQUE, REDUCIBLE;
 }
@@ -5,10 +5,28 @@
 package com.ibm.og.api;
 
 public class RequestTimestamps {
+      // intended send time from the arrival schedule; zero if the request was not scheduled
+      public long intendedStartMillis;
+      public long intendedStart;
+      // the time spent authenticating the request, which may precede start if the request was
+      // authenticated ahead of execution
+      public long signingStart;
+      public long signingFinish;
       public long startMillis;
       public long start;
+      // connection phases, recorded by clients which support them; connect includes the tls
+      // handshake, and both are zero if the request reused a pooled connection
+      public long connectionLeaseStart;
+      public long connectionLeaseFinish;
+      public long connectStart;
+      public long connectFinish;
+      public long handshakeStart;
+      public long handshakeFinish;
       public long requestContentStart;
       public long requestContentFinish;
+      // the last byte of the request was sent, and the response headers were received
+      public long requestFinish;
+      public long responseHeadersFinish;
       public long responseContentStart;
       public long responseContentFirstBytes;
       public long responseContentFinish;
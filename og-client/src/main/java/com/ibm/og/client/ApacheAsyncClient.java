@@ -0,0 +1,1122 @@
+/* Copyright (c) IBM Corporation 2016. All Rights Reserved.
+ * Project name: Object Generator
+ * This project is licensed under the Apache License 2.0, see LICENSE.
+ */
+
+package com.ibm.og.client;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.ByteBuffer;
+import java.security.Security;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.net.ssl.SSLContext;
+
+import org.apache.http.ConnectionReuseStrategy;
+import org.apache.http.Header;
+import org.apache.http.HeaderIterator;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpEntityEnclosingRequest;
+import org.apache.http.HttpException;
+import org.apache.http.HttpHost;
+import org.apache.http.HttpRequest;
+import org.apache.http.HttpRequestInterceptor;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.client.methods.RequestBuilder;
+import org.apache.http.client.utils.URIUtils;
+import org.apache.http.concurrent.FutureCallback;
+import org.apache.http.config.RegistryBuilder;
+import org.apache.http.conn.ssl.NoopHostnameVerifier;
+import org.apache.http.conn.ssl.TrustSelfSignedStrategy;
+import org.apache.http.entity.ContentType;
+import org.apache.http.impl.DefaultConnectionReuseStrategy;
+import org.apache.http.impl.NoConnectionReuseStrategy;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.nio.client.CloseableHttpAsyncClient;
+import org.apache.http.impl.nio.client.HttpAsyncClientBuilder;
+import org.apache.http.impl.nio.client.HttpAsyncClients;
+import org.apache.http.impl.nio.conn.PoolingNHttpClientConnectionManager;
+import org.apache.http.impl.nio.reactor.DefaultConnectingIOReactor;
+import org.apache.http.impl.nio.reactor.IOReactorConfig;
+import org.apache.http.nio.ContentDecoder;
+import org.apache.http.nio.IOControl;
+import org.apache.http.nio.client.methods.HttpAsyncMethods;
+import org.apache.http.nio.conn.NoopIOSessionStrategy;
+import org.apache.http.nio.conn.SchemeIOSessionStrategy;
+import org.apache.http.nio.conn.ssl.SSLIOSessionStrategy;
+import org.apache.http.nio.protocol.AbstractAsyncResponseConsumer;
+import org.apache.http.nio.reactor.IOReactorException;
+import org.apache.http.protocol.HTTP;
+import org.apache.http.protocol.HttpContext;
+import org.apache.http.ssl.SSLContextBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.ibm.og.api.AuthenticatedRequest;
+import com.ibm.og.api.Client;
+import com.ibm.og.api.DataType;
+import com.ibm.og.api.Request;
+import com.ibm.og.api.RequestTimestamps;
+import com.ibm.og.api.Response;
+import com.ibm.og.http.Bodies;
+import com.ibm.og.http.HttpAuth;
+import com.ibm.og.http.HttpResponse;
+import com.ibm.og.http.PreparedRequest;
+import com.ibm.og.http.NoneAuth;
+import com.ibm.og.http.ResponseBodyConsumer;
+import com.ibm.og.util.Context;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Iterables;
+import com.google.common.collect.Maps;
+import com.google.common.util.concurrent.ForwardingListenableFuture;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.gson.FieldNamingPolicy;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.LongSerializationPolicy;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+
+/**
+ * A {@code Client} implementation that uses the Apache HttpComponents HttpAsyncClient library as
+ * its backing library for executing http requests. Requests are multiplexed over a small number of
+ * non-blocking I/O reactor threads rather than occupying a thread each, which allows a single
+ * process to drive a very large number of concurrent connections.
+ * <p>
+ * Request content is produced and response content is consumed on the I/O reactor threads as the
+ * underlying channels become ready. Response bodies which are processed by a
+ * {@code ResponseBodyConsumer} are buffered in memory before being consumed; all other response
+ * bodies are counted and discarded.
+ *
+ * @since 1.9.0
+ */
+public class ApacheAsyncClient implements Client {
+  private static final Logger _logger = LoggerFactory.getLogger(ApacheAsyncClient.class);
+  private static final Logger _requestLogger = LoggerFactory.getLogger("RequestLogger");
+  private final int ioThreads;
+  private final int connectTimeout;
+  private final int soTimeout;
+  private final boolean soReuseAddress;
+  private final int soLinger;
+  private final boolean soKeepAlive;
+  private final boolean tcpNoDelay;
+  private final int soSndBuf;
+  private final int soRcvBuf;
+  private final boolean persistentConnections;
+  private final int maxIdleTime;
+  private final boolean chunkedEncoding;
+  private final int writeBufferSize;
+  private final int readBufferSize;
+  private final boolean expectContinue;
+  private final List<String> protocols;
+  private final List<String> cipherSuites;
+  private final File keyStore;
+  private final String keyStorePassword;
+  private final String keyPassword;
+  private final File trustStore;
+  private final String trustStorePassword;
+  private final boolean trustSelfSignedCertificates;
+  private final int dnsCacheTtl;
+  private final int dnsCacheNegativeTtl;
+  private final HttpAuth authentication;
+  private final String userAgent;
+  private final Map<String, ResponseBodyConsumer> responseBodyConsumers;
+  private volatile boolean running;
+  private final AtomicInteger abortedRequestsAtShutdown;
+  private final AtomicInteger activeRequests;
+  private final Object activeRequestsLock;
+  private final PoolingNHttpClientConnectionManager connectionManager;
+  private final CloseableHttpAsyncClient client;
+  private final ScheduledExecutorService idleConnectionEvictor;
+  private final ThreadLocal<ByteBuffer> responseBuffer;
+  private final Gson gson;
+
+  private ApacheAsyncClient(final Builder builder) {
+    this.ioThreads = builder.ioThreads;
+    this.connectTimeout = builder.connectTimeout;
+    this.soTimeout = builder.soTimeout;
+    this.soReuseAddress = builder.soReuseAddress;
+    this.soLinger = builder.soLinger;
+    this.soKeepAlive = builder.soKeepAlive;
+    this.tcpNoDelay = builder.tcpNoDelay;
+    this.soSndBuf = builder.soSndBuf;
+    this.soRcvBuf = builder.soRcvBuf;
+    this.persistentConnections = builder.persistentConnections;
+    this.maxIdleTime = builder.maxIdleTime;
+    this.chunkedEncoding = builder.chunkedEncoding;
+    this.writeBufferSize = builder.writeBufferSize;
+    this.readBufferSize = builder.readBufferSize;
+    this.expectContinue = builder.expectContinue;
+
+    final List<String> protocols = builder.protocols;
+    if (protocols != null) {
+      this.protocols = ImmutableList.copyOf(protocols);
+    } else {
+      this.protocols = null;
+    }
+
+    final List<String> cipherSuites = builder.cipherSuites;
+    if (cipherSuites != null) {
+      this.cipherSuites = ImmutableList.copyOf(cipherSuites);
+    } else {
+      this.cipherSuites = null;
+    }
+
+    final String keyStore = builder.keyStore;
+    if (keyStore != null) {
+      this.keyStore = new File(keyStore);
+      checkArgument(this.keyStore.exists(), "keyStore does not exist [%s]", this.keyStore);
+    } else {
+      this.keyStore = null;
+    }
+    this.keyStorePassword = builder.keyStorePassword;
+    if (this.keyStorePassword != null) {
+      checkArgument(this.keyStore != null,
+          "if keyStorePassword is != null, keyStore must be != null");
+    }
+    this.keyPassword = builder.keyPassword;
+    if (this.keyPassword != null) {
+      checkArgument(this.keyStore != null, "if keyPassword is != null, keyStore must be != null");
+    }
+
+    final String trustStore = builder.trustStore;
+    if (trustStore != null) {
+      this.trustStore = new File(trustStore);
+      checkArgument(this.trustStore.exists(), "trustStore does not exist [%s]", this.trustStore);
+    } else {
+      this.trustStore = null;
+    }
+    this.trustStorePassword = builder.trustStorePassword;
+    if (this.trustStorePassword != null) {
+      checkArgument(this.trustStore != null,
+          "if trustStorePassword is != null, trustStore must be != null");
+    }
+    this.trustSelfSignedCertificates = builder.trustSelfSignedCertificates;
+    this.dnsCacheTtl = builder.dnsCacheTtl;
+    this.dnsCacheNegativeTtl = builder.dnsCacheNegativeTtl;
+    this.authentication = checkNotNull(builder.authentication);
+    this.userAgent = builder.userAgent;
+    this.responseBodyConsumers = ImmutableMap.copyOf(builder.responseBodyConsumers);
+    this.running = true;
+    this.abortedRequestsAtShutdown = new AtomicInteger();
+    this.activeRequests = new AtomicInteger();
+    this.activeRequestsLock = new Object();
+    this.gson = createGson();
+    this.responseBuffer = new ThreadLocal<ByteBuffer>() {
+      @Override
+      protected ByteBuffer initialValue() {
+        return ByteBuffer.allocate(ApacheAsyncClient.this.readBufferSize);
+      }
+    };
+
+    // perform checks on instance fields rather than builder fields
+    checkArgument(this.ioThreads >= 0, "ioThreads must be >= 0 [%s]", this.ioThreads);
+    checkArgument(this.connectTimeout >= 0, "connectTimeout must be >= 0 [%s]",
+        this.connectTimeout);
+    checkArgument(this.soTimeout >= 0, "soTimeout must be >= 0 [%s]", this.soTimeout);
+    checkArgument(this.soLinger >= -1, "soLinger must be >= -1 [%s]", this.soLinger);
+    checkArgument(this.soSndBuf >= 0, "soSndBuf must be >= 0 [%s]", this.soSndBuf);
+    checkArgument(this.soRcvBuf >= 0, "soRcvBuf must be >= 0 [%s]", this.soRcvBuf);
+    checkArgument(this.maxIdleTime > 0, "maxIdleTime must be > 0 [%s]", this.maxIdleTime);
+    checkArgument(this.writeBufferSize > 0, "writeBufferSize must be > 0 [%s]",
+        this.writeBufferSize);
+    checkArgument(this.readBufferSize > 0, "readBufferSize must be > 0 [%s]",
+        this.readBufferSize);
+    checkArgument(this.dnsCacheTtl >= -1, "dnsCacheTtl must be >= -1 [%s]", this.dnsCacheTtl);
+    checkArgument(this.dnsCacheNegativeTtl >= -1, "dnsCacheNegativeTtl must be >= -1 [%s]",
+        this.dnsCacheNegativeTtl);
+
+    Security.setProperty("networkaddress.cache.ttl", String.valueOf(this.dnsCacheTtl));
+    Security.setProperty("networkaddress.cache.negative.ttl",
+        String.valueOf(this.dnsCacheNegativeTtl));
+
+    this.connectionManager = createConnectionManager();
+    this.client = createClient();
+    this.client.start();
+    this.idleConnectionEvictor = Executors.newSingleThreadScheduledExecutor(
+        new ThreadFactoryBuilder().setNameFormat("client-idle-evictor").setDaemon(true).build());
+    final long evictInterval = Math.max(this.maxIdleTime / 2, 1);
+    this.idleConnectionEvictor.scheduleWithFixedDelay(new Runnable() {
+      @Override
+      public void run() {
+        ApacheAsyncClient.this.connectionManager.closeExpiredConnections();
+        ApacheAsyncClient.this.connectionManager
+            .closeIdleConnections(ApacheAsyncClient.this.maxIdleTime, TimeUnit.MILLISECONDS);
+      }
+    }, evictInterval, evictInterval, TimeUnit.MILLISECONDS);
+  }
+
+  private Gson createGson() {
+    return new GsonBuilder().setFieldNamingPolicy(FieldNamingPolicy.LOWER_CASE_WITH_UNDERSCORES)
+        .setLongSerializationPolicy(LongSerializationPolicy.STRING)
+        .registerTypeAdapter(Double.class, new TypeAdapter<Double>() {
+          @Override
+          public void write(final JsonWriter out, final Double value) throws IOException {
+            // round decimals to 2 places
+            out.value(new BigDecimal(value).setScale(2, RoundingMode.HALF_UP).doubleValue());
+          }
+
+          @Override
+          public Double read(final JsonReader in) throws IOException {
+            return in.nextDouble();
+          }
+        }.nullSafe()).create();
+  }
+
+  private CloseableHttpAsyncClient createClient() {
+    final HttpAsyncClientBuilder builder = HttpAsyncClients.custom();
+    if (this.userAgent != null) {
+      builder.setUserAgent(this.userAgent);
+    }
+
+    // Some authentication implementations add Content-Length or Transfer-Encoding headers as a part
+    // of their authentication algorithm; remove them here so that the default interceptors do not
+    // throw a ProtocolException
+    // @see RequestContent interceptor
+    builder.addInterceptorFirst(new HttpRequestInterceptor() {
+      @Override
+      public void process(final HttpRequest request, final HttpContext context)
+          throws HttpException, IOException {
+        request.removeHeaders(HTTP.TRANSFER_ENCODING);
+        request.removeHeaders(HTTP.CONTENT_LEN);
+      }
+    });
+
+    return builder.setConnectionManager(this.connectionManager)
+        .setConnectionReuseStrategy(createConnectionReuseStrategy())
+        .setKeepAliveStrategy(DefaultConnectionKeepAliveStrategy.INSTANCE).disableConnectionState()
+        .disableCookieManagement().disableAuthCaching()
+        .setRedirectStrategy(new CustomRedirectStrategy())
+        .setDefaultRequestConfig(createRequestConfig()).build();
+  }
+
+  private PoolingNHttpClientConnectionManager createConnectionManager() {
+    final DefaultConnectingIOReactor ioReactor;
+    try {
+      ioReactor = new DefaultConnectingIOReactor(createIOReactorConfig());
+    } catch (final IOReactorException e) {
+      throw new RuntimeException(e);
+    }
+    final PoolingNHttpClientConnectionManager manager =
+        new PoolingNHttpClientConnectionManager(ioReactor,
+            RegistryBuilder.<SchemeIOSessionStrategy>create()
+                .register("http", NoopIOSessionStrategy.INSTANCE)
+                .register("https", createSslIOSessionStrategy()).build());
+    manager.setMaxTotal(Integer.MAX_VALUE);
+    manager.setDefaultMaxPerRoute(Integer.MAX_VALUE);
+    return manager;
+  }
+
+  private IOReactorConfig createIOReactorConfig() {
+    final IOReactorConfig.Builder builder = IOReactorConfig.custom()
+        .setConnectTimeout(this.connectTimeout).setSoTimeout(this.soTimeout)
+        .setSoReuseAddress(this.soReuseAddress).setSoLinger(this.soLinger)
+        .setSoKeepAlive(this.soKeepAlive).setTcpNoDelay(this.tcpNoDelay)
+        .setSndBufSize(this.soSndBuf).setRcvBufSize(this.soRcvBuf);
+    if (this.ioThreads > 0) {
+      builder.setIoThreadCount(this.ioThreads);
+    }
+    // socket timeouts are only checked once per select interval; shorten the interval for short
+    // timeouts, bounded so that the reactor does not spin
+    if (this.soTimeout > 0) {
+      builder.setSelectInterval(Math.max(Math.min(this.soTimeout, 1000), 10));
+    }
+    return builder.build();
+  }
+
+  private SchemeIOSessionStrategy createSslIOSessionStrategy() {
+    final SSLContext sslContext = createSSLContext();
+    String[] configuredProtocols = null;
+    String[] configuredCipherSuites = null;
+    if (this.protocols != null) {
+      configuredProtocols = Iterables.toArray(this.protocols, String.class);
+    }
+    if (this.cipherSuites != null) {
+      final List<String> supportedCipherSuites =
+          ImmutableList.copyOf(sslContext.getSocketFactory().getSupportedCipherSuites());
+      for (final String cipherSuite : this.cipherSuites) {
+        checkArgument(supportedCipherSuites.contains(cipherSuite), "Unsupported cipher suite [%s]",
+            cipherSuite);
+      }
+
+      configuredCipherSuites = Iterables.toArray(this.cipherSuites, String.class);
+    }
+
+    return new SSLIOSessionStrategy(sslContext, configuredProtocols, configuredCipherSuites,
+        NoopHostnameVerifier.INSTANCE);
+  }
+
+  private SSLContext createSSLContext() {
+    final SSLContextBuilder builder = SSLContextBuilder.create();
+    try {
+      if (this.keyStore != null) {
+        final char[] storePassword = this.keyStorePassword.toCharArray();
+        final char[] keyPassword = this.keyPassword.toCharArray();
+        builder.loadKeyMaterial(this.keyStore, storePassword, keyPassword);
+      }
+      if (this.trustStore != null) {
+        char[] password = null;
+        if (this.trustStorePassword != null) {
+          password = this.trustStorePassword.toCharArray();
+        }
+        builder.loadTrustMaterial(this.trustStore, password);
+      }
+      if (this.trustSelfSignedCertificates) {
+        builder.loadTrustMaterial(TrustSelfSignedStrategy.INSTANCE);
+      }
+      return builder.build();
+    } catch (final Exception e) {
+      throw new RuntimeException(e);
+    }
+  }
+
+  private ConnectionReuseStrategy createConnectionReuseStrategy() {
+    return this.persistentConnections ? DefaultConnectionReuseStrategy.INSTANCE
+        : NoConnectionReuseStrategy.INSTANCE;
+  }
+
+  private RequestConfig createRequestConfig() {
+    return RequestConfig.custom().setExpectContinueEnabled(this.expectContinue)
+        .setRedirectsEnabled(true).setRelativeRedirectsAllowed(true)
+        .setConnectTimeout(this.connectTimeout).setSocketTimeout(this.soTimeout)
+        .setConnectionRequestTimeout(0).build();
+  }
+
+  @Override
+  public ListenableFuture<Response> execute(final Request request) {
+    checkNotNull(request);
+
+    final AsyncHttpOperation operation = new AsyncHttpOperation(request);
+    final Future<Void> baseFuture = operation.start();
+
+    return new ForwardingListenableFuture.SimpleForwardingListenableFuture<Response>(
+        operation.getResponseFuture()) {
+      @Override
+      public boolean cancel(final boolean mayInterruptIfRunning) {
+        baseFuture.cancel(mayInterruptIfRunning);
+        return delegate().cancel(mayInterruptIfRunning);
+      }
+    };
+  }
+
+  private HttpUriRequest createRequest(final AuthenticatedRequest request) {
+    final RequestBuilder builder =
+        RequestBuilder.create(request.getMethod().toString()).setUri(request.getUri());
+
+    for (final Entry<String, String> header : request.headers().entrySet()) {
+      builder.addHeader(header.getKey(), header.getValue());
+    }
+
+    if (DataType.NONE != request.getBody().getDataType()) {
+      final AsyncHttpEntity entity = new AsyncHttpEntity(request, this.writeBufferSize);
+      entity.setChunked(this.chunkedEncoding);
+      builder.setEntity(entity);
+    }
+
+    return builder.build();
+  }
+
+  @Override
+  public ListenableFuture<Integer> shutdown(final boolean immediate, final int timeout) {
+    final SettableFuture<Integer> future = SettableFuture.create();
+    final Thread t = new Thread(getShutdownRunnable(future, immediate, timeout));
+    t.setName("client-shutdown");
+    this.running = false;
+    t.start();
+    return future;
+  }
+
+  private Runnable getShutdownRunnable(final SettableFuture<Integer> future,
+      final boolean immediate, final int timeout) {
+    return new Runnable() {
+      @Override
+      public void run() {
+        if (immediate) {
+          _logger.info("Immediate shutdown requested");
+          future.set(shutdownClient(0));
+        } else {
+          future.set(shutdownClient(timeout));
+        }
+      }
+
+      private Integer shutdownClient(final int timeout) {
+        try {
+          _logger.info("Awaiting completion of {} active requests for {} seconds",
+              ApacheAsyncClient.this.activeRequests.get(), timeout);
+          final boolean result = awaitActiveRequests(timeout);
+          _logger.info("Active request completion result [{}]", result ? "success" : "failure");
+          if (!result) {
+            _logger.warn("Forcing connections to close");
+          }
+          closeClient();
+        } catch (final InterruptedException e) {
+          _logger.error("Interrupted while waiting for active requests to complete", e);
+          return -1;
+        }
+        _logger.info("Client is shutdown, requests aborted [{}]",
+            ApacheAsyncClient.this.abortedRequestsAtShutdown.get());
+        return ApacheAsyncClient.this.abortedRequestsAtShutdown.get();
+      }
+
+      private boolean awaitActiveRequests(final int timeout) throws InterruptedException {
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(timeout);
+        synchronized (ApacheAsyncClient.this.activeRequestsLock) {
+          while (ApacheAsyncClient.this.activeRequests.get() > 0) {
+            final long remaining = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+            if (remaining <= 0) {
+              return false;
+            }
+            ApacheAsyncClient.this.activeRequestsLock.wait(remaining);
+          }
+        }
+        return true;
+      }
+
+      private void closeClient() {
+        ApacheAsyncClient.this.idleConnectionEvictor.shutdownNow();
+        try {
+          _logger.info("Attempting to close client connection pool");
+          ApacheAsyncClient.this.client.close();
+          _logger.info("Client connection pool is closed");
+        } catch (final IOException e) {
+          _logger.error("Error closing client connection pool", e);
+        }
+      }
+    };
+  }
+
+  private void operationStarted() {
+    this.activeRequests.incrementAndGet();
+  }
+
+  private void operationFinished() {
+    if (this.activeRequests.decrementAndGet() == 0 && !this.running) {
+      synchronized (this.activeRequestsLock) {
+        this.activeRequestsLock.notifyAll();
+      }
+    }
+  }
+
+  private class AsyncHttpOperation extends AbstractAsyncResponseConsumer<Void> {
+    private final Request request;
+    private AuthenticatedRequest authenticatedRequest;
+    private HttpUriRequest apacheRequest;
+    private final RequestTimestamps timestamps;
+    private final HttpResponse.Builder responseBuilder;
+    private final SettableFuture<Response> responseFuture;
+    // a request may be completed by both the io reactor and a failure or cancellation callback
+    private final AtomicBoolean completed;
+    private ResponseBodyConsumer consumer;
+    private ByteArrayOutputStream consumerContent;
+    private int statusCode;
+    private long totalBytes;
+
+    public AsyncHttpOperation(final Request request) {
+      this.request = checkNotNull(request);
+      this.timestamps = new RequestTimestamps();
+      this.responseBuilder = new HttpResponse.Builder();
+      this.responseFuture = SettableFuture.create();
+      this.completed = new AtomicBoolean(false);
+    }
+
+    public Future<Void> start() {
+      this.timestamps.startMillis = System.currentTimeMillis();
+      this.timestamps.start = System.nanoTime();
+
+      final String requestId = this.request.getContext().get(Context.X_OG_REQUEST_ID);
+      if (requestId != null) {
+        this.responseBuilder.withContext(Context.X_OG_REQUEST_ID, requestId);
+      }
+
+      ApacheAsyncClient.this.operationStarted();
+      try {
+        this.authenticatedRequest = PreparedRequest.authenticate(
+            ApacheAsyncClient.this.authentication, this.request, this.timestamps);
+        this.apacheRequest = ApacheAsyncClient.this.createRequest(this.authenticatedRequest);
+        final HttpHost target = URIUtils.extractHost(this.apacheRequest.getURI());
+        _logger.trace("Sending request {}", this.request);
+        return ApacheAsyncClient.this.client
+            .execute(HttpAsyncMethods.create(target, this.apacheRequest), this, createCallback());
+      } catch (final Exception e) {
+        requestFailed(e);
+        return Futures.immediateFuture(null);
+      }
+    }
+
+    public ListenableFuture<Response> getResponseFuture() {
+      return this.responseFuture;
+    }
+
+    @Override
+    protected void onResponseReceived(final org.apache.http.HttpResponse response)
+        throws HttpException, IOException {
+      setRequestContentTimestamps();
+      this.statusCode = response.getStatusLine().getStatusCode();
+      this.responseBuilder.withStatusCode(this.statusCode);
+      final HeaderIterator headers = response.headerIterator();
+      while (headers.hasNext()) {
+        final Header header = headers.nextHeader();
+        this.responseBuilder.withHeader(header.getName(), header.getValue());
+      }
+    }
+
+    private void setRequestContentTimestamps() {
+      if (this.apacheRequest instanceof HttpEntityEnclosingRequest) {
+        final HttpEntity entity =
+            ((HttpEntityEnclosingRequest) this.apacheRequest).getEntity();
+        if (entity instanceof AsyncHttpEntity) {
+          this.timestamps.requestContentStart =
+              ((AsyncHttpEntity) entity).getRequestContentStart();
+          this.timestamps.requestContentFinish =
+              ((AsyncHttpEntity) entity).getRequestContentFinish();
+        }
+      }
+    }
+
+    @Override
+    protected void onEntityEnclosed(final HttpEntity entity, final ContentType contentType)
+        throws IOException {
+      final String consumerId = this.request.getContext().get(Context.X_OG_RESPONSE_BODY_CONSUMER);
+      this.consumer = ApacheAsyncClient.this.responseBodyConsumers.get(consumerId);
+      if (this.consumer != null) {
+        final long contentLength = entity.getContentLength();
+        this.consumerContent = new ByteArrayOutputStream(
+            contentLength > 0 && contentLength < Integer.MAX_VALUE ? (int) contentLength : 4096);
+      }
+      this.timestamps.responseContentStart = System.nanoTime();
+    }
+
+    @Override
+    protected void onContentReceived(final ContentDecoder decoder, final IOControl ioctrl)
+        throws IOException {
+      final ByteBuffer buf = ApacheAsyncClient.this.responseBuffer.get();
+      int bytesRead;
+      buf.clear();
+      while ((bytesRead = decoder.read(buf)) > 0) {
+        if (this.timestamps.responseContentFirstBytes == 0) {
+          this.timestamps.responseContentFirstBytes = System.nanoTime();
+        }
+        this.totalBytes += bytesRead;
+        if (this.consumerContent != null) {
+          this.consumerContent.write(buf.array(), 0, bytesRead);
+        }
+        buf.clear();
+      }
+    }
+
+    @Override
+    protected Void buildResult(final HttpContext context) throws Exception {
+      if (this.timestamps.responseContentStart > 0) {
+        if (this.consumer != null) {
+          final Map<String, String> consumed = this.consumer.consume(this.statusCode,
+              new ByteArrayInputStream(this.consumerContent.toByteArray()));
+          for (final Map.Entry<String, String> e : consumed.entrySet()) {
+            this.responseBuilder.withContext(e.getKey(), e.getValue());
+          }
+        } else if (this.totalBytes > 0) {
+          this.responseBuilder.withBody(Bodies.zeroes(this.totalBytes));
+        }
+        this.timestamps.responseContentFinish = System.nanoTime();
+      }
+      return null;
+    }
+
+    @Override
+    protected void releaseResources() {
+      this.consumerContent = null;
+    }
+
+    private FutureCallback<Void> createCallback() {
+      return new FutureCallback<Void>() {
+        @Override
+        public void completed(final Void result) {
+          complete();
+        }
+
+        @Override
+        public void failed(final Exception e) {
+          requestFailed(e);
+        }
+
+        @Override
+        public void cancelled() {
+          AsyncHttpOperation.this.responseBuilder.withStatusCode(599);
+          complete();
+        }
+      };
+    }
+
+    private void requestFailed(final Exception e) {
+      if (ApacheAsyncClient.this.running) {
+        _logger.error("Exception executing request", e);
+      } else {
+        ApacheAsyncClient.this.abortedRequestsAtShutdown.incrementAndGet();
+      }
+      this.responseBuilder.withStatusCode(599);
+      complete();
+    }
+
+    private void complete() {
+      if (!this.completed.compareAndSet(false, true)) {
+        return;
+      }
+      this.timestamps.finish = System.nanoTime();
+      this.timestamps.finishMillis = System.currentTimeMillis();
+
+      this.responseBuilder.withRequestTimestamps(this.timestamps);
+      final Response response = this.responseBuilder.build();
+      _logger.trace("Received response {}", response);
+
+      // do not log requests with 599 response after client shutdown (known aborted requests)
+      if (ApacheAsyncClient.this.running || response.getStatusCode() != 599) {
+        final RequestLogEntry entry = new RequestLogEntry(this.request, response,
+            ApacheAsyncClient.this.userAgent, this.timestamps);
+        _requestLogger.info(ApacheAsyncClient.this.gson.toJson(entry));
+      }
+
+      this.responseFuture.set(response);
+      ApacheAsyncClient.this.operationFinished();
+    }
+  }
+
+  @Override
+  public String toString() {
+    return String.format(
+        "ApacheAsyncClient [%n" + "ioThreads=%s,%n" + "connectTimeout=%s,%n" + "soTimeout=%s,%n"
+            + "soReuseAddress=%s,%n" + "soLinger=%s,%n" + "soKeepAlive=%s,%n" + "tcpNoDelay=%s,%n"
+            + "soSndBuf=%s,%n" + "soRcvBuf=%s,%n" + "persistentConnections=%s,%n"
+            + "maxIdleTime=%s,%n" + "chunkedEncoding=%s,%n" + "writeBufferSize=%s,%n"
+            + "readBufferSize=%s,%n" + "expectContinue=%s,%n"
+            + "protocols=%s,%n" + "cipherSuites=%s,%n" + "keyStore=%s,%n" + "keyStorePassword=%s,%n"
+            + "keyPassword=%s,%n" + "trustStore=%s,%n" + "trustStorePassword=%s,%n"
+            + "trustSelfSignedCertificates=%s,%n" + "dnsCacheTtl=%s,%n"
+            + "dnsCacheNegativeTtl=%s,%n" + "authentication=%s,%n" + "userAgent=%s,%n"
+            + "responseBodyConsumers=%s%n]",
+        this.ioThreads, this.connectTimeout, this.soTimeout, this.soReuseAddress, this.soLinger,
+        this.soKeepAlive, this.tcpNoDelay, this.soSndBuf, this.soRcvBuf,
+        this.persistentConnections, this.maxIdleTime, this.chunkedEncoding, this.writeBufferSize,
+        this.readBufferSize, this.expectContinue,
+        this.protocols, this.cipherSuites, this.keyStore, this.keyStorePassword, this.keyPassword,
+        this.trustStore, this.trustStorePassword, this.trustSelfSignedCertificates,
+        this.dnsCacheTtl, this.dnsCacheNegativeTtl, this.authentication, this.userAgent,
+        this.responseBodyConsumers);
+  }
+
+  /**
+   * A builder of apache async client instances
+   */
+  public static class Builder {
+    private int ioThreads;
+    private int connectTimeout;
+    private int soTimeout;
+    private boolean soReuseAddress;
+    private int soLinger;
+    private boolean soKeepAlive;
+    private boolean tcpNoDelay;
+    private int soSndBuf;
+    private int soRcvBuf;
+    private boolean persistentConnections;
+    private int maxIdleTime;
+    private boolean chunkedEncoding;
+    private int writeBufferSize;
+    private int readBufferSize;
+    private boolean expectContinue;
+    private List<String> protocols;
+    private List<String> cipherSuites;
+    private String keyStore;
+    private String keyStorePassword;
+    private String keyPassword;
+    private String trustStore;
+    private String trustStorePassword;
+    private boolean trustSelfSignedCertificates;
+    private int dnsCacheTtl;
+    private int dnsCacheNegativeTtl;
+    private HttpAuth authentication;
+    private String userAgent;
+    private final Map<String, ResponseBodyConsumer> responseBodyConsumers;
+
+    /**
+     * Constructs a new builder
+     */
+    public Builder() {
+      this.ioThreads = 0;
+      this.connectTimeout = 0;
+      this.soTimeout = 0;
+      this.soReuseAddress = false;
+      this.soLinger = -1;
+      this.soKeepAlive = true;
+      this.tcpNoDelay = true;
+      this.soSndBuf = 0;
+      this.soRcvBuf = 0;
+      this.persistentConnections = true;
+      this.maxIdleTime = 60000;
+      this.chunkedEncoding = false;
+      this.writeBufferSize = 8192;
+      this.readBufferSize = 4096;
+      this.expectContinue = false;
+      this.protocols = null;
+      this.cipherSuites = null;
+      this.keyStore = null;
+      this.keyStorePassword = null;
+      this.keyPassword = null;
+      this.trustStore = null;
+      this.trustStorePassword = null;
+      this.trustSelfSignedCertificates = false;
+      this.dnsCacheTtl = 60;
+      this.dnsCacheNegativeTtl = 10;
+      this.authentication = new NoneAuth();
+      this.responseBodyConsumers = Maps.newHashMap();
+    }
+
+    /**
+     * Configures the number of I/O reactor threads used to service connections. A value of zero
+     * uses one thread per available processor
+     *
+     * @param ioThreads number of I/O reactor threads
+     * @return this builder
+     */
+    public Builder withIoThreads(final int ioThreads) {
+      this.ioThreads = ioThreads;
+      return this;
+    }
+
+    /**
+     * Configures the timeout in milliseconds until a connection is established. A timeout of zero
+     * is interpreted as an infinite timeout
+     *
+     * @param connectTimeout connection open timeout, in milliseconds
+     * @return this builder
+     */
+    public Builder withConnectTimeout(final int connectTimeout) {
+      this.connectTimeout = connectTimeout;
+      return this;
+    }
+
+    /**
+     * Configures the socket timeout in milliseconds, the maximum duration of inactivity on a
+     * connection. A timeout of zero is interpreted as an infinite timeout
+     *
+     * @param soTimeout socket timeout, in milliseconds
+     * @return this builder
+     */
+    public Builder withSoTimeout(final int soTimeout) {
+      this.soTimeout = soTimeout;
+      return this;
+    }
+
+    /**
+     * Configures the {@code SO_REUSEADDR} socket option
+     *
+     * @param soReuseAddress socket reuse flag
+     * @return this builder
+     */
+    public Builder usingSoReuseAddress(final boolean soReuseAddress) {
+      this.soReuseAddress = soReuseAddress;
+      return this;
+    }
+
+    /**
+     * Configures {@code SO_LINGER} in <em>seconds</em>. A linger of zero disables linger, and a
+     * linger of {@code -1} uses the system default.
+     *
+     * @param soLinger linger, in seconds
+     * @return this builder
+     */
+    public Builder withSoLinger(final int soLinger) {
+      this.soLinger = soLinger;
+      return this;
+    }
+
+    /**
+     * Configures the {@code SO_KEEPALIVE} socket option
+     *
+     * @param soKeepAlive keepalive flag
+     * @return this builder
+     */
+    public Builder usingSoKeepAlive(final boolean soKeepAlive) {
+      this.soKeepAlive = soKeepAlive;
+      return this;
+    }
+
+    /**
+     * Configures the {@code TCP_NODELAY} socket option
+     *
+     * @param tcpNoDelay tcp no delay flag
+     * @return this builder
+     */
+    public Builder usingTcpNoDelay(final boolean tcpNoDelay) {
+      this.tcpNoDelay = tcpNoDelay;
+      return this;
+    }
+
+    /**
+     * Configures {@code SO_SNDBUF}. A buffer of zero uses the system default.
+     *
+     * @param soSndBuf, a suggested send buffer size for connections
+     * @return this builder
+     */
+    public Builder withSoSndBuf(final int soSndBuf) {
+      this.soSndBuf = soSndBuf;
+      return this;
+    }
+
+    /**
+     * Configures {@code SO_RCVBUF}. A buffer of zero uses the system default.
+     *
+     * @param soRcvBuf, a suggested receive buffer size for connections
+     * @return this builder
+     */
+    public Builder withSoRcvBuf(final int soRcvBuf) {
+      this.soRcvBuf = soRcvBuf;
+      return this;
+    }
+
+    /**
+     * Configures the use of persistent tcp connections
+     *
+     * @param persistentConnections persistent connections flag
+     * @return this builder
+     */
+    public Builder usingPersistentConnections(final boolean persistentConnections) {
+      this.persistentConnections = persistentConnections;
+      return this;
+    }
+
+    /**
+     * Configures the maximum amount of time a connection is allowed to remain idle in the pool.
+     * Connections that are idle longer than maxIdleTime will be closed.
+     *
+     * @param maxIdleTime maximum idle time prior to connection closure, in milliseconds
+     * @return this builder
+     */
+    public Builder withMaxIdleTime(final int maxIdleTime) {
+      this.maxIdleTime = maxIdleTime;
+      return this;
+    }
+
+    /**
+     * Configures the use of http chunked encoding for request bodies
+     *
+     * @param chunkedEncoding chunked encoding flag
+     * @return this builder
+     */
+    public Builder usingChunkedEncoding(final boolean chunkedEncoding) {
+      this.chunkedEncoding = chunkedEncoding;
+      return this;
+    }
+
+    /**
+     * Configures the size of the buffer from which request bodies are produced to a connection
+     *
+     * @param writeBufferSize write buffer size, in bytes
+     * @return this builder
+     */
+    public Builder withWriteBufferSize(final int writeBufferSize) {
+      this.writeBufferSize = writeBufferSize;
+      return this;
+    }
+
+    /**
+     * Configures the size of the per I/O thread buffer into which response bodies are read
+     *
+     * @param readBufferSize read buffer size, in bytes
+     * @return this builder
+     */
+    public Builder withReadBufferSize(final int readBufferSize) {
+      this.readBufferSize = readBufferSize;
+      return this;
+    }
+
+    /**
+     * Configures the use of expect: 100-continue flag for PUT and POST requests
+     *
+     * @param expectContinue expect continue flag
+     * @return this builder
+     */
+    public Builder usingExpectContinue(final boolean expectContinue) {
+      this.expectContinue = expectContinue;
+      return this;
+    }
+
+    /**
+     * Configures a list of SSL/TLS protocols to support, in preferred order
+     *
+     * @param protocols a list of protocols, in preferred order
+     * @return this builder
+     */
+    public Builder withProtocols(final List<String> protocols) {
+      this.protocols = protocols;
+      return this;
+    }
+
+    /**
+     * Configures a list of cipher suites for SSL/TLS requests, in preferred order
+     *
+     * @param cipherSuites a list of cipher suites, in preferred order
+     * @return this builder
+     */
+    public Builder withCipherSuites(final List<String> cipherSuites) {
+      this.cipherSuites = cipherSuites;
+      return this;
+    }
+
+    /**
+     * Configures a path to a key store to use for storing certificates requests
+     *
+     * @param keyStore path to a certificate key store file
+     * @return this builder
+     */
+    public Builder withKeyStore(final String keyStore) {
+      this.keyStore = keyStore;
+      return this;
+    }
+
+    /**
+     * Configures a password to use for a configured key store
+     *
+     * @param keyStorePassword password for configured key store
+     * @return this builder
+     */
+    public Builder withKeyStorePassword(final String keyStorePassword) {
+      this.keyStorePassword = keyStorePassword;
+      return this;
+    }
+
+    /**
+     * Configures a password to use for a certificate in the configured key store
+     *
+     * @param keyPassword password for a certificate in the configured key store
+     * @return this builder
+     */
+    public Builder withKeyPassword(final String keyPassword) {
+      this.keyPassword = keyPassword;
+      return this;
+    }
+
+    /**
+     * Configures a path to a trust store to use for validating server certificates for SSL/TLS
+     * requests
+     *
+     * @param trustStore path to a certificate trust store file
+     * @return this builder
+     */
+    public Builder withTrustStore(final String trustStore) {
+      this.trustStore = trustStore;
+      return this;
+    }
+
+    /**
+     * Configures a password to use for a configured trust store
+     *
+     * @param trustStorePassword password for configured trust store
+     * @return this builder
+     */
+    public Builder withTrustStorePassword(final String trustStorePassword) {
+      this.trustStorePassword = trustStorePassword;
+      return this;
+    }
+
+    /**
+     * Configures whether to trust self signed certificates for SSL/TLS requests
+     *
+     * @param trustSelfSignedCertificates whether to trust self signed certificates
+     * @return this builder
+     */
+    public Builder usingTrustSelfSignedCertificates(final boolean trustSelfSignedCertificates) {
+      this.trustSelfSignedCertificates = trustSelfSignedCertificates;
+      return this;
+    }
+
+    /**
+     * Configures dns cache ttl, in seconds
+     *
+     * @param dnsCacheTtl, cache ttl, in seconds
+     * @return this builder
+     */
+    public Builder withDnsCacheTtl(final int dnsCacheTtl) {
+      this.dnsCacheTtl = dnsCacheTtl;
+      return this;
+    }
+
+    /**
+     * Configures dns cache ttl for negative responses, in seconds
+     *
+     * @param dnsCacheNegativeTtl, cache ttl for negative responses, in seconds
+     * @return this builder
+     */
+    public Builder withDnsCacheNegativeTtl(final int dnsCacheNegativeTtl) {
+      this.dnsCacheNegativeTtl = dnsCacheNegativeTtl;
+      return this;
+    }
+
+    /**
+     * Configures the use of authentication for every request
+     *
+     * @param authentication the authentication type to use
+     * @return this builder
+     */
+    public Builder withAuthentication(final HttpAuth authentication) {
+      this.authentication = authentication;
+      return this;
+    }
+
+    /**
+     * Configures the user-agent request header to send with every request
+     *
+     * @param userAgent the user agent string to send
+     * @return this builder
+     */
+    public Builder withUserAgent(final String userAgent) {
+      this.userAgent = userAgent;
+      return this;
+    }
+
+    /**
+     * Configures a response body consumer to be used to process response bodies for requests
+     * configured with a matching consumerId
+     *
+     * @param consumerId the consumerId for which the provided consumer should be used
+     * @param consumer a response body consumer
+     * @return this builder
+     */
+    public Builder withResponseBodyConsumer(final String consumerId,
+        final ResponseBodyConsumer consumer) {
+      this.responseBodyConsumers.put(consumerId, consumer);
+      return this;
+    }
+
+    /**
+     * Constructs a new apache async client instance
+     *
+     * @return an apache async client instance
+     * @throws IllegalArgumentException if ioThreads, connectTimeout or soTimeout are negative
+     * @throws IllegalArgumentException if soLinger is less than {@code -1}
+     * @throws IllegalArgumentException if writeBufferSize or readBufferSize are negative or zero
+     */
+    public ApacheAsyncClient build() {
+      return new ApacheAsyncClient(this);
+    }
+  }
+}
@@ -19,16 +19,23 @@ import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 import javax.net.ssl.HostnameVerifier;
 import javax.net.ssl.SSLSocketFactory;
 
+import com.ibm.og.client.ConnectionTimings.TimedConnectionManager;
+import com.ibm.og.client.ConnectionTimings.TimedRequestExecutor;
+import com.ibm.og.client.ConnectionTimings.TimedSslConnectionSocketFactory;
 import com.ibm.og.http.NoneAuth;
 import com.ibm.og.util.io.MonitoringInputStream;
+import com.ibm.og.util.io.VerifyingOutputStream;
 import org.apache.http.ConnectionReuseStrategy;
 import org.apache.http.Header;
 import org.apache.http.HeaderIterator;
@@ -44,10 +51,12 @@ import org.apache.http.client.methods.RequestBuilder;
 import org.apache.http.config.RegistryBuilder;
 import org.apache.http.config.SocketConfig;
 import org.apache.http.conn.HttpClientConnectionManager;
+import org.apache.http.conn.HttpConnectionFactory;
+import org.apache.http.conn.ManagedHttpClientConnection;
+import org.apache.http.conn.routing.HttpRoute;
 import org.apache.http.conn.socket.ConnectionSocketFactory;
 import org.apache.http.conn.socket.PlainConnectionSocketFactory;
 import org.apache.http.conn.ssl.NoopHostnameVerifier;
-import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
 import org.apache.http.conn.ssl.TrustSelfSignedStrategy;
 import org.apache.http.conn.util.PublicSuffixMatcher;
 import org.apache.http.conn.util.PublicSuffixMatcherLoader;
@@ -62,14 +71,15 @@ import org.apache.http.impl.client.HttpClients;
 import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
 import org.apache.http.protocol.HTTP;
 import org.apache.http.protocol.HttpContext;
-import org.apache.http.protocol.HttpRequestExecutor;
 import org.apache.http.ssl.SSLContextBuilder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.ibm.og.api.AuthenticatedRequest;
 import com.ibm.og.api.Client;
+import com.ibm.og.api.DataReduction;
 import com.ibm.og.api.DataType;
+import com.ibm.og.api.Operation;
 import com.ibm.og.api.Request;
 import com.ibm.og.api.Response;
 import com.ibm.og.api.RequestTimestamps;
@@ -77,10 +87,12 @@ import com.ibm.og.http.Bodies;
 import com.ibm.og.http.Headers;
 import com.ibm.og.http.HttpAuth;
 import com.ibm.og.http.HttpResponse;
+import com.ibm.og.http.PreparedRequest;
 import com.ibm.og.http.ResponseBodyConsumer;
 import com.ibm.og.util.Context;
 import com.ibm.og.util.io.Streams;
 import com.google.common.collect.ImmutableList;
+import com.google.common.io.ByteStreams;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Iterables;
 import com.google.common.collect.Maps;
@@ -106,6 +118,7 @@ import com.google.gson.stream.JsonWriter;
  */
 public class ApacheClient implements Client {
   private static final Logger _logger = LoggerFactory.getLogger(ApacheClient.class);
+  private static final Pattern CONTENT_RANGE = Pattern.compile("bytes\\s+(\\d+)-(\\d+)/.*");
   private static final Logger _requestLogger = LoggerFactory.getLogger("RequestLogger");
   private final int connectTimeout;
   private final int soTimeout;
@@ -119,6 +132,9 @@ public class ApacheClient implements Client {
   private final int validateAfterInactivity;
   private final int maxIdleTime;
   private final boolean chunkedEncoding;
+  private final int chunkSize;
+  private final int writeBufferSize;
+  private final int readBufferSize;
   private final boolean expectContinue;
   private final int waitForContinue;
   private final int retryCount;
@@ -138,6 +154,9 @@ public class ApacheClient implements Client {
   private final long writeThroughput;
   private final long readThroughput;
   private final Map<String, ResponseBodyConsumer> responseBodyConsumers;
+  private final boolean virtualThreads;
+  private final boolean contentVerification;
+  private final DataReduction dataReduction;
   private volatile boolean running;
   private final AtomicInteger abortedRequestsAtShutdown;
   private final CloseableHttpClient client;
@@ -157,6 +176,9 @@ public class ApacheClient implements Client {
     this.validateAfterInactivity = builder.validateAfterInactivity;
     this.maxIdleTime = builder.maxIdleTime;
     this.chunkedEncoding = builder.chunkedEncoding;
+    this.chunkSize = builder.chunkSize;
+    this.writeBufferSize = builder.writeBufferSize;
+    this.readBufferSize = builder.readBufferSize;
     this.expectContinue = builder.expectContinue;
     this.waitForContinue = builder.waitForContinue;
     this.retryCount = builder.retryCount;
@@ -214,10 +236,12 @@ public class ApacheClient implements Client {
     this.writeThroughput = builder.writeThroughput;
     this.readThroughput = builder.readThroughput;
     this.responseBodyConsumers = ImmutableMap.copyOf(builder.responseBodyConsumers);
+    this.virtualThreads = builder.virtualThreads;
+    this.contentVerification = builder.contentVerification;
+    this.dataReduction = builder.dataReduction;
     this.running = true;
     this.abortedRequestsAtShutdown = new AtomicInteger();
-    final ThreadFactory fac = new ThreadFactoryBuilder().setNameFormat("client-%d").build();
-    this.executorService = MoreExecutors.listeningDecorator(Executors.newCachedThreadPool(fac));
+    this.executorService = MoreExecutors.listeningDecorator(createExecutorService());
     this.gson = createGson();
 
     // perform checks on instance fields rather than builder fields
@@ -230,6 +254,11 @@ public class ApacheClient implements Client {
     checkArgument(this.validateAfterInactivity > 0, "validateAfterInactivity must be > 0 [%s]",
         this.validateAfterInactivity);
     checkArgument(this.maxIdleTime > 0, "maxIdleTime must be > 0 [%s]", this.maxIdleTime);
+    checkArgument(this.chunkSize > 0, "chunkSize must be > 0 [%s]", this.chunkSize);
+    checkArgument(this.writeBufferSize > 0, "writeBufferSize must be > 0 [%s]",
+        this.writeBufferSize);
+    checkArgument(this.readBufferSize > 0, "readBufferSize must be > 0 [%s]",
+        this.readBufferSize);
     checkArgument(this.waitForContinue > 0, "waitForContinue must be > 0 [%s]",
         this.waitForContinue);
     checkArgument(this.retryCount >= 0, "retryCount must be >= 0 [%s]", this.retryCount);
@@ -248,6 +277,20 @@ public class ApacheClient implements Client {
     this.client = createClient();
   }
 
+  private ExecutorService createExecutorService() {
+    if (this.virtualThreads) {
+      try {
+        final ExecutorService executor = VirtualThreads.newVirtualThreadPerTaskExecutor("client-");
+        _logger.info("Executing requests on virtual threads");
+        return executor;
+      } catch (final UnsupportedOperationException e) {
+        _logger.warn("Virtual threads requested but not available, using platform threads", e);
+      }
+    }
+    final ThreadFactory fac = new ThreadFactoryBuilder().setNameFormat("client-%d").build();
+    return Executors.newCachedThreadPool(fac);
+  }
+
   private Gson createGson() {
     return new GsonBuilder().setFieldNamingPolicy(FieldNamingPolicy.LOWER_CASE_WITH_UNDERSCORES)
         .setLongSerializationPolicy(LongSerializationPolicy.STRING)
@@ -284,7 +327,7 @@ public class ApacheClient implements Client {
       }
     });
 
-    return builder.setRequestExecutor(new HttpRequestExecutor(this.waitForContinue))
+    return builder.setRequestExecutor(new TimedRequestExecutor(this.waitForContinue))
         .setConnectionManager(createConnectionManager())
         // TODO investigate ConnectionConfig, particularly bufferSize and fragmentSizeHint
         // TODO defaultCredentialsProvider and defaultAuthSchemeRegistry for pre/passive auth?
@@ -298,11 +341,11 @@ public class ApacheClient implements Client {
   }
 
   private HttpClientConnectionManager createConnectionManager() {
-    final PoolingHttpClientConnectionManager manager = new PoolingHttpClientConnectionManager(
+    final PoolingHttpClientConnectionManager manager = new TimedConnectionManager(
         RegistryBuilder.<ConnectionSocketFactory>create()
             .register("http", createPlainConnectionSocketFactory())
             .register("https", createSslConnectionSocketFactory()).build(),
-        null, null, null, -1, TimeUnit.MILLISECONDS);
+        createConnectionFactory());
     manager.setDefaultSocketConfig(createSocketConfig());
     manager.setMaxTotal(Integer.MAX_VALUE);
     manager.setDefaultMaxPerRoute(Integer.MAX_VALUE);
@@ -310,6 +353,14 @@ public class ApacheClient implements Client {
     return manager;
   }
 
+  private HttpConnectionFactory<HttpRoute, ManagedHttpClientConnection> createConnectionFactory() {
+    // the default connection factory fixes the chunk size of chunked request bodies
+    if (this.chunkedEncoding) {
+      return new CustomHttpConnectionFactory(this.chunkSize);
+    }
+    return null;
+  }
+
   private ConnectionSocketFactory createPlainConnectionSocketFactory() {
     return PlainConnectionSocketFactory.getSocketFactory();
   }
@@ -334,7 +385,7 @@ public class ApacheClient implements Client {
     final PublicSuffixMatcher suffixMatcher = PublicSuffixMatcherLoader.getDefault();
     final HostnameVerifier hostnameVerifier = NoopHostnameVerifier.INSTANCE;
 
-    return new SSLConnectionSocketFactory(sslSocketFactory, configuredProtocols,
+    return new TimedSslConnectionSocketFactory(sslSocketFactory, configuredProtocols,
         configuredCipherSuites, hostnameVerifier);
 
   }
@@ -434,9 +485,8 @@ public class ApacheClient implements Client {
     }
 
     if (DataType.NONE != request.getBody().getDataType()) {
-      final AbstractHttpEntity entity = new CustomHttpEntity(request, this.writeThroughput);
-      // TODO chunk size for chunked encoding is hardcoded to 2048 bytes. Can only be overridden
-      // by implementing a custom connection factory
+      final AbstractHttpEntity entity =
+          new CustomHttpEntity(request, this.writeThroughput, this.writeBufferSize);
       entity.setChunked(this.chunkedEncoding);
       builder.setEntity(entity);
     }
@@ -519,8 +569,7 @@ public class ApacheClient implements Client {
     public BlockingHttpOperation(final Request request) {
       this.request = checkNotNull(request);
       this.timestamps = new RequestTimestamps();
-      // TODO inject buf size from config
-      this.buf = new byte[4096];
+      this.buf = new byte[ApacheClient.this.readBufferSize];
     }
 
     @Override
@@ -528,8 +577,8 @@ public class ApacheClient implements Client {
       this.timestamps.startMillis = System.currentTimeMillis();
       this.timestamps.start = System.nanoTime();
 
-      this.authenticatedRequest =
-          ApacheClient.this.authentication.authenticate(checkNotNull(this.request));
+      this.authenticatedRequest = PreparedRequest.authenticate(ApacheClient.this.authentication,
+          this.request, this.timestamps);
       this.apacheRequest = ApacheClient.this.createRequest(this.authenticatedRequest);
 
       final HttpResponse.Builder responseBuilder = new HttpResponse.Builder();
@@ -538,6 +587,7 @@ public class ApacheClient implements Client {
         responseBuilder.withContext(Context.X_OG_REQUEST_ID, requestId);
       }
       final Response response;
+      ConnectionTimings.begin(this.timestamps);
       try {
         _logger.trace("Sending request {}", this.request);
         sendRequest(this.apacheRequest, responseBuilder);
@@ -548,6 +598,8 @@ public class ApacheClient implements Client {
           ApacheClient.this.abortedRequestsAtShutdown.incrementAndGet();
         }
         responseBuilder.withStatusCode(599);
+      } finally {
+        ConnectionTimings.end();
       }
 
 
@@ -633,7 +685,7 @@ public class ApacheClient implements Client {
             responseBuilder.withContext(e.getKey(), e.getValue());
           }
         } else {
-          consumeBytes(responseBuilder, in);
+          consumeBytes(responseBuilder, in, createVerifier(response));
         }
         this.timestamps.responseContentFirstBytes = in.getFirstRead();
         this.timestamps.responseContentFinish = System.nanoTime();
@@ -641,16 +693,72 @@ public class ApacheClient implements Client {
     }
 
     private void consumeBytes(final HttpResponse.Builder responseBuilder,
-        final InputStream responseContent) throws IOException {
+        final InputStream responseContent, final VerifyingOutputStream verifier)
+        throws IOException {
       long totalBytes = 0;
       int bytesRead;
       while ((bytesRead = responseContent.read(this.buf)) > 0) {
         totalBytes += bytesRead;
+        if (verifier != null) {
+          verifier.write(this.buf, 0, bytesRead);
+        }
       }
 
       if (totalBytes > 0) {
         responseBuilder.withBody(Bodies.zeroes(totalBytes));
       }
+      if (verifier != null) {
+        verifier.close();
+        if (verifier.isVerified()) {
+          responseBuilder.withContext(Context.X_OG_CONTENT_VERIFICATION, Context.CONTENT_VERIFIED);
+        } else {
+          responseBuilder.withContext(Context.X_OG_CONTENT_VERIFICATION, Context.CONTENT_MISMATCH);
+          responseBuilder.withContext(Context.X_OG_CONTENT_MISMATCH_OFFSET,
+              String.valueOf(verifier.getMismatchOffset()));
+        }
+      }
+    }
+
+    // creates a stream which verifies the content of a read response against the content the
+    // object was written with, or returns null if the content of this response cannot be verified
+    private VerifyingOutputStream createVerifier(final org.apache.http.HttpResponse response)
+        throws IOException {
+      if (!ApacheClient.this.contentVerification
+          || this.request.getOperation() != Operation.READ) {
+        return null;
+      }
+      final Map<String, String> context = this.request.getContext();
+      final String dataType = context.get(Context.X_OG_OBJECT_DATA_TYPE);
+      final String seed = context.get(Context.X_OG_OBJECT_SEED);
+      final String size = context.get(Context.X_OG_OBJECT_SIZE);
+      if (dataType == null || seed == null || size == null) {
+        return null;
+      }
+      final DataType data = DataType.valueOf(dataType);
+      final DataReduction reduction = ApacheClient.this.dataReduction;
+      if (data == DataType.REDUCIBLE && reduction == null) {
+        return null;
+      }
+      final long objectSize = Long.parseLong(size);
+      final InputStream expected = Streams.create(
+          Bodies.fromSeed(data, objectSize, Long.parseLong(seed), reduction));
+
+      final int statusCode = response.getStatusLine().getStatusCode();
+      if (statusCode == 200) {
+        return new VerifyingOutputStream(expected);
+      } else if (statusCode == 206) {
+        final Header contentRange = response.getFirstHeader("Content-Range");
+        final Matcher m =
+            contentRange != null ? CONTENT_RANGE.matcher(contentRange.getValue()) : null;
+        if (m != null && m.matches()) {
+          final long first = Long.parseLong(m.group(1));
+          final long last = Long.parseLong(m.group(2));
+          // a range past the end of the object is reported as a mismatch once expected ends
+          ByteStreams.skipFully(expected, Math.min(first, objectSize));
+          return new VerifyingOutputStream(ByteStreams.limit(expected, last - first + 1));
+        }
+      }
+      return null;
     }
 
     public HttpUriRequest getApacheRequest() {
@@ -664,21 +772,25 @@ public class ApacheClient implements Client {
         "ApacheClient [%n" + "connectTimeout=%s,%n" + "soTimeout=%s,%n" + "soReuseAddress=%s,%n"
             + "soLinger=%s,%n" + "soKeepAlive=%s,%n" + "tcpNoDelay=%s,%n" + "soSndBuf=%s,%n"
             + "soRcvBuf=%s,%n" + "persistentConnections=%s,%n" + "validateAfterInactivity=%s,%n"
-            + "maxIdleTime=%s,%n" + "chunkedEncoding=%s,%n" + "expectContinue=%s,%n"
+            + "maxIdleTime=%s,%n" + "chunkedEncoding=%s,%n" + "chunkSize=%s,%n"
+            + "writeBufferSize=%s,%n" + "readBufferSize=%s,%n" + "expectContinue=%s,%n"
             + "waitForContinue=%s,%n" + "retryCount=%s,%n" + "requestSentRetry=%s,%n"
             + "protocols=%s,%n" + "cipherSuites=%s,%n" + "keyStore=%s,%n" + "keyStorePassword=%s,%n"
             + "keyPassword=%s,%n" + "trustStore=%s,%n" + "trustStorePassword=%s,%n"
             + "trustSelfSignedCertificates=%s,%n" + "dnsCacheTtl=%s,%n"
             + "dnsCacheNegativeTtl=%s,%n" + "authentication=%s,%n" + "userAgent=%s,%n"
-            + "writeThroughput=%s,%n" + "readThroughput=%s,%n" + "responseBodyConsumers=%s%n]",
+            + "writeThroughput=%s,%n" + "readThroughput=%s,%n" + "responseBodyConsumers=%s,%n"
+            + "virtualThreads=%s,%n" + "contentVerification=%s%n]",
         this.connectTimeout, this.soTimeout, this.soReuseAddress, this.soLinger, this.soKeepAlive,
         this.tcpNoDelay, this.soSndBuf, this.soRcvBuf, this.persistentConnections,
-        this.validateAfterInactivity, this.maxIdleTime, this.chunkedEncoding, this.expectContinue,
+        this.validateAfterInactivity, this.maxIdleTime, this.chunkedEncoding, this.chunkSize,
+        this.writeBufferSize, this.readBufferSize, this.expectContinue,
         this.waitForContinue, this.retryCount, this.requestSentRetry, this.protocols,
         this.cipherSuites, this.keyStore, this.keyStorePassword, this.keyPassword, this.trustStore,
         this.trustStorePassword, this.trustSelfSignedCertificates, this.dnsCacheTtl,
         this.dnsCacheNegativeTtl, this.authentication, this.userAgent, this.writeThroughput,
-        this.readThroughput, this.responseBodyConsumers);
+        this.readThroughput, this.responseBodyConsumers, this.virtualThreads,
+        this.contentVerification);
   }
 
   /**
@@ -697,6 +809,9 @@ public class ApacheClient implements Client {
     private int validateAfterInactivity;
     private int maxIdleTime;
     private boolean chunkedEncoding;
+    private int chunkSize;
+    private int writeBufferSize;
+    private int readBufferSize;
     private boolean expectContinue;
     private int waitForContinue;
     private int retryCount;
@@ -716,6 +831,9 @@ public class ApacheClient implements Client {
     private long writeThroughput;
     private long readThroughput;
     private final Map<String, ResponseBodyConsumer> responseBodyConsumers;
+    private boolean virtualThreads;
+    private boolean contentVerification;
+    private DataReduction dataReduction;
 
     /**
      * Constructs a new builder
@@ -733,6 +851,9 @@ public class ApacheClient implements Client {
       this.validateAfterInactivity = 10000;
       this.maxIdleTime = 60000;
       this.chunkedEncoding = false;
+      this.chunkSize = 2048;
+      this.writeBufferSize = 8192;
+      this.readBufferSize = 4096;
       this.expectContinue = false;
       this.waitForContinue = 3000;
       this.retryCount = 0;
@@ -751,6 +872,9 @@ public class ApacheClient implements Client {
       this.writeThroughput = 0;
       this.readThroughput = 0;
       this.responseBodyConsumers = Maps.newHashMap();
+      this.virtualThreads = false;
+      this.contentVerification = false;
+      this.dataReduction = null;
     }
 
     /**
@@ -891,6 +1015,40 @@ public class ApacheClient implements Client {
       return this;
     }
 
+    /**
+     * Configures the size of chunks when http chunked encoding is used for request bodies
+     * 
+     * @param chunkSize chunk size, in bytes
+     * @return this builder
+     */
+    public Builder withChunkSize(final int chunkSize) {
+      this.chunkSize = chunkSize;
+      return this;
+    }
+
+    /**
+     * Configures the maximum number of bytes written to a connection in a single write when
+     * sending request bodies
+     * 
+     * @param writeBufferSize write buffer size, in bytes
+     * @return this builder
+     */
+    public Builder withWriteBufferSize(final int writeBufferSize) {
+      this.writeBufferSize = writeBufferSize;
+      return this;
+    }
+
+    /**
+     * Configures the size of the buffer used to read response bodies
+     * 
+     * @param readBufferSize read buffer size, in bytes
+     * @return this builder
+     */
+    public Builder withReadBufferSize(final int readBufferSize) {
+      this.readBufferSize = readBufferSize;
+      return this;
+    }
+
     /**
      * Configures the use of expect: 100-continue flag for PUT and POST requests
      * 
@@ -1106,6 +1264,46 @@ public class ApacheClient implements Client {
       return this;
     }
 
+    /**
+     * Configures whether each request should be executed on its own virtual thread rather than on
+     * a pooled platform thread. Virtual threads require Java 21 or later; on older JVMs platform
+     * threads are used
+     * 
+     * @param virtualThreads virtual threads flag
+     * @return this builder
+     */
+    public Builder usingVirtualThreads(final boolean virtualThreads) {
+      this.virtualThreads = virtualThreads;
+      return this;
+    }
+
+    /**
+     * Configures whether the content of read responses should be verified against the content
+     * the object was written with. Only objects whose data type and seed were recorded when they
+     * were written are verified; the result is recorded in the response context
+     * 
+     * @param contentVerification content verification flag
+     * @return this builder
+     * @since 1.9.0
+     */
+    public Builder withContentVerification(final boolean contentVerification) {
+      this.contentVerification = contentVerification;
+      return this;
+    }
+
+    /**
+     * Configures the data reduction reducible objects were written with, which is required to
+     * verify the content of reducible objects
+     * 
+     * @param dataReduction the data reduction of reducible objects
+     * @return this builder
+     * @since 1.9.0
+     */
+    public Builder withDataReduction(final DataReduction dataReduction) {
+      this.dataReduction = dataReduction;
+      return this;
+    }
+
     /**
      * Constructs a new apache client instance
      * 
@@ -1114,6 +1312,8 @@ public class ApacheClient implements Client {
      *         readThroughput are negative
      * @throws IllegalArgumentException if soLinger is less than {@code -1}
      * @throws IllegalArgumentException if waitForContinue is negative or zero
+     * @throws IllegalArgumentException if chunkSize, writeBufferSize or readBufferSize are
+     *         negative or zero
      */
     public ApacheClient build() {
       return new ApacheClient(this);
@@ -0,0 +1,141 @@
+/* Copyright (c) IBM Corporation 2016. All Rights Reserved.
+ * Project name: Object Generator
+ * This project is licensed under the Apache License 2.0, see LICENSE.
+ */
+
+package com.ibm.og.client;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+
+import org.apache.http.entity.AbstractHttpEntity;
+import org.apache.http.nio.ContentEncoder;
+import org.apache.http.nio.IOControl;
+import org.apache.http.nio.entity.HttpAsyncContentProducer;
+
+import com.ibm.og.api.AuthenticatedRequest;
+import com.google.common.io.ByteStreams;
+
+/**
+ * an http entity which derives its source inputstream from an authenticated request and writes it
+ * to a non-blocking connection as the connection becomes writable
+ *
+ * @since 1.9.0
+ */
+public class AsyncHttpEntity extends AbstractHttpEntity implements HttpAsyncContentProducer {
+  private final AuthenticatedRequest request;
+  private final int bufferSize;
+  private InputStream content;
+  private ByteBuffer buffer;
+  private boolean endOfContent;
+  private long requestContentStart;
+  private long requestContentFinish;
+
+  public AsyncHttpEntity(final AuthenticatedRequest request, final int bufferSize) {
+    this.request = checkNotNull(request);
+    checkArgument(bufferSize > 0, "bufferSize must be > 0 [%s]", bufferSize);
+    this.bufferSize = bufferSize;
+  }
+
+  @Override
+  public boolean isRepeatable() {
+    return true;
+  }
+
+  @Override
+  public long getContentLength() {
+    return this.request.getContentLength();
+  }
+
+  @Override
+  public InputStream getContent() throws IOException, IllegalStateException {
+    final InputStream content = this.request.getContent();
+    content.reset();
+    return content;
+  }
+
+  @Override
+  public void writeTo(final OutputStream outstream) throws IOException {
+    final InputStream in = getContent();
+    ByteStreams.copy(in, outstream);
+    in.close();
+  }
+
+  @Override
+  public boolean isStreaming() {
+    return false;
+  }
+
+  @Override
+  public void produceContent(final ContentEncoder encoder, final IOControl ioctrl)
+      throws IOException {
+    if (this.content == null) {
+      this.requestContentStart = System.nanoTime();
+      this.requestContentFinish = 0;
+      this.content = getContent();
+      final long contentLength = getContentLength();
+      int size = this.bufferSize;
+      if (contentLength >= 0 && contentLength < size) {
+        size = (int) Math.max(contentLength, 1);
+      }
+      this.buffer = ByteBuffer.allocate(size);
+      this.buffer.flip();
+      this.endOfContent = false;
+    }
+
+    // write as much as the channel accepts without blocking; whatever remains in the buffer is
+    // written on the next output ready event
+    while (true) {
+      if (!this.buffer.hasRemaining() && !this.endOfContent) {
+        this.buffer.clear();
+        final int bytesRead =
+            this.content.read(this.buffer.array(), 0, this.buffer.capacity());
+        if (bytesRead < 0) {
+          this.endOfContent = true;
+          this.buffer.limit(0);
+        } else {
+          this.buffer.limit(bytesRead);
+        }
+      }
+
+      if (this.buffer.hasRemaining()) {
+        if (encoder.write(this.buffer) == 0) {
+          return;
+        }
+      } else if (this.endOfContent) {
+        encoder.complete();
+        this.requestContentFinish = System.nanoTime();
+        return;
+      }
+    }
+  }
+
+  @Override
+  public void close() throws IOException {
+    // release the buffer and allow the content to be produced again on redirect
+    if (this.content != null) {
+      this.content.close();
+    }
+    this.content = null;
+    this.buffer = null;
+  }
+
+  public long getRequestContentStart() {
+    return this.requestContentStart;
+  }
+
+  public long getRequestContentFinish() {
+    return this.requestContentFinish;
+  }
+
+  @Override
+  public String toString() {
+    return String.format("AsyncHttpEntity [body=%s, bufferSize=%s]", this.request.getBody(),
+        this.bufferSize);
+  }
+}
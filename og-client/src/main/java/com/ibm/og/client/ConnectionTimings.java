@@ -0,0 +1,181 @@
+/* Copyright (c) IBM Corporation 2016. All Rights Reserved.
+ * Project name: Object Generator
+ * This project is licensed under the Apache License 2.0, see LICENSE.
+ */
+
+package com.ibm.og.client;
+
+import java.io.IOException;
+import java.net.Socket;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import javax.net.ssl.HostnameVerifier;
+import javax.net.ssl.SSLSocketFactory;
+
+import org.apache.http.HttpClientConnection;
+import org.apache.http.HttpException;
+import org.apache.http.HttpRequest;
+import org.apache.http.HttpResponse;
+import org.apache.http.config.Registry;
+import org.apache.http.conn.ConnectionPoolTimeoutException;
+import org.apache.http.conn.ConnectionRequest;
+import org.apache.http.conn.HttpConnectionFactory;
+import org.apache.http.conn.ManagedHttpClientConnection;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.conn.socket.ConnectionSocketFactory;
+import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.protocol.HttpContext;
+import org.apache.http.protocol.HttpRequestExecutor;
+
+import com.ibm.og.api.RequestTimestamps;
+
+/**
+ * Hooks into the connection manager, ssl socket factory and request executor of a blocking http
+ * client which record the phases of a request in its {@link RequestTimestamps}: the wait to lease
+ * a connection from the pool, connecting a new connection, the tls handshake, and sending the
+ * request and receiving the response headers.
+ * <p>
+ * A blocking client executes each request on a single thread, so the timestamps of the request
+ * being executed are held in a thread local between {@link #begin} and {@link #end}. Phases which
+ * happen outside of a request, or on a thread which has not begun one, are not recorded. If a
+ * request is retried, the timestamps describe its last attempt.
+ *
+ * @since 1.9.0
+ */
+final class ConnectionTimings {
+  private static final ThreadLocal<RequestTimestamps> CURRENT = new ThreadLocal<RequestTimestamps>();
+
+  private ConnectionTimings() {}
+
+  /**
+   * Begins recording the phases of a request executed by the calling thread
+   *
+   * @param timestamps the timestamps of the request
+   */
+  static void begin(final RequestTimestamps timestamps) {
+    CURRENT.set(timestamps);
+  }
+
+  /**
+   * Ends recording the phases of the request executed by the calling thread
+   */
+  static void end() {
+    CURRENT.remove();
+  }
+
+  /**
+   * A pooling connection manager which records the time spent leasing and connecting connections
+   */
+  static class TimedConnectionManager extends PoolingHttpClientConnectionManager {
+    TimedConnectionManager(final Registry<ConnectionSocketFactory> socketFactoryRegistry,
+        final HttpConnectionFactory<HttpRoute, ManagedHttpClientConnection> connFactory) {
+      super(socketFactoryRegistry, connFactory, null, null, -1, TimeUnit.MILLISECONDS);
+    }
+
+    // the client waits for a leased connection by calling get on the connection request
+    @Override
+    public ConnectionRequest requestConnection(final HttpRoute route, final Object state) {
+      final ConnectionRequest request = super.requestConnection(route, state);
+      return new ConnectionRequest() {
+        @Override
+        public HttpClientConnection get(final long timeout, final TimeUnit tunit)
+            throws InterruptedException, ExecutionException, ConnectionPoolTimeoutException {
+          final RequestTimestamps timestamps = CURRENT.get();
+          if (timestamps == null) {
+            return request.get(timeout, tunit);
+          }
+          timestamps.connectionLeaseStart = System.nanoTime();
+          try {
+            return request.get(timeout, tunit);
+          } finally {
+            timestamps.connectionLeaseFinish = System.nanoTime();
+          }
+        }
+
+        @Override
+        public boolean cancel() {
+          return request.cancel();
+        }
+      };
+    }
+
+    @Override
+    public void connect(final HttpClientConnection managedConn, final HttpRoute route,
+        final int connectTimeout, final HttpContext context) throws IOException {
+      final RequestTimestamps timestamps = CURRENT.get();
+      if (timestamps == null) {
+        super.connect(managedConn, route, connectTimeout, context);
+        return;
+      }
+      timestamps.connectStart = System.nanoTime();
+      try {
+        super.connect(managedConn, route, connectTimeout, context);
+      } finally {
+        timestamps.connectFinish = System.nanoTime();
+      }
+    }
+  }
+
+  /**
+   * An ssl socket factory which records the time spent on the tls handshake of new connections
+   */
+  static class TimedSslConnectionSocketFactory extends SSLConnectionSocketFactory {
+    TimedSslConnectionSocketFactory(final SSLSocketFactory socketFactory,
+        final String[] supportedProtocols, final String[] supportedCipherSuites,
+        final HostnameVerifier hostnameVerifier) {
+      super(socketFactory, supportedProtocols, supportedCipherSuites, hostnameVerifier);
+    }
+
+    // a plain socket is connected and then layered, which performs the handshake
+    @Override
+    public Socket createLayeredSocket(final Socket socket, final String target, final int port,
+        final HttpContext context) throws IOException {
+      final RequestTimestamps timestamps = CURRENT.get();
+      if (timestamps == null) {
+        return super.createLayeredSocket(socket, target, port, context);
+      }
+      timestamps.handshakeStart = System.nanoTime();
+      try {
+        return super.createLayeredSocket(socket, target, port, context);
+      } finally {
+        timestamps.handshakeFinish = System.nanoTime();
+      }
+    }
+  }
+
+  /**
+   * A request executor which records when the last byte of a request was sent and when the
+   * response headers were received
+   */
+  static class TimedRequestExecutor extends HttpRequestExecutor {
+    TimedRequestExecutor(final int waitForContinue) {
+      super(waitForContinue);
+    }
+
+    @Override
+    protected HttpResponse doSendRequest(final HttpRequest request,
+        final HttpClientConnection conn, final HttpContext context)
+        throws IOException, HttpException {
+      final HttpResponse response = super.doSendRequest(request, conn, context);
+      final RequestTimestamps timestamps = CURRENT.get();
+      if (timestamps != null) {
+        timestamps.requestFinish = System.nanoTime();
+      }
+      return response;
+    }
+
+    @Override
+    protected HttpResponse doReceiveResponse(final HttpRequest request,
+        final HttpClientConnection conn, final HttpContext context)
+        throws HttpException, IOException {
+      final HttpResponse response = super.doReceiveResponse(request, conn, context);
+      final RequestTimestamps timestamps = CURRENT.get();
+      if (timestamps != null) {
+        timestamps.responseHeadersFinish = System.nanoTime();
+      }
+      return response;
+    }
+  }
+}
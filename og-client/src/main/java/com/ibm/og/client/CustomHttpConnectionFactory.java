@@ -0,0 +1,134 @@
+/* Copyright (c) IBM Corporation 2016. All Rights Reserved.
+ * Project name: Object Generator
+ * This project is licensed under the Apache License 2.0, see LICENSE.
+ */
+
+package com.ibm.og.client;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CodingErrorAction;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.http.config.ConnectionConfig;
+import org.apache.http.conn.HttpConnectionFactory;
+import org.apache.http.conn.ManagedHttpClientConnection;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.entity.ContentLengthStrategy;
+import org.apache.http.impl.conn.DefaultHttpResponseParserFactory;
+import org.apache.http.impl.conn.DefaultManagedHttpClientConnection;
+import org.apache.http.impl.entity.LaxContentLengthStrategy;
+import org.apache.http.impl.entity.StrictContentLengthStrategy;
+import org.apache.http.impl.io.ChunkedOutputStream;
+import org.apache.http.impl.io.DefaultHttpRequestWriterFactory;
+import org.apache.http.io.SessionOutputBuffer;
+
+/**
+ * A connection factory whose connections send chunked request bodies in chunks of a configured
+ * size. The default connection factory always uses 2048 byte chunks and, for writes larger than
+ * that, sends each write as a single chunk of whatever size it happens to be.
+ *
+ * @since 1.9.0
+ */
+public class CustomHttpConnectionFactory
+    implements HttpConnectionFactory<HttpRoute, ManagedHttpClientConnection> {
+  private static final AtomicLong COUNTER = new AtomicLong();
+  private final int chunkSize;
+
+  /**
+   * Constructs a connection factory
+   *
+   * @param chunkSize the size of chunks written for chunked request bodies, in bytes
+   * @throws IllegalArgumentException if chunkSize is negative or zero
+   */
+  public CustomHttpConnectionFactory(final int chunkSize) {
+    checkArgument(chunkSize > 0, "chunkSize must be > 0 [%s]", chunkSize);
+    this.chunkSize = chunkSize;
+  }
+
+  @Override
+  public ManagedHttpClientConnection create(final HttpRoute route,
+      final ConnectionConfig config) {
+    final ConnectionConfig cconfig = config != null ? config : ConnectionConfig.DEFAULT;
+    CharsetDecoder charDecoder = null;
+    CharsetEncoder charEncoder = null;
+    final Charset charset = cconfig.getCharset();
+    if (charset != null) {
+      final CodingErrorAction malformedInputAction = cconfig.getMalformedInputAction() != null
+          ? cconfig.getMalformedInputAction() : CodingErrorAction.REPORT;
+      final CodingErrorAction unmappableInputAction = cconfig.getUnmappableInputAction() != null
+          ? cconfig.getUnmappableInputAction() : CodingErrorAction.REPORT;
+      charDecoder = charset.newDecoder().onMalformedInput(malformedInputAction)
+          .onUnmappableCharacter(unmappableInputAction);
+      charEncoder = charset.newEncoder().onMalformedInput(malformedInputAction)
+          .onUnmappableCharacter(unmappableInputAction);
+    }
+    final String id = "http-outgoing-" + COUNTER.getAndIncrement();
+    return new DefaultManagedHttpClientConnection(id, cconfig.getBufferSize(),
+        cconfig.getFragmentSizeHint(), charDecoder, charEncoder, cconfig.getMessageConstraints(),
+        LaxContentLengthStrategy.INSTANCE, StrictContentLengthStrategy.INSTANCE,
+        DefaultHttpRequestWriterFactory.INSTANCE, DefaultHttpResponseParserFactory.INSTANCE) {
+      @Override
+      protected OutputStream createOutputStream(final long len,
+          final SessionOutputBuffer outbuffer) {
+        if (len == ContentLengthStrategy.CHUNKED) {
+          return new SizedChunkedOutputStream(CustomHttpConnectionFactory.this.chunkSize,
+              outbuffer);
+        }
+        return super.createOutputStream(len, outbuffer);
+      }
+    };
+  }
+
+  // ChunkedOutputStream only caches writes smaller than its buffer; larger writes are sent
+  // as one chunk. Split them so that every chunk but the last is exactly chunkSize bytes
+  static class SizedChunkedOutputStream extends ChunkedOutputStream {
+    private final int chunkSize;
+    private int cached;
+
+    public SizedChunkedOutputStream(final int chunkSize, final SessionOutputBuffer out) {
+      super(chunkSize, out);
+      this.chunkSize = chunkSize;
+      this.cached = 0;
+    }
+
+    @Override
+    public void write(final int b) throws IOException {
+      super.write(b);
+      this.cached = (this.cached + 1) % this.chunkSize;
+    }
+
+    @Override
+    public void write(final byte[] b, final int off, final int len) throws IOException {
+      int written = 0;
+      while (written < len) {
+        final int n = Math.min(this.chunkSize - this.cached, len - written);
+        super.write(b, off + written, n);
+        this.cached = (this.cached + n) % this.chunkSize;
+        written += n;
+      }
+    }
+
+    @Override
+    public void flush() throws IOException {
+      super.flush();
+      this.cached = 0;
+    }
+
+    @Override
+    public void finish() throws IOException {
+      super.finish();
+      this.cached = 0;
+    }
+  }
+
+  @Override
+  public String toString() {
+    return String.format("CustomHttpConnectionFactory [chunkSize=%s]", this.chunkSize);
+  }
+}
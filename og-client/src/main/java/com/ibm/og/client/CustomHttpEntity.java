@@ -12,11 +12,11 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 
+import com.ibm.og.util.io.PayloadInputStream;
 import com.ibm.og.util.io.Streams;
 import org.apache.http.entity.AbstractHttpEntity;
 
 import com.ibm.og.api.AuthenticatedRequest;
-import com.google.common.io.ByteStreams;
 
 /**
  * an http entity which derives its source inputstream
@@ -25,15 +25,33 @@ import com.google.common.io.ByteStreams;
  */
 public class CustomHttpEntity extends AbstractHttpEntity {
   private final AuthenticatedRequest request;
+  private static final int DEFAULT_WRITE_BUFFER_SIZE = 8192;
   private final long writeThroughput;
+  private final int writeBufferSize;
   private long requestContentStart;
   private long requestContentFinish;
 
   public CustomHttpEntity(final AuthenticatedRequest request, final long writeThroughput) {
+    this(request, writeThroughput, DEFAULT_WRITE_BUFFER_SIZE);
+  }
+
+  /**
+   * Constructs an entity
+   * 
+   * @param request the request whose content this entity writes
+   * @param writeThroughput maximum write throughput in bytes per second, or 0 for unlimited
+   * @param writeBufferSize the maximum number of bytes passed to each write of the output stream
+   * @throws IllegalArgumentException if writeThroughput is negative, or writeBufferSize is
+   *         negative or zero
+   * @since 1.9.0
+   */
+  public CustomHttpEntity(final AuthenticatedRequest request, final long writeThroughput,
+      final int writeBufferSize) {
     this.request = checkNotNull(request);
-    checkArgument(this.writeThroughput >= 0, "writeThroughput must be >= 0 [%s]",
-        this.writeThroughput);
+    checkArgument(writeThroughput >= 0, "writeThroughput must be >= 0 [%s]", writeThroughput);
+    checkArgument(writeBufferSize > 0, "writeBufferSize must be > 0 [%s]", writeBufferSize);
     this.writeThroughput = writeThroughput;
+    this.writeBufferSize = writeBufferSize;
   }
 
   @Override
@@ -67,7 +85,15 @@ public class CustomHttpEntity extends AbstractHttpEntity {
     }
 
     this.requestContentStart = System.nanoTime();
-    ByteStreams.copy(in, out);
+    if (in instanceof PayloadInputStream) {
+      // pooled payloads are written straight from the pool
+      ((PayloadInputStream) in).writeTo(out, this.writeBufferSize);
+    } else {
+      final byte[] buf = new byte[this.writeBufferSize];
+      for (int read = in.read(buf); read > -1; read = in.read(buf)) {
+        out.write(buf, 0, read);
+      }
+    }
     this.requestContentFinish = System.nanoTime();
     in.close();
   }
@@ -87,7 +113,7 @@ public class CustomHttpEntity extends AbstractHttpEntity {
 
   @Override
   public String toString() {
-    return String.format("CustomHttpEntity [body=%s, writeThroughput=%s]", this.request.getBody(),
-        this.writeThroughput);
+    return String.format("CustomHttpEntity [body=%s, writeThroughput=%s, writeBufferSize=%s]",
+        this.request.getBody(), this.writeThroughput, this.writeBufferSize);
   }
 }
@@ -41,7 +41,7 @@ public class RequestLogEntry {
   public final Long requestLength;
   public final Long responseLength;
   public final String userAgent;
-  public final long requestLatency;
+  public final double requestLatency;
   public final String clientRequestId;
   public final String requestId;
   public final RequestStats stat;
@@ -50,6 +50,9 @@ public class RequestLogEntry {
   public final String objectName;
   public final String retention;
   public final String legalHold;
+  public final DataReduction dataReduction;
+  public final String contentVerification;
+  public final Long contentMismatchOffset;
   public String deletedObjectLength;
   public String maxKeys;
   public String listSessionId;
@@ -128,7 +131,7 @@ public class RequestLogEntry {
       this.responseLength = null;
     }
     this.userAgent = userAgent;
-    this.requestLatency = this.timestampFinish - this.timestampStart;
+    this.requestLatency = requestLatency(timestamps);
 
     // custom
     this.clientRequestId = request.getContext().get(Context.X_OG_REQUEST_ID);
@@ -174,24 +177,59 @@ public class RequestLogEntry {
     this.sourceUri = request.getContext().get(Context.X_OG_SSE_SOURCE_URI);
     this.retention = request.getContext().get(Context.X_OG_OBJECT_RETENTION);
     this.legalHold = request.getContext().get(Context.X_OG_LEGAL_HOLD);
+    // null, and so omitted, unless the request body is reducible
+    this.dataReduction = request.getBody().getDataReduction();
+    // null, and so omitted, unless the response content was verified
+    this.contentVerification = response.getContext().get(Context.X_OG_CONTENT_VERIFICATION);
+    final String mismatchOffset = response.getContext().get(Context.X_OG_CONTENT_MISMATCH_OFFSET);
+    this.contentMismatchOffset = mismatchOffset != null ? Long.valueOf(mismatchOffset) : null;
 
   }
 
+  // latency in milliseconds, to microsecond precision when nanosecond timestamps are available
+  private static double requestLatency(final RequestTimestamps timestamps) {
+    if (timestamps.start != 0 && timestamps.finish != 0) {
+      final long micros =
+          TimeUnit.NANOSECONDS.toMicros(Math.max(timestamps.finish - timestamps.start, 0));
+      return micros / 1000.0;
+    }
+    return timestamps.finishMillis - timestamps.startMillis;
+  }
+
   public static class RequestStats {
+    final Double signing;
+    final Double connectionLease;
+    final Double connect;
+    final Double tlsHandshake;
     final Double requestContent;
     final Double closeLatency;
+    final Double serverTime;
     final Double ttfb;
     final Double responseContent;
     final Double total;
 
     public RequestStats(final RequestTimestamps t) {
+      this.signing = duration(t.signingStart, t.signingFinish);
+      this.connectionLease = duration(t.connectionLeaseStart, t.connectionLeaseFinish);
+      this.tlsHandshake = duration(t.handshakeStart, t.handshakeFinish);
+      this.connect = connect(t, this.tlsHandshake);
       this.requestContent = duration(t.requestContentStart, t.requestContentFinish);
       this.closeLatency = duration(t.requestContentFinish, t.finish);
+      this.serverTime = duration(t.requestFinish, t.responseHeadersFinish);
       this.ttfb = duration(t.start, t.responseContentFirstBytes);
       this.responseContent = duration(t.responseContentStart, t.responseContentFinish);
       this.total = duration(t.start, t.finish);
     }
 
+    // connect time excluding the tls handshake
+    private Double connect(final RequestTimestamps t, final Double tlsHandshake) {
+      final Double connect = duration(t.connectStart, t.connectFinish);
+      if (connect == null || tlsHandshake == null) {
+        return connect;
+      }
+      return Math.max(connect - tlsHandshake, 0.0);
+    }
+
     private Double duration(final long start, final long finish) {
       if (start > 0 && finish > start) {
         return ((double) finish - start) / TimeUnit.MILLISECONDS.toNanos(1);
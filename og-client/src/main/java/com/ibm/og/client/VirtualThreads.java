@@ -0,0 +1,90 @@
+/* Copyright (c) IBM Corporation 2016. All Rights Reserved.
+ * Project name: Object Generator
+ * This project is licensed under the Apache License 2.0, see LICENSE.
+ */
+
+package com.ibm.og.client;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Utility methods for creating executors backed by virtual threads on JVMs which support them
+ * (Java 21 and later). Virtual thread apis are accessed reflectively so that this project continues
+ * to build and run on older JVMs.
+ *
+ * @since 1.9.0
+ */
+final class VirtualThreads {
+  private static final Logger _logger = LoggerFactory.getLogger(VirtualThreads.class);
+  private static final Method OF_VIRTUAL = method(Thread.class, "ofVirtual");
+  private static final Method BUILDER_NAME =
+      method(classForName("java.lang.Thread$Builder"), "name", String.class, long.class);
+  private static final Method BUILDER_FACTORY =
+      method(classForName("java.lang.Thread$Builder"), "factory");
+  private static final Method NEW_THREAD_PER_TASK_EXECUTOR =
+      method(Executors.class, "newThreadPerTaskExecutor", ThreadFactory.class);
+
+  private VirtualThreads() {}
+
+  /**
+   * Determines whether the running JVM supports virtual threads
+   *
+   * @return true if virtual threads are supported, false otherwise
+   */
+  public static boolean isSupported() {
+    return OF_VIRTUAL != null && BUILDER_NAME != null && BUILDER_FACTORY != null
+        && NEW_THREAD_PER_TASK_EXECUTOR != null;
+  }
+
+  /**
+   * Creates an executor which starts a new virtual thread for each submitted task
+   *
+   * @param namePrefix the prefix for virtual thread names; a counter is appended to each name
+   * @return a new virtual thread per task executor
+   * @throws UnsupportedOperationException if the running JVM does not support virtual threads
+   */
+  public static ExecutorService newVirtualThreadPerTaskExecutor(final String namePrefix) {
+    checkNotNull(namePrefix);
+    if (!isSupported()) {
+      throw new UnsupportedOperationException(
+          String.format("Virtual threads are not supported by this JVM [%s]",
+              System.getProperty("java.version")));
+    }
+    try {
+      final Object builder = BUILDER_NAME.invoke(OF_VIRTUAL.invoke(null), namePrefix, 0L);
+      final ThreadFactory factory = (ThreadFactory) BUILDER_FACTORY.invoke(builder);
+      return (ExecutorService) NEW_THREAD_PER_TASK_EXECUTOR.invoke(null, factory);
+    } catch (final Exception e) {
+      throw new UnsupportedOperationException("Unable to create virtual thread executor", e);
+    }
+  }
+
+  private static Class<?> classForName(final String className) {
+    try {
+      return Class.forName(className);
+    } catch (final ClassNotFoundException e) {
+      return null;
+    }
+  }
+
+  private static Method method(final Class<?> cls, final String name,
+      final Class<?>... parameterTypes) {
+    if (cls == null) {
+      return null;
+    }
+    try {
+      return cls.getMethod(name, parameterTypes);
+    } catch (final NoSuchMethodException e) {
+      _logger.debug("Method {}.{} not available", cls.getName(), name);
+      return null;
+    }
+  }
+}
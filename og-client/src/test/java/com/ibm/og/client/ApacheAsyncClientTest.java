@@ -0,0 +1,407 @@
+/* Copyright (c) IBM Corporation 2016. All Rights Reserved.
+ * Project name: Object Generator
+ * This project is licensed under the Apache License 2.0, see LICENSE.
+ */
+
+package com.ibm.og.client;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.any;
+import static com.github.tomakehurst.wiremock.client.WireMock.equalTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.getRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.matching;
+import static com.github.tomakehurst.wiremock.client.WireMock.putRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.stubFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlMatching;
+import static com.github.tomakehurst.wiremock.client.WireMock.verify;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.hasEntry;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+import static org.mockito.Mockito.mock;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.ClassRule;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import com.ibm.og.api.Body;
+import com.ibm.og.api.Client;
+import com.ibm.og.api.Method;
+import com.ibm.og.api.Operation;
+import com.ibm.og.api.Request;
+import com.ibm.og.api.Response;
+import com.ibm.og.http.BasicAuth;
+import com.ibm.og.http.Bodies;
+import com.ibm.og.http.HttpRequest;
+import com.ibm.og.http.ResponseBodyConsumer;
+import com.ibm.og.util.Context;
+import com.github.tomakehurst.wiremock.client.RequestPatternBuilder;
+import com.github.tomakehurst.wiremock.http.RequestMethod;
+import com.github.tomakehurst.wiremock.junit.WireMockClassRule;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.tngtech.java.junit.dataprovider.DataProvider;
+import com.tngtech.java.junit.dataprovider.DataProviderRunner;
+import com.tngtech.java.junit.dataprovider.UseDataProvider;
+
+@RunWith(DataProviderRunner.class)
+public class ApacheAsyncClientTest {
+  @ClassRule
+  public static final WireMockClassRule WIREMOCK_RULE = new WireMockClassRule(8080);
+
+  @Rule
+  public WireMockClassRule wireMockRule = WIREMOCK_RULE;
+  private Client client;
+  private URI objectUri;
+  private URI delayUri;
+  private Operation operation;
+
+  @Before()
+  public void before() throws URISyntaxException {
+    this.client = new ApacheAsyncClient.Builder().build();
+    stubFor(any(urlMatching("/container/.*")).willReturn(aResponse().withStatus(200)));
+
+    // read
+    stubFor(get(urlMatching("/container/.*"))
+        .willReturn(aResponse().withStatus(200).withBody(new byte[1000])));
+
+    // 1 second delay
+    stubFor(
+        get(urlEqualTo("/delayed")).willReturn(aResponse().withStatus(200).withFixedDelay(1000)));
+
+    stubFor(any(urlEqualTo("/301"))
+        .willReturn(aResponse().withStatus(301).withHeader("location", "/container/")));
+
+    stubFor(any(urlEqualTo("/307"))
+        .willReturn(aResponse().withStatus(307).withHeader("location", "/container/")));
+
+    this.objectUri = uri("/container/object");
+    this.delayUri = uri("/delayed");
+    this.operation = Operation.WRITE;
+  }
+
+  @After
+  public void after() throws InterruptedException, ExecutionException {
+    this.client.shutdown(true, 0).get();
+  }
+
+  private static URI uri(final String path) throws URISyntaxException {
+    return new URI("http://127.0.0.1:8080" + path);
+  }
+
+  private static void shutdown(final Client client)
+      throws InterruptedException, ExecutionException {
+    client.shutdown(true, 0).get();
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void negativeIoThreads() {
+    new ApacheAsyncClient.Builder().withIoThreads(-1).build();
+  }
+
+  @Test
+  public void positiveIoThreads() throws InterruptedException, ExecutionException {
+    shutdown(new ApacheAsyncClient.Builder().withIoThreads(1).build());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void negativeConnectTimeout() {
+    new ApacheAsyncClient.Builder().withConnectTimeout(-1).build();
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void negativeSoTimeout() {
+    new ApacheAsyncClient.Builder().withSoTimeout(-1).build();
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void negativeSoLinger() {
+    new ApacheAsyncClient.Builder().withSoLinger(-2).build();
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void negativeSoSndBuf() {
+    new ApacheAsyncClient.Builder().withSoSndBuf(-1).build();
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void negativeSoRcvBuf() {
+    new ApacheAsyncClient.Builder().withSoRcvBuf(-1).build();
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void zeroMaxIdleTime() {
+    new ApacheAsyncClient.Builder().withMaxIdleTime(0).build();
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void zeroWriteBufferSize() {
+    new ApacheAsyncClient.Builder().withWriteBufferSize(0).build();
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void zeroReadBufferSize() {
+    new ApacheAsyncClient.Builder().withReadBufferSize(0).build();
+  }
+
+  @Test(expected = NullPointerException.class)
+  public void nullAuthentication() {
+    new ApacheAsyncClient.Builder().withAuthentication(null).build();
+  }
+
+  @DataProvider
+  public static Object[][] provideExecute() {
+    final Body zeroes = Bodies.zeroes(1000);
+    final Body large = Bodies.zeroes(100000);
+    final Body none = Bodies.none();
+    final String content = new String(new byte[1000]);
+    final String largeContent = new String(new byte[100000]);
+
+    return new Object[][] {{Method.PUT, none, "", none}, {Method.PUT, zeroes, content, none},
+        {Method.PUT, large, largeContent, none}, {Method.POST, none, "", none},
+        {Method.POST, zeroes, content, none}, {Method.GET, none, "", zeroes},
+        {Method.HEAD, none, "", none}, {Method.DELETE, none, "", none}};
+  }
+
+  @Test
+  @UseDataProvider("provideExecute")
+  public void execute(final Method method, final Body requestBody, final String requestData,
+      final Body responseBody) throws InterruptedException, ExecutionException {
+    final Request request = new HttpRequest.Builder(method, this.objectUri, this.operation)
+        .withBody(requestBody).build();
+    final Response response = this.client.execute(request).get();
+
+    assertThat(response.getStatusCode(), is(200));
+    assertThat(response.getBody().getDataType(), is(responseBody.getDataType()));
+    assertThat(response.getBody().getSize(), is(responseBody.getSize()));
+
+    verify(requestedFor(method, this.objectUri.getPath()).withRequestBody(equalTo(requestData)));
+  }
+
+  @Test
+  public void timestamps() throws InterruptedException, ExecutionException {
+    final Request request = new HttpRequest.Builder(Method.PUT, this.objectUri, this.operation)
+        .withBody(Bodies.zeroes(1000)).build();
+    final Response response = this.client.execute(request).get();
+    final long start = response.getRequestTimestamps().start;
+
+    assertThat(response.getRequestTimestamps().requestContentStart, greaterThanOrEqualTo(start));
+    assertThat(response.getRequestTimestamps().requestContentFinish,
+        greaterThanOrEqualTo(response.getRequestTimestamps().requestContentStart));
+    assertThat(response.getRequestTimestamps().finish,
+        greaterThanOrEqualTo(response.getRequestTimestamps().requestContentFinish));
+
+    final Request read =
+        new HttpRequest.Builder(Method.GET, this.objectUri, this.operation).build();
+    final Response readResponse = this.client.execute(read).get();
+
+    assertThat(readResponse.getRequestTimestamps().responseContentFirstBytes, greaterThan(0L));
+    assertThat(readResponse.getRequestTimestamps().responseContentFinish,
+        greaterThanOrEqualTo(readResponse.getRequestTimestamps().responseContentFirstBytes));
+  }
+
+  @Test
+  public void concurrentRequests() throws InterruptedException, ExecutionException {
+    final Client client = new ApacheAsyncClient.Builder().withIoThreads(1).build();
+    final List<ListenableFuture<Response>> futures = Lists.newArrayList();
+    for (int i = 0; i < 50; i++) {
+      futures.add(client.execute(
+          new HttpRequest.Builder(Method.GET, this.objectUri, this.operation).build()));
+    }
+    for (final Response response : Futures.allAsList(futures).get()) {
+      assertThat(response.getStatusCode(), is(200));
+    }
+    shutdown(client);
+  }
+
+  @Test
+  public void requestHeaders() throws InterruptedException, ExecutionException {
+    final Request request = new HttpRequest.Builder(Method.PUT, this.objectUri, this.operation)
+        .withHeader("key", "value").build();
+    this.client.execute(request).get();
+    verify(
+        putRequestedFor(urlEqualTo(this.objectUri.getPath())).withHeader("key", equalTo("value")));
+  }
+
+  @DataProvider
+  public static Object[][] provideEncode() {
+    final String contentLength = "Content-Length";
+    final String transferEncoding = "Transfer-Encoding";
+    return new Object[][] {{false, contentLength, "2048", transferEncoding},
+        {true, transferEncoding, "chunked", contentLength},};
+  }
+
+  @Test
+  @UseDataProvider("provideEncode")
+  public void encode(final boolean chunk, final String key, final String value, final String absent)
+      throws InterruptedException, ExecutionException {
+    final Client client = new ApacheAsyncClient.Builder().usingChunkedEncoding(chunk).build();
+    final Request request = new HttpRequest.Builder(Method.PUT, this.objectUri, this.operation)
+        .withBody(Bodies.zeroes(2048)).build();
+    client.execute(request).get();
+    verify(putRequestedFor(urlEqualTo(this.objectUri.getPath())).withHeader(key, equalTo(value))
+        .withoutHeader(absent));
+    shutdown(client);
+  }
+
+  @Test
+  public void authentication() throws InterruptedException, ExecutionException {
+    final Client client =
+        new ApacheAsyncClient.Builder().withAuthentication(new BasicAuth()).build();
+    final Request request = new HttpRequest.Builder(Method.GET, this.objectUri, this.operation)
+        .withContext(Context.X_OG_USERNAME, "test").withContext(Context.X_OG_PASSWORD, "test")
+        .build();
+    client.execute(request).get();
+    verify(getRequestedFor(urlEqualTo(this.objectUri.getPath())).withHeader("Authorization",
+        matching("Basic .*")));
+    shutdown(client);
+  }
+
+  @Test
+  public void userAgent() throws InterruptedException, ExecutionException {
+    final Client client = new ApacheAsyncClient.Builder().withUserAgent("testUserAgent").build();
+    final Request request =
+        new HttpRequest.Builder(Method.GET, this.objectUri, this.operation).build();
+    client.execute(request).get();
+    verify(getRequestedFor(urlEqualTo(this.objectUri.getPath())).withHeader("User-Agent",
+        equalTo("testUserAgent")));
+    shutdown(client);
+  }
+
+  @Test
+  public void soTimeoutExceeded() throws InterruptedException, ExecutionException {
+    final Client client = new ApacheAsyncClient.Builder().withSoTimeout(1).build();
+    final Request request =
+        new HttpRequest.Builder(Method.GET, this.delayUri, this.operation).build();
+    final Response response = client.execute(request).get();
+
+    assertThat(response.getStatusCode(), is(599));
+    shutdown(client);
+  }
+
+  @Test
+  public void requestId() throws InterruptedException, ExecutionException {
+    final Request request = new HttpRequest.Builder(Method.GET, this.objectUri, this.operation)
+        .withContext(Context.X_OG_REQUEST_ID, "1").build();
+    final Response response = this.client.execute(request).get();
+    assertThat(response.getContext(), hasEntry(Context.X_OG_REQUEST_ID, "1"));
+  }
+
+  @Test
+  public void immediateShutdown() throws InterruptedException, ExecutionException {
+    final Request request =
+        new HttpRequest.Builder(Method.GET, this.delayUri, this.operation).build();
+    final ListenableFuture<Response> future = this.client.execute(request);
+    final long start = System.nanoTime();
+    this.client.shutdown(true, 0).get();
+    final long duration = TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - start);
+    // immediate shutdown takes less than 10 seconds
+    assertThat(duration, lessThan(10L));
+    assertThat(future.get().getStatusCode(), is(599));
+  }
+
+  @Test
+  public void gracefulShutdown() throws InterruptedException, ExecutionException {
+    final Request request =
+        new HttpRequest.Builder(Method.GET, this.delayUri, this.operation).build();
+    final ListenableFuture<Response> future = this.client.execute(request);
+    final long start = System.nanoTime();
+    this.client.shutdown(false, 60).get();
+    final long duration = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+    // graceful shutdown takes at least request time
+    assertThat(duration, greaterThanOrEqualTo(1000L));
+    assertThat(future.get().getStatusCode(), is(200));
+  }
+
+  @DataProvider
+  public static Object[][] provideRedirect() throws URISyntaxException {
+    final URI one = uri("/301");
+    final URI three = uri("/307");
+    final Body zeroes = Bodies.zeroes(1000);
+    final Body none = Bodies.none();
+    final String content = new String(new byte[1000]);
+
+    return new Object[][] {{Method.PUT, one, Operation.WRITE, zeroes, content, none},
+        {Method.PUT, three, Operation.WRITE, zeroes, content, none},
+        {Method.GET, one, Operation.READ, none, "", zeroes},
+        {Method.GET, three, Operation.READ, none, "", zeroes},
+        {Method.DELETE, one, Operation.DELETE, none, "", none}};
+  }
+
+  @Test
+  @UseDataProvider("provideRedirect")
+  public void redirect(final Method method, final URI uri, final Operation operation,
+      final Body requestBody, final String requestData, final Body responseBody)
+      throws InterruptedException, ExecutionException {
+    final HttpRequest.Builder builder = new HttpRequest.Builder(method, uri, operation);
+    builder.withBody(requestBody);
+    builder.withContext(Context.X_OG_OBJECT_SIZE, String.valueOf(requestBody.getSize()));
+    final Request request = builder.build();
+
+    final Response response = this.client.execute(request).get();
+    assertThat(response.getStatusCode(), is(200));
+    assertThat(response.getBody().getDataType(), is(responseBody.getDataType()));
+    assertThat(response.getBody().getSize(), is(responseBody.getSize()));
+
+    verify(requestedFor(method, uri.getPath()).withRequestBody(equalTo(requestData)));
+    verify(requestedFor(method, "/container/").withRequestBody(equalTo(requestData)));
+  }
+
+  private RequestPatternBuilder requestedFor(final Method method, final String uri) {
+    return new RequestPatternBuilder(RequestMethod.fromString(method.toString()), urlEqualTo(uri));
+  }
+
+  @Test(expected = NullPointerException.class)
+  public void responseBodyConsumerNullConsumerId() {
+    new ApacheAsyncClient.Builder()
+        .withResponseBodyConsumer(null, mock(ResponseBodyConsumer.class))
+        .build();
+  }
+
+  @Test
+  public void responseBodyConsumer() throws InterruptedException, ExecutionException {
+    final Request request = new HttpRequest.Builder(Method.GET, this.objectUri, this.operation)
+        .withContext(Context.X_OG_RESPONSE_BODY_CONSUMER, "consumer").build();
+
+    final Client client = new ApacheAsyncClient.Builder()
+        .withResponseBodyConsumer("consumer", new ResponseBodyConsumer() {
+          @Override
+          public Map<String, String> consume(final int statusCode, final InputStream response)
+              throws IOException {
+            int length = 0;
+            while (response.read() >= 0) {
+              length++;
+            }
+            return ImmutableMap.of("key", "value", "length", String.valueOf(length));
+          }
+        }).build();
+
+    final Response response = client.execute(request).get();
+    assertThat(response.getContext(), hasEntry("key", "value"));
+    assertThat(response.getContext(), hasEntry("length", "1000"));
+    shutdown(client);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testNullTrustStoreWithTrustStorePassword() {
+    new ApacheAsyncClient.Builder().withTrustStorePassword("password").build();
+  }
+}
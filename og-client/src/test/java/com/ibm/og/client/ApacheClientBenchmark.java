@@ -0,0 +1,213 @@
+/* Copyright (c) IBM Corporation 2016. All Rights Reserved.
+ * Project name: Object Generator
+ * This project is licensed under the Apache License 2.0, see LICENSE.
+ */
+
+package com.ibm.og.client;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.ThreadMXBean;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.ibm.og.api.Client;
+import com.ibm.og.api.Method;
+import com.ibm.og.api.Operation;
+import com.ibm.og.api.Request;
+import com.ibm.og.api.Response;
+import com.ibm.og.http.HttpRequest;
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * A manually run benchmark which compares {@code ApacheClient} executing requests on pooled
+ * platform threads against executing requests on virtual threads. For each concurrency level, a
+ * closed loop of requests is run against a local stub server which delays each response, and
+ * throughput, peak live threads, peak heap usage and peak resident set size are reported.
+ * <p>
+ * Usage: {@code ApacheClientBenchmark [durationSeconds] [responseDelayMillis] [concurrency...]}.
+ * Defaults are 20 seconds, 50 milliseconds and concurrency levels of 1000, 10000 and 50000. High
+ * concurrency levels may require raising the open file limit and the ephemeral port range.
+ *
+ * @since 1.9.0
+ */
+public class ApacheClientBenchmark {
+  private static final byte[] RESPONSE_BODY = new byte[1024];
+
+  private ApacheClientBenchmark() {}
+
+  public static void main(final String[] args) throws Exception {
+    final int duration = args.length > 0 ? Integer.parseInt(args[0]) : 20;
+    final int delay = args.length > 1 ? Integer.parseInt(args[1]) : 50;
+    int[] levels = new int[] {1000, 10000, 50000};
+    if (args.length > 2) {
+      levels = new int[args.length - 2];
+      for (int i = 2; i < args.length; i++) {
+        levels[i - 2] = Integer.parseInt(args[i]);
+      }
+    }
+
+    final ScheduledExecutorService responder = Executors.newScheduledThreadPool(
+        Runtime.getRuntime().availableProcessors());
+    final ExecutorService handlers =
+        Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+    final HttpServer server = createStubServer(responder, handlers, delay);
+    server.start();
+    final URI uri = new URI(String.format("http://127.0.0.1:%s/container/object",
+        server.getAddress().getPort()));
+
+    System.out.printf("java.version=%s virtualThreadsSupported=%s duration=%ss delay=%sms%n",
+        System.getProperty("java.version"), VirtualThreads.isSupported(), duration, delay);
+    System.out.printf("%-9s %11s %12s %13s %14s %12s %9s%n", "mode", "concurrency", "ops/s",
+        "peak threads", "peak heap (MB)", "peak rss (MB)", "errors");
+    try {
+      for (final int concurrency : levels) {
+        run(uri, false, concurrency, duration);
+        if (VirtualThreads.isSupported()) {
+          run(uri, true, concurrency, duration);
+        }
+      }
+    } finally {
+      server.stop(0);
+      handlers.shutdownNow();
+      responder.shutdownNow();
+    }
+  }
+
+  private static HttpServer createStubServer(final ScheduledExecutorService responder,
+      final ExecutorService handlers, final int delay) throws IOException {
+    final HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 65535);
+    server.createContext("/", new HttpHandler() {
+      @Override
+      public void handle(final HttpExchange exchange) throws IOException {
+        // respond asynchronously so that the stub server is not limited by its handler threads
+        responder.schedule(new Runnable() {
+          @Override
+          public void run() {
+            try {
+              exchange.sendResponseHeaders(200, RESPONSE_BODY.length);
+              final OutputStream out = exchange.getResponseBody();
+              out.write(RESPONSE_BODY);
+              out.close();
+            } catch (final IOException e) {
+              exchange.close();
+            }
+          }
+        }, delay, TimeUnit.MILLISECONDS);
+      }
+    });
+    server.setExecutor(handlers);
+    return server;
+  }
+
+  private static void run(final URI uri, final boolean virtualThreads, final int concurrency,
+      final int duration) throws Exception {
+    final String mode = virtualThreads ? "virtual" : "platform";
+    System.gc();
+    final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+    final MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+    threads.resetPeakThreadCount();
+
+    final Client client = new ApacheClient.Builder().usingVirtualThreads(virtualThreads).build();
+    final Request request = new HttpRequest.Builder(Method.GET, uri, Operation.READ).build();
+    final Semaphore permits = new Semaphore(concurrency);
+    final AtomicLong completed = new AtomicLong();
+    final AtomicLong errors = new AtomicLong();
+    final FutureCallback<Response> callback = new FutureCallback<Response>() {
+      @Override
+      public void onSuccess(final Response result) {
+        if (result.getStatusCode() != 200) {
+          errors.incrementAndGet();
+        }
+        completed.incrementAndGet();
+        permits.release();
+      }
+
+      @Override
+      public void onFailure(final Throwable t) {
+        errors.incrementAndGet();
+        permits.release();
+      }
+    };
+
+    long peakHeap = 0;
+    long peakRss = 0;
+    long measuredStart = 0;
+    long measuredCompleted = 0;
+    final long start = System.nanoTime();
+    // the first fifth of the run is warmup and is excluded from throughput
+    final long warmup = start + TimeUnit.SECONDS.toNanos(duration) / 5;
+    final long deadline = start + TimeUnit.SECONDS.toNanos(duration);
+    long nextSample = start;
+    try {
+      while (System.nanoTime() < deadline) {
+        if (permits.tryAcquire(10, TimeUnit.MILLISECONDS)) {
+          Futures.addCallback(client.execute(request), callback);
+        }
+        final long now = System.nanoTime();
+        if (measuredStart == 0 && now >= warmup) {
+          measuredStart = now;
+          measuredCompleted = completed.get();
+        }
+        if (now >= nextSample) {
+          peakHeap = Math.max(peakHeap, memory.getHeapMemoryUsage().getUsed());
+          peakRss = Math.max(peakRss, residentSetSize());
+          nextSample = now + TimeUnit.MILLISECONDS.toNanos(100);
+        }
+      }
+      final double seconds = (System.nanoTime() - measuredStart) / 1e9;
+      final double opsPerSecond = (completed.get() - measuredCompleted) / seconds;
+      System.out.printf("%-9s %11d %12.1f %13d %14d %12s %9d%n", mode, concurrency,
+          opsPerSecond, threads.getPeakThreadCount(), peakHeap / (1024 * 1024),
+          peakRss > 0 ? String.valueOf(peakRss / (1024 * 1024)) : "n/a", errors.get());
+    } catch (final Throwable t) {
+      System.out.printf("%-9s %11d failed: %s%n", mode, concurrency, t);
+    } finally {
+      client.shutdown(true, 0).get();
+    }
+  }
+
+  // resident set size in bytes, or 0 if it cannot be determined on this platform
+  private static long residentSetSize() {
+    final File status = new File("/proc/self/status");
+    if (!status.exists()) {
+      return 0;
+    }
+    BufferedReader reader = null;
+    try {
+      reader = new BufferedReader(new FileReader(status));
+      String line;
+      while ((line = reader.readLine()) != null) {
+        if (line.startsWith("VmRSS:")) {
+          return Long.parseLong(line.replaceAll("[^0-9]", "")) * 1024;
+        }
+      }
+    } catch (final IOException e) {
+      return 0;
+    } finally {
+      if (reader != null) {
+        try {
+          reader.close();
+        } catch (final IOException e) {
+          // ignore
+        }
+      }
+    }
+    return 0;
+  }
+}
@@ -23,9 +23,11 @@ import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.lessThan;
 import static org.mockito.Mockito.mock;
 
+import java.io.IOException;
 import java.io.InputStream;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.util.Arrays;
 import java.util.Map;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
@@ -34,6 +36,7 @@ import com.ibm.og.http.BasicAuth;
 import com.ibm.og.http.Bodies;
 import com.ibm.og.http.ResponseBodyConsumer;
 import com.ibm.og.util.Context;
+import com.ibm.og.util.io.Streams;
 import org.junit.Before;
 import org.junit.ClassRule;
 import org.junit.Rule;
@@ -42,15 +45,18 @@ import org.junit.runner.RunWith;
 
 import com.ibm.og.api.Body;
 import com.ibm.og.api.Client;
+import com.ibm.og.api.DataType;
 import com.ibm.og.api.Method;
 import com.ibm.og.api.Operation;
 import com.ibm.og.api.Request;
 import com.ibm.og.api.Response;
 import com.ibm.og.http.HttpRequest;
 import com.github.tomakehurst.wiremock.client.RequestPatternBuilder;
+import com.github.tomakehurst.wiremock.client.ResponseDefinitionBuilder;
 import com.github.tomakehurst.wiremock.http.RequestMethod;
 import com.github.tomakehurst.wiremock.junit.WireMockClassRule;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.io.ByteStreams;
 import com.tngtech.java.junit.dataprovider.DataProvider;
 import com.tngtech.java.junit.dataprovider.DataProviderRunner;
 import com.tngtech.java.junit.dataprovider.UseDataProvider;
@@ -273,6 +279,36 @@ public class ApacheClientTest {
     new ApacheClient.Builder().withRetryCount(1).build();
   }
 
+  @Test(expected = IllegalArgumentException.class)
+  public void zeroChunkSize() {
+    new ApacheClient.Builder().withChunkSize(0).build();
+  }
+
+  @Test
+  public void positiveChunkSize() {
+    new ApacheClient.Builder().withChunkSize(1).build();
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void zeroWriteBufferSize() {
+    new ApacheClient.Builder().withWriteBufferSize(0).build();
+  }
+
+  @Test
+  public void positiveWriteBufferSize() {
+    new ApacheClient.Builder().withWriteBufferSize(1).build();
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void zeroReadBufferSize() {
+    new ApacheClient.Builder().withReadBufferSize(0).build();
+  }
+
+  @Test
+  public void positiveReadBufferSize() {
+    new ApacheClient.Builder().withReadBufferSize(1).build();
+  }
+
   @Test(expected = NullPointerException.class)
   public void nullAuthentication() {
     new ApacheClient.Builder().withAuthentication(null).build();
@@ -305,6 +341,31 @@ public class ApacheClientTest {
     verify(requestedFor(method, this.objectUri.getPath()).withRequestBody(equalTo(requestData)));
   }
 
+  @DataProvider
+  public static Object[][] provideBufferSizes() {
+    return new Object[][] {{false, 100, 1}, {false, 2048, 8192}, {true, 100, 333},
+        {true, 1, 100}, {true, 8192, 100}};
+  }
+
+  @Test
+  @UseDataProvider("provideBufferSizes")
+  public void bufferSizes(final boolean chunk, final int chunkSize, final int bufferSize)
+      throws InterruptedException, ExecutionException {
+    final Client client = new ApacheClient.Builder().usingChunkedEncoding(chunk)
+        .withChunkSize(chunkSize).withWriteBufferSize(bufferSize).withReadBufferSize(bufferSize)
+        .build();
+    final Request request = new HttpRequest.Builder(Method.PUT, this.objectUri, this.operation)
+        .withBody(Bodies.zeroes(1000)).build();
+    final Response response = client.execute(request).get();
+    assertThat(response.getStatusCode(), is(200));
+    verify(putRequestedFor(urlEqualTo(this.objectUri.getPath()))
+        .withRequestBody(equalTo(new String(new byte[1000]))));
+
+    final Request read =
+        new HttpRequest.Builder(Method.GET, this.objectUri, Operation.READ).build();
+    assertThat(client.execute(read).get().getBody().getSize(), is(1000L));
+  }
+
   @Test
   public void requestHeaders() throws InterruptedException, ExecutionException {
     final Request request = new HttpRequest.Builder(Method.PUT, this.objectUri, this.operation)
@@ -409,6 +470,58 @@ public class ApacheClientTest {
     assertThat(response.getContext(), hasEntry(Context.X_OG_REQUEST_ID, "1"));
   }
 
+  // the content of a unique object of 10000 bytes written with seed 5
+  private static byte[] uniqueContent() throws IOException {
+    return ByteStreams.toByteArray(Streams.create(Bodies.fromSeed(DataType.UNIQUE, 10000, 5, null)));
+  }
+
+  @DataProvider
+  public static Object[][] provideContentVerification() throws IOException {
+    final byte[] content = uniqueContent();
+    final byte[] corrupt = Arrays.copyOf(content, content.length);
+    corrupt[4321] ^= 0x01;
+    return new Object[][] {{200, content, null, Context.CONTENT_VERIFIED, null},
+        {200, corrupt, null, Context.CONTENT_MISMATCH, "4321"},
+        {200, Arrays.copyOf(content, 9999), null, Context.CONTENT_MISMATCH, "9999"},
+        {206, Arrays.copyOfRange(content, 4000, 5000), "bytes 4000-4999/10000",
+            Context.CONTENT_VERIFIED, null},
+        {206, Arrays.copyOfRange(corrupt, 4000, 5000), "bytes 4000-4999/10000",
+            Context.CONTENT_MISMATCH, "321"},
+        {206, Arrays.copyOfRange(content, 4000, 5000), null, null, null}};
+  }
+
+  @Test
+  @UseDataProvider("provideContentVerification")
+  public void contentVerification(final int status, final byte[] body, final String contentRange,
+      final String verification, final String mismatchOffset)
+      throws InterruptedException, ExecutionException, URISyntaxException {
+    final ResponseDefinitionBuilder response = aResponse().withStatus(status).withBody(body);
+    if (contentRange != null) {
+      response.withHeader("Content-Range", contentRange);
+    }
+    stubFor(get(urlEqualTo("/verify")).willReturn(response));
+    final Client client = new ApacheClient.Builder().withContentVerification(true).build();
+    final Request request = new HttpRequest.Builder(Method.GET, uri("/verify"), Operation.READ)
+        .withContext(Context.X_OG_OBJECT_SIZE, "10000")
+        .withContext(Context.X_OG_OBJECT_DATA_TYPE, DataType.UNIQUE.name())
+        .withContext(Context.X_OG_OBJECT_SEED, "5").build();
+    final Response r = client.execute(request).get();
+
+    assertThat(r.getStatusCode(), is(status));
+    assertThat(r.getContext().get(Context.X_OG_CONTENT_VERIFICATION), is(verification));
+    assertThat(r.getContext().get(Context.X_OG_CONTENT_MISMATCH_OFFSET), is(mismatchOffset));
+  }
+
+  @Test
+  public void noContentVerification() throws InterruptedException, ExecutionException {
+    final Request request = new HttpRequest.Builder(Method.GET, this.objectUri, Operation.READ)
+        .withContext(Context.X_OG_OBJECT_SIZE, "1000")
+        .withContext(Context.X_OG_OBJECT_DATA_TYPE, DataType.UNIQUE.name())
+        .withContext(Context.X_OG_OBJECT_SEED, "5").build();
+    final Response response = this.client.execute(request).get();
+    assertThat(response.getContext().containsKey(Context.X_OG_CONTENT_VERIFICATION), is(false));
+  }
+
   @Test
   public void immediateShutdown() throws InterruptedException, ExecutionException {
     final Request request =
@@ -559,6 +672,19 @@ public class ApacheClientTest {
     assertThat(response.getContext(), hasEntry("key", "value"));
   }
 
+  @Test
+  public void virtualThreads() throws InterruptedException, ExecutionException {
+    // falls back to platform threads on JVMs without virtual thread support
+    final Client client = new ApacheClient.Builder().usingVirtualThreads(true).build();
+    final Request request =
+        new HttpRequest.Builder(Method.GET, this.objectUri, this.operation).build();
+    final Response response = client.execute(request).get();
+
+    assertThat(response.getStatusCode(), is(200));
+    assertThat(response.getBody().getSize(), is(1000L));
+    client.shutdown(false, 10).get();
+  }
+
   @Test(expected = IllegalArgumentException.class)
   public void testNullTrustStoreWithTrustStorePassword() {
     new ApacheClient.Builder().withTrustStorePassword("password").build();
@@ -0,0 +1,72 @@
+/* Copyright (c) IBM Corporation 2016. All Rights Reserved.
+ * Project name: Object Generator
+ * This project is licensed under the Apache License 2.0, see LICENSE.
+ */
+
+package com.ibm.og.client;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+
+import org.apache.http.impl.io.HttpTransportMetricsImpl;
+import org.apache.http.impl.io.SessionOutputBufferImpl;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import com.google.common.base.Charsets;
+import com.ibm.og.client.CustomHttpConnectionFactory.SizedChunkedOutputStream;
+import com.tngtech.java.junit.dataprovider.DataProvider;
+import com.tngtech.java.junit.dataprovider.DataProviderRunner;
+import com.tngtech.java.junit.dataprovider.UseDataProvider;
+
+@RunWith(DataProviderRunner.class)
+public class CustomHttpConnectionFactoryTest {
+  @Test(expected = IllegalArgumentException.class)
+  public void negativeChunkSize() {
+    new CustomHttpConnectionFactory(-1);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void zeroChunkSize() {
+    new CustomHttpConnectionFactory(0);
+  }
+
+  @Test
+  public void create() {
+    new CustomHttpConnectionFactory(1024).create(null, null);
+  }
+
+  @DataProvider
+  public static Object[][] provideChunks() {
+    return new Object[][] {{4, new int[] {10}, "4\r\naaaa\r\n4\r\naaaa\r\n2\r\naa\r\n0\r\n\r\n"},
+        {4, new int[] {1, 1, 5}, "4\r\naaaa\r\n3\r\naaa\r\n0\r\n\r\n"},
+        {4, new int[] {3, 8}, "4\r\naaaa\r\n4\r\naaaa\r\n3\r\naaa\r\n0\r\n\r\n"},
+        {16, new int[] {4}, "4\r\naaaa\r\n0\r\n\r\n"}};
+  }
+
+  @Test
+  @UseDataProvider("provideChunks")
+  public void chunks(final int chunkSize, final int[] writes, final String expected)
+      throws IOException {
+    final ByteArrayOutputStream wire = new ByteArrayOutputStream();
+    final SessionOutputBufferImpl buffer =
+        new SessionOutputBufferImpl(new HttpTransportMetricsImpl(), 1024);
+    buffer.bind(wire);
+    final SizedChunkedOutputStream out = new SizedChunkedOutputStream(chunkSize, buffer);
+    for (final int write : writes) {
+      if (write == 1) {
+        out.write('a');
+      } else {
+        final byte[] b = new byte[write];
+        Arrays.fill(b, (byte) 'a');
+        out.write(b, 0, b.length);
+      }
+    }
+    out.close();
+    assertThat(new String(wire.toByteArray(), Charsets.US_ASCII), is(expected));
+  }
+}
@@ -7,78 +7,46 @@ package com.ibm.og.cli;
 
 
 import com.ibm.og.api.Operation;
-import com.ibm.og.statistic.Counter;
+import com.ibm.og.statistic.IntervalSnapshot;
 import com.ibm.og.statistic.Statistics;
 import org.joda.time.format.DateTimeFormat;
 import org.joda.time.format.DateTimeFormatter;
 
-import java.util.HashMap;
 import java.util.Locale;
-import java.util.Map;
 
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
 
+/**
+ * Produces the stats of each interval of a test from {@link Statistics#intervalSnapshot()}, so
+ * that every value of an interval describes the same set of completed operations
+ */
 public class IntervalSummary {
   private static final DateTimeFormatter FORMATTER =
           DateTimeFormat.forPattern("dd/MMM/yyyy:HH:mm:ss Z").withLocale(Locale.US);
-  private Summary.SummaryOperationStats prevStats;
 
   public IntervalSummary(Statistics stats, final long timestampStart, final long timestampFinish) {
     checkNotNull(stats);
     checkArgument(timestampStart >= 0, "timestampStart must be >= 0 [%s]", timestampStart);
     checkArgument(timestampStart <= timestampFinish,
             "timestampStart must be <= timestampFinish [%s, %s]", timestampStart, timestampFinish);
-    this.prevStats = new Summary.SummaryOperationStats(stats, timestampStart, timestampFinish);
+    // begins the first interval
+    stats.intervalSnapshot();
   }
 
   public Summary.SummaryOperationStats intervalStats(final Statistics stats, final long timestampStart,
                                                      final long timestampFinish) {
+    checkNotNull(stats);
+    final IntervalSnapshot snapshot = stats.intervalSnapshot();
     Summary.SummaryOperationStats intervalStats = new Summary.SummaryOperationStats(timestampStart, timestampFinish);
     for(Operation operation: Operation.values()) {
       if (operation != Operation.ALL && operation != Operation.MULTIPART_WRITE) {
-          addOperationIntervalStats(operation, stats, intervalStats, timestampStart, timestampFinish);
-        }
+        intervalStats.setOperation(
+                new OperationStats(snapshot, operation, timestampStart, timestampFinish));
+      }
     }
 
     return  intervalStats;
 
   }
-
-  private Summary.SummaryOperationStats addOperationIntervalStats(final Operation operation, final Statistics stats,
-                                                                  Summary.SummaryOperationStats intervalStats,
-                                                                  final long timestampStart,
-                                                                  final long timestampFinish) {
-    // diff new stats - previous stats and return result
-    OperationStats os = diffOperationStats(stats, operation, timestampStart, timestampFinish);
-    intervalStats.setOperation(os);
-    return intervalStats;
-
-  }
-
-  public OperationStats diffOperationStats(Statistics stats, Operation operation, long timestampStart,
-                                           long timestampFinish) {
-    OperationStats currentOperationStats = new OperationStats(stats, operation, timestampStart, timestampFinish);
-    OperationStats lastOperationStats = this.prevStats.getOperation(operation);
-    long operations = currentOperationStats.operations - lastOperationStats.operations;
-    long bytes = currentOperationStats.bytes - lastOperationStats.bytes;
-    long latencies = currentOperationStats.latencies - lastOperationStats.latencies;
-    final Map<Integer, Long> statusCodes = new HashMap<Integer, Long>();
-    for (Map.Entry<Integer, Long> entry : currentOperationStats.statusCodes.entrySet()) {
-      if (currentOperationStats.statusCodes.get(entry.getKey()) != null &&
-              lastOperationStats.statusCodes.get(entry.getKey()) != null) {
-        statusCodes.put(entry.getKey(), currentOperationStats.statusCodes.get(entry.getKey()) -
-                lastOperationStats.statusCodes.get(entry.getKey()));
-      } else {
-        statusCodes.put(entry.getKey(), currentOperationStats.statusCodes.get(entry.getKey()));
-      }
-    }
-
-    OperationStats operationIntervalStat = new OperationStats(operation, operations, bytes, latencies,
-            statusCodes, timestampStart, timestampFinish);
-    this.prevStats.setOperation(currentOperationStats);
-    return operationIntervalStat;
-  }
-
-
 }
@@ -39,6 +39,7 @@ import java.util.Set;
 import java.util.regex.Pattern;
 
 import com.google.common.io.Files;
+import com.ibm.og.api.DataType;
 import com.ibm.og.object.LegacyObjectMetadata;
 import com.ibm.og.object.ObjectFileUtil;
 import com.ibm.og.object.ObjectFileVersion;
@@ -64,6 +65,8 @@ public class ObjectFile {
   private static final Logger _logger = LoggerFactory.getLogger(ObjectFile.class);
   private static final DateTimeFormatter FORMATTER =
           DateTimeFormat.forPattern("dd/MMM/yyyy:HH:mm:ss Z").withLocale(Locale.US);
+  // the data type written for objects whose content cannot be reproduced from their seed
+  private static final String UNKNOWN_DATA_TYPE = "UNKNOWN";
   private ObjectFile() {}
 
   public static void main(final String[] args) {
@@ -219,6 +222,20 @@ public class ObjectFile {
   private static LegacyObjectMetadata getObjectFromCharString(int majorVersion, int minorVersion, String inputLine) {
     LegacyObjectMetadata objectName = null;
     if (majorVersion == LegacyObjectMetadata.MAJOR_VERSION && minorVersion == LegacyObjectMetadata.MINOR_VERSION) {
+      final String[] components = inputLine.split(",");
+      checkArgument(components.length == 7, "Invalid record - %s", inputLine);
+      final String objectString = components[0].trim();
+      final long objectSize = Long.parseLong(components[1].trim());
+      final int containerSuffix = Integer.parseInt(components[2].trim());
+      final byte numLegalHolds = Byte.parseByte(components[3].trim());
+      final int retention = Integer.parseInt(components[4].trim());
+      final String dataTypeString = components[5].trim();
+      final DataType dataType =
+          UNKNOWN_DATA_TYPE.equals(dataTypeString) ? null : DataType.valueOf(dataTypeString);
+      final long seed = Long.parseLong(components[6].trim());
+      objectName = LegacyObjectMetadata.fromMetadata(objectString, objectSize, containerSuffix, numLegalHolds,
+          retention, dataType, seed);
+    } else if (majorVersion == 2 && minorVersion == 0) {
       final String[] components = inputLine.split(",");
       checkArgument(components.length == 5, "Invalid record - %s", inputLine);
       final String objectString = components[0].trim();
@@ -263,8 +280,10 @@ public class ObjectFile {
         //final ObjectMetadata objectName = LegacyObjectMetadata.fromBytes(buf);
         final ObjectMetadata objectName = ObjectFileUtil.getObjectFromInputBuffer(version.getMajorVersion(),
                 version.getMinorVersion(), readBytes, objectBuffer.array());
-        writer.write(String.format("%s,%s,%s,%s,%s", objectName.getName(), objectName.getSize(),
-            objectName.getContainerSuffix(), objectName.getNumberOfLegalHolds(), objectName.getRetention()));
+        final DataType dataType = objectName.getDataType();
+        writer.write(String.format("%s,%s,%s,%s,%s,%s,%s", objectName.getName(), objectName.getSize(),
+            objectName.getContainerSuffix(), objectName.getNumberOfLegalHolds(), objectName.getRetention(),
+            dataType != null ? dataType : UNKNOWN_DATA_TYPE, objectName.getSeed()));
         writer.newLine();
       }
     } finally {
@@ -302,13 +321,7 @@ public class ObjectFile {
     ObjectFileVersion version = ObjectFileUtil.readObjectFileVersion(in);
     final byte[] readBytes = ObjectFileUtil.allocateObjectBuffer(version.getMajorVersion(), version.getMinorVersion(), in);
     // skip header
-    int skipLength = 0;
-    if (version.getMajorVersion() == LegacyObjectMetadata.MAJOR_VERSION &&
-            version.getMinorVersion() == LegacyObjectMetadata.MINOR_VERSION) {
-      skipLength = ObjectFileVersion.VERSION_HEADER_LENGTH;
-    } else {
-      skipLength = 0;
-    }
+    int skipLength = ObjectFileUtil.getVersionHeaderLength(version.getMajorVersion(), version.getMinorVersion());
     in.skip(skipLength);
     if (writeVersionHeader) {
       ObjectFileUtil.writeObjectFileVersion(out);
@@ -408,15 +421,8 @@ public class ObjectFile {
     try {
       InputStream in = getInputStream(objectFile);
       ObjectFileVersion version = ObjectFileUtil.readObjectFileVersion(in);
-      final byte[] readBytes = ObjectFileUtil.allocateObjectBuffer(version.getMajorVersion(), version.getMinorVersion(),
-              in);
       // calculate object size based on version
-      int objectSize = 30;
-      if (version.getMajorVersion() == 1) {
-        objectSize = RandomObjectPopulator.OBJECT_SIZE_V1;
-      } else if (version.getMajorVersion() == 2) {
-        objectSize = RandomObjectPopulator.OBJECT_SIZE;
-      }
+      int objectSize = ObjectFileUtil.getObjectSize(version.getMajorVersion(), version.getMinorVersion());
       int headerLength = ObjectFileUtil.getVersionHeaderLength(version.getMajorVersion(), version.getMinorVersion());
       long fileSize = objectFile.length();
       int nObjects = (int) (fileSize - headerLength) / objectSize;
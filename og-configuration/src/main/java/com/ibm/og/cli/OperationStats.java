@@ -9,56 +9,154 @@ import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSortedMap;
 import com.ibm.og.api.Operation;
 import com.ibm.og.statistic.Counter;
-import com.ibm.og.statistic.Statistics;
+import com.ibm.og.statistic.LatencyHistogram;
+import com.ibm.og.statistic.OperationCounters;
 import com.ibm.og.util.Pair;
 import com.ibm.og.util.SizeUnit;
 
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.TimeUnit;
 
 
 public class OperationStats {
+  private static final double[] PERCENTILES = {50.0, 90.0, 99.0, 99.9, 99.99};
+  private static final String[] PERCENTILE_NAMES = {"p50", "p90", "p99", "p99.9", "p99.99"};
   final transient Operation operation;
   final long operations;
   final long bytes;
+  // totals in microseconds; averages are reported in milliseconds
   final transient long latencies;
+  final transient long intendedLatencies;
+  final transient long queueingDelays;
+  final transient long timesToFirstByte;
+  final transient long timesToLastByte;
+  final transient long signingTimes;
+  final transient long connectionLeaseTimes;
+  final transient long connectTimes;
+  final transient long handshakeTimes;
+  final transient long serverTimes;
+  // operations which opened a new connection
+  final long connections;
   double averageLatency = 0.0;
+  double averageIntendedLatency = 0.0;
+  double averageQueueingDelay = 0.0;
+  double averageTimeToFirstByte = 0.0;
+  double averageTimeToLastByte = 0.0;
+  double averageSigningTime = 0.0;
+  double averageConnectionLeaseTime = 0.0;
+  // per new connection rather than per operation
+  double averageConnectTime = 0.0;
+  double averageHandshakeTime = 0.0;
+  double averageServerTime = 0.0;
+  final transient LatencyHistogram.Snapshot latencyHistogram;
+  final Map<String, Double> latencyPercentiles;
+  // latency percentiles including queueing delay, which differ only under an open-loop schedule
+  final transient LatencyHistogram.Snapshot intendedLatencyHistogram;
+  final Map<String, Double> intendedLatencyPercentiles;
   final Map<Integer, Long> statusCodes;
+  // null, and so omitted, unless read content was verified
+  final Long contentVerified;
+  final Long contentMismatches;
   transient double  runtime;
 
-  public OperationStats(final Statistics stats, final Operation operation, long timestampStart, long timestampFinish) {
+  public OperationStats(final OperationCounters stats, final Operation operation,
+      final long timestampStart, final long timestampFinish) {
     this.operation = operation;
     this.operations = stats.get(operation, Counter.OPERATIONS);
     this.bytes = stats.get(operation, Counter.BYTES);
     this.latencies = stats.get(operation, Counter.LATENCY);
+    this.intendedLatencies = stats.get(operation, Counter.INTENDED_LATENCY);
+    this.queueingDelays = stats.get(operation, Counter.QUEUEING_DELAY);
+    this.timesToFirstByte = stats.get(operation, Counter.TIME_TO_FIRST_BYTE);
+    this.timesToLastByte = stats.get(operation, Counter.TIME_TO_LAST_BYTE);
+    this.signingTimes = stats.get(operation, Counter.SIGNING_TIME);
+    this.connections = stats.get(operation, Counter.CONNECTIONS);
+    this.connectionLeaseTimes = stats.get(operation, Counter.CONNECTION_LEASE_TIME);
+    this.connectTimes = stats.get(operation, Counter.CONNECT_TIME);
+    this.handshakeTimes = stats.get(operation, Counter.HANDSHAKE_TIME);
+    this.serverTimes = stats.get(operation, Counter.SERVER_TIME);
+    this.latencyHistogram = stats.getLatencyHistogram(operation);
+    this.latencyPercentiles = latencyPercentiles(this.latencyHistogram);
+    this.intendedLatencyHistogram = stats.getIntendedLatencyHistogram(operation);
+    this.intendedLatencyPercentiles = latencyPercentiles(this.intendedLatencyHistogram);
     this.statusCodes = ImmutableSortedMap.copyOf(stats.statusCodes(operation));
+    final long verified = stats.get(operation, Counter.CONTENT_VERIFIED);
+    final long mismatches = stats.get(operation, Counter.CONTENT_MISMATCHES);
+    this.contentVerified = verified + mismatches > 0 ? verified : null;
+    this.contentMismatches = verified + mismatches > 0 ? mismatches : null;
     this.runtime = ((double) (timestampFinish - timestampStart)) / TimeUnit.SECONDS.toMillis(1);
+    setAverages();
+  }
+
+  private void setAverages() {
     if (this.operations > 0) {
-      this.averageLatency = (double) this.latencies / this.operations;
+      this.averageLatency = average(this.latencies);
+      this.averageIntendedLatency = average(this.intendedLatencies);
+      this.averageQueueingDelay = average(this.queueingDelays);
+      this.averageTimeToFirstByte = average(this.timesToFirstByte);
+      this.averageTimeToLastByte = average(this.timesToLastByte);
+      this.averageSigningTime = average(this.signingTimes);
+      this.averageConnectionLeaseTime = average(this.connectionLeaseTimes);
+      this.averageServerTime = average(this.serverTimes);
+    }
+    if (this.connections > 0) {
+      this.averageConnectTime = average(this.connectTimes, this.connections);
+      this.averageHandshakeTime = average(this.handshakeTimes, this.connections);
     }
   }
 
-  public OperationStats(final Operation operation, final long operations, final long bytes, final long latencies,
-                        final Map<Integer, Long> statusCodes, long timestampStart, long timestampFinish) {
-    this.operation = operation;
-    this.operations = operations;
-    this.bytes = bytes;
-    this.latencies = latencies;
-    this.statusCodes = ImmutableSortedMap.copyOf(statusCodes);
-    if (this.operations > 0) {
-      double average = (double) this.latencies / this.operations;
-      this.averageLatency = Math.round(average * 100.00) / 100.00;
+  private double average(final long totalMicros) {
+    return average(totalMicros, this.operations);
+  }
+
+  // average of a microsecond total in milliseconds, to microsecond precision
+  private static double average(final long totalMicros, final long count) {
+    return Math.round((double) totalMicros / count) / 1000.0;
+  }
+
+  // latency percentiles in milliseconds, keyed by percentile name
+  private static Map<String, Double> latencyPercentiles(final LatencyHistogram.Snapshot histogram) {
+    final Map<String, Double> percentiles = new LinkedHashMap<String, Double>();
+    for (int i = 0; i < PERCENTILES.length; i++) {
+      percentiles.put(PERCENTILE_NAMES[i],
+          toMillis(histogram.getValueAtPercentile(PERCENTILES[i])));
     }
-    this.runtime = ((double) (timestampFinish - timestampStart)) / TimeUnit.SECONDS.toMillis(1);
+    percentiles.put("max", toMillis(histogram.getMax()));
+    return percentiles;
+  }
+
+  private static double toMillis(final long micros) {
+    return Math.round(micros / 10.0) / 100.0;
   }
 
   @Override
   public String toString() {
     return String.format(
-            "[%s]%n" + "Operations: %s%n" + "%s%n" + "%s%n" + "%s%n" + "%s%n" +  "Status Codes:%n%s%n",
-            this.operation, this.operations, formatBytes(), formatThroughput(), formatOPS(), formatAverageLatency(),
-            formatStatusCodes());
+            "[%s]%n" + "Operations: %s%n" + "%s%n" + "%s%n" + "%s%n" + "%s%n" + "%s%n" + "%s%n"
+                + "%s%n" + "%s%n" + "%s%n" + "%s%n" + "%s%n" + "%s%n" + "%s"
+                + "Status Codes:%n%s%n",
+            this.operation, this.operations, formatBytes(), formatThroughput(), formatOPS(),
+            formatAverage("Avg Latency", this.averageLatency),
+            formatAverage("Avg Intended Latency", this.averageIntendedLatency),
+            formatAverage("Avg Queueing Delay", this.averageQueueingDelay),
+            formatAverage("Avg TTFB", this.averageTimeToFirstByte),
+            formatAverage("Avg TTLB", this.averageTimeToLastByte),
+            formatAverage("Avg Signing Time", this.averageSigningTime),
+            formatConnectionPhases(),
+            formatLatencyPercentiles("Latency Percentiles", this.latencyPercentiles),
+            formatLatencyPercentiles("Intended Latency Percentiles",
+                this.intendedLatencyPercentiles),
+            formatContentVerification(), formatStatusCodes());
+  }
+
+  private String formatContentVerification() {
+    if (this.contentVerified == null) {
+      return "";
+    }
+    return String.format("Content Verified: %s Content Mismatches: %s%n", this.contentVerified,
+        this.contentMismatches);
   }
 
   // determine whether to display byte total in gb, mb, kb or bytes
@@ -88,12 +186,25 @@ public class OperationStats {
     return String.format("OPS: %.2f", operationsPerSecond);
   }
 
-  private String formatAverageLatency() {
-    double averageLatency = 0.0;
-    if (this.operations > 0) {
-      averageLatency = (double)this.latencies / this.operations;
+  private String formatConnectionPhases() {
+    return String.format("Connections: %s %s %s %s %s", this.connections,
+        formatAverage("Avg Connection Lease", this.averageConnectionLeaseTime),
+        formatAverage("Avg Connect", this.averageConnectTime),
+        formatAverage("Avg TLS Handshake", this.averageHandshakeTime),
+        formatAverage("Avg Server Time", this.averageServerTime));
+  }
+
+  private String formatAverage(final String name, final double average) {
+    return String.format("%s: %.3f %s", name, average, "ms");
+  }
+
+  private String formatLatencyPercentiles(final String name,
+      final Map<String, Double> latencyPercentiles) {
+    final StringBuilder s = new StringBuilder(name).append(":");
+    for (final Map.Entry<String, Double> percentile : latencyPercentiles.entrySet()) {
+      s.append(String.format(" %s: %.2f ms", percentile.getKey(), percentile.getValue()));
     }
-    return String.format("Avg Latency: %.2f %s", averageLatency, "ms");
+    return s.toString();
   }
 
   private String formatStatusCodes() {
@@ -51,10 +51,12 @@ import com.ibm.og.api.AuthType;
 import com.ibm.og.api.Body;
 import com.ibm.og.api.BodySource;
 import com.ibm.og.api.Client;
+import com.ibm.og.api.DataReduction;
 import com.ibm.og.api.DataType;
 import com.ibm.og.api.Method;
 import com.ibm.og.api.Operation;
 import com.ibm.og.api.Request;
+import com.ibm.og.client.ApacheAsyncClient;
 import com.ibm.og.client.ApacheClient;
 import com.ibm.og.guice.annotation.ContainerCreateHeaders;
 import com.ibm.og.guice.annotation.ContainerCreateHost;
@@ -95,6 +97,7 @@ import com.ibm.og.guice.annotation.WriteObjectName;
 import com.ibm.og.http.Api;
 import com.ibm.og.http.BasicAuth;
 import com.ibm.og.http.Bodies;
+import com.ibm.og.http.ChecksumAlgorithm;
 import com.ibm.og.http.Credential;
 import com.ibm.og.http.Headers;
 import com.ibm.og.http.HttpAuth;
@@ -104,12 +107,15 @@ import com.ibm.og.http.NoneAuth;
 import com.ibm.og.http.QueryParameters;
 import com.ibm.og.http.ResponseBodyConsumer;
 import com.ibm.og.http.Scheme;
+import com.ibm.og.json.AuthenticationConfig;
 import com.ibm.og.json.ChoiceConfig;
 import com.ibm.og.json.ClientConfig;
+import com.ibm.og.json.ClientType;
 import com.ibm.og.json.ConcurrencyConfig;
 import com.ibm.og.json.ConcurrencyType;
 import com.ibm.og.json.ContainerConfig;
 import com.ibm.og.json.CredentialSource;
+import com.ibm.og.json.DataReductionConfig;
 import com.ibm.og.json.ObjectDelimiterConfig;
 import com.ibm.og.json.FailingConditionsConfig;
 import com.ibm.og.json.FilesizeConfig;
@@ -144,8 +150,11 @@ import com.ibm.og.s3.MultipartRequestSupplier;
 import com.ibm.og.s3.S3ListResponseBodyConsumer;
 import com.ibm.og.s3.S3MultipartWriteResponseBodyConsumer;
 import com.ibm.og.s3.v2.AWSV2Auth;
+import com.ibm.og.s3.v2.AWSV2PresignedAuth;
 import com.ibm.og.s3.v4.AWSV4Auth;
+import com.ibm.og.s3.v4.AWSV4PresignedAuth;
 import com.ibm.og.scheduling.ConcurrentRequestScheduler;
+import com.ibm.og.scheduling.OpenLoopScheduler;
 import com.ibm.og.scheduling.RequestRateScheduler;
 import com.ibm.og.scheduling.Scheduler;
 import com.ibm.og.soh.SOHWriteResponseBodyConsumer;
@@ -164,7 +173,9 @@ import com.ibm.og.supplier.SourceReadObjectNameFunction;
 import com.ibm.og.supplier.Suppliers;
 import com.ibm.og.supplier.UUIDObjectNameFunction;
 import com.ibm.og.test.LoadTest;
+import com.ibm.og.test.PreparedRequestManager;
 import com.ibm.og.test.LoadTestSubscriberExceptionHandler;
+import com.ibm.og.test.OperationDispatcher;
 import com.ibm.og.test.RequestManager;
 import com.ibm.og.test.SimpleRequestManager;
 import com.ibm.og.test.condition.ConcurrentRequestCondition;
@@ -176,8 +187,11 @@ import com.ibm.og.util.Context;
 import com.ibm.og.util.Distribution;
 import com.ibm.og.util.Distributions;
 import com.ibm.og.util.MoreFunctions;
+import com.ibm.og.util.OperationListener;
+import com.ibm.og.util.RequestListener;
 import com.ibm.og.util.SizeUnit;
 import com.ibm.og.util.Version;
+import com.ibm.og.util.io.PayloadPool;
 import com.ibm.og.util.json.type.DistributionType;
 
 /**
@@ -194,6 +208,10 @@ public class OGModule extends AbstractModule {
   private static final String S3_MULTI_DELETE = "s3.multi_delete";
   private final LoadTestSubscriberExceptionHandler handler;
   private final EventBus eventBus;
+  private final OperationDispatcher dispatcher;
+  // seeds which bodies are drawn from when seedPoolSize > 0, created on first use
+  private long[] seedPool;
+  private static final Random SEED_RANDOM = new Random();
   final byte[] aesKey = SSECustomerKey();
 
   /**
@@ -206,6 +224,8 @@ public class OGModule extends AbstractModule {
     this.config = checkNotNull(config);
     this.handler = new LoadTestSubscriberExceptionHandler();
     this.eventBus = new EventBus(this.handler);
+    this.dispatcher = new OperationDispatcher(this.handler,
+        config.objectManager != null ? config.objectManager.listenerThreads : 0);
   }
 
   @Override
@@ -263,6 +283,7 @@ public class OGModule extends AbstractModule {
         .to(this.config.multipartWrite.upload.targetSessions);
     bind(AuthType.class).toInstance(this.config.authentication.type);
     bind(DataType.class).toInstance(this.config.data);
+    bindConstant().annotatedWith(Names.named("seedPoolSize")).to(this.config.seedPoolSize);
     bind(String.class).annotatedWith(Names.named("authentication.username"))
         .toProvider(Providers.of(this.config.authentication.username));
     bind(String.class).annotatedWith(Names.named("authentication.password"))
@@ -271,8 +292,16 @@ public class OGModule extends AbstractModule {
         .toProvider(Providers.of(this.config.authentication.keystoneToken));
     bindConstant().annotatedWith(Names.named("authentication.awsChunked"))
         .to(this.config.authentication.awsChunked);
+    bind(ChecksumAlgorithm.class).annotatedWith(Names.named("authentication.awsTrailerChecksum"))
+        .toProvider(Providers.of(this.config.authentication.awsTrailerChecksum));
+    bindConstant().annotatedWith(Names.named("authentication.awsChunkSize"))
+        .to(this.config.authentication.awsChunkSize);
     bindConstant().annotatedWith(Names.named("authentication.awsCacheSize"))
         .to(this.config.authentication.awsCacheSize);
+    bindConstant().annotatedWith(Names.named("authentication.awsPresignedExpiry"))
+        .to(this.config.authentication.awsPresignedExpiry);
+    bindConstant().annotatedWith(Names.named("authentication.awsPresignedCacheSize"))
+        .to(this.config.authentication.awsPresignedCacheSize);
     bindConstant().annotatedWith(Names.named("objectRestore.weight")).to(this.config.objectRestore.weight);
     bindConstant().annotatedWith(Names.named("putContainerLifecycle.weight")).to(this.config.putContainerLifecycle.weight);
     bindConstant().annotatedWith(Names.named("getContainerLifecycle.weight")).to(this.config.getContainerLifecycle.weight);
@@ -306,6 +335,8 @@ public class OGModule extends AbstractModule {
     httpAuthBinder.addBinding(AuthType.AWSV4).to(AWSV4Auth.class);
     httpAuthBinder.addBinding(AuthType.KEYSTONE).to(KeystoneAuth.class);
     httpAuthBinder.addBinding(AuthType.IAM).to(IAMTokenAuth.class);
+    httpAuthBinder.addBinding(AuthType.AWSV2_PRESIGNED).to(AWSV2PresignedAuth.class);
+    httpAuthBinder.addBinding(AuthType.AWSV4_PRESIGNED).to(AWSV4PresignedAuth.class);
 
     final MapBinder<String, ResponseBodyConsumer> responseBodyConsumers =
         MapBinder.newMapBinder(binder(), String.class, ResponseBodyConsumer.class);
@@ -314,9 +345,9 @@ public class OGModule extends AbstractModule {
     responseBodyConsumers.addBinding(S3_LIST).to(S3ListResponseBodyConsumer.class);
     responseBodyConsumers.addBinding(S3_MULTI_DELETE).to(MultiDeleteResponseBodyConsumer.class);
 
-    bind(RequestManager.class).to(SimpleRequestManager.class);
     bind(LoadTest.class).in(Singleton.class);
     bind(EventBus.class).toInstance(this.eventBus);
+    bind(OperationDispatcher.class).toInstance(this.dispatcher);
     bind(Statistics.class).in(Singleton.class);
     bind(ObjectManager.class).to(RandomObjectPopulator.class).in(Singleton.class);
     bindListener(Matchers.any(), new ProvisionListener() {
@@ -325,11 +356,18 @@ public class OGModule extends AbstractModule {
         // register every non-null provisioned instance with the global event bus. EventBus treats
         // registration of instances without an @Subscribe method as a no-op and handles duplicate
         // registration such that a given @Subscribe annotated method will only be triggered once
-        // per event
+        // per event. Request and operation listeners are likewise registered with the dispatcher
+        // for all operations, unless they were already registered for specific operations
         final T instance = provision.provision();
         if (instance != null) {
           OGModule.this.eventBus.register(instance);
         }
+        if (instance instanceof RequestListener) {
+          OGModule.this.dispatcher.register((RequestListener) instance);
+        }
+        if (instance instanceof OperationListener) {
+          OGModule.this.dispatcher.register((OperationListener) instance);
+        }
         if (instance instanceof LoadTest) {
           // register LoadTest with the event bus' exception handler
           OGModule.this.handler.setLoadTest((LoadTest) instance);
@@ -340,8 +378,8 @@ public class OGModule extends AbstractModule {
 
   @Provides
   @Singleton
-  public List<TestCondition> provideTestConditions(final LoadTest test, final EventBus eventBus,
-      final Statistics stats, final ConcurrencyConfig concurrency,
+  public List<TestCondition> provideTestConditions(final LoadTest test,
+      final OperationDispatcher dispatcher, final Statistics stats, final ConcurrencyConfig concurrency,
       final StoppingConditionsConfig stoppingConditionsConfig,
       final FailingConditionsConfig failingConditionsConfig) {
     checkNotNull(test);
@@ -419,8 +457,15 @@ public class OGModule extends AbstractModule {
           failingConditionsConfig.concurrentRequests, test, stats, true));
     }
 
+    // conditions are registered after stats, which is registered when provisioned, so that they
+    // see counters which include the operation they are notified of
     for (final TestCondition condition : conditions) {
-      eventBus.register(condition);
+      if (condition instanceof RequestListener) {
+        dispatcher.register((RequestListener) condition);
+      }
+      if (condition instanceof OperationListener) {
+        dispatcher.register((OperationListener) condition);
+      }
     }
 
     return conditions;
@@ -1207,7 +1252,7 @@ public class OGModule extends AbstractModule {
   @Provides
   @Singleton
   public List<AbstractObjectNameConsumer> provideObjectNameConsumers(
-      final ObjectManager objectManager, final EventBus eventBus) {
+      final ObjectManager objectManager, final OperationDispatcher dispatcher) {
     final Set<Integer> sc = HttpUtil.SUCCESS_STATUS_CODES;
     final List<AbstractObjectNameConsumer> consumers = Lists.newArrayList();
     consumers.add(new WriteObjectNameConsumer(objectManager, sc));
@@ -1237,7 +1282,7 @@ public class OGModule extends AbstractModule {
     consumers.add(new MultiDeleteConsumer(objectManager, sc));
 
     for (final AbstractObjectNameConsumer consumer : consumers) {
-      eventBus.register(consumer);
+      dispatcher.registerAsync(consumer, consumer.getOperation());
     }
     return consumers;
   }
@@ -2683,15 +2728,24 @@ public class OGModule extends AbstractModule {
       final Supplier<Distribution> distributionSupplier) {
     final DataType data = checkNotNull(this.config.data);
     checkArgument(DataType.NONE != data, "Unacceptable data [%s]", data);
+    final DataReduction dataReduction = createDataReduction();
+    final long[] seeds = getSeedPool();
 
     final Supplier<Body> bodySupplier = new Supplier<Body>() {
       @Override
       public Body get() {
         final long sample = (long) distributionSupplier.get().nextSample();
+        if (seeds != null) {
+          return createPooledBody(data, sample, dataReduction, seeds);
+        }
 
         switch (data) {
           case ZEROES:
             return Bodies.zeroes(sample);
+          case UNIQUE:
+            return Bodies.unique(sample);
+          case REDUCIBLE:
+            return Bodies.reducible(sample, dataReduction);
           default:
             return Bodies.random(sample);
         }
@@ -2701,6 +2755,50 @@ public class OGModule extends AbstractModule {
     return MoreFunctions.forSupplier(bodySupplier);
   }
 
+  // the seeds which bodies are drawn from, shared by all body suppliers so that each seed and size
+  // is only digested once; null if bodies are not pooled
+  private long[] getSeedPool() {
+    final int seedPoolSize = this.config.seedPoolSize;
+    checkArgument(seedPoolSize >= 0, "seedPoolSize must be >= 0 [%s]", seedPoolSize);
+    if (seedPoolSize == 0) {
+      return null;
+    }
+    checkArgument(this.config.data != DataType.UNIQUE,
+        "If seedPoolSize > 0, data must not be UNIQUE [%s]", this.config.data);
+    if (this.seedPool == null) {
+      final Random random = new Random();
+      this.seedPool = new long[seedPoolSize];
+      for (int i = 0; i < seedPoolSize; i++) {
+        this.seedPool[i] = random.nextLong();
+      }
+    }
+    return this.seedPool;
+  }
+
+  private static Body createPooledBody(final DataType data, final long size,
+      final DataReduction dataReduction, final long[] seeds) {
+    final long seed = seeds[SEED_RANDOM.nextInt(seeds.length)];
+    return Bodies.fromSeed(data, size, seed, dataReduction);
+  }
+
+  // the configured data reduction for reducible data, or null for other data types
+  private DataReduction createDataReduction() {
+    if (this.config.data != DataType.REDUCIBLE) {
+      return null;
+    }
+    return createDataReduction(checkNotNull(this.config.dataReduction));
+  }
+
+  private static DataReduction createDataReduction(final DataReductionConfig dataReduction) {
+    final SizeUnit blockSizeUnit = checkNotNull(dataReduction.blockSizeUnit);
+    final long blockSize = blockSizeUnit.toBytes(dataReduction.blockSize);
+    checkArgument(blockSize > 0 && blockSize <= Integer.MAX_VALUE,
+        "data reduction block size must be > 0 and <= %s bytes [%s]", Integer.MAX_VALUE,
+        blockSize);
+    return new DataReduction(dataReduction.compressionRatio, dataReduction.dedupRatio,
+        (int) blockSize);
+  }
+
   private Supplier<Long> createRangeSupplier(
           final Supplier<Distribution> distributionSupplier) {
 
@@ -2717,14 +2815,23 @@ public class OGModule extends AbstractModule {
   private Function<Map<String, String>, Body> createBodySupplier() {
     final DataType data = checkNotNull(this.config.data);
     checkArgument(DataType.NONE != data, "Unacceptable data [%s]", data);
+    final DataReduction dataReduction = createDataReduction();
+    final long[] seeds = getSeedPool();
 
     final Function<Map<String, String>, Body> function = new Function<Map<String, String>, Body>() {
       @Override
       public Body apply(@Nullable final Map<String, String> input) {
         final String size = input.get(Context.X_OG_OBJECT_SIZE);
+        if (seeds != null) {
+          return createPooledBody(data, Long.parseLong(size), dataReduction, seeds);
+        }
         switch (data) {
           case ZEROES:
             return Bodies.zeroes(Long.parseLong(size));
+          case UNIQUE:
+            return Bodies.unique(Long.parseLong(size));
+          case REDUCIBLE:
+            return Bodies.reducible(Long.parseLong(size), dataReduction);
           default:
             return Bodies.random(Long.parseLong(size));
         }
@@ -2837,6 +2944,8 @@ public class OGModule extends AbstractModule {
     final ConcurrencyType type =
         checkNotNull(concurrency.type, "concurrency type must not be null");
     checkNotNull(concurrency.count, "concurrency count must not be null");
+    checkArgument(ConcurrencyType.OPS == type || !concurrency.openLoop,
+        "open loop scheduling is only supported with ops concurrency");
 
     if (ConcurrencyType.THREADS == type) {
       final Scheduler scheduler = new ConcurrentRequestScheduler(
@@ -2844,10 +2953,48 @@ public class OGModule extends AbstractModule {
       eventBus.register(scheduler);
       return scheduler;
     }
+    if (concurrency.openLoop) {
+      return new OpenLoopScheduler(concurrency.count, concurrency.unit, concurrency.rampup,
+          concurrency.rampupUnit);
+    }
     return new RequestRateScheduler(concurrency.count, concurrency.unit, concurrency.rampup,
         concurrency.rampupUnit);
   }
 
+  @Provides
+  @Singleton
+  public RequestManager provideRequestManager(final SimpleRequestManager requestManager,
+      final AuthType authType, final Map<AuthType, HttpAuth> authentication) {
+    final AuthenticationConfig authenticationConfig = this.config.authentication;
+    checkArgument(authenticationConfig.signingThreads >= 0, "signingThreads must be >= 0 [%s]",
+        authenticationConfig.signingThreads);
+    int signingThreads = authenticationConfig.signingThreads;
+    // the non blocking client sends requests from the scheduler thread, which must not spend its
+    // time authenticating them
+    if (signingThreads == 0 && this.config.client.type == ClientType.NON_BLOCKING
+        && authType != AuthType.NONE) {
+      signingThreads = Runtime.getRuntime().availableProcessors();
+    }
+    if (signingThreads == 0) {
+      return requestManager;
+    }
+    return new PreparedRequestManager(requestManager, authentication.get(authType),
+        signingThreads, authenticationConfig.signingQueueSize);
+  }
+
+  @Provides
+  @Singleton
+  @Nullable
+  public PayloadPool providePayloadPool() {
+    final ClientConfig clientConfig = this.config.client;
+    checkArgument(clientConfig.payloadPoolSize >= 0, "payloadPoolSize must be >= 0 [%s]",
+        clientConfig.payloadPoolSize);
+    if (clientConfig.payloadPoolSize == 0) {
+      return null;
+    }
+    return new PayloadPool(clientConfig.payloadPoolSize);
+  }
+
   @Provides
   @Singleton
   public Client provideClient(final AuthType authType, final Map<AuthType, HttpAuth> authentication,
@@ -2856,6 +3003,9 @@ public class OGModule extends AbstractModule {
     Preconditions.checkArgument(
         authentication.get(authType) instanceof AWSV4Auth ? !clientConfig.chunkedEncoding : true,
         "http layer chunked encoding is not supported with Chunked AWSV4");
+    if (clientConfig.type == ClientType.NON_BLOCKING) {
+      return provideAsyncClient(clientConfig, authentication.get(authType), responseBodyConsumers);
+    }
     final ApacheClient.Builder b = new ApacheClient.Builder()
         .withConnectTimeout(clientConfig.connectTimeout).withSoTimeout(clientConfig.soTimeout)
         .usingSoReuseAddress(clientConfig.soReuseAddress).withSoLinger(clientConfig.soLinger)
@@ -2865,6 +3015,8 @@ public class OGModule extends AbstractModule {
         .withValidateAfterInactivity(clientConfig.validateAfterInactivity)
         .withMaxIdleTime(clientConfig.maxIdleTime)
         .usingChunkedEncoding(clientConfig.chunkedEncoding)
+        .withChunkSize(clientConfig.chunkSize).withWriteBufferSize(clientConfig.writeBufferSize)
+        .withReadBufferSize(clientConfig.readBufferSize)
         .usingExpectContinue(clientConfig.expectContinue)
         .withWaitForContinue(clientConfig.waitForContinue).withRetryCount(clientConfig.retryCount)
         .usingRequestSentRetry(clientConfig.requestSentRetry).withProtocols(clientConfig.protocols)
@@ -2878,7 +3030,53 @@ public class OGModule extends AbstractModule {
         .withAuthentication(authentication.get(authType))
         .withUserAgent(String.format("og-%s", Version.displayVersion()))
         .withWriteThroughput(clientConfig.writeThroughput)
-        .withReadThroughput(clientConfig.readThroughput);
+        .withReadThroughput(clientConfig.readThroughput)
+        .usingVirtualThreads(clientConfig.virtualThreads)
+        .withContentVerification(clientConfig.contentVerification)
+        // reads verify reducible objects against the configured reduction, whatever data is
+        // configured for writes
+        .withDataReduction(this.config.dataReduction != null
+            ? createDataReduction(this.config.dataReduction) : null);
+
+    for (final Entry<String, ResponseBodyConsumer> consumer : responseBodyConsumers.entrySet()) {
+      b.withResponseBodyConsumer(consumer.getKey(), consumer.getValue());
+    }
+
+    return b.build();
+  }
+
+  private Client provideAsyncClient(final ClientConfig clientConfig,
+      final HttpAuth authentication, final Map<String, ResponseBodyConsumer> responseBodyConsumers) {
+    checkArgument(clientConfig.writeThroughput == 0 && clientConfig.readThroughput == 0,
+        "writeThroughput and readThroughput are not supported with a %s client",
+        ClientType.NON_BLOCKING);
+    checkArgument(clientConfig.retryCount == 0, "retryCount is not supported with a %s client",
+        ClientType.NON_BLOCKING);
+    checkArgument(!clientConfig.virtualThreads,
+        "virtualThreads is not supported with a %s client", ClientType.NON_BLOCKING);
+    checkArgument(!clientConfig.contentVerification,
+        "contentVerification is not supported with a %s client", ClientType.NON_BLOCKING);
+    final ApacheAsyncClient.Builder b = new ApacheAsyncClient.Builder()
+        .withIoThreads(clientConfig.ioThreads).withConnectTimeout(clientConfig.connectTimeout)
+        .withSoTimeout(clientConfig.soTimeout).usingSoReuseAddress(clientConfig.soReuseAddress)
+        .withSoLinger(clientConfig.soLinger).usingSoKeepAlive(clientConfig.soKeepAlive)
+        .usingTcpNoDelay(clientConfig.tcpNoDelay).withSoSndBuf(clientConfig.soSndBuf)
+        .withSoRcvBuf(clientConfig.soRcvBuf)
+        .usingPersistentConnections(clientConfig.persistentConnections)
+        .withMaxIdleTime(clientConfig.maxIdleTime)
+        .usingChunkedEncoding(clientConfig.chunkedEncoding)
+        .withWriteBufferSize(clientConfig.writeBufferSize)
+        .withReadBufferSize(clientConfig.readBufferSize)
+        .usingExpectContinue(clientConfig.expectContinue).withProtocols(clientConfig.protocols)
+        .withCipherSuites(clientConfig.cipherSuites).withKeyStore(clientConfig.keyStore)
+        .withKeyStorePassword(clientConfig.keyStorePassword)
+        .withKeyPassword(clientConfig.keyPassword).withTrustStore(clientConfig.trustStore)
+        .withTrustStorePassword(clientConfig.trustStorePassword)
+        .usingTrustSelfSignedCertificates(clientConfig.trustSelfSignedCertificates)
+        .withDnsCacheTtl(clientConfig.dnsCacheTtl)
+        .withDnsCacheNegativeTtl(clientConfig.dnsCacheNegativeTtl)
+        .withAuthentication(authentication)
+        .withUserAgent(String.format("og-%s", Version.displayVersion()));
 
     for (final Entry<String, ResponseBodyConsumer> consumer : responseBodyConsumers.entrySet()) {
       b.withResponseBodyConsumer(consumer.getKey(), consumer.getValue());
@@ -2915,8 +3113,9 @@ public class OGModule extends AbstractModule {
     }
 
     if (contentMd5) {
-      checkArgument(this.config.data == DataType.ZEROES,
-          "If contentMD5 is set, data must be ZEROES [%s]", this.config.data);
+      checkArgument(this.config.data == DataType.ZEROES || this.config.seedPoolSize > 0,
+          "If contentMD5 is set, data must be ZEROES or seedPoolSize must be > 0 [%s]",
+          this.config.data);
     }
     final Map<String, Function<Map<String, String>, String>> queryParameters = Collections.emptyMap();
 
@@ -3275,8 +3474,9 @@ public class OGModule extends AbstractModule {
     }
 
     if (contentMd5) {
-      checkArgument(this.config.data == DataType.ZEROES,
-          "If contentMD5 is set, data must be ZEROES [%s]", this.config.data);
+      checkArgument(this.config.data == DataType.ZEROES || this.config.seedPoolSize > 0,
+          "If contentMD5 is set, data must be ZEROES or seedPoolSize must be > 0 [%s]",
+          this.config.data);
     }
 
     final Map<String, Function<Map<String, String>, String>> queryParameters =
@@ -3679,8 +3879,13 @@ public class OGModule extends AbstractModule {
       final Function<Map<String, String>, Credential> credentials, final boolean virtualHost,
       final boolean contentMd5, final Function<Map<String, String>, String> delimiter) {
 
-    return new MultipartRequestSupplier(id, scheme, host, port, uriRoot, container, object,
-        partSize, partsPerSession, targetSessions, queryParameters, false, headers, context,
-        credentials, body, virtualHost, retention, legalHold, contentMd5, delimiter);
+    final MultipartRequestSupplier supplier = new MultipartRequestSupplier(id, scheme, host, port,
+        uriRoot, container, object, partSize, partsPerSession, targetSessions, queryParameters,
+        false, headers, context, credentials, body, virtualHost, retention, legalHold, contentMd5,
+        delimiter, createDataReduction());
+    this.dispatcher.register(supplier, Operation.MULTIPART_WRITE_INITIATE,
+        Operation.MULTIPART_WRITE_PART, Operation.MULTIPART_WRITE_COMPLETE,
+        Operation.MULTIPART_WRITE_ABORT);
+    return supplier;
   }
 }
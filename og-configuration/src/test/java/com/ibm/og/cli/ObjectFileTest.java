@@ -26,6 +26,7 @@ import java.util.List;
 import java.util.UUID;
 
 import com.google.common.io.BaseEncoding;
+import com.ibm.og.api.DataType;
 import com.ibm.og.object.LegacyObjectMetadata;
 import com.ibm.og.object.ObjectFileUtil;
 import com.ibm.og.object.ObjectFileVersion;
@@ -158,22 +159,54 @@ public class ObjectFileTest {
   @Test
   public void read() throws IOException {
     final String objectString = UUID.randomUUID().toString().replace("-", "") + "0000";
-    final LegacyObjectMetadata object = LegacyObjectMetadata.fromMetadata(objectString, 1024, 0, (byte)0, -1);
+    final LegacyObjectMetadata object = LegacyObjectMetadata.fromMetadata(objectString, 1024, 0, (byte)0, -1,
+        DataType.UNIQUE, 1234L);
     ByteBuffer inputBuffer = ByteBuffer.allocate(ObjectFileVersion.VERSION_HEADER_LENGTH + LegacyObjectMetadata.OBJECT_SIZE);
-    inputBuffer.put(ObjectFileVersion.fromMetadata((byte)2, (byte)0).getBytes());
+    inputBuffer.put(ObjectFileVersion.fromMetadata(LegacyObjectMetadata.MAJOR_VERSION,
+        LegacyObjectMetadata.MINOR_VERSION).getBytes());
     inputBuffer.put(object.toBytes());
     final InputStream in = new ByteArrayInputStream(inputBuffer.array());
 
     final ByteArrayOutputStream out = new ByteArrayOutputStream();
     ObjectFile.read(in, out, true);
-    ByteBuffer outBuffer = ByteBuffer.wrap(out.toByteArray());
-    outBuffer.position(ObjectFileVersion.VERSION_HEADER_LENGTH);
-    byte[] objectBuffer = new byte[LegacyObjectMetadata.OBJECT_SIZE];
-    outBuffer.get(objectBuffer, 0, LegacyObjectMetadata.OBJECT_SIZE);
 
-    assertThat(new String(out.toByteArray()), is(String.format("%s:%s.%s\n%s,%s,%s,%s,%s%n", "VERSION",
+    assertThat(new String(out.toByteArray()), is(String.format("%s:%s.%s\n%s,%s,%s,%s,%s,%s,%s%n", "VERSION",
           LegacyObjectMetadata.MAJOR_VERSION, LegacyObjectMetadata.MINOR_VERSION, object.getName(),
-        object.getSize(), object.getContainerSuffix(), object.getNumberOfLegalHolds(), object.getRetention())));
+        object.getSize(), object.getContainerSuffix(), object.getNumberOfLegalHolds(), object.getRetention(),
+        "UNIQUE", 1234L)));
+  }
+
+  @Test
+  public void readV2() throws IOException {
+    final String objectString = UUID.randomUUID().toString().replace("-", "") + "0000";
+    final LegacyObjectMetadata object = LegacyObjectMetadata.fromMetadata(objectString, 1024, 0, (byte)1, 3600);
+    ByteBuffer inputBuffer = ByteBuffer.allocate(ObjectFileVersion.VERSION_HEADER_LENGTH + ObjectFileUtil.OBJECT_SIZE_V2_0);
+    inputBuffer.put(ObjectFileVersion.fromMetadata((byte)2, (byte)0).getBytes());
+    inputBuffer.put(object.toBytes(), 0, ObjectFileUtil.OBJECT_SIZE_V2_0);
+    final InputStream in = new ByteArrayInputStream(inputBuffer.array());
+
+    final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    ObjectFile.read(in, out, true);
+
+    assertThat(new String(out.toByteArray()), is(String.format("%s:%s.%s\n%s,%s,%s,%s,%s,%s,%s%n", "VERSION",
+        LegacyObjectMetadata.MAJOR_VERSION, LegacyObjectMetadata.MINOR_VERSION, object.getName(),
+        object.getSize(), object.getContainerSuffix(), object.getNumberOfLegalHolds(), object.getRetention(),
+        "UNKNOWN", 0)));
+  }
+
+  @Test
+  public void writeRead() throws IOException {
+    final String objectMetadata =
+        UUID.randomUUID().toString().replace("-", "") + "0000,1024,2,0,-1,REDUCIBLE,-5";
+    final String text = String.format("VERSION:%s.%s\n%s\n", LegacyObjectMetadata.MAJOR_VERSION,
+        LegacyObjectMetadata.MINOR_VERSION, objectMetadata);
+    final ByteArrayOutputStream objectFile = new ByteArrayOutputStream();
+    ObjectFile.write(new ByteArrayInputStream(text.getBytes()), objectFile, true);
+
+    final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    ObjectFile.read(new ByteArrayInputStream(objectFile.toByteArray()), out, true);
+    assertThat(new String(out.toByteArray()), is(String.format("VERSION:%s.%s%n%s%n",
+        LegacyObjectMetadata.MAJOR_VERSION, LegacyObjectMetadata.MINOR_VERSION, objectMetadata)));
   }
 
 
@@ -197,10 +230,10 @@ public class ObjectFileTest {
 
     final LegacyObjectMetadata expectedObject = LegacyObjectMetadata.fromMetadata(objectName, 0, 0, (byte)0, -1);
 
-    assertThat(new String(out.toByteArray()), is(String.format("%s:%s.%s\n%s,%s,%s,%s,%s%n", "VERSION",
+    assertThat(new String(out.toByteArray()), is(String.format("%s:%s.%s\n%s,%s,%s,%s,%s,%s,%s%n", "VERSION",
             LegacyObjectMetadata.MAJOR_VERSION, LegacyObjectMetadata.MINOR_VERSION, expectedObject.getName(),
             expectedObject.getSize(), expectedObject.getContainerSuffix(), expectedObject.getNumberOfLegalHolds(),
-            expectedObject.getRetention())));
+            expectedObject.getRetention(), "UNKNOWN", 0)));
   }
 
   @DataProvider
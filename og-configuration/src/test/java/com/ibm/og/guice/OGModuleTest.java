@@ -17,6 +17,7 @@ import com.ibm.og.json.OGConfig;
 import com.ibm.og.json.RetentionConfig;
 import com.ibm.og.statistic.Statistics;
 import com.ibm.og.test.LoadTest;
+import com.ibm.og.test.OperationDispatcher;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
@@ -25,7 +26,6 @@ import org.junit.runner.RunWith;
 
 import com.ibm.og.json.StoppingConditionsConfig;
 import com.google.common.collect.ImmutableMap;
-import com.google.common.eventbus.EventBus;
 import com.tngtech.java.junit.dataprovider.DataProvider;
 import com.tngtech.java.junit.dataprovider.DataProviderRunner;
 import com.tngtech.java.junit.dataprovider.UseDataProvider;
@@ -35,7 +35,7 @@ public class OGModuleTest {
   @Rule
   public ExpectedException thrown = ExpectedException.none();
   private LoadTest test;
-  private EventBus eventBus;
+  private OperationDispatcher dispatcher;
   private ConcurrencyConfig concurrency;
   private Statistics stats;
   private OGConfig config;
@@ -43,7 +43,7 @@ public class OGModuleTest {
   @Before
   public void before() {
     this.test = mock(LoadTest.class);
-    this.eventBus = mock(EventBus.class);
+    this.dispatcher = mock(OperationDispatcher.class);
     this.concurrency = new ConcurrencyConfig();
     this.stats = mock(Statistics.class);
     this.config = mock(OGConfig.class);
@@ -112,7 +112,7 @@ public class OGModuleTest {
     failingConditions.statusCodes = statusCodes;
 
     this.thrown.expect(expectedException);
-    module.provideTestConditions(this.test, this.eventBus, this.stats, this.concurrency,
+    module.provideTestConditions(this.test, this.dispatcher, this.stats, this.concurrency,
         stoppingConditions, failingConditions);
   }
 
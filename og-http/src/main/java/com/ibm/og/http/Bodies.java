@@ -8,7 +8,10 @@ package com.ibm.og.http;
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
 
+import java.util.concurrent.atomic.AtomicLong;
+
 import com.ibm.og.api.Body;
+import com.ibm.og.api.DataReduction;
 import com.ibm.og.api.DataType;
 
 /**
@@ -17,6 +20,8 @@ import com.ibm.og.api.DataType;
  * @since 1.0
  */
 public class Bodies {
+  // distinct per body, so that concurrently created unique bodies never share content
+  private static final AtomicLong SEEDS = new AtomicLong(System.nanoTime());
   private static final Body NONE_BODY = Bodies.create(DataType.NONE, 0);
 
   private Bodies() {}
@@ -41,6 +46,34 @@ public class Bodies {
     return create(DataType.RANDOM, size);
   }
 
+  /**
+   * Creates a body instance representing a body with non repeating random data
+   *
+   * @param size the size of the body
+   * @return a unique random body instance
+   * @throws IllegalArgumentException if size is negative
+   */
+  public static Body unique(final long size) {
+    return create(DataType.UNIQUE, size);
+  }
+
+  /**
+   * Creates a body instance representing a body with random data which compresses and
+   * deduplicates at the provided ratios
+   *
+   * @param size the size of the body
+   * @param reduction the data reduction the body's content should achieve
+   * @return a reducible body instance
+   * @throws NullPointerException if reduction is null
+   * @throws IllegalArgumentException if size is negative
+   */
+  public static Body reducible(final long size, final DataReduction reduction) {
+    checkNotNull(reduction);
+    checkArgument(size >= 0, "size must be >= 0 [%s]", size);
+
+    return new BodyImpl(SEEDS.getAndIncrement(), size, DataType.REDUCIBLE, null, reduction);
+  }
+
   /**
    * Creates a body instance representing a body with zeroes for data
    * 
@@ -63,18 +96,42 @@ public class Bodies {
     return create(DataType.CUSTOM, size, content);
   }
 
+  /**
+   * Creates a body instance with a provided seed, which has the same content as a body previously
+   * created with the same data type, size, seed and data reduction
+   *
+   * @param data the data type of the body; custom bodies cannot be reproduced from a seed
+   * @param size the size of the body
+   * @param seed the seed of the body
+   * @param reduction the data reduction of a reducible body, otherwise ignored
+   * @return a body instance
+   * @throws NullPointerException if data is null, or if data is reducible and reduction is null
+   * @throws IllegalArgumentException if data is custom or size is negative
+   * @since 1.9.0
+   */
+  public static Body fromSeed(final DataType data, final long size, final long seed,
+      final DataReduction reduction) {
+    checkNotNull(data);
+    checkArgument(DataType.CUSTOM != data, "custom bodies cannot be created from a seed");
+    checkArgument(size >= 0, "size must be >= 0 [%s]", size);
+    if (DataType.REDUCIBLE == data) {
+      return new BodyImpl(seed, size, data, null, checkNotNull(reduction));
+    }
+    return new BodyImpl(seed, size, data, null, null);
+  }
+
   private static Body create(final DataType data, final long size) {
     checkNotNull(data);
     checkArgument(size >= 0, "size must be >= 0 [%s]", size);
 
-    return new BodyImpl(System.nanoTime(), size, data, null);
+    return new BodyImpl(SEEDS.getAndIncrement(), size, data, null, null);
   }
 
   private static Body create(final DataType data, final long size, String content) {
     checkNotNull(data);
     checkArgument(size >= 0, "size must be >= 0 [%s]", size);
 
-    return new BodyImpl(System.nanoTime(), size, data, content);
+    return new BodyImpl(SEEDS.getAndIncrement(), size, data, content, null);
   }
 
   private static class BodyImpl implements Body {
@@ -83,13 +140,17 @@ public class Bodies {
     private final long size;
     private final DataType dataType;
     private final String content;
+    private final DataReduction dataReduction;
 
-    public BodyImpl(final long seed, final long size, final DataType dataType, String content) {
+    public BodyImpl(final long seed, final long size, final DataType dataType, String content,
+        final DataReduction dataReduction) {
       // Force the seed to zero for non random data so that it won't affect hashCode() and equals()
-      this.seed = dataType.equals(DataType.RANDOM) ? seed : 0;
+      this.seed = dataType == DataType.RANDOM || dataType == DataType.UNIQUE
+          || dataType == DataType.REDUCIBLE ? seed : 0;
       this.size = size;
       this.dataType = dataType;
       this.content = content;
+      this.dataReduction = dataReduction;
     }
 
     @Override
@@ -110,10 +171,15 @@ public class Bodies {
     @Override
     public String getContent() { return this.content; }
 
+    @Override
+    public DataReduction getDataReduction() {
+      return this.dataReduction;
+    }
+
     @Override
     public String toString() {
       return "BodyImpl [seed=" + this.seed + ", size=" + this.size + ", dataType=" + this.dataType
-          + "]";
+          + (this.dataReduction != null ? ", dataReduction=" + this.dataReduction : "") + "]";
     }
 
     @Override
@@ -123,6 +189,7 @@ public class Bodies {
       result = prime * result + ((this.dataType == null) ? 0 : this.dataType.hashCode());
       result = prime * result + (int) (this.seed ^ (this.seed >>> 32));
       result = prime * result + (int) (this.size ^ (this.size >>> 32));
+      result = prime * result + ((this.dataReduction == null) ? 0 : this.dataReduction.hashCode());
       return result;
     }
 
@@ -147,6 +214,10 @@ public class Bodies {
       if (this.size != other.size) {
         return false;
       }
+      if (this.dataReduction == null ? other.dataReduction != null
+          : !this.dataReduction.equals(other.dataReduction)) {
+        return false;
+      }
       return true;
     }
 
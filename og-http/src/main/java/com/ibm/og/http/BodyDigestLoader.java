@@ -0,0 +1,59 @@
+/* Copyright (c) IBM Corporation 2016. All Rights Reserved.
+ * Project name: Object Generator
+ * This project is licensed under the Apache License 2.0, see LICENSE.
+ */
+
+package com.ibm.og.http;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.cache.CacheLoader;
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.HashingInputStream;
+import com.ibm.og.api.Body;
+import com.ibm.og.util.io.Streams;
+
+/**
+ * A cache loader which computes the digest of a body's content. Bodies with equal data type,
+ * seed, size and data reduction have equal content, so a cache built with this loader serves
+ * zeroes bodies and bodies drawn from a seed pool without rehashing their content.
+ *
+ * @since 1.9.0
+ */
+public class BodyDigestLoader extends CacheLoader<Body, byte[]> {
+  private static Logger _logger = LoggerFactory.getLogger(BodyDigestLoader.class);
+  private final HashFunction hashFunction;
+
+  /**
+   * Constructs a loader which computes digests with the provided hash function
+   *
+   * @param hashFunction the hash function to digest body content with
+   * @throws NullPointerException if hashFunction is null
+   */
+  public BodyDigestLoader(final HashFunction hashFunction) {
+    this.hashFunction = checkNotNull(hashFunction);
+  }
+
+  @Override
+  public byte[] load(final Body key) throws Exception {
+    checkNotNull(key);
+    _logger.debug("Loading digest for body [{}]", key);
+
+    final HashingInputStream hashStream =
+        new HashingInputStream(this.hashFunction, Streams.create(key));
+    final byte[] buffer = new byte[4096];
+    while (hashStream.read(buffer) != -1) {
+    }
+    // should never throw an exception since the source is from Streams.create
+    hashStream.close();
+    return hashStream.hash().asBytes();
+  }
+
+  @Override
+  public String toString() {
+    return String.format("BodyDigestLoader [hashFunction=%s]", this.hashFunction);
+  }
+}
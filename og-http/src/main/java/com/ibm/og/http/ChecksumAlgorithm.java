@@ -0,0 +1,15 @@
+/* Copyright (c) IBM Corporation 2016. All Rights Reserved.
+ * Project name: Object Generator
+ * This project is licensed under the Apache License 2.0, see LICENSE.
+ */
+
+package com.ibm.og.http;
+
+/**
+ * An enum that describes supported payload checksum algorithms
+ *
+ * @since 1.9.0
+ */
+public enum ChecksumAlgorithm {
+  CRC32C, SHA256
+}
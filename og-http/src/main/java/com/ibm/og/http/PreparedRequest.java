@@ -0,0 +1,137 @@
+/* Copyright (c) IBM Corporation 2016. All Rights Reserved.
+ * Project name: Object Generator
+ * This project is licensed under the Apache License 2.0, see LICENSE.
+ */
+
+package com.ibm.og.http;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.net.URI;
+import java.util.List;
+import java.util.Map;
+
+import com.ibm.og.api.AuthenticatedRequest;
+import com.ibm.og.api.Body;
+import com.ibm.og.api.Method;
+import com.ibm.og.api.Operation;
+import com.ibm.og.api.Request;
+import com.ibm.og.api.RequestTimestamps;
+
+/**
+ * A request which was authenticated ahead of execution. A prepared request behaves as the
+ * request it was created from, and carries the authenticated request a client should send in its
+ * place, along with the time taken to authenticate it. Clients use {@link #authenticate} so that
+ * prepared requests are not authenticated again.
+ *
+ * @since 1.9.0
+ */
+public class PreparedRequest implements Request {
+  private final Request request;
+  private final AuthenticatedRequest authenticatedRequest;
+  private final long signingStart;
+  private final long signingFinish;
+
+  private PreparedRequest(final Request request, final AuthenticatedRequest authenticatedRequest,
+      final long signingStart, final long signingFinish) {
+    this.request = request;
+    this.authenticatedRequest = authenticatedRequest;
+    this.signingStart = signingStart;
+    this.signingFinish = signingFinish;
+  }
+
+  /**
+   * Authenticates a request ahead of its execution
+   * 
+   * @param authentication the authentication to apply to the request
+   * @param request the request to prepare
+   * @return a prepared request
+   * @throws NullPointerException if authentication or request are null
+   */
+  public static PreparedRequest prepare(final HttpAuth authentication, final Request request) {
+    checkNotNull(authentication);
+    checkNotNull(request);
+    final long signingStart = System.nanoTime();
+    final AuthenticatedRequest authenticatedRequest = authentication.authenticate(request);
+    return new PreparedRequest(request, authenticatedRequest, signingStart, System.nanoTime());
+  }
+
+  /**
+   * Returns the authenticated form of a request, recording the time spent authenticating it. If
+   * the request is a {@code PreparedRequest}, its authenticated request and signing time are used
+   * and it is not authenticated again.
+   * 
+   * @param authentication the authentication to apply to requests which are not prepared
+   * @param request the request to authenticate
+   * @param timestamps the timestamps of the request's execution, whose signing start and finish
+   *        are set
+   * @return the authenticated request to send
+   * @throws NullPointerException if authentication, request or timestamps are null
+   */
+  public static AuthenticatedRequest authenticate(final HttpAuth authentication,
+      final Request request, final RequestTimestamps timestamps) {
+    checkNotNull(authentication);
+    checkNotNull(request);
+    checkNotNull(timestamps);
+    final PreparedRequest prepared = request instanceof PreparedRequest
+        ? (PreparedRequest) request : prepare(authentication, request);
+    timestamps.signingStart = prepared.signingStart;
+    timestamps.signingFinish = prepared.signingFinish;
+    return prepared.authenticatedRequest;
+  }
+
+  /**
+   * @return the request this request was prepared from
+   */
+  public Request getRequest() {
+    return this.request;
+  }
+
+  /**
+   * @return the authenticated request to send in place of this request
+   */
+  public AuthenticatedRequest getAuthenticatedRequest() {
+    return this.authenticatedRequest;
+  }
+
+  @Override
+  public Method getMethod() {
+    return this.request.getMethod();
+  }
+
+  @Override
+  public Operation getOperation() {
+    return this.request.getOperation();
+  }
+
+  @Override
+  public URI getUri() {
+    return this.request.getUri();
+  }
+
+  @Override
+  public Map<String, List<String>> getQueryParameters() {
+    return this.request.getQueryParameters();
+  }
+
+  @Override
+  public Map<String, String> headers() {
+    return this.request.headers();
+  }
+
+  @Override
+  public Body getBody() {
+    return this.request.getBody();
+  }
+
+  @Override
+  public Map<String, String> getContext() {
+    return this.request.getContext();
+  }
+
+  @Override
+  public String toString() {
+    return String.format("PreparedRequest [request=%s, signingNanos=%s]", this.request,
+        this.signingFinish - this.signingStart);
+  }
+}
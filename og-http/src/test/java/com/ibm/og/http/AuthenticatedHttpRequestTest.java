@@ -97,4 +97,19 @@ public class AuthenticatedHttpRequestTest {
         new AuthenticatedHttpRequest(this.request);
     authenticatedRequest.addHeader("key", null);
   }
+
+  @Test(expected = NullPointerException.class)
+  public void setUriNullUri() {
+    new AuthenticatedHttpRequest(this.request).setUri(null);
+  }
+
+  @Test
+  public void setUri() {
+    final AuthenticatedHttpRequest authenticatedRequest =
+        new AuthenticatedHttpRequest(this.request);
+    assertThat(authenticatedRequest.getUri(), is(this.request.getUri()));
+    final URI uri = URI.create("http://127.0.0.1/container/object?signature=abc");
+    authenticatedRequest.setUri(uri);
+    assertThat(authenticatedRequest.getUri(), is(uri));
+  }
 }
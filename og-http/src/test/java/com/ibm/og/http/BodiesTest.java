@@ -11,6 +11,7 @@ import static org.hamcrest.Matchers.is;
 import org.junit.Test;
 
 import com.ibm.og.api.Body;
+import com.ibm.og.api.DataReduction;
 import com.ibm.og.api.DataType;
 
 public class BodiesTest {
@@ -44,4 +45,58 @@ public class BodiesTest {
     assertThat(body.getDataType(), is(DataType.ZEROES));
     assertThat(body.getSize(), is(1L));
   }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void uniqueNegativeSize() {
+    Bodies.unique(-1);
+  }
+
+  @Test
+  public void unique() {
+    final Body body = Bodies.unique(1);
+    assertThat(body.getDataType(), is(DataType.UNIQUE));
+    assertThat(body.getSize(), is(1L));
+    assertThat(body.getRandomSeed() == Bodies.unique(1).getRandomSeed(), is(false));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void reducibleNegativeSize() {
+    Bodies.reducible(-1, new DataReduction(2.0, 2.0, 4096));
+  }
+
+  @Test(expected = NullPointerException.class)
+  public void reducibleNullReduction() {
+    Bodies.reducible(1, null);
+  }
+
+  @Test
+  public void reducible() {
+    final DataReduction reduction = new DataReduction(2.0, 2.0, 4096);
+    final Body body = Bodies.reducible(1, reduction);
+    assertThat(body.getDataType(), is(DataType.REDUCIBLE));
+    assertThat(body.getSize(), is(1L));
+    assertThat(body.getDataReduction(), is(reduction));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void fromSeedCustom() {
+    Bodies.fromSeed(DataType.CUSTOM, 1, 1, null);
+  }
+
+  @Test(expected = NullPointerException.class)
+  public void fromSeedReducibleNullReduction() {
+    Bodies.fromSeed(DataType.REDUCIBLE, 1, 1, null);
+  }
+
+  @Test
+  public void fromSeed() {
+    final Body unique = Bodies.unique(1024);
+    final Body body = Bodies.fromSeed(DataType.UNIQUE, 1024, unique.getRandomSeed(), null);
+    assertThat(body, is(unique));
+
+    final DataReduction reduction = new DataReduction(2.0, 2.0, 4096);
+    final Body reducible = Bodies.reducible(1024, reduction);
+    assertThat(Bodies.fromSeed(DataType.REDUCIBLE, 1024, reducible.getRandomSeed(), reduction),
+        is(reducible));
+  }
 }
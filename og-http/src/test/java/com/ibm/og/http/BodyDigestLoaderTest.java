@@ -0,0 +1,64 @@
+/* Copyright (c) IBM Corporation 2016. All Rights Reserved.
+ * Project name: Object Generator
+ * This project is licensed under the Apache License 2.0, see LICENSE.
+ */
+
+package com.ibm.og.http;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+import org.junit.Test;
+
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.LoadingCache;
+import com.google.common.hash.Hashing;
+import com.google.common.io.BaseEncoding;
+import com.google.common.io.ByteStreams;
+import com.ibm.og.api.Body;
+import com.ibm.og.api.DataType;
+import com.ibm.og.util.io.Streams;
+
+public class BodyDigestLoaderTest {
+  @Test(expected = NullPointerException.class)
+  public void nullHashFunction() {
+    new BodyDigestLoader(null);
+  }
+
+  @Test(expected = NullPointerException.class)
+  public void nullBody() throws Exception {
+    new BodyDigestLoader(Hashing.md5()).load(null);
+  }
+
+  @Test
+  public void zeroes() throws Exception {
+    final byte[] md5 = new BodyDigestLoader(Hashing.md5()).load(Bodies.zeroes(5000));
+    assertThat(md5, is(new MD5DigestLoader().load(5000L)));
+  }
+
+  @Test
+  public void empty() throws Exception {
+    final byte[] sha256 = new BodyDigestLoader(Hashing.sha256()).load(Bodies.random(0));
+    assertThat(BaseEncoding.base16().lowerCase().encode(sha256),
+        is("e3b0c44298fc1c149afbf4c8996fb92427ae41e4649b934ca495991b7852b855"));
+  }
+
+  @Test
+  public void seeded() throws Exception {
+    final Body body = Bodies.fromSeed(DataType.RANDOM, 10000, 42, null);
+    final byte[] content = ByteStreams.toByteArray(Streams.create(body));
+    final byte[] expected = Hashing.sha256().hashBytes(content).asBytes();
+
+    final LoadingCache<Body, byte[]> cache =
+        CacheBuilder.newBuilder().build(new BodyDigestLoader(Hashing.sha256()));
+    assertThat(cache.get(body), is(expected));
+    // an equal body from the same seed is served from the cache
+    assertThat(cache.get(Bodies.fromSeed(DataType.RANDOM, 10000, 42, null)) == cache.get(body),
+        is(true));
+    assertThat(cache.size(), is(1L));
+    assertThat(cache.get(Bodies.fromSeed(DataType.RANDOM, 10000, 43, null)), is(
+        Hashing.sha256().hashBytes(ByteStreams.toByteArray(
+            Streams.create(Bodies.fromSeed(DataType.RANDOM, 10000, 43, null)))).asBytes()));
+    assertThat(cache.size(), is(2L));
+  }
+}
@@ -0,0 +1,86 @@
+/* Copyright (c) IBM Corporation 2016. All Rights Reserved.
+ * Project name: Object Generator
+ * This project is licensed under the Apache License 2.0, see LICENSE.
+ */
+
+package com.ibm.og.http;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.net.URI;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.ibm.og.api.AuthenticatedRequest;
+import com.ibm.og.api.Method;
+import com.ibm.og.api.Operation;
+import com.ibm.og.api.Request;
+import com.ibm.og.api.RequestTimestamps;
+import com.ibm.og.util.Context;
+
+public class PreparedRequestTest {
+  private Request request;
+  private AuthenticatedRequest authenticatedRequest;
+  private HttpAuth authentication;
+
+  @Before
+  public void before() {
+    this.request = new HttpRequest.Builder(Method.PUT,
+        URI.create("http://127.0.0.1/container/object"), Operation.WRITE)
+            .withBody(Bodies.random(1024)).withContext(Context.X_OG_REQUEST_ID, "1").build();
+    this.authenticatedRequest = new AuthenticatedHttpRequest(this.request);
+    this.authentication = mock(HttpAuth.class);
+    when(this.authentication.authenticate(this.request)).thenReturn(this.authenticatedRequest);
+  }
+
+  @Test(expected = NullPointerException.class)
+  public void prepareNullAuthentication() {
+    PreparedRequest.prepare(null, this.request);
+  }
+
+  @Test(expected = NullPointerException.class)
+  public void prepareNullRequest() {
+    PreparedRequest.prepare(this.authentication, null);
+  }
+
+  @Test
+  public void prepare() {
+    final PreparedRequest prepared = PreparedRequest.prepare(this.authentication, this.request);
+    assertThat(prepared.getRequest(), sameInstance(this.request));
+    assertThat(prepared.getAuthenticatedRequest(), sameInstance(this.authenticatedRequest));
+    assertThat(prepared.getMethod(), is(Method.PUT));
+    assertThat(prepared.getOperation(), is(Operation.WRITE));
+    assertThat(prepared.getUri(), is(this.request.getUri()));
+    assertThat(prepared.getBody(), is(this.request.getBody()));
+    assertThat(prepared.getContext(), is(this.request.getContext()));
+  }
+
+  @Test
+  public void authenticate() {
+    final RequestTimestamps timestamps = new RequestTimestamps();
+    assertThat(PreparedRequest.authenticate(this.authentication, this.request, timestamps),
+        sameInstance(this.authenticatedRequest));
+    assertThat(timestamps.signingStart, is(not(0L)));
+    assertThat(timestamps.signingFinish, greaterThanOrEqualTo(timestamps.signingStart));
+  }
+
+  @Test
+  public void authenticatePrepared() {
+    final PreparedRequest prepared = PreparedRequest.prepare(this.authentication, this.request);
+    final RequestTimestamps timestamps = new RequestTimestamps();
+    assertThat(PreparedRequest.authenticate(this.authentication, prepared, timestamps),
+        sameInstance(this.authenticatedRequest));
+    // the prepared request is not authenticated again
+    verify(this.authentication, times(1)).authenticate(this.request);
+    assertThat(timestamps.signingStart, is(not(0L)));
+  }
+}
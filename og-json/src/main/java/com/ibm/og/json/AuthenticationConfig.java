@@ -6,6 +6,7 @@
 package com.ibm.og.json;
 
 import com.ibm.og.api.AuthType;
+import com.ibm.og.http.ChecksumAlgorithm;
 
 public class AuthenticationConfig {
   public AuthType type;
@@ -17,7 +18,13 @@ public class AuthenticationConfig {
   public String credentialFile;
   public String account;
   public boolean awsChunked;
+  public ChecksumAlgorithm awsTrailerChecksum;
+  public int awsChunkSize;
   public int awsCacheSize;
+  public int awsPresignedExpiry;
+  public int awsPresignedCacheSize;
+  public int signingThreads;
+  public int signingQueueSize;
 
   public AuthenticationConfig() {
     this.type = AuthType.NONE;
@@ -29,6 +36,12 @@ public class AuthenticationConfig {
     this.credentialFile = null;
     this.account = null;
     this.awsChunked = false;
+    this.awsTrailerChecksum = null;
+    this.awsChunkSize = 128 * 1024;
     this.awsCacheSize = 0;
+    this.awsPresignedExpiry = 3600;
+    this.awsPresignedCacheSize = 10000;
+    this.signingThreads = 0;
+    this.signingQueueSize = 256;
   }
 }
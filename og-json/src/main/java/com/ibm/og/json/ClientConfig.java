@@ -8,6 +8,9 @@ package com.ibm.og.json;
 import java.util.List;
 
 public class ClientConfig {
+  public ClientType type;
+  public int ioThreads;
+  public boolean virtualThreads;
   public int connectTimeout;
   public int soTimeout;
   public boolean soReuseAddress;
@@ -20,6 +23,10 @@ public class ClientConfig {
   public int validateAfterInactivity;
   public int maxIdleTime;
   public boolean chunkedEncoding;
+  public int chunkSize;
+  public int writeBufferSize;
+  public int readBufferSize;
+  public int payloadPoolSize;
   public boolean expectContinue;
   public int waitForContinue;
   public int retryCount;
@@ -36,8 +43,12 @@ public class ClientConfig {
   public int dnsCacheNegativeTtl;
   public int writeThroughput;
   public int readThroughput;
+  public boolean contentVerification;
 
   public ClientConfig() {
+    this.type = ClientType.BLOCKING;
+    this.ioThreads = 0;
+    this.virtualThreads = false;
     this.connectTimeout = 0;
     this.soTimeout = 0;
     this.soReuseAddress = false;
@@ -50,6 +61,10 @@ public class ClientConfig {
     this.validateAfterInactivity = 10000;
     this.maxIdleTime = 60000;
     this.chunkedEncoding = false;
+    this.chunkSize = 2048;
+    this.writeBufferSize = 8192;
+    this.readBufferSize = 4096;
+    this.payloadPoolSize = 0;
     this.expectContinue = false;
     this.waitForContinue = 3000;
     this.retryCount = 0;
@@ -66,5 +81,6 @@ public class ClientConfig {
     this.dnsCacheNegativeTtl = 10;
     this.writeThroughput = 0;
     this.readThroughput = 0;
+    this.contentVerification = false;
   }
 }
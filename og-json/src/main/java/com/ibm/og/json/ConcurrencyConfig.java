@@ -13,6 +13,7 @@ public class ConcurrencyConfig {
   public TimeUnit unit;
   public double rampup;
   public TimeUnit rampupUnit;
+  public boolean openLoop;
 
   public ConcurrencyConfig() {
     this.type = null;
@@ -20,5 +21,6 @@ public class ConcurrencyConfig {
     this.unit = TimeUnit.SECONDS;
     this.rampup = 0.0;
     this.rampupUnit = TimeUnit.SECONDS;
+    this.openLoop = false;
   }
 }
@@ -0,0 +1,22 @@
+/* Copyright (c) IBM Corporation 2016. All Rights Reserved.
+ * Project name: Object Generator
+ * This project is licensed under the Apache License 2.0, see LICENSE.
+ */
+
+package com.ibm.og.json;
+
+import com.ibm.og.util.SizeUnit;
+
+public class DataReductionConfig {
+  public double compressionRatio;
+  public double dedupRatio;
+  public long blockSize;
+  public SizeUnit blockSizeUnit;
+
+  public DataReductionConfig() {
+    this.compressionRatio = 1.0;
+    this.dedupRatio = 1.0;
+    this.blockSize = 4;
+    this.blockSizeUnit = SizeUnit.KIBIBYTES;
+  }
+}
@@ -43,6 +43,8 @@ public class OGConfig {
   public OperationConfig getContainerProtection;
   public SelectionConfig<FilesizeConfig> filesize;
   public DataType data;
+  public DataReductionConfig dataReduction;
+  public int seedPoolSize;
   public ConcurrencyConfig concurrency;
   public AuthenticationConfig authentication;
   public ClientConfig client;
@@ -86,6 +88,8 @@ public class OGConfig {
     this.getContainerProtection = new OperationConfig();
     this.filesize = null;
     this.data = DataType.RANDOM;
+    this.dataReduction = new DataReductionConfig();
+    this.seedPoolSize = 0;
     this.concurrency = null;
     this.authentication = new AuthenticationConfig();
     this.client = new ClientConfig();
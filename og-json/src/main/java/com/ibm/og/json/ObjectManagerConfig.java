@@ -13,6 +13,7 @@ public class ObjectManagerConfig {
   public long objectFileMaxSize;
   public long objectFilePersistFrequency;
   public Integer objectFileIndex;
+  public int listenerThreads;
 
   public ObjectManagerConfig() {
     this.objectFileLocation = "./object";
@@ -20,5 +21,6 @@ public class ObjectManagerConfig {
     this.objectFileMaxSize = 100000000; // 100mb
     this.objectFilePersistFrequency = 1800; // 30 minutes
     this.objectFileIndex = null;
+    this.listenerThreads = 0;
   }
 }
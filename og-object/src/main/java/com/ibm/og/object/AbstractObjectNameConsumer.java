@@ -10,21 +10,23 @@ import static com.google.common.base.Preconditions.checkNotNull;
 
 import java.util.Set;
 
+import com.ibm.og.api.Body;
+import com.ibm.og.api.DataType;
 import com.ibm.og.api.Operation;
 import com.ibm.og.api.Request;
 import com.ibm.og.api.Response;
 import com.ibm.og.http.HttpUtil;
 import com.ibm.og.util.Context;
+import com.ibm.og.util.OperationListener;
 import com.ibm.og.util.Pair;
 import com.google.common.collect.ImmutableSet;
-import com.google.common.eventbus.Subscribe;
 
 /**
  * A consumer of object names
  * 
  * @since 1.0
  */
-public abstract class AbstractObjectNameConsumer {
+public abstract class AbstractObjectNameConsumer implements OperationListener {
   protected final ObjectManager objectManager;
   private final Operation operation;
   private final Set<Integer> statusCodes;
@@ -49,12 +51,24 @@ public abstract class AbstractObjectNameConsumer {
     }
   }
 
+  /**
+   * @return the operation type this instance works with
+   * @since 1.9.0
+   */
+  public Operation getOperation() {
+    return this.operation;
+  }
+
+  @Override
+  public void update(final Pair<Request, Response> operation) {
+    consume(operation);
+  }
+
   /**
    * Consumes operations and processes object names
    * 
    * @param operation the operation to process
    */
-  @Subscribe
   public void consume(final Pair<Request, Response> operation) {
     checkNotNull(operation);
     final Request request = operation.getKey();
@@ -96,7 +110,10 @@ public abstract class AbstractObjectNameConsumer {
     final int containerSuffix = getContainerSuffix(request);
     final byte numLegalHolds = getNumberOfLegalHolds(request, response);
     final int retention = getObjectRetention(request, response);
-    return LegacyObjectMetadata.fromMetadata(objectString, objectSize, containerSuffix, numLegalHolds, retention);
+    final DataType dataType = getObjectDataType(request, objectSize);
+    final long seed = dataType != null ? getObjectSeed(request) : 0;
+    return LegacyObjectMetadata.fromMetadata(objectString, objectSize, containerSuffix, numLegalHolds, retention,
+        dataType, seed);
   }
 
 
@@ -127,6 +144,53 @@ public abstract class AbstractObjectNameConsumer {
     }
   }
 
+  /**
+   * Determines the data type of the object's content, if the content can be reproduced from the
+   * object's seed. Writes take the data type of their body, other operations take the data type of
+   * the object they were issued against
+   *
+   * @param request the request of the operation
+   * @param objectSize the size of the object
+   * @return the data type of the object's content, or null if its content cannot be reproduced
+   * @since 1.9.0
+   */
+  protected DataType getObjectDataType(final Request request, final long objectSize) {
+    if (this.operation == Operation.WRITE || this.operation == Operation.OVERWRITE) {
+      final Body body = request.getBody();
+      if (body == null || body.getDataType() == null || body.getSize() != objectSize) {
+        return null;
+      }
+      switch (body.getDataType()) {
+        case RANDOM:
+        case ZEROES:
+        case UNIQUE:
+        case REDUCIBLE:
+          return body.getDataType();
+        default:
+          return null;
+      }
+    }
+    final String dataType = request.getContext().get(Context.X_OG_OBJECT_DATA_TYPE);
+    if (dataType == null || request.getContext().get(Context.X_OG_OBJECT_SEED) == null) {
+      return null;
+    }
+    return DataType.valueOf(dataType);
+  }
+
+  /**
+   * Determines the seed of the object's content
+   *
+   * @param request the request of the operation
+   * @return the seed of the object's content
+   * @since 1.9.0
+   */
+  protected long getObjectSeed(final Request request) {
+    if (this.operation == Operation.WRITE || this.operation == Operation.OVERWRITE) {
+      return request.getBody().getRandomSeed();
+    }
+    return Long.parseLong(request.getContext().get(Context.X_OG_OBJECT_SEED));
+  }
+
   protected byte getNumberOfLegalHolds(final Request request, final Response response) {
     final String nHolds = request.getContext().get(Context.X_OG_LEGAL_HOLD_SUFFIX);
     if (nHolds == null) {
@@ -12,6 +12,7 @@ import java.nio.ByteBuffer;
 import java.util.Arrays;
 
 import com.google.common.io.BaseEncoding;
+import com.ibm.og.api.DataType;
 
 /**
  * A defacto {@code ObjectMetadata} implementation.
@@ -24,11 +25,20 @@ public class LegacyObjectMetadata implements ObjectMetadata {
   public static final int OBJECT_SUFFIX_SIZE = 4;
   public static final int OBJECT_LEGAL_HOLDS_SIZE = 1;
   public static final int OBJECT_RETENTION_SIZE = 4;
+  public static final int OBJECT_DATA_TYPE_SIZE = 1;
+  public static final int OBJECT_SEED_SIZE = 8;
   public static final int OBJECT_SIZE = OBJECT_NAME_SIZE + OBJECT_SIZE_SIZE + OBJECT_SUFFIX_SIZE +
-          OBJECT_LEGAL_HOLDS_SIZE + OBJECT_RETENTION_SIZE;
+          OBJECT_LEGAL_HOLDS_SIZE + OBJECT_RETENTION_SIZE + OBJECT_DATA_TYPE_SIZE + OBJECT_SEED_SIZE;
+  private static final int OBJECT_DATA_TYPE_OFFSET = OBJECT_NAME_SIZE + OBJECT_SIZE_SIZE +
+          OBJECT_SUFFIX_SIZE + OBJECT_LEGAL_HOLDS_SIZE + OBJECT_RETENTION_SIZE;
+  private static final int OBJECT_SEED_OFFSET = OBJECT_DATA_TYPE_OFFSET + OBJECT_DATA_TYPE_SIZE;
+  // data types whose content can be reproduced from a seed, indexed by their stored code. Code 0
+  // is stored for objects whose content cannot be reproduced. Codes must never be reassigned
+  private static final DataType[] DATA_TYPE_CODES =
+      {null, DataType.RANDOM, DataType.ZEROES, DataType.UNIQUE, DataType.REDUCIBLE};
   private static final BaseEncoding ENCODING = BaseEncoding.base16().lowerCase();
   protected final ByteBuffer objectBuffer;
-  public static final byte MAJOR_VERSION = (byte)2;
+  public static final byte MAJOR_VERSION = (byte)3;
   public static final byte MINOR_VERSION = (byte)0;
 
 
@@ -63,6 +73,29 @@ public class LegacyObjectMetadata implements ObjectMetadata {
    */
   public static LegacyObjectMetadata fromMetadata(final String objectName, final long objectSize,
       final int containerSuffix, final byte numLegalHolds, final int retentionPeriod) {
+    return fromMetadata(objectName, objectSize, containerSuffix, numLegalHolds, retentionPeriod,
+        null, 0);
+  }
+
+  /**
+   * Configures an instance using the provided metadata, including the data type and seed the
+   * object's content was written with
+   *
+   * @param objectName the object name; must be base16 encoded / uuid friendly
+   * @param objectSize the size of the object
+   * @param containerSuffix object's container suffix
+   * @param numLegalHolds the number of legal holds on the object
+   * @param retentionPeriod the object's retention period
+   * @param dataType the data type of the object's content, or null if its content cannot be
+   *        reproduced. Data types which cannot be reproduced from a seed are stored as null
+   * @param seed the random seed of the object's content
+   * @return a {@code LegacyObjectMetadata} instance
+   * @throws IllegalArgumentException if objectSize is negative
+   * @since 1.9.0
+   */
+  public static LegacyObjectMetadata fromMetadata(final String objectName, final long objectSize,
+      final int containerSuffix, final byte numLegalHolds, final int retentionPeriod,
+      final DataType dataType, final long seed) {
     checkNotNull(objectName);
     // HACK; assume 1 char == 2 bytes for object name string length checking
     final int stringLength = 2 * OBJECT_NAME_SIZE;
@@ -80,9 +113,21 @@ public class LegacyObjectMetadata implements ObjectMetadata {
     objectBuffer.putInt(containerSuffix);
     objectBuffer.put(numLegalHolds);
     objectBuffer.putInt(retentionPeriod);
+    final byte dataTypeCode = dataTypeCode(dataType);
+    objectBuffer.put(dataTypeCode);
+    objectBuffer.putLong(dataTypeCode != 0 ? seed : 0);
     return new LegacyObjectMetadata(objectBuffer);
   }
 
+  private static byte dataTypeCode(final DataType dataType) {
+    for (int code = 1; code < DATA_TYPE_CODES.length; code++) {
+      if (DATA_TYPE_CODES[code] == dataType) {
+        return (byte) code;
+      }
+    }
+    return 0;
+  }
+
   @Override
   public String getName() {
     return ENCODING.encode(this.objectBuffer.array(), 0, OBJECT_NAME_SIZE);
@@ -109,6 +154,17 @@ public class LegacyObjectMetadata implements ObjectMetadata {
     return retention;
   }
 
+  @Override
+  public DataType getDataType() {
+    final int code = this.objectBuffer.get(OBJECT_DATA_TYPE_OFFSET);
+    return code > 0 && code < DATA_TYPE_CODES.length ? DATA_TYPE_CODES[code] : null;
+  }
+
+  @Override
+  public long getSeed() {
+    return this.objectBuffer.getLong(OBJECT_SEED_OFFSET);
+  }
+
   @Override
   public boolean equals(final Object obj) {
     //todo: fix this. do we need to take into account object legal holds and retention for equality
@@ -164,7 +220,7 @@ public class LegacyObjectMetadata implements ObjectMetadata {
 
   @Override
   public String toString() {
-    return String.format("LegacyObjectMetadata [name=%s, size=%s legalholds=%s retention=%s]", getName(), getSize(),
-            getNumberOfLegalHolds(), getRetention());
+    return String.format("LegacyObjectMetadata [name=%s, size=%s legalholds=%s retention=%s dataType=%s seed=%s]",
+            getName(), getSize(), getNumberOfLegalHolds(), getRetention(), getDataType(), getSeed());
   }
 }
@@ -0,0 +1,67 @@
+/* Copyright (c) IBM Corporation 2016. All Rights Reserved.
+ * Project name: Object Generator
+ * This project is licensed under the Apache License 2.0, see LICENSE.
+ */
+
+package com.ibm.og.object;
+
+/**
+ * Hashes binary object names for the open addressed tables of {@link ObjectNameTable} and
+ * {@link OffHeapObjectIndex}. The {@link LegacyObjectMetadata#OBJECT_NAME_SIZE} byte name is read
+ * as two big endian longs and a short, which tables may store as primitives and rehash without
+ * reassembling the name.
+ *
+ * @since 1.9.0
+ */
+final class NameHash {
+  private NameHash() {}
+
+  /**
+   * Hashes the object name stored in the first bytes of the provided array
+   *
+   * @param name an array whose first {@code OBJECT_NAME_SIZE} bytes are an object name
+   * @return the hash of the name
+   */
+  static long hash(final byte[] name) {
+    return hash(high(name), low(name), tail(name));
+  }
+
+  /**
+   * Hashes an object name from its parts
+   *
+   * @param high the first eight bytes of the name
+   * @param low the next eight bytes of the name
+   * @param tail the last two bytes of the name
+   * @return the hash of the name
+   */
+  static long hash(final long high, final long low, final short tail) {
+    long h = high ^ Long.rotateLeft(low, 29) ^ tail;
+    // murmur3 64 bit finalizer
+    h ^= h >>> 33;
+    h *= 0xff51afd7ed558ccdL;
+    h ^= h >>> 33;
+    h *= 0xc4ceb9fe1a85ec53L;
+    h ^= h >>> 33;
+    return h;
+  }
+
+  static long high(final byte[] name) {
+    return readLong(name, 0);
+  }
+
+  static long low(final byte[] name) {
+    return readLong(name, 8);
+  }
+
+  static short tail(final byte[] name) {
+    return (short) (((name[16] & 0xff) << 8) | (name[17] & 0xff));
+  }
+
+  private static long readLong(final byte[] b, final int offset) {
+    long value = 0;
+    for (int i = 0; i < 8; i++) {
+      value = (value << 8) | (b[offset + i] & 0xff);
+    }
+    return value;
+  }
+}
@@ -0,0 +1,429 @@
+/* Copyright (c) IBM Corporation 2016. All Rights Reserved.
+ * Project name: Object Generator
+ * This project is licensed under the Apache License 2.0, see LICENSE.
+ */
+
+package com.ibm.og.object;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkState;
+
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.FilenameFilter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * An append-only log of the objects added to and removed from an object file. Each entry is an
+ * operation byte followed by the {@link LegacyObjectMetadata#OBJECT_SIZE} byte object record.
+ * <p>
+ * Entries are appended to an in-memory buffer and written to the current log segment by a
+ * background thread, so that callers never wait on disk i/o unless the buffer fills faster than it
+ * can be written. The log is divided into numbered segments named
+ * {@code <object file name>.<sequence>.log}; {@link #roll} seals the current segment so that it can
+ * be compacted into the object file and deleted.
+ *
+ * @since 1.9.0
+ */
+public class ObjectChangeLog {
+  private static final Logger _logger = LoggerFactory.getLogger(ObjectChangeLog.class);
+  static final byte ADD = 'A';
+  static final byte REMOVE = 'R';
+  static final int ENTRY_SIZE = 1 + LegacyObjectMetadata.OBJECT_SIZE;
+  private static final int BUFFER_SIZE = ENTRY_SIZE * 32768;
+  private static final long FLUSH_INTERVAL_MILLIS = 100;
+  private static final String SUFFIX = ".log";
+
+  private final File objectFile;
+  private final ReentrantLock lock;
+  private final Condition notFull;
+  private final Condition notEmpty;
+  private final Object channelLock;
+  private final Thread writer;
+  private ByteBuffer active;
+  private ByteBuffer spare;
+  private FileChannel channel;
+  private long sequence;
+  private volatile boolean closed;
+  private volatile IOException failure;
+
+  /**
+   * Constructs an instance which appends to a new segment following any existing segments of the
+   * provided object file. The segment is created when the first entry is written
+   *
+   * @param objectFile the object file whose changes are logged
+   * @throws NullPointerException if objectFile is null
+   */
+  public ObjectChangeLog(final File objectFile) {
+    this.objectFile = checkNotNull(objectFile);
+    this.lock = new ReentrantLock();
+    this.notFull = this.lock.newCondition();
+    this.notEmpty = this.lock.newCondition();
+    this.channelLock = new Object();
+    this.active = ByteBuffer.allocate(BUFFER_SIZE);
+    this.spare = ByteBuffer.allocate(BUFFER_SIZE);
+    final List<File> existing = segments(objectFile);
+    this.sequence =
+        1 + (existing.isEmpty() ? 0 : sequence(objectFile, existing.get(existing.size() - 1)));
+
+    this.writer = new Thread(new Runnable() {
+      @Override
+      public void run() {
+        writeLoop();
+      }
+    }, "object-change-log");
+    this.writer.setDaemon(true);
+    this.writer.start();
+  }
+
+  /**
+   * Appends an add entry for the provided object
+   *
+   * @param object the added object
+   */
+  public void add(final ObjectMetadata object) {
+    append(ADD, object.toBytes(), 0);
+  }
+
+  /**
+   * Appends a remove entry for the provided object
+   *
+   * @param object the removed object
+   */
+  public void remove(final ObjectMetadata object) {
+    append(REMOVE, object.toBytes(), 0);
+  }
+
+  /**
+   * Appends an entry for a packed object record
+   *
+   * @param operation {@link #ADD} or {@link #REMOVE}
+   * @param records a buffer of packed object records
+   * @param offset the offset of the record to append
+   */
+  void append(final byte operation, final byte[] records, final int offset) {
+    this.lock.lock();
+    try {
+      while (!this.closed && this.active.remaining() < ENTRY_SIZE) {
+        checkFailure();
+        this.notEmpty.signal();
+        this.notFull.awaitUninterruptibly();
+      }
+      if (this.closed) {
+        // changes made after the final compaction at shutdown are not persisted
+        _logger.debug("Object change log is closed, dropping entry");
+        return;
+      }
+      checkFailure();
+      this.active.put(operation);
+      this.active.put(records, offset, LegacyObjectMetadata.OBJECT_SIZE);
+    } finally {
+      this.lock.unlock();
+    }
+  }
+
+  private void checkFailure() {
+    if (this.failure != null) {
+      throw new ObjectManagerException(this.failure);
+    }
+  }
+
+  private void writeLoop() {
+    while (true) {
+      // the channel lock is held from the swap until the buffer is written so that roll and close
+      // can never write newer entries ahead of it
+      synchronized (this.channelLock) {
+        final ByteBuffer toWrite;
+        this.lock.lock();
+        try {
+          if (this.closed) {
+            return;
+          }
+          if (this.active.position() == 0) {
+            this.notEmpty.await(FLUSH_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+          }
+          toWrite = swap();
+        } catch (final InterruptedException e) {
+          continue;
+        } finally {
+          this.lock.unlock();
+        }
+        try {
+          write(toWrite);
+        } catch (final IOException e) {
+          _logger.error("Unable to write object change log", e);
+          this.lock.lock();
+          try {
+            this.failure = e;
+            this.notFull.signalAll();
+          } finally {
+            this.lock.unlock();
+          }
+          return;
+        }
+      }
+    }
+  }
+
+  // swaps the active and spare buffers and returns the buffer to write; must be called with lock
+  // held and with the spare buffer empty
+  private ByteBuffer swap() {
+    final ByteBuffer toWrite = this.active;
+    this.active = this.spare;
+    this.spare = toWrite;
+    this.notFull.signalAll();
+    return toWrite;
+  }
+
+  // must be called with the channel lock held; segments are created on first write
+  private void write(final ByteBuffer buffer) throws IOException {
+    if (buffer.position() == 0) {
+      return;
+    }
+    if (this.channel == null) {
+      final File segment = segment(this.objectFile, this.sequence);
+      this.channel = new FileOutputStream(segment, true).getChannel();
+      _logger.debug("Opened object change log segment [{}]", segment);
+    }
+    buffer.flip();
+    while (buffer.hasRemaining()) {
+      this.channel.write(buffer);
+    }
+    buffer.clear();
+  }
+
+  /**
+   * Seals the current segment and starts a new one. All entries appended before this call are
+   * written to the sealed segments
+   *
+   * @return all sealed segments of the object file, in the order they should be replayed
+   * @throws IOException if the current segment cannot be written
+   */
+  public List<File> roll() throws IOException {
+    final File current;
+    synchronized (this.channelLock) {
+      this.lock.lock();
+      try {
+        checkFailure();
+        checkState(!this.closed, "Object change log is closed");
+        write(this.active);
+        closeSegment();
+        this.sequence++;
+        current = segment(this.objectFile, this.sequence);
+        this.notFull.signalAll();
+      } finally {
+        this.lock.unlock();
+      }
+    }
+    final List<File> sealed = segments(this.objectFile);
+    // entries appended since the roll may already have created the next segment
+    sealed.remove(current);
+    return sealed;
+  }
+
+  private void closeSegment() throws IOException {
+    if (this.channel != null) {
+      this.channel.force(false);
+      this.channel.close();
+      this.channel = null;
+    }
+  }
+
+  /**
+   * Writes all appended entries and closes this log
+   *
+   * @throws IOException if the current segment cannot be written
+   */
+  public void close() throws IOException {
+    synchronized (this.channelLock) {
+      this.lock.lock();
+      try {
+        if (this.closed) {
+          return;
+        }
+        this.closed = true;
+        this.notFull.signalAll();
+        if (this.failure == null) {
+          write(this.active);
+        }
+        closeSegment();
+      } finally {
+        this.lock.unlock();
+      }
+    }
+  }
+
+  /**
+   * Applies the entries of the provided segments to an object index, in order. A partially
+   * written entry at the end of a segment is ignored
+   *
+   * @param segments the segments to replay
+   * @param index the index to apply entries to
+   * @return the number of entries applied
+   * @throws IOException if a segment cannot be read
+   */
+  public static long replay(final List<File> segments, final OffHeapObjectIndex index)
+      throws IOException {
+    checkNotNull(index);
+    return replay(segments, new EntryHandler() {
+      @Override
+      public void add(final ObjectMetadata object) {
+        index.put(object);
+      }
+
+      @Override
+      public void remove(final ObjectMetadata object) {
+        index.remove(object);
+      }
+    });
+  }
+
+  /**
+   * Reduces the entries of the provided segments to their net effect on an object file. After
+   * replay, {@code added} holds the objects to write in addition to the object file and
+   * {@code removed} holds the names whose records in the object file are stale
+   *
+   * @param segments the segments to replay
+   * @param added the index of objects whose last entry is an add
+   * @param removed the index of objects whose object file record must be skipped
+   * @return the number of entries applied
+   * @throws IOException if a segment cannot be read
+   */
+  public static long replay(final List<File> segments, final OffHeapObjectIndex added,
+      final OffHeapObjectIndex removed) throws IOException {
+    checkNotNull(added);
+    checkNotNull(removed);
+    return replay(segments, new EntryHandler() {
+      @Override
+      public void add(final ObjectMetadata object) {
+        added.put(object);
+        removed.put(object);
+      }
+
+      @Override
+      public void remove(final ObjectMetadata object) {
+        added.remove(object);
+        removed.put(object);
+      }
+    });
+  }
+
+  private interface EntryHandler {
+    void add(ObjectMetadata object);
+
+    void remove(ObjectMetadata object);
+  }
+
+  private static long replay(final List<File> segments, final EntryHandler handler)
+      throws IOException {
+    checkNotNull(segments);
+    long entries = 0;
+    final byte[] entry = new byte[ENTRY_SIZE];
+    final byte[] record = new byte[LegacyObjectMetadata.OBJECT_SIZE];
+    for (final File segment : segments) {
+      final InputStream in = new BufferedInputStream(new FileInputStream(segment));
+      try {
+        while (readFully(in, entry)) {
+          System.arraycopy(entry, 1, record, 0, record.length);
+          final ObjectMetadata object = LegacyObjectMetadata.fromBytes(record);
+          if (entry[0] == ADD) {
+            handler.add(object);
+          } else if (entry[0] == REMOVE) {
+            handler.remove(object);
+          } else {
+            throw new IOException(
+                String.format("Invalid object change log entry in [%s]", segment));
+          }
+          entries++;
+        }
+      } finally {
+        in.close();
+      }
+    }
+    return entries;
+  }
+
+  private static boolean readFully(final InputStream in, final byte[] buf) throws IOException {
+    int read = 0;
+    while (read < buf.length) {
+      final int n = in.read(buf, read, buf.length - read);
+      if (n < 0) {
+        return false;
+      }
+      read += n;
+    }
+    return true;
+  }
+
+  /**
+   * Finds the log segments of an object file
+   *
+   * @param objectFile the object file
+   * @return the segments of the object file, ordered by sequence number
+   */
+  public static List<File> segments(final File objectFile) {
+    checkNotNull(objectFile);
+    final File dir = objectFile.getAbsoluteFile().getParentFile();
+    final Pattern pattern = segmentPattern(objectFile);
+    final File[] files = dir.listFiles(new FilenameFilter() {
+      @Override
+      public boolean accept(final File d, final String name) {
+        return pattern.matcher(name).matches();
+      }
+    });
+    final List<File> segments = new ArrayList<File>();
+    if (files != null) {
+      segments.addAll(Arrays.asList(files));
+    }
+    Collections.sort(segments, new Comparator<File>() {
+      @Override
+      public int compare(final File f1, final File f2) {
+        final long s1 = sequence(objectFile, f1);
+        final long s2 = sequence(objectFile, f2);
+        return s1 < s2 ? -1 : (s1 == s2 ? 0 : 1);
+      }
+    });
+    return segments;
+  }
+
+  private static Pattern segmentPattern(final File objectFile) {
+    return Pattern.compile(Pattern.quote(objectFile.getName() + ".") + "(\\d+)"
+        + Pattern.quote(SUFFIX));
+  }
+
+  private static long sequence(final File objectFile, final File segment) {
+    final Matcher m = segmentPattern(objectFile).matcher(segment.getName());
+    checkArgument(m.matches(), "not a segment of [%s] [%s]", objectFile, segment);
+    return Long.parseLong(m.group(1));
+  }
+
+  private static File segment(final File objectFile, final long sequence) {
+    return new File(objectFile.getAbsoluteFile().getParentFile(),
+        String.format("%s.%d%s", objectFile.getName(), sequence, SUFFIX));
+  }
+
+  @Override
+  public String toString() {
+    return String.format("ObjectChangeLog [objectFile=%s, sequence=%s]", this.objectFile,
+        this.sequence);
+  }
+}
@@ -15,6 +15,7 @@ import java.util.Arrays;
 public class ObjectFileUtil {
 
     public static final int OBJECT_SIZE_V1_0 = 30;
+    public static final int OBJECT_SIZE_V2_0 = 35;
 
     /**
      *
@@ -53,6 +54,14 @@ public class ObjectFileUtil {
             outputBuffer.put(inputBytes);
             outputBuffer.put((byte)0); //legalholds
             outputBuffer.putInt(-1); // retention
+            outputBuffer.put((byte)0); // data type, content not reproducible
+            outputBuffer.putLong(0); // seed
+            LegacyObjectMetadata id = LegacyObjectMetadata.fromBytes(objectBytes);
+            return id;
+        } else if (majorVersion == 2 && minorVersion == 0) {
+            outputBuffer.put(inputBytes);
+            outputBuffer.put((byte)0); // data type, content not reproducible
+            outputBuffer.putLong(0); // seed
             LegacyObjectMetadata id = LegacyObjectMetadata.fromBytes(objectBytes);
             return id;
         } else if (majorVersion == LegacyObjectMetadata.MAJOR_VERSION &&
@@ -69,6 +78,9 @@ public class ObjectFileUtil {
         if (majorVersion == LegacyObjectMetadata.MAJOR_VERSION && minorVersion == LegacyObjectMetadata.MINOR_VERSION) {
             return ObjectFileVersion.VERSION_HEADER_LENGTH;
         }
+        else if (majorVersion == 2 && minorVersion == 0) {
+            return ObjectFileVersion.VERSION_HEADER_LENGTH;
+        }
         else if (majorVersion == 1 && minorVersion == 0) {
             return 0;
         } else {
@@ -78,10 +90,23 @@ public class ObjectFileUtil {
 
     public static byte[] allocateObjectBuffer(int majorVersion, int minorVersion, InputStream in)
             throws IllegalArgumentException {
+        return new byte[getObjectSize(majorVersion, minorVersion)];
+    }
+
+    /**
+     *
+     * @param majorVersion object file major version
+     * @param minorVersion object file minor version
+     * @return the size of the object records of an object file of the given version
+     * @throws IllegalArgumentException if the version is not supported
+     */
+    public static int getObjectSize(int majorVersion, int minorVersion) {
         if (majorVersion == LegacyObjectMetadata.MAJOR_VERSION && minorVersion == LegacyObjectMetadata.MINOR_VERSION) {
-            return new byte[LegacyObjectMetadata.OBJECT_SIZE];
+            return LegacyObjectMetadata.OBJECT_SIZE;
+        } else if (majorVersion == 2 && minorVersion == 0) {
+            return ObjectFileUtil.OBJECT_SIZE_V2_0;
         } else if (majorVersion == 1 && minorVersion == 0) {
-            return new byte[ObjectFileUtil.OBJECT_SIZE_V1_0];
+            return ObjectFileUtil.OBJECT_SIZE_V1_0;
         } else {
             throw new IllegalArgumentException("Unsupported object file version");
         }
@@ -30,7 +30,8 @@ public interface ObjectManager {
   /**
    * Selects an existing object name under management. Callers must call {@code getComplete } when
    * finished with the object returned by this method. Object will only be returned it is not already
-   * obtained by calling this method or get()
+   * obtained by calling this method or get(). If every object is in use, waits until one is
+   * returned
    *
    * @return an available object name for reading
    */
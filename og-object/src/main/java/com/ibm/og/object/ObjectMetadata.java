@@ -5,6 +5,8 @@
 
 package com.ibm.og.object;
 
+import com.ibm.og.api.DataType;
+
 /**
  * Metadata that describes a previously written object.
  * 
@@ -45,6 +47,23 @@ public interface ObjectMetadata extends Comparable<ObjectMetadata> {
    */
   int getRetention();
 
+  /**
+   * Gets the data type this object's content was written with
+   *
+   * @return the data type of this object's content, or null if its content cannot be reproduced
+   * @since 1.9.0
+   */
+  DataType getDataType();
+
+  /**
+   * Gets the seed this object's content was written with
+   *
+   * @return the random seed of this object's content; only meaningful if {@link #getDataType()}
+   *         is not null
+   * @since 1.9.0
+   */
+  long getSeed();
+
   /**
    * Convert this instance's internal representation into bytes
    * 
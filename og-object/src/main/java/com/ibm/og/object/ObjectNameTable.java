@@ -0,0 +1,316 @@
+/* Copyright (c) IBM Corporation 2016. All Rights Reserved.
+ * Project name: Object Generator
+ * This project is licensed under the Apache License 2.0, see LICENSE.
+ */
+
+package com.ibm.og.object;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * A concurrent table keyed by the {@link LegacyObjectMetadata#OBJECT_NAME_SIZE} byte binary object
+ * name, which associates a reference count and an optional value with each name. Names are stored
+ * as primitives in open addressed tables divided into independently locked stripes, so lookups and
+ * count updates neither allocate nor contend with operations on names in other stripes.
+ * <p>
+ * Methods accept a byte array whose first {@code OBJECT_NAME_SIZE} bytes are the object name, such
+ * as the array returned by {@link ObjectMetadata#toBytes()}. A name is present while its count is
+ * positive.
+ * <p>
+ * This class is thread safe.
+ *
+ * @param <V> the type of value associated with each name
+ * @since 1.9.0
+ */
+public class ObjectNameTable<V> {
+  private static final int NAME_SIZE = LegacyObjectMetadata.OBJECT_NAME_SIZE;
+  private static final int STRIPES = 64;
+  private static final int INITIAL_CAPACITY = 16;
+  private final Stripe[] stripes;
+
+  /**
+   * Constructs an empty table
+   */
+  public ObjectNameTable() {
+    this.stripes = new Stripe[STRIPES];
+    for (int i = 0; i < STRIPES; i++) {
+      this.stripes[i] = new Stripe();
+    }
+  }
+
+  /**
+   * Increments the count of a name, adding it with a count of 1 if it is not present
+   *
+   * @param name the object name
+   * @return the new count
+   */
+  public int increment(final byte[] name) {
+    final long hash = hash(name);
+    return stripe(hash).increment(name, hash);
+  }
+
+  /**
+   * Decrements the count of a name, removing the name and its value when the count reaches zero
+   *
+   * @param name the object name
+   * @return the new count, or -1 if the name was not present
+   */
+  public int decrement(final byte[] name) {
+    final long hash = hash(name);
+    return stripe(hash).decrement(name, hash);
+  }
+
+  /**
+   * Gets the count of a name
+   *
+   * @param name the object name
+   * @return the count of the name, or 0 if it is not present
+   */
+  public int count(final byte[] name) {
+    final long hash = hash(name);
+    return stripe(hash).count(name, hash);
+  }
+
+  /**
+   * Determines whether a name is present
+   *
+   * @param name the object name
+   * @return true if the name is present, false otherwise
+   */
+  public boolean contains(final byte[] name) {
+    return count(name) > 0;
+  }
+
+  /**
+   * Associates a value with a name, adding the name with a count of 1 if it is not present
+   *
+   * @param name the object name
+   * @param value the value
+   * @return the previous value, or null if there was none
+   * @throws NullPointerException if value is null
+   */
+  @SuppressWarnings("unchecked")
+  public V put(final byte[] name, final V value) {
+    checkNotNull(value);
+    final long hash = hash(name);
+    return (V) stripe(hash).put(name, hash, value);
+  }
+
+  /**
+   * Gets the value associated with a name
+   *
+   * @param name the object name
+   * @return the value, or null if the name is not present or has no value
+   */
+  @SuppressWarnings("unchecked")
+  public V get(final byte[] name) {
+    final long hash = hash(name);
+    return (V) stripe(hash).get(name, hash);
+  }
+
+  /**
+   * Removes a name regardless of its count
+   *
+   * @param name the object name
+   * @return the value which was associated with the name, or null if there was none
+   */
+  @SuppressWarnings("unchecked")
+  public V remove(final byte[] name) {
+    final long hash = hash(name);
+    return (V) stripe(hash).remove(name, hash);
+  }
+
+  /**
+   * Gets the number of names present
+   *
+   * @return the number of names present
+   */
+  public int size() {
+    int size = 0;
+    for (final Stripe stripe : this.stripes) {
+      size += stripe.size;
+    }
+    return size;
+  }
+
+  private Stripe stripe(final long hash) {
+    return this.stripes[(int) (hash >>> 40) & (STRIPES - 1)];
+  }
+
+  private static long hash(final byte[] name) {
+    checkNotNull(name);
+    checkArgument(name.length >= NAME_SIZE, "name length must be >= %s [%s]", NAME_SIZE,
+        name.length);
+    return NameHash.hash(name);
+  }
+
+  @Override
+  public String toString() {
+    return String.format("ObjectNameTable [size=%s]", size());
+  }
+
+  // an open addressed table with linear probing and backward shift deletion; a slot is empty when
+  // its count is zero
+  private static final class Stripe {
+    private long[] highs;
+    private long[] lows;
+    private short[] tails;
+    private int[] counts;
+    private Object[] values;
+    // written while holding the stripe's monitor, read without locking by size()
+    private volatile int size;
+
+    Stripe() {
+      allocate(INITIAL_CAPACITY);
+    }
+
+    private void allocate(final int capacity) {
+      this.highs = new long[capacity];
+      this.lows = new long[capacity];
+      this.tails = new short[capacity];
+      this.counts = new int[capacity];
+      this.values = new Object[capacity];
+    }
+
+    synchronized int increment(final byte[] name, final long hash) {
+      int index = find(name, hash);
+      if (index >= 0) {
+        return ++this.counts[index];
+      }
+      index = insert(name, hash);
+      this.counts[index] = 1;
+      return 1;
+    }
+
+    synchronized int decrement(final byte[] name, final long hash) {
+      final int index = find(name, hash);
+      if (index < 0) {
+        return -1;
+      }
+      final int count = --this.counts[index];
+      if (count == 0) {
+        delete(index);
+      }
+      return count;
+    }
+
+    synchronized int count(final byte[] name, final long hash) {
+      final int index = find(name, hash);
+      return index < 0 ? 0 : this.counts[index];
+    }
+
+    synchronized Object put(final byte[] name, final long hash, final Object value) {
+      int index = find(name, hash);
+      if (index < 0) {
+        index = insert(name, hash);
+        this.counts[index] = 1;
+      }
+      final Object previous = this.values[index];
+      this.values[index] = value;
+      return previous;
+    }
+
+    synchronized Object get(final byte[] name, final long hash) {
+      final int index = find(name, hash);
+      return index < 0 ? null : this.values[index];
+    }
+
+    synchronized Object remove(final byte[] name, final long hash) {
+      final int index = find(name, hash);
+      if (index < 0) {
+        return null;
+      }
+      final Object value = this.values[index];
+      delete(index);
+      return value;
+    }
+
+    // returns the index of the name, or -1 if it is not present
+    private int find(final byte[] name, final long hash) {
+      final int mask = this.counts.length - 1;
+      final long high = NameHash.high(name);
+      final long low = NameHash.low(name);
+      final short tail = NameHash.tail(name);
+      int index = (int) hash & mask;
+      while (this.counts[index] != 0) {
+        if (this.highs[index] == high && this.lows[index] == low && this.tails[index] == tail) {
+          return index;
+        }
+        index = (index + 1) & mask;
+      }
+      return -1;
+    }
+
+    // inserts a name which is not present and returns its index; the caller sets its count
+    private int insert(final byte[] name, final long hash) {
+      if (2 * (this.size + 1) > this.counts.length) {
+        resize(this.counts.length * 2);
+      }
+      final int index = probe(hash);
+      this.highs[index] = NameHash.high(name);
+      this.lows[index] = NameHash.low(name);
+      this.tails[index] = NameHash.tail(name);
+      this.size++;
+      return index;
+    }
+
+    private int probe(final long hash) {
+      final int mask = this.counts.length - 1;
+      int index = (int) hash & mask;
+      while (this.counts[index] != 0) {
+        index = (index + 1) & mask;
+      }
+      return index;
+    }
+
+    private void resize(final int capacity) {
+      final long[] highs = this.highs;
+      final long[] lows = this.lows;
+      final short[] tails = this.tails;
+      final int[] counts = this.counts;
+      final Object[] values = this.values;
+      allocate(capacity);
+      for (int i = 0; i < counts.length; i++) {
+        if (counts[i] != 0) {
+          final int index = probe(NameHash.hash(highs[i], lows[i], tails[i]));
+          this.highs[index] = highs[i];
+          this.lows[index] = lows[i];
+          this.tails[index] = tails[i];
+          this.counts[index] = counts[i];
+          this.values[index] = values[i];
+        }
+      }
+    }
+
+    // backward shift deletion so that no tombstones are required
+    private void delete(final int index) {
+      final int mask = this.counts.length - 1;
+      int hole = index;
+      int next = index;
+      while (true) {
+        next = (next + 1) & mask;
+        if (this.counts[next] == 0) {
+          break;
+        }
+        final int home =
+            (int) NameHash.hash(this.highs[next], this.lows[next], this.tails[next]) & mask;
+        if (((next - home) & mask) >= ((next - hole) & mask)) {
+          move(next, hole);
+          hole = next;
+        }
+      }
+      this.counts[hole] = 0;
+      this.values[hole] = null;
+      this.size--;
+    }
+
+    private void move(final int from, final int to) {
+      this.highs[to] = this.highs[from];
+      this.lows[to] = this.lows[from];
+      this.tails[to] = this.tails[from];
+      this.counts[to] = this.counts[from];
+      this.values[to] = this.values[from];
+    }
+  }
+}
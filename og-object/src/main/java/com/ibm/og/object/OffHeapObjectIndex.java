@@ -0,0 +1,792 @@
+/* Copyright (c) IBM Corporation 2016. All Rights Reserved.
+ * Project name: Object Generator
+ * This project is licensed under the Apache License 2.0, see LICENSE.
+ */
+
+package com.ibm.og.object;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import com.google.common.base.Predicate;
+import com.google.common.base.Predicates;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.common.util.concurrent.Uninterruptibles;
+
+/**
+ * An index of object metadata which is stored outside of the java heap. Each object is stored as a
+ * packed {@link LegacyObjectMetadata#OBJECT_SIZE} byte record in a dense array of records, and an
+ * open addressed hash table keyed by object name maps names to record slots. No java objects are
+ * retained per indexed object; {@code ObjectMetadata} instances are only created when an object is
+ * returned to a caller.
+ * <p>
+ * Records are kept contiguous by moving the last record into the slot of a removed record, so
+ * random selection, lookup, insertion and removal are all O(1). Objects are identified by name; a
+ * put of an object whose name is already indexed replaces the existing record.
+ * <p>
+ * The index is divided into stripes by name hash, each with its own lock, so that concurrent
+ * selection and removal of different objects do not contend. Random selection is weighted by
+ * stripe size and uses a per thread random generator.
+ * <p>
+ * This class is thread safe.
+ *
+ * @since 1.9.0
+ */
+public class OffHeapObjectIndex {
+  private static final int RECORD_SIZE = LegacyObjectMetadata.OBJECT_SIZE;
+  private static final int NAME_SIZE = LegacyObjectMetadata.OBJECT_NAME_SIZE;
+  // records per page, as a power of two
+  private static final int RECORD_PAGE_BITS = 12;
+  private static final int RECORD_PAGE_MASK = (1 << RECORD_PAGE_BITS) - 1;
+  // hash table entries per page, as a power of two
+  private static final int TABLE_PAGE_BITS = 20;
+  private static final int INITIAL_TABLE_CAPACITY = 1024;
+  // maximum capacity such that table entries are indexable using ints
+  private static final int MAX_TABLE_CAPACITY = 1 << 30;
+  private static final int DEFAULT_STRIPES = 16;
+  private static final ThreadLocal<Random> RANDOM = new ThreadLocal<Random>() {
+    @Override
+    protected Random initialValue() {
+      return new Random();
+    }
+  };
+
+  private final Segment[] segments;
+  private final int mask;
+
+  /**
+   * Constructs an empty index with the default number of stripes
+   */
+  public OffHeapObjectIndex() {
+    this(DEFAULT_STRIPES);
+  }
+
+  /**
+   * Constructs an empty index
+   *
+   * @param stripes the number of independently locked stripes, which must be a power of two
+   * @throws IllegalArgumentException if stripes is not a power of two between 1 and 128
+   */
+  public OffHeapObjectIndex(final int stripes) {
+    checkArgument(stripes > 0 && stripes <= 128 && Integer.bitCount(stripes) == 1,
+        "stripes must be a power of two between 1 and 128 [%s]", stripes);
+    this.segments = new Segment[stripes];
+    for (int i = 0; i < stripes; i++) {
+      this.segments[i] = new Segment();
+    }
+    this.mask = stripes - 1;
+  }
+
+  /**
+   * Gets the number of indexed objects
+   *
+   * @return the number of indexed objects
+   */
+  public int size() {
+    int size = 0;
+    for (final Segment segment : this.segments) {
+      size += segment.size;
+    }
+    return size;
+  }
+
+  /**
+   * Determines whether this index is empty
+   *
+   * @return true if no objects are indexed, false otherwise
+   */
+  public boolean isEmpty() {
+    return size() == 0;
+  }
+
+  /**
+   * Determines whether an object with the same name as the provided object is indexed
+   *
+   * @param object the object to look up
+   * @return true if an object with the same name is indexed, false otherwise
+   * @throws NullPointerException if object is null
+   */
+  public boolean contains(final ObjectMetadata object) {
+    checkNotNull(object);
+    final byte[] record = object.toBytes();
+    final long hash = NameHash.hash(record);
+    return segment(hash).contains(record, hash);
+  }
+
+  /**
+   * Adds an object to this index, replacing an indexed object with the same name if one exists
+   *
+   * @param object the object to add
+   * @return the replaced object, or null if no object with the same name was indexed
+   * @throws NullPointerException if object is null
+   * @throws IllegalArgumentException if the object's record length is invalid
+   */
+  public ObjectMetadata put(final ObjectMetadata object) {
+    checkNotNull(object);
+    final byte[] record = object.toBytes();
+    checkArgument(record.length == RECORD_SIZE, "object record length must be == %s [%s]",
+        RECORD_SIZE, record.length);
+    final long hash = NameHash.hash(record);
+    return segment(hash).put(record, hash);
+  }
+
+  /**
+   * Adds all packed {@link LegacyObjectMetadata#OBJECT_SIZE} byte records in the provided buffer to
+   * this index, as if by calling {@link #put} for each record in order. Stripes are computed and
+   * filled in parallel using up to {@code parallelism} threads, without creating any per object
+   * java objects
+   *
+   * @param records a buffer whose remaining bytes are packed object records
+   * @param parallelism the maximum number of threads to use
+   * @return the number of objects added; records whose name was already indexed replace the
+   *         existing record and are not counted
+   * @throws NullPointerException if records is null
+   * @throws IllegalArgumentException if the remaining bytes of records are not a multiple of the
+   *         record size, or if parallelism is not positive
+   */
+  public int putAll(final ByteBuffer records, final int parallelism) {
+    checkNotNull(records);
+    checkArgument(records.remaining() % RECORD_SIZE == 0,
+        "records length must be a multiple of %s [%s]", RECORD_SIZE, records.remaining());
+    checkArgument(parallelism > 0, "parallelism must be > 0 [%s]", parallelism);
+    final int count = records.remaining() / RECORD_SIZE;
+    final ByteBuffer source = records.slice();
+    // the stripe of each record, computed in parallel chunks
+    final byte[] stripes = new byte[count];
+    final List<Callable<Integer>> hashTasks = new ArrayList<Callable<Integer>>();
+    final int chunk = Math.max(RECORD_PAGE_MASK + 1, (count + parallelism - 1) / parallelism);
+    for (int start = 0; start < count; start += chunk) {
+      final int first = start;
+      final int end = Math.min(start + chunk, count);
+      hashTasks.add(new Callable<Integer>() {
+        @Override
+        public Integer call() {
+          final ByteBuffer src = source.duplicate();
+          final byte[] record = new byte[RECORD_SIZE];
+          for (int i = first; i < end; i++) {
+            src.position(i * RECORD_SIZE);
+            src.get(record, 0, NAME_SIZE);
+            stripes[i] = (byte) stripe(NameHash.hash(record));
+          }
+          return end - first;
+        }
+      });
+    }
+    final List<Callable<Integer>> putTasks = new ArrayList<Callable<Integer>>();
+    for (int i = 0; i < this.segments.length; i++) {
+      final Segment segment = this.segments[i];
+      final byte stripe = (byte) i;
+      putTasks.add(new Callable<Integer>() {
+        @Override
+        public Integer call() {
+          return segment.putAll(source, stripes, stripe);
+        }
+      });
+    }
+
+    final ExecutorService executor = parallelism == 1 ? null
+        : Executors.newFixedThreadPool(parallelism, new ThreadFactoryBuilder().setDaemon(true)
+            .setNameFormat("object-index-load-%d").build());
+    try {
+      invokeAll(executor, hashTasks);
+      int added = 0;
+      for (final int n : invokeAll(executor, putTasks)) {
+        added += n;
+      }
+      return added;
+    } finally {
+      if (executor != null) {
+        executor.shutdownNow();
+      }
+    }
+  }
+
+  private static List<Integer> invokeAll(final ExecutorService executor,
+      final List<Callable<Integer>> tasks) {
+    final List<Integer> results = new ArrayList<Integer>(tasks.size());
+    try {
+      if (executor == null) {
+        for (final Callable<Integer> task : tasks) {
+          results.add(task.call());
+        }
+      } else {
+        for (final Future<Integer> future : executor.invokeAll(tasks)) {
+          results.add(Uninterruptibles.getUninterruptibly(future));
+        }
+      }
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new ObjectManagerException(e);
+    } catch (final ExecutionException e) {
+      throw new ObjectManagerException(e.getCause());
+    } catch (final Exception e) {
+      throw new ObjectManagerException(e);
+    }
+    return results;
+  }
+
+  /**
+   * Removes the object with the same name as the provided object
+   *
+   * @param object the object to remove
+   * @return the removed object, or null if no object with the same name was indexed
+   * @throws NullPointerException if object is null
+   */
+  public ObjectMetadata remove(final ObjectMetadata object) {
+    return remove(object, Predicates.<ObjectMetadata>alwaysTrue());
+  }
+
+  /**
+   * Removes the object with the same name as the provided object if it satisfies a predicate. The
+   * predicate is evaluated while no other thread can select or remove the object
+   *
+   * @param object the object to remove
+   * @param predicate the predicate which the indexed object must satisfy to be removed
+   * @return the removed object, or null if no object with the same name was indexed or the indexed
+   *         object did not satisfy the predicate
+   * @throws NullPointerException if object or predicate is null
+   */
+  public ObjectMetadata remove(final ObjectMetadata object,
+      final Predicate<? super ObjectMetadata> predicate) {
+    checkNotNull(object);
+    checkNotNull(predicate);
+    final byte[] record = object.toBytes();
+    final long hash = NameHash.hash(record);
+    return segment(hash).remove(record, hash, predicate);
+  }
+
+  /**
+   * Gets a randomly selected object
+   *
+   * @return a random object, or null if this index is empty
+   */
+  public ObjectMetadata getRandom() {
+    return getRandom(Predicates.<ObjectMetadata>alwaysTrue());
+  }
+
+  /**
+   * Gets a randomly selected object which satisfies a predicate. The predicate is evaluated while
+   * the selected object cannot be removed from this index, so it may be used to claim the object,
+   * e.g. by marking it as being read. A candidate which does not satisfy the predicate is skipped
+   * and the next stripe is tried
+   *
+   * @param predicate the predicate which the selected object must satisfy
+   * @return a random object, or null if this index is empty or no candidate satisfied the
+   *         predicate
+   * @throws NullPointerException if predicate is null
+   */
+  public ObjectMetadata getRandom(final Predicate<? super ObjectMetadata> predicate) {
+    checkNotNull(predicate);
+    final Random random = RANDOM.get();
+    final int first = selectSegment(random);
+    if (first < 0) {
+      return null;
+    }
+    for (int i = 0; i < this.segments.length; i++) {
+      final ObjectMetadata object =
+          this.segments[(first + i) & this.mask].getRandom(random, predicate);
+      if (object != null) {
+        return object;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Removes a randomly selected object
+   *
+   * @return the removed object, or null if this index is empty
+   */
+  public ObjectMetadata removeRandom() {
+    return removeRandom(Predicates.<ObjectMetadata>alwaysTrue());
+  }
+
+  /**
+   * Removes a randomly selected object which satisfies a predicate. The predicate is evaluated
+   * while no other thread can select or remove the candidate. A candidate which does not satisfy
+   * the predicate remains indexed and the next stripe is tried
+   *
+   * @param predicate the predicate which the removed object must satisfy
+   * @return the removed object, or null if this index is empty or no candidate satisfied the
+   *         predicate
+   * @throws NullPointerException if predicate is null
+   */
+  public ObjectMetadata removeRandom(final Predicate<? super ObjectMetadata> predicate) {
+    checkNotNull(predicate);
+    final Random random = RANDOM.get();
+    final int first = selectSegment(random);
+    if (first < 0) {
+      return null;
+    }
+    for (int i = 0; i < this.segments.length; i++) {
+      final ObjectMetadata object =
+          this.segments[(first + i) & this.mask].removeRandom(random, predicate);
+      if (object != null) {
+        return object;
+      }
+    }
+    return null;
+  }
+
+  // selects a segment with probability proportional to its size, without locking
+  private int selectSegment(final Random random) {
+    final int size = size();
+    if (size == 0) {
+      return -1;
+    }
+    int n = random.nextInt(size);
+    for (int i = 0; i < this.segments.length; i++) {
+      n -= this.segments[i].size;
+      if (n < 0) {
+        return i;
+      }
+    }
+    // sizes changed concurrently
+    return random.nextInt(this.segments.length);
+  }
+
+  /**
+   * Removes all objects and releases the memory used by this index
+   */
+  public void clear() {
+    for (final Segment segment : this.segments) {
+      segment.clear();
+    }
+  }
+
+  /**
+   * Writes the records of all indexed objects to the provided stream
+   *
+   * @param out the stream to write to
+   * @throws IOException if an error occurs while writing
+   * @throws NullPointerException if out is null
+   */
+  public void writeTo(final OutputStream out) throws IOException {
+    checkNotNull(out);
+    final byte[] buf = new byte[(RECORD_PAGE_MASK + 1) * RECORD_SIZE];
+    for (final Segment segment : this.segments) {
+      segment.writeTo(out, buf);
+    }
+  }
+
+  /**
+   * Writes the records of up to {@code count} indexed objects to the provided stream and removes
+   * them from this index
+   *
+   * @param out the stream to write to
+   * @param count the maximum number of objects to transfer
+   * @return the number of objects transferred
+   * @throws IOException if an error occurs while writing
+   * @throws NullPointerException if out is null
+   * @throws IllegalArgumentException if count is negative
+   */
+  public int drainTo(final OutputStream out, final int count) throws IOException {
+    checkNotNull(out);
+    checkArgument(count >= 0, "count must be >= 0 [%s]", count);
+    int remaining = count;
+    // drain evenly so that stripes stay balanced
+    while (remaining > 0) {
+      final int quota = Math.max(1, remaining / this.segments.length);
+      int drained = 0;
+      for (int i = 0; i < this.segments.length && remaining > 0; i++) {
+        final int n = this.segments[i].drainTo(out, Math.min(quota, remaining));
+        drained += n;
+        remaining -= n;
+      }
+      if (drained == 0) {
+        break;
+      }
+    }
+    return count - remaining;
+  }
+
+  private Segment segment(final long hash) {
+    return this.segments[stripe(hash)];
+  }
+
+  // the low bits of the hash select the home table entry within a segment
+  private int stripe(final long hash) {
+    return (int) (hash >>> 40) & this.mask;
+  }
+
+  @Override
+  public String toString() {
+    return String.format("OffHeapObjectIndex [size=%s, stripes=%s]", size(),
+        this.segments.length);
+  }
+
+  // a single independently locked stripe of the index
+  private static final class Segment {
+    private final List<ByteBuffer> recordPages;
+    private final ReadWriteLock lock;
+    // only used while holding the write lock
+    private final byte[] scratch;
+    private IntBuffer[] table;
+    private int tableCapacity;
+    private int tablePageBits;
+    // written under the write lock, read without locking for weighted selection
+    private volatile int size;
+
+    Segment() {
+      this.recordPages = new ArrayList<ByteBuffer>();
+      this.lock = new ReentrantReadWriteLock();
+      this.scratch = new byte[RECORD_SIZE];
+      allocateTable(INITIAL_TABLE_CAPACITY);
+    }
+
+    boolean contains(final byte[] record, final long hash) {
+      this.lock.readLock().lock();
+      try {
+        return find(record, hash) >= 0;
+      } finally {
+        this.lock.readLock().unlock();
+      }
+    }
+
+    ObjectMetadata put(final byte[] record, final long hash) {
+      this.lock.writeLock().lock();
+      try {
+        int index = find(record, hash);
+        if (index >= 0) {
+          final int slot = getEntry(index) - 1;
+          final ObjectMetadata previous = readRecord(slot);
+          writeRecord(slot, record);
+          return previous;
+        }
+        if (2L * (this.size + 1) > this.tableCapacity) {
+          checkArgument(this.tableCapacity < MAX_TABLE_CAPACITY, "index is full [%s]", this.size);
+          resize(this.tableCapacity * 2);
+          index = find(record, hash);
+        }
+        final int slot = this.size;
+        ensurePages(slot + 1);
+        writeRecord(slot, record);
+        setEntry(-index - 1, slot + 1);
+        this.size++;
+        return null;
+      } finally {
+        this.lock.writeLock().unlock();
+      }
+    }
+
+    // appends the records of the given stripe and adds their table entries. A record whose name
+    // is already indexed replaces the indexed record, and its own slot is released afterwards
+    int putAll(final ByteBuffer source, final byte[] stripes, final byte stripe) {
+      this.lock.writeLock().lock();
+      try {
+        int count = 0;
+        for (final byte s : stripes) {
+          if (s == stripe) {
+            count++;
+          }
+        }
+        if (count == 0) {
+          return 0;
+        }
+        final long total = (long) this.size + count;
+        checkArgument(2L * total <= MAX_TABLE_CAPACITY, "index is full [%s]", this.size);
+        int capacity = this.tableCapacity;
+        while (2L * total > capacity) {
+          capacity *= 2;
+        }
+        if (capacity != this.tableCapacity) {
+          resize(capacity);
+        }
+        ensurePages((int) total);
+
+        final ByteBuffer src = source.duplicate();
+        final byte[] record = new byte[RECORD_SIZE];
+        List<Integer> duplicates = null;
+        int slot = this.size;
+        for (int i = 0; i < stripes.length; i++) {
+          if (stripes[i] != stripe) {
+            continue;
+          }
+          src.position(i * RECORD_SIZE);
+          src.get(record);
+          writeRecord(slot, record);
+          final int index = find(record, NameHash.hash(record));
+          if (index >= 0) {
+            writeRecord(getEntry(index) - 1, record);
+            if (duplicates == null) {
+              duplicates = new ArrayList<Integer>();
+            }
+            duplicates.add(slot);
+          } else {
+            setEntry(-index - 1, slot + 1);
+          }
+          slot++;
+        }
+        this.size = slot;
+        if (duplicates == null) {
+          return count;
+        }
+        // release duplicate slots from the highest down, so that the last slot is always indexed
+        for (int i = duplicates.size() - 1; i >= 0; i--) {
+          final int duplicate = duplicates.get(i);
+          final int last = this.size - 1;
+          if (duplicate != last) {
+            setEntry(findSlot(last), duplicate + 1);
+            readRecord(last, record);
+            writeRecord(duplicate, record);
+          }
+          this.size--;
+        }
+        return count - duplicates.size();
+      } finally {
+        this.lock.writeLock().unlock();
+      }
+    }
+
+    ObjectMetadata remove(final byte[] record, final long hash,
+        final Predicate<? super ObjectMetadata> predicate) {
+      this.lock.writeLock().lock();
+      try {
+        final int index = find(record, hash);
+        if (index < 0) {
+          return null;
+        }
+        final int slot = getEntry(index) - 1;
+        final ObjectMetadata removed = readRecord(slot);
+        if (!predicate.apply(removed)) {
+          return null;
+        }
+        removeEntry(index, slot);
+        return removed;
+      } finally {
+        this.lock.writeLock().unlock();
+      }
+    }
+
+    ObjectMetadata getRandom(final Random random,
+        final Predicate<? super ObjectMetadata> predicate) {
+      this.lock.readLock().lock();
+      try {
+        if (this.size == 0) {
+          return null;
+        }
+        final ObjectMetadata object = readRecord(random.nextInt(this.size));
+        return predicate.apply(object) ? object : null;
+      } finally {
+        this.lock.readLock().unlock();
+      }
+    }
+
+    ObjectMetadata removeRandom(final Random random,
+        final Predicate<? super ObjectMetadata> predicate) {
+      this.lock.writeLock().lock();
+      try {
+        if (this.size == 0) {
+          return null;
+        }
+        final int slot = random.nextInt(this.size);
+        final ObjectMetadata removed = readRecord(slot);
+        if (!predicate.apply(removed)) {
+          return null;
+        }
+        removeEntry(findSlot(slot), slot);
+        return removed;
+      } finally {
+        this.lock.writeLock().unlock();
+      }
+    }
+
+    void clear() {
+      this.lock.writeLock().lock();
+      try {
+        this.recordPages.clear();
+        allocateTable(INITIAL_TABLE_CAPACITY);
+        this.size = 0;
+      } finally {
+        this.lock.writeLock().unlock();
+      }
+    }
+
+    void writeTo(final OutputStream out, final byte[] buf) throws IOException {
+      this.lock.readLock().lock();
+      try {
+        int remaining = this.size;
+        for (int page = 0; remaining > 0; page++) {
+          final int records = Math.min(remaining, RECORD_PAGE_MASK + 1);
+          final ByteBuffer src = this.recordPages.get(page).duplicate();
+          src.clear();
+          src.get(buf, 0, records * RECORD_SIZE);
+          out.write(buf, 0, records * RECORD_SIZE);
+          remaining -= records;
+        }
+      } finally {
+        this.lock.readLock().unlock();
+      }
+    }
+
+    int drainTo(final OutputStream out, final int count) throws IOException {
+      this.lock.writeLock().lock();
+      try {
+        final int transfer = Math.min(count, this.size);
+        for (int i = 0; i < transfer; i++) {
+          // always remove the last record so that no records need to be moved
+          final int slot = this.size - 1;
+          readRecord(slot, this.scratch);
+          out.write(this.scratch);
+          removeEntry(findSlot(slot), slot);
+        }
+        return transfer;
+      } finally {
+        this.lock.writeLock().unlock();
+      }
+    }
+
+    private void ensurePages(final int slots) {
+      while (this.recordPages.size() <= (slots - 1) >>> RECORD_PAGE_BITS) {
+        this.recordPages.add(ByteBuffer.allocateDirect((RECORD_PAGE_MASK + 1) * RECORD_SIZE));
+      }
+    }
+
+    private void allocateTable(final int capacity) {
+      this.tableCapacity = capacity;
+      this.tablePageBits = Math.min(TABLE_PAGE_BITS, Integer.numberOfTrailingZeros(capacity));
+      final int pageSize = 1 << this.tablePageBits;
+      this.table = new IntBuffer[capacity / pageSize];
+      for (int i = 0; i < this.table.length; i++) {
+        this.table[i] = ByteBuffer.allocateDirect(4 * pageSize).asIntBuffer();
+      }
+    }
+
+    private void resize(final int capacity) {
+      allocateTable(capacity);
+      for (int slot = 0; slot < this.size; slot++) {
+        int index = home(hashAt(slot));
+        while (getEntry(index) != 0) {
+          index = (index + 1) & (this.tableCapacity - 1);
+        }
+        setEntry(index, slot + 1);
+      }
+    }
+
+    // returns the table index of the entry whose record has the same name as the provided record,
+    // or (-insertion index - 1) if there is no such entry
+    private int find(final byte[] record, final long hash) {
+      int index = home(hash);
+      while (true) {
+        final int entry = getEntry(index);
+        if (entry == 0) {
+          return -index - 1;
+        }
+        if (nameEquals(entry - 1, record)) {
+          return index;
+        }
+        index = (index + 1) & (this.tableCapacity - 1);
+      }
+    }
+
+    // returns the table index of the entry which refers to the provided slot
+    private int findSlot(final int slot) {
+      int index = home(hashAt(slot));
+      while (getEntry(index) != slot + 1) {
+        index = (index + 1) & (this.tableCapacity - 1);
+      }
+      return index;
+    }
+
+    // removes the table entry at index, which refers to slot, and keeps records contiguous by
+    // moving the last record into the freed slot
+    private void removeEntry(final int index, final int slot) {
+      final int mask = this.tableCapacity - 1;
+      // backward shift deletion; move later entries of the probe sequence into the hole so that no
+      // tombstones are required
+      int hole = index;
+      int next = index;
+      while (true) {
+        next = (next + 1) & mask;
+        final int entry = getEntry(next);
+        if (entry == 0) {
+          break;
+        }
+        final int home = home(hashAt(entry - 1));
+        if (((next - home) & mask) >= ((next - hole) & mask)) {
+          setEntry(hole, entry);
+          hole = next;
+        }
+      }
+      setEntry(hole, 0);
+
+      final int last = this.size - 1;
+      if (slot != last) {
+        setEntry(findSlot(last), slot + 1);
+        readRecord(last, this.scratch);
+        writeRecord(slot, this.scratch);
+      }
+      this.size--;
+    }
+
+    // hashes the name of the record in the provided slot in place
+    private long hashAt(final int slot) {
+      final ByteBuffer page = this.recordPages.get(slot >>> RECORD_PAGE_BITS);
+      final int offset = (slot & RECORD_PAGE_MASK) * RECORD_SIZE;
+      return NameHash.hash(page.getLong(offset), page.getLong(offset + 8),
+          page.getShort(offset + 16));
+    }
+
+    private int home(final long hash) {
+      return (int) hash & (this.tableCapacity - 1);
+    }
+
+    private boolean nameEquals(final int slot, final byte[] record) {
+      final ByteBuffer page = this.recordPages.get(slot >>> RECORD_PAGE_BITS);
+      final int offset = (slot & RECORD_PAGE_MASK) * RECORD_SIZE;
+      for (int i = 0; i < NAME_SIZE; i++) {
+        if (page.get(offset + i) != record[i]) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    private int getEntry(final int index) {
+      return this.table[index >>> this.tablePageBits].get(index & ((1 << this.tablePageBits) - 1));
+    }
+
+    private void setEntry(final int index, final int entry) {
+      this.table[index >>> this.tablePageBits].put(index & ((1 << this.tablePageBits) - 1), entry);
+    }
+
+    // the record is read directly into the returned object's buffer
+    private ObjectMetadata readRecord(final int slot) {
+      final byte[] record = new byte[RECORD_SIZE];
+      readRecord(slot, record);
+      return new LegacyObjectMetadata(ByteBuffer.wrap(record));
+    }
+
+    // absolute access, so that readers holding the read lock need not duplicate the page
+    private void readRecord(final int slot, final byte[] record) {
+      final ByteBuffer page = this.recordPages.get(slot >>> RECORD_PAGE_BITS);
+      final int offset = (slot & RECORD_PAGE_MASK) * RECORD_SIZE;
+      for (int i = 0; i < RECORD_SIZE; i++) {
+        record[i] = page.get(offset + i);
+      }
+    }
+
+    private void writeRecord(final int slot, final byte[] record) {
+      final ByteBuffer page = this.recordPages.get(slot >>> RECORD_PAGE_BITS);
+      final int offset = (slot & RECORD_PAGE_MASK) * RECORD_SIZE;
+      for (int i = 0; i < RECORD_SIZE; i++) {
+        page.put(offset + i, record[i]);
+      }
+    }
+  }
+}
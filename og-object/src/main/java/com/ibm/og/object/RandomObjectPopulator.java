@@ -11,6 +11,9 @@ import static com.ibm.og.util.ObjectManagerUtils.getFileIndex;
 
 import java.io.BufferedInputStream;
 import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
@@ -20,19 +23,21 @@ import java.io.InputStream;
 import java.io.OutputStream;
 import java.io.RandomAccessFile;
 import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
 import java.util.Arrays;
 import java.util.Collections;
-import java.util.Iterator;
+import java.util.List;
 import java.util.Random;
 import java.util.Set;
-import java.util.SortedMap;
-import java.util.TreeMap;
 import java.util.UUID;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.locks.ReadWriteLock;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.regex.Pattern;
 
 import javax.annotation.Nullable;
@@ -40,8 +45,9 @@ import javax.inject.Inject;
 import javax.inject.Named;
 import javax.inject.Singleton;
 
+import com.google.common.base.Predicate;
 import com.google.common.io.BaseEncoding;
-import com.google.common.util.concurrent.Uninterruptibles;
+import com.google.common.io.ByteStreams;
 import com.ibm.og.util.ObjectManagerUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -55,6 +61,13 @@ public class RandomObjectPopulator extends Thread implements ObjectManager {
   public static final int OBJECT_SIZE = LegacyObjectMetadata.OBJECT_SIZE;
   private static final int MAX_PERSIST_ARG = 30 * 1000 * 60;
   public static final int MAX_OBJECT_ARG = 100 * (1048576 / OBJECT_SIZE);
+  private static final int DRAIN_BATCH = 65536;
+  // records mapped at a time when loading, keeping each mapping well below 2 GB
+  private static final int LOAD_WINDOW_RECORDS = 1 << 24;
+  // removal attempts made before waiting for an object to be returned
+  private static final int LEASE_ATTEMPTS = 16;
+  private static final long READY_TIMEOUT_MILLIS = 100;
+  private static final BaseEncoding NAME_ENCODING = BaseEncoding.base16().lowerCase();
   private final int maxObjects;
   private final String directory;
   private final String prefix;
@@ -64,17 +77,51 @@ public class RandomObjectPopulator extends Thread implements ObjectManager {
   private final Pattern filenamePattern;
 
 
-  // object read from a file
-  private final RandomAccessConcurrentHashSet<ObjectMetadata> objects =
-      new RandomAccessConcurrentHashSet<ObjectMetadata>();
-  private final ReadWriteLock objectsLock = new ReentrantReadWriteLock(true);
-  private final SortedMap<String, Integer> currentlyReading =
-      Collections.synchronizedSortedMap(new TreeMap<String, Integer>());
-  private final SortedMap<String, ObjectMetadata> currentlyUpdating =
-          Collections.synchronizedSortedMap(new TreeMap<String, ObjectMetadata>());
-  private final ReadWriteLock readingLock = new ReentrantReadWriteLock(true);
-  private final ReadWriteLock persistLock = new ReentrantReadWriteLock(true);
+  // object read from a file, indexed off-heap
+  private final OffHeapObjectIndex objects = new OffHeapObjectIndex();
+  // reference counts of objects being read, and objects removed for update, keyed by binary name
+  private final ObjectNameTable<Void> currentlyReading = new ObjectNameTable<Void>();
+  private final ObjectNameTable<ObjectMetadata> currentlyUpdating =
+      new ObjectNameTable<ObjectMetadata>();
+  // the index evaluates these while the candidate object cannot be selected for removal, so an
+  // object being read is never handed out for deletion
+  private final Predicate<ObjectMetadata> notReading = new Predicate<ObjectMetadata>() {
+    @Override
+    public boolean apply(final ObjectMetadata id) {
+      return !RandomObjectPopulator.this.currentlyReading.contains(id.toBytes());
+    }
+  };
+  private final Predicate<ObjectMetadata> startReading = new Predicate<ObjectMetadata>() {
+    @Override
+    public boolean apply(final ObjectMetadata id) {
+      RandomObjectPopulator.this.currentlyReading.increment(id.toBytes());
+      return true;
+    }
+  };
+  // claims an object for exclusive use by recording it as leased before the index removes it, so
+  // an object is always either indexed or leased while in use
+  private final Predicate<ObjectMetadata> startLease = new Predicate<ObjectMetadata>() {
+    @Override
+    public boolean apply(final ObjectMetadata id) {
+      final byte[] name = id.toBytes();
+      if (RandomObjectPopulator.this.currentlyReading.contains(name)
+          || RandomObjectPopulator.this.leased.contains(name)) {
+        return false;
+      }
+      RandomObjectPopulator.this.leased.put(name, id);
+      return true;
+    }
+  };
+  // objects handed out by getOnce, which are absent from the index until getComplete
+  private final ObjectNameTable<ObjectMetadata> leased = new ObjectNameTable<ObjectMetadata>();
+  // getOnce and remove callers wait here when every object is in use; signalled when an object
+  // is returned
+  private final Lock readyLock = new ReentrantLock();
+  private final Condition ready = this.readyLock.newCondition();
+  private final AtomicInteger readyWaiters = new AtomicInteger();
   private final File saveFile;
+  // adds and removes since the last compaction of saveFile
+  private final ObjectChangeLog changeLog;
   private volatile boolean testEnded = false;
   private final int desiredFileIndex;
   private final int idFileIndex;
@@ -152,6 +199,7 @@ public class RandomObjectPopulator extends Thread implements ObjectManager {
     this.saveFile = createFile(this.idFileIndex);
 
     loadObjects();
+    this.changeLog = new ObjectChangeLog(this.saveFile);
 
     this.saver = Executors.newScheduledThreadPool(1, new ThreadFactoryBuilder().setDaemon(true)
         .setNameFormat("scheduled-object-persist").build());
@@ -195,38 +243,16 @@ public class RandomObjectPopulator extends Thread implements ObjectManager {
   private void loadObjects() {
     this.objects.clear();
     try {
-      int actualObjectSize = OBJECT_SIZE;
       if (this.saveFile.exists()) {
         _logger.debug("loading objects from file: {}", this.saveFile);
-        final InputStream input = new BufferedInputStream(new FileInputStream(this.saveFile));
-
-        int versionHeaderLength = 0;
-        ObjectFileVersion version = ObjectFileUtil.readObjectFileVersion(input);
-        if (version.getMajorVersion() == LegacyObjectMetadata.MAJOR_VERSION &&
-                version.getMinorVersion() == LegacyObjectMetadata.MINOR_VERSION) {
-          actualObjectSize = OBJECT_SIZE;
-          versionHeaderLength = ObjectFileVersion.VERSION_HEADER_LENGTH;
-        } else if (version.getMajorVersion() == 1 && version.getMinorVersion() == 0) {
-          actualObjectSize = OBJECT_SIZE_V1;
-        } else {
-          throw new IllegalArgumentException("Unsupported Object File version [%sd].[%s]".
-                  format(Byte.toString(version.getMajorVersion()), Byte.toString(version.getMinorVersion())));
-        }
-
-        input.skip(versionHeaderLength);
-
-        final byte[] objectBytes = new byte[OBJECT_SIZE];
-        final byte[] inputBytes = new byte[actualObjectSize];
-        ByteBuffer b2 = ByteBuffer.wrap(objectBytes);
-
-        ObjectMetadata id;
-        while (input.read(inputBytes) == actualObjectSize) {
-          id = ObjectFileUtil.getObjectFromInputBuffer(version.getMajorVersion(), version.getMinorVersion(),
-                  inputBytes, objectBytes);
-          this.objects.put(id);
-        }
-        _logger.info("No. of objects loaded {}", this.objects.size());
-        input.close();
+        loadObjectFile(this.saveFile);
+      }
+      // changes logged after the last compaction, e.g. if the previous test did not shut down
+      final List<File> segments = ObjectChangeLog.segments(this.saveFile);
+      if (!segments.isEmpty()) {
+        final long entries = ObjectChangeLog.replay(segments, this.objects);
+        _logger.info("Replayed {} object change log entries, No. of objects {}", entries,
+            this.objects.size());
       }
     } catch (final Exception e) {
       this.testEnded = true;
@@ -234,6 +260,93 @@ public class RandomObjectPopulator extends Thread implements ObjectManager {
     }
   }
 
+  // memory maps an object file in windows of whole records. Records of the current version are
+  // already in the index format and are copied into the index in parallel
+  private void loadObjectFile(final File file) throws IOException {
+    final long start = System.nanoTime();
+    final RandomAccessFile raf = new RandomAccessFile(file, "r");
+    try {
+      final FileChannel channel = raf.getChannel();
+      final ByteBuffer header = ByteBuffer.allocate(ObjectFileVersion.VERSION_HEADER_LENGTH);
+      int read = 0;
+      while (header.hasRemaining() && read >= 0) {
+        read = channel.read(header, header.position());
+      }
+      final ObjectFileVersion version =
+          readVersion(new ByteArrayInputStream(header.array(), 0, header.position()), file);
+      final int actualObjectSize = objectSize(version);
+      long position = ObjectFileUtil.getVersionHeaderLength(version.getMajorVersion(),
+          version.getMinorVersion());
+      final long records = Math.max(channel.size() - position, 0) / actualObjectSize;
+      final int parallelism = Runtime.getRuntime().availableProcessors();
+      final byte[] objectBytes = new byte[OBJECT_SIZE];
+      final byte[] inputBytes = new byte[actualObjectSize];
+
+      for (long loaded = 0; loaded < records;) {
+        final int window = (int) Math.min(records - loaded, LOAD_WINDOW_RECORDS);
+        final MappedByteBuffer buffer =
+            channel.map(FileChannel.MapMode.READ_ONLY, position, (long) window * actualObjectSize);
+        if (isCurrentVersion(version)) {
+          this.objects.putAll(buffer, parallelism);
+        } else {
+          for (int i = 0; i < window; i++) {
+            buffer.get(inputBytes);
+            this.objects.put(ObjectFileUtil.getObjectFromInputBuffer(version.getMajorVersion(),
+                version.getMinorVersion(), inputBytes, objectBytes));
+          }
+        }
+        position += (long) window * actualObjectSize;
+        loaded += window;
+      }
+
+      final long millis = Math.max(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), 1);
+      _logger.info("No. of objects loaded {} from {} records in {} ms [{} records/s, {} MB/s]",
+          this.objects.size(), records, millis, records * 1000 / millis,
+          records * actualObjectSize / 1000 / millis);
+    } finally {
+      raf.close();
+    }
+  }
+
+  // reads the version of an object file and skips its header, if any
+  private static ObjectFileVersion readVersion(final InputStream input, final File file)
+      throws IOException {
+    final ObjectFileVersion version = ObjectFileUtil.readObjectFileVersion(input);
+    final int headerLength;
+    try {
+      headerLength = ObjectFileUtil.getVersionHeaderLength(version.getMajorVersion(),
+          version.getMinorVersion());
+    } catch (final IllegalArgumentException e) {
+      throw new IllegalArgumentException(String.format("Unsupported Object File version [%s].[%s]",
+          Byte.toString(version.getMajorVersion()), Byte.toString(version.getMinorVersion())));
+    }
+    try {
+      ByteStreams.skipFully(input, headerLength);
+    } catch (final EOFException e) {
+      throw new EOFException(
+          String.format("Object file [%s] is shorter than its version header", file));
+    }
+    return version;
+  }
+
+  private static int objectSize(final ObjectFileVersion version) {
+    return ObjectFileUtil.getObjectSize(version.getMajorVersion(), version.getMinorVersion());
+  }
+
+  private static boolean isCurrentVersion(final ObjectFileVersion version) {
+    return version.getMajorVersion() == LegacyObjectMetadata.MAJOR_VERSION
+        && version.getMinorVersion() == LegacyObjectMetadata.MINOR_VERSION;
+  }
+
+  // the version of an existing object file, read from its header
+  private static ObjectFileVersion readVersion(final File file) throws IOException {
+    final InputStream in = new BufferedInputStream(new FileInputStream(file));
+    try {
+      return ObjectFileUtil.readObjectFileVersion(in);
+    } finally {
+      in.close();
+    }
+  }
 
   public long getSavedObjectCount() {
     long count = 0;
@@ -245,92 +358,101 @@ public class RandomObjectPopulator extends Thread implements ObjectManager {
   }
 
   public long getCurrentObjectCount() {
-    return this.objects.size();
+    return this.objects.size() + this.leased.size();
   }
 
   @Override
   public ObjectMetadata remove() {
-    this.persistLock.readLock().lock();
-    try {
-      ObjectMetadata id = null;
-      while (id == null) {
-        this.objectsLock.writeLock().lock();
-        id = this.objects.removeRandom();
-        this.objectsLock.writeLock().unlock();
-        checkForNull(id);
-        boolean unavailable;
-        this.readingLock.readLock().lock();
-        unavailable = this.currentlyReading.containsKey(id.getName());
-        this.readingLock.readLock().unlock();
-        if (unavailable) {
-          this.objects.put(id);
-          id = null;
-        }
-      }
-      _logger.debug("Removing object: {}", id);
-      return id;
-    } finally {
-      this.persistLock.readLock().unlock();
-    }
+    final ObjectMetadata id = removeAvailable();
+    _logger.debug("Removing object: {}", id);
+    this.changeLog.remove(id);
+    return id;
   }
 
   @Override
   public ObjectMetadata removeForUpdate() {
-    this.persistLock.readLock().lock();
+    final ObjectMetadata id = removeAvailable();
+    _logger.debug("Removing object: {}", id);
+    this.changeLog.remove(id);
+    this.currentlyUpdating.put(id.toBytes(), id);
+    return id;
+  }
+
+  // removes a random object which is not currently being read, waiting for a read to complete if
+  // every candidate is being read
+  private ObjectMetadata removeAvailable() {
+    ObjectMetadata id = this.objects.removeRandom(this.notReading);
+    if (id != null) {
+      return id;
+    }
+    this.readyWaiters.incrementAndGet();
+    this.readyLock.lock();
     try {
-      ObjectMetadata id = null;
-      while (id == null) {
-        this.objectsLock.writeLock().lock();
-        id = this.objects.removeRandom();
-        this.objectsLock.writeLock().unlock();
-        checkForNull(id);
-        boolean unavailable;
-        this.readingLock.readLock().lock();
-        unavailable = this.currentlyReading.containsKey(id.getName());
-        this.readingLock.readLock().unlock();
-        if (unavailable) {
-          this.objects.put(id);
-          id = null;
+      while (true) {
+        for (int i = 0; i < LEASE_ATTEMPTS; i++) {
+          id = this.objects.removeRandom(this.notReading);
+          if (id != null) {
+            return id;
+          }
+        }
+        if (this.objects.isEmpty()) {
+          throw new ObjectManagerException("No objects available.");
         }
+        this.ready.await(READY_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
       }
-      _logger.debug("Removing object: {}", id);
-      this.currentlyUpdating.put(id.getName(), id);
-      return id;
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new ObjectManagerException("Interrupted while waiting for an available object", e);
     } finally {
-      this.persistLock.readLock().unlock();
+      this.readyLock.unlock();
+      this.readyWaiters.decrementAndGet();
     }
   }
 
   @Override
   public ObjectMetadata removeObject(ObjectMetadata objectMetadata) {
-    this.persistLock.readLock().lock();
+    ObjectMetadata id = this.objects.remove(objectMetadata, this.notReading);
+    if (id == null) {
+      id = awaitRemove(objectMetadata);
+    }
+    _logger.trace("Removing object: {}", id);
+    this.changeLog.remove(id);
+    this.currentlyUpdating.put(id.toBytes(), id);
+    return id;
+  }
+
+  // waits for an object which is being read or is leased to be returned, then removes it
+  private ObjectMetadata awaitRemove(final ObjectMetadata objectMetadata) {
+    _logger.debug("object {} is currently being read or leased, waiting",
+        objectMetadata.getName());
+    this.readyWaiters.incrementAndGet();
+    this.readyLock.lock();
     try {
-      ObjectMetadata id = null;
-      while (id == null) {
-        this.objectsLock.writeLock().lock();
-        id = this.objects.remove(objectMetadata);
-        this.objectsLock.writeLock().unlock();
-        checkForNull(id);
-        boolean unavailable;
-        this.readingLock.readLock().lock();
-        unavailable = this.currentlyReading.containsKey(id.getName());
-        this.readingLock.readLock().unlock();
-        if (unavailable) {
-          _logger.info("object {} is available already in currently reading. so skipping", id.getName());
-          this.objects.put(id);
-          id = null;
+      while (true) {
+        if (!isManaged(objectMetadata)) {
+          throw new ObjectManagerException("No objects available.");
         }
+        final ObjectMetadata id = this.objects.remove(objectMetadata, this.notReading);
+        if (id != null) {
+          return id;
+        }
+        this.ready.await(READY_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
       }
-      _logger.trace("Removing object: {}", id);
-      this.currentlyUpdating.put(id.getName(), id);
-      return id;
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new ObjectManagerException("Interrupted while waiting for an available object", e);
     } finally {
-      this.persistLock.readLock().unlock();
+      this.readyLock.unlock();
+      this.readyWaiters.decrementAndGet();
     }
-
   }
 
-
+  // a leased object is recorded before it leaves the index and indexed before its lease is
+  // released, so checking the index on both sides of the leases cannot miss an object in transit
+  private boolean isManaged(final ObjectMetadata id) {
+    return this.objects.contains(id) || this.leased.contains(id.toBytes())
+        || this.objects.contains(id);
+  }
 
   private void checkForNull(final ObjectMetadata id) {
     if (id == null) {
@@ -344,31 +466,9 @@ public class RandomObjectPopulator extends Thread implements ObjectManager {
       throw new RuntimeException("Test already ended");
     }
 
-    ObjectMetadata id;
-
-    this.objectsLock.readLock().lock();
-    id = this.objects.getRandom();
-    try {
-      checkForNull(id);
-    } catch (final ObjectManagerException e) {
-      this.objectsLock.readLock().unlock();
-      throw e;
-    }
-
-    int count = 0;
-    this.readingLock.writeLock().lock();
-    if (this.currentlyReading.containsKey(id.getName())) {
-      // The only reason to have both locked simultaneously is to prevent an id from being
-      // selected for deletion before it has been added to currentlyReading
-      this.objectsLock.readLock().unlock();
-      count = this.currentlyReading.get(id.getName()).intValue();
-    }
-    this.currentlyReading.put(id.getName(), Integer.valueOf(count + 1));
-    if (count == 0) {
-      this.objectsLock.readLock().unlock();
-    }
-    this.readingLock.writeLock().unlock();
-
+    // the object is marked as being read while the index guarantees it cannot be removed
+    final ObjectMetadata id = this.objects.getRandom(this.startReading);
+    checkForNull(id);
     _logger.trace("Getting object: {}", id);
     return id;
   }
@@ -379,130 +479,157 @@ public class RandomObjectPopulator extends Thread implements ObjectManager {
       throw new RuntimeException("Test already ended");
     }
 
-    ObjectMetadata id = null;
-    while (id == null) {
-      this.objectsLock.readLock().lock();
-      id = this.objects.getRandom();
-      try {
-        checkForNull(id);
-      } catch (final ObjectManagerException e) {
-        this.objectsLock.readLock().unlock();
-        throw e;
+    final ObjectMetadata id = leaseAvailable();
+    _logger.trace("Getting currently not read object : {}", id);
+    return id;
+  }
+
+  // removes a random object which is not in use from the index and records it as leased, waiting
+  // for an object to be returned if every object is in use
+  private ObjectMetadata leaseAvailable() {
+    ObjectMetadata id = this.objects.removeRandom(this.startLease);
+    if (id != null) {
+      return id;
+    }
+    this.readyWaiters.incrementAndGet();
+    this.readyLock.lock();
+    try {
+      while (true) {
+        // a stripe rejects only its sampled candidate, so resample before waiting
+        for (int i = 0; i < LEASE_ATTEMPTS; i++) {
+          id = this.objects.removeRandom(this.startLease);
+          if (id != null) {
+            return id;
+          }
+        }
+        if (this.objects.isEmpty() && this.leased.size() == 0) {
+          throw new ObjectManagerException("No objects available.");
+        }
+        if (this.testEnded) {
+          throw new RuntimeException("Test already ended");
+        }
+        // the timeout only bounds the wait on readers which never complete
+        this.ready.await(READY_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
       }
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new ObjectManagerException("Interrupted while waiting for an available object", e);
+    } finally {
+      this.readyLock.unlock();
+      this.readyWaiters.decrementAndGet();
+    }
+  }
 
-      this.readingLock.writeLock().lock();
-      if (this.currentlyReading.containsKey(id.getName())) {
-        // The only reason to have both locked simultaneously is to prevent an id from being
-        // selected for deletion before it has been added to currentlyReading
-        _logger.debug("object {} already found in currently reading",id.getName());
-        id = null;
-        Uninterruptibles.sleepUninterruptibly(20, TimeUnit.MILLISECONDS);
-      } else {
-        // The only reason to have both locked simultaneously is to prevent an id from being
-        // selected for deletion before it has been added to currentlyReading
-        this.currentlyReading.put(id.getName(),1);
-        _logger.debug("adding object {} to currently reading",id.getName());
+  // wakes callers waiting for an object to become available
+  private void signalReady() {
+    if (this.readyWaiters.get() > 0) {
+      this.readyLock.lock();
+      try {
+        this.ready.signalAll();
+      } finally {
+        this.readyLock.unlock();
       }
-      this.readingLock.writeLock().unlock();
-      this.objectsLock.readLock().unlock();
     }
-    _logger.trace("Getting currently not read object : {}", id);
-    return id;
   }
 
   @Override
   public void getComplete(final ObjectMetadata id) {
-    this.readingLock.writeLock().lock();
-    Integer c = this.currentlyReading.get(id.getName());
-    _logger.debug("id {} count {}", id, c);
-    final int count = this.currentlyReading.get(id.getName()).intValue();
-    if (count > 1) {
-      this.currentlyReading.put(id.getName(), Integer.valueOf(count - 1));
-      _logger.debug("decrementing {} from currentlyReading", id.getName());
+    final byte[] name = id.toBytes();
+    final ObjectMetadata leasedObject = this.leased.get(name);
+    if (leasedObject != null) {
+      // indexed before the lease is released so that the object is never absent from both
+      this.objects.put(leasedObject);
+      this.leased.remove(name);
+      _logger.debug("returning leased object {}", id);
+      signalReady();
     } else {
-      _logger.debug("removing {} from currentlyReading", id.getName());
-      this.currentlyReading.remove(id.getName());
+      final int count = this.currentlyReading.decrement(name);
+      if (count < 0) {
+        _logger.warn("object {} completed but was not being read", id);
+      } else {
+        _logger.debug("id {} remaining reads {}", id, count);
+        if (count == 0) {
+          signalReady();
+        }
+      }
     }
-    this.readingLock.writeLock().unlock();
     _logger.trace("Returning read object: {}", id);
-    return;
   }
 
   @Override
   public void add(final ObjectMetadata id) {
     _logger.debug("Adding object: {}", id);
-    this.persistLock.readLock().lock();
-    try {
-      this.objects.put(id);
-    } finally {
-      this.persistLock.readLock().unlock();
-    }
+    // logged before the object is visible so that a remove of it is always logged after the add
+    this.changeLog.add(id);
+    this.objects.put(id);
+    signalReady();
   }
 
   @Override
   public void updateObject(final ObjectMetadata id) {
     _logger.debug("Adding Updated object: {}", id);
-    this.persistLock.readLock().lock();
-    try {
-      this.currentlyUpdating.remove(id.getName());
-      this.objects.put(id);
-    } finally {
-      this.persistLock.readLock().unlock();
-    }
+    this.currentlyUpdating.remove(id.toBytes());
+    this.changeLog.add(id);
+    this.objects.put(id);
+    signalReady();
   }
 
   @Override
   public ObjectMetadata getObjectFromUpdatingCache(final String id) {
     _logger.debug("Getting object {} from currentUpdating cache", id);
-    ObjectMetadata objectId = null;
-    this.persistLock.readLock().lock();
-    try {
-      objectId = this.currentlyUpdating.get(id);
-    } finally {
-      this.persistLock.readLock().unlock();
-    }
-    return objectId;
+    final byte[] name = nameBytes(id);
+    return name == null ? null : this.currentlyUpdating.get(name);
   }
 
   @Override
   public void removeUpdatedObject(final ObjectMetadata id) {
     _logger.trace("Removing Updated object from currentlyUpdating cache: {}", id);
-    this.persistLock.readLock().lock();
-    try {
-      this.currentlyUpdating.remove(id.getName());
-    } finally {
-      this.persistLock.readLock().unlock();
-    }
+    this.currentlyUpdating.remove(id.toBytes());
   }
 
   @Override
   public void removeUpdatedObjectByName(final String name) {
     _logger.trace("Removing Updated object from currentlyUpdating cache: {}", name);
-    this.persistLock.readLock().lock();
+    final byte[] nameBytes = nameBytes(name);
+    if (nameBytes != null) {
+      this.currentlyUpdating.remove(nameBytes);
+    }
+  }
+
+  // decodes a base16 object name, returning null if it is not a valid object name
+  @Nullable
+  private static byte[] nameBytes(final String name) {
+    checkNotNull(name);
+    if (name.length() != 2 * LegacyObjectMetadata.OBJECT_NAME_SIZE) {
+      return null;
+    }
     try {
-      this.currentlyUpdating.remove(name);
-    } finally {
-      this.persistLock.readLock().unlock();
+      return NAME_ENCODING.decode(name);
+    } catch (final IllegalArgumentException e) {
+      return null;
     }
   }
 
   @Override
   public int getCurrentlyUpdatingCount() {
-    this.persistLock.readLock().lock();
-    int size = this.currentlyUpdating.size();
-    this.persistLock.readLock().unlock();
-    return size;
+    return this.currentlyUpdating.size();
   }
+
   private void persistIds() throws IOException {
     _logger.info("persisting objects");
-    this.persistLock.writeLock().lock();
-    final int toSave = this.objects.size();
-    _logger.info("number of objects to persist [{}]", toSave);
-    final OutputStream out = new BufferedOutputStream(new FileOutputStream(this.saveFile));
-    if (toSave > 0) {
-      _logger.info("writing version to file {}", this.saveFile);
-      ObjectFileUtil.writeObjectFileVersion(out);
+    rebalance();
+    compact(this.changeLog.roll());
+  }
+
+  // moves objects between the in-memory index and the surplus object files so that no more than
+  // maxObjects are kept in memory. Moved objects are recorded in the change log like any other
+  // add or remove, so requests are never blocked on file i/o
+  private void rebalance() throws IOException {
+    // surplus file selection counts saveFile as one of the object files
+    if (this.saveFile.createNewFile()) {
+      _logger.info("created object file {}", this.saveFile);
     }
+    final int toSave = this.objects.size();
     _logger.info("toSave [{}] maxObjects [{}]", toSave, this.maxObjects);
     if (toSave > this.maxObjects) {
       for (int size = this.objects.size(); size > this.maxObjects; size = this.objects.size()) {
@@ -517,7 +644,9 @@ public class RandomObjectPopulator extends Thread implements ObjectManager {
           surplusIndex = numFiles - 1;
         }
         File surplus = createFile(surplusIndex);
-        if (surplus.equals(this.saveFile) || (surplus.length() / OBJECT_SIZE) >= this.maxObjects) {
+        // records are only appended to surplus files of the current version
+        if (surplus.equals(this.saveFile) || (surplus.length() / OBJECT_SIZE) >= this.maxObjects
+            || (surplus.length() > 0 && !isCurrentVersion(readVersion(surplus)))) {
           // Create a new file
           surplusIndex = surplusIndex + 1;
           surplus = createFile(surplusIndex);
@@ -533,12 +662,7 @@ public class RandomObjectPopulator extends Thread implements ObjectManager {
         _logger.info("remaining objects [{}] to write in surplus ", remaining);
         // While writing surplus, remove them from this.objects, to keep consistent with
         // this.savefile
-        final Iterator<ObjectMetadata> iterator = this.objects.iterator();
-        for (int i = 0; i < remaining; i++) {
-          final ObjectMetadata sid = iterator.next();
-          dos.write(sid.toBytes());
-          iterator.remove();
-        }
+        drainTo(dos, remaining);
         dos.close();
       }
     } else if (toSave < this.maxObjects) {
@@ -557,35 +681,23 @@ public class RandomObjectPopulator extends Thread implements ObjectManager {
         if (this.saveFile.equals(surplus)) {
           break;
         }
-        final int toTransfer = getTransferrable(size, surplus);
-        _logger.info("borrow [{}] objects from [{}]", toTransfer, surplus.getName());
-
         final BufferedInputStream in = new BufferedInputStream(new FileInputStream(surplus));
         // check the version of the file and calculate skip
-        long skip = 0;
-        byte[] readBuf = null;
-        int actualObjectSize = 0;
         in.mark(ObjectFileVersion.VERSION_HEADER_LENGTH);
-        ObjectFileVersion version = ObjectFileUtil.readObjectFileVersion(in);
-
-        if (version.getMajorVersion() == 2 && version.getMinorVersion() == 0) {
-          _logger.info("borrowing from object file {} of length {} version 2.0 ", surplus.getName(),
-                  surplus.length());
-          skip = surplus.length() - (toTransfer * OBJECT_SIZE);
-          readBuf = new byte[OBJECT_SIZE];
-          actualObjectSize = OBJECT_SIZE;
-        } else if (version.getMajorVersion() == 1 && version.getMinorVersion() == 0) {
-          _logger.info("borrowing from object file {} of length {} version 1.0 ", surplus.getName(),
-                  surplus.length());
-          if (in.markSupported()) {
-            _logger.warn("Missing version in object file [%s].", surplus.getName());
-            readBuf = new byte[OBJECT_SIZE_V1];
-            actualObjectSize = OBJECT_SIZE_V1;
-          }
-          skip = surplus.length() - (toTransfer * OBJECT_SIZE_V1);
-        } else {
-          throw new IllegalArgumentException("Unsupported Object file version");
+        final ObjectFileVersion version = ObjectFileUtil.readObjectFileVersion(in);
+        final int actualObjectSize = objectSize(version);
+        final int headerLength = ObjectFileUtil.getVersionHeaderLength(version.getMajorVersion(),
+            version.getMinorVersion());
+        if (headerLength == 0) {
+          _logger.warn("Missing version in object file [{}].", surplus.getName());
         }
+        _logger.info("borrowing from object file {} of length {} version {}.{} ",
+            surplus.getName(), surplus.length(), version.getMajorVersion(),
+            version.getMinorVersion());
+        final int toTransfer = getTransferrable(size, surplus, headerLength, actualObjectSize);
+        _logger.info("borrow [{}] objects from [{}]", toTransfer, surplus.getName());
+        final long skip = surplus.length() - ((long) toTransfer * actualObjectSize);
+        final byte[] readBuf = new byte[actualObjectSize];
 
         in.reset();
         _logger.info("skip object file length [{}]", skip);
@@ -602,6 +714,7 @@ public class RandomObjectPopulator extends Thread implements ObjectManager {
             sid = ObjectFileUtil.getObjectFromInputBuffer(version.getMajorVersion(), version.getMinorVersion(),
                     readBuf, buf);
             _logger.trace("borrowed object [{}]", sid);
+            this.changeLog.add(sid);
             this.objects.put(sid);
           } else {
             _logger.error("borrow object readBytes [{}] not equal to object length [{}]", readBytes, actualObjectSize);
@@ -609,7 +722,7 @@ public class RandomObjectPopulator extends Thread implements ObjectManager {
         }
         in.close();
         // If surplus is out of objects, delete it
-        if (skip == ObjectFileVersion.VERSION_HEADER_LENGTH) {
+        if (skip == headerLength) {
           _logger.info("deleting surplus file [{}]", surplus.getName());
           surplus.delete();
         } else {
@@ -627,15 +740,85 @@ public class RandomObjectPopulator extends Thread implements ObjectManager {
         }
       }
     }
-    // Finally we save a number less than or equal to the maximum number of objects to our
-    // savefile
-    _logger.info(
-        String.format("Writing state file: %d objects into ", this.objects.size()) + this.saveFile);
-    for (final Iterator<ObjectMetadata> iterator = this.objects.iterator(); iterator.hasNext();) {
-      out.write(iterator.next().toBytes());
+  }
+
+  // drains objects from the index in batches, recording each batch in the change log once it has
+  // been written to the surplus file
+  private void drainTo(final OutputStream out, final int count) throws IOException {
+    final ByteArrayOutputStream drained =
+        new ByteArrayOutputStream(Math.min(count, DRAIN_BATCH) * OBJECT_SIZE);
+    int remaining = count;
+    while (remaining > 0) {
+      drained.reset();
+      final int n = this.objects.drainTo(drained, Math.min(remaining, DRAIN_BATCH));
+      if (n == 0) {
+        break;
+      }
+      final byte[] records = drained.toByteArray();
+      out.write(records);
+      for (int i = 0; i < n; i++) {
+        this.changeLog.append(ObjectChangeLog.REMOVE, records, i * OBJECT_SIZE);
+      }
+      remaining -= n;
+    }
+  }
+
+  // rewrites saveFile with the changes recorded in the provided change log segments, then deletes
+  // them. Only the logged changes are held in memory; the existing object file is streamed
+  private void compact(final List<File> segments) throws IOException {
+    final OffHeapObjectIndex added = new OffHeapObjectIndex();
+    final OffHeapObjectIndex removed = new OffHeapObjectIndex();
+    final long entries = ObjectChangeLog.replay(segments, added, removed);
+    _logger.info("compacting [{}] change log entries from [{}] segments into [{}]", entries,
+        segments.size(), this.saveFile);
+
+    final File tmp = new File(this.saveFile.getPath() + ".tmp");
+    final OutputStream out = new BufferedOutputStream(new FileOutputStream(tmp));
+    long count = 0;
+    try {
+      if (this.saveFile.length() > 0) {
+        final InputStream in = new BufferedInputStream(new FileInputStream(this.saveFile));
+        try {
+          final ObjectFileVersion version = readVersion(in, this.saveFile);
+          final int actualObjectSize = objectSize(version);
+          final byte[] objectBytes = new byte[OBJECT_SIZE];
+          final byte[] inputBytes = new byte[actualObjectSize];
+          while (in.read(inputBytes) == actualObjectSize) {
+            final ObjectMetadata id = ObjectFileUtil.getObjectFromInputBuffer(
+                version.getMajorVersion(), version.getMinorVersion(), inputBytes, objectBytes);
+            if (!removed.contains(id)) {
+              if (count == 0) {
+                ObjectFileUtil.writeObjectFileVersion(out);
+              }
+              out.write(id.toBytes());
+              count++;
+            }
+          }
+        } finally {
+          in.close();
+        }
+      }
+      if (count == 0 && !added.isEmpty()) {
+        ObjectFileUtil.writeObjectFileVersion(out);
+      }
+      count += added.size();
+      added.writeTo(out);
+    } finally {
+      out.close();
+      added.clear();
+      removed.clear();
+    }
+
+    if (!tmp.renameTo(this.saveFile) && !(this.saveFile.delete() && tmp.renameTo(this.saveFile))) {
+      throw new IOException(String.format("Unable to replace %s with %s", this.saveFile, tmp));
+    }
+    _logger.info(String.format("Writing state file: %d objects into ", count) + this.saveFile);
+    // replay is idempotent, so a failure to delete only causes these entries to be replayed again
+    for (final File segment : segments) {
+      if (!segment.delete()) {
+        _logger.warn("Unable to delete object change log segment [{}]", segment);
+      }
     }
-    out.close();
-    this.persistLock.writeLock().unlock();
   }
 
   private int getRemaining(final int size, final File surplus) {
@@ -645,9 +828,10 @@ public class RandomObjectPopulator extends Thread implements ObjectManager {
     return remaining;
   }
 
-  private int getTransferrable(final int size, final File surplus) {
+  private int getTransferrable(final int size, final File surplus, final int headerLength,
+      final int objectSize) {
     final int slotsAvailable = this.maxObjects - size;
-    final int surplusAvailable = (int) (surplus.length() / OBJECT_SIZE);
+    final int surplusAvailable = (int) ((surplus.length() - headerLength) / objectSize);
     final int transferrable = Math.min(slotsAvailable, surplusAvailable);
     return transferrable;
   }
@@ -668,7 +852,9 @@ public class RandomObjectPopulator extends Thread implements ObjectManager {
     }
 
     try {
-      persistIds();
+      rebalance();
+      this.changeLog.close();
+      compact(ObjectChangeLog.segments(this.saveFile));
     } catch (final Exception e) {
       throw new ObjectManagerException(e);
     }
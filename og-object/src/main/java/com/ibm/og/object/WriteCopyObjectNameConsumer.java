@@ -5,6 +5,7 @@
 
 package com.ibm.og.object;
 
+import com.ibm.og.api.DataType;
 import com.ibm.og.api.Operation;
 import com.ibm.og.api.Request;
 import com.ibm.og.api.Response;
@@ -73,7 +74,10 @@ public class WriteCopyObjectNameConsumer extends AbstractObjectNameConsumer {
     if (objectString == null) {
       return null;
     } else {
-      return LegacyObjectMetadata.fromMetadata(objectString, objectSize, containerSuffix, numLegalHolds, retention);
+      final DataType dataType = getObjectDataType(request, objectSize);
+      final long seed = dataType != null ? getObjectSeed(request) : 0;
+      return LegacyObjectMetadata.fromMetadata(objectString, objectSize, containerSuffix, numLegalHolds, retention,
+          dataType, seed);
     }
   }
 
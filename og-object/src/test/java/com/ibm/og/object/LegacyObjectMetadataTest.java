@@ -7,12 +7,15 @@ package com.ibm.og.object;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
 
 import java.nio.ByteBuffer;
 import java.util.UUID;
 
 import org.junit.Test;
 
+import com.ibm.og.api.DataType;
+
 public class LegacyObjectMetadataTest {
   @Test(expected = NullPointerException.class)
   public void nullFromBytes() {
@@ -85,6 +88,29 @@ public class LegacyObjectMetadataTest {
     assertThat(canonical, is(canonicalize(objectString, objectSize, containerSuffix)));
   }
 
+  @Test
+  public void legacyObjectMetadataDataTypeAndSeed() {
+    final String objectString = objectString(UUID.randomUUID());
+    final LegacyObjectMetadata objectMetadata = LegacyObjectMetadata.fromMetadata(objectString,
+        1024, 0, (byte) 0, -1, DataType.REDUCIBLE, Long.MIN_VALUE);
+    final ObjectMetadata copy = LegacyObjectMetadata.fromBytes(objectMetadata.toBytes());
+
+    assertThat(copy.getDataType(), is(DataType.REDUCIBLE));
+    assertThat(copy.getSeed(), is(Long.MIN_VALUE));
+    // the content of an object does not affect its identity
+    assertThat(copy, is((ObjectMetadata) LegacyObjectMetadata.fromMetadata(objectString, 1024, 0,
+        (byte) 0, -1)));
+  }
+
+  @Test
+  public void legacyObjectMetadataUnknownDataType() {
+    final LegacyObjectMetadata objectMetadata = LegacyObjectMetadata.fromMetadata(
+        objectString(UUID.randomUUID()), 1024, 0, (byte) 0, -1, DataType.CUSTOM, 5);
+
+    assertThat(objectMetadata.getDataType(), nullValue());
+    assertThat(objectMetadata.getSeed(), is(0L));
+  }
+
   @Test
   public void compareEqualsNull() {
     final String objectString = objectString(UUID.randomUUID());
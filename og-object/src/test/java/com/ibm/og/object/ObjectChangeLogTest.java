@@ -0,0 +1,178 @@
+/* Copyright (c) IBM Corporation 2016. All Rights Reserved.
+ * Project name: Object Generator
+ * This project is licensed under the Apache License 2.0, see LICENSE.
+ */
+
+package com.ibm.og.object;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.google.common.collect.Lists;
+
+public class ObjectChangeLogTest {
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+  private File objectFile;
+
+  @Before
+  public void before() {
+    this.objectFile = new File(this.folder.getRoot(), "id_0.object");
+  }
+
+  private static ObjectMetadata object(final long size) {
+    final String name = UUID.randomUUID().toString().replace("-", "") + "0000";
+    return LegacyObjectMetadata.fromMetadata(name, size, 0, (byte) 0, -1);
+  }
+
+  @Test(expected = NullPointerException.class)
+  public void nullObjectFile() {
+    new ObjectChangeLog(null);
+  }
+
+  @Test
+  public void noSegmentsWithoutEntries() throws IOException {
+    final ObjectChangeLog log = new ObjectChangeLog(this.objectFile);
+    assertThat(log.roll().isEmpty(), is(true));
+    log.close();
+    assertThat(ObjectChangeLog.segments(this.objectFile).isEmpty(), is(true));
+  }
+
+  @Test
+  public void rollAndReplay() throws IOException {
+    final ObjectChangeLog log = new ObjectChangeLog(this.objectFile);
+    final ObjectMetadata kept = object(1);
+    final ObjectMetadata removed = object(2);
+    log.add(kept);
+    log.add(removed);
+    log.remove(removed);
+    final List<File> sealed = log.roll();
+    assertThat(sealed.size(), is(1));
+    assertThat(sealed.get(0).length(), is(3L * ObjectChangeLog.ENTRY_SIZE));
+
+    final ObjectMetadata later = object(3);
+    log.add(later);
+    log.close();
+
+    final OffHeapObjectIndex index = new OffHeapObjectIndex();
+    assertThat(ObjectChangeLog.replay(sealed, index), is(3L));
+    assertThat(index.size(), is(1));
+    assertThat(index.contains(kept), is(true));
+
+    final List<File> segments = ObjectChangeLog.segments(this.objectFile);
+    assertThat(segments.size(), is(2));
+    assertThat(ObjectChangeLog.replay(segments, index), is(4L));
+    assertThat(index.size(), is(2));
+    assertThat(index.contains(later), is(true));
+  }
+
+  @Test
+  public void newLogFollowsExistingSegments() throws IOException {
+    final ObjectChangeLog first = new ObjectChangeLog(this.objectFile);
+    first.add(object(1));
+    first.close();
+    final ObjectChangeLog second = new ObjectChangeLog(this.objectFile);
+    second.add(object(2));
+    second.close();
+
+    final List<File> segments = ObjectChangeLog.segments(this.objectFile);
+    assertThat(segments.size(), is(2));
+    assertThat(segments.get(0).getName(), is("id_0.object.1.log"));
+    assertThat(segments.get(1).getName(), is("id_0.object.2.log"));
+  }
+
+  @Test
+  public void replayNetChanges() throws IOException {
+    final ObjectChangeLog log = new ObjectChangeLog(this.objectFile);
+    final ObjectMetadata existing = object(1);
+    final ObjectMetadata updated =
+        LegacyObjectMetadata.fromMetadata(existing.getName(), 10, 0, (byte) 0, -1);
+    final ObjectMetadata temporary = object(2);
+    final ObjectMetadata deleted = object(3);
+    log.remove(existing);
+    log.add(updated);
+    log.add(temporary);
+    log.remove(temporary);
+    log.remove(deleted);
+    log.close();
+
+    final OffHeapObjectIndex added = new OffHeapObjectIndex();
+    final OffHeapObjectIndex removed = new OffHeapObjectIndex();
+    ObjectChangeLog.replay(ObjectChangeLog.segments(this.objectFile), added, removed);
+    assertThat(added.size(), is(1));
+    assertThat(added.getRandom().getSize(), is(10L));
+    assertThat(removed.contains(existing), is(true));
+    assertThat(removed.contains(deleted), is(true));
+  }
+
+  @Test
+  public void replayIgnoresPartialEntry() throws IOException {
+    final ObjectChangeLog log = new ObjectChangeLog(this.objectFile);
+    log.add(object(1));
+    log.close();
+    final File segment = ObjectChangeLog.segments(this.objectFile).get(0);
+    final OutputStream out = new FileOutputStream(segment, true);
+    out.write(new byte[] {ObjectChangeLog.ADD, 1, 2, 3});
+    out.close();
+
+    final OffHeapObjectIndex index = new OffHeapObjectIndex();
+    assertThat(ObjectChangeLog.replay(Lists.newArrayList(segment), index), is(1L));
+    assertThat(index.size(), is(1));
+  }
+
+  @Test
+  public void appendAfterCloseIsDropped() throws IOException {
+    final ObjectChangeLog log = new ObjectChangeLog(this.objectFile);
+    log.close();
+    log.add(object(1));
+    assertThat(ObjectChangeLog.segments(this.objectFile).isEmpty(), is(true));
+  }
+
+  @Test
+  public void concurrentAppends() throws Exception {
+    final ObjectChangeLog log = new ObjectChangeLog(this.objectFile);
+    final int threads = 4;
+    final int entries = 50000;
+    final List<Thread> appenders = Lists.newArrayList();
+    for (int t = 0; t < threads; t++) {
+      appenders.add(new Thread(new Runnable() {
+        @Override
+        public void run() {
+          for (int i = 0; i < entries; i++) {
+            log.add(object(i));
+          }
+        }
+      }));
+    }
+    for (final Thread t : appenders) {
+      t.start();
+    }
+    long replayed = 0;
+    final OffHeapObjectIndex index = new OffHeapObjectIndex();
+    for (final Thread t : appenders) {
+      // roll while appending; no entry may be lost or duplicated across segments
+      final List<File> sealed = log.roll();
+      replayed += ObjectChangeLog.replay(sealed, index);
+      for (final File segment : sealed) {
+        segment.delete();
+      }
+      t.join();
+    }
+    log.close();
+    replayed += ObjectChangeLog.replay(ObjectChangeLog.segments(this.objectFile), index);
+    assertThat(replayed, is((long) threads * entries));
+    assertThat(index.size(), is(threads * entries));
+  }
+}
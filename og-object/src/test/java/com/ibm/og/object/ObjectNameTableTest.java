@@ -0,0 +1,146 @@
+/* Copyright (c) IBM Corporation 2016. All Rights Reserved.
+ * Project name: Object Generator
+ * This project is licensed under the Apache License 2.0, see LICENSE.
+ */
+
+package com.ibm.og.object;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.collect.Lists;
+
+public class ObjectNameTableTest {
+  private ObjectNameTable<ObjectMetadata> table;
+
+  @Before
+  public void before() {
+    this.table = new ObjectNameTable<ObjectMetadata>();
+  }
+
+  private static ObjectMetadata object() {
+    final String name = UUID.randomUUID().toString().replace("-", "") + "0000";
+    return LegacyObjectMetadata.fromMetadata(name, 0, 0, (byte) 0, -1);
+  }
+
+  @Test(expected = NullPointerException.class)
+  public void nullName() {
+    this.table.increment(null);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void shortName() {
+    this.table.increment(new byte[LegacyObjectMetadata.OBJECT_NAME_SIZE - 1]);
+  }
+
+  @Test(expected = NullPointerException.class)
+  public void putNullValue() {
+    this.table.put(object().toBytes(), null);
+  }
+
+  @Test
+  public void incrementDecrement() {
+    final byte[] name = object().toBytes();
+    assertThat(this.table.contains(name), is(false));
+    assertThat(this.table.increment(name), is(1));
+    assertThat(this.table.increment(name), is(2));
+    assertThat(this.table.count(name), is(2));
+    assertThat(this.table.size(), is(1));
+    assertThat(this.table.decrement(name), is(1));
+    assertThat(this.table.decrement(name), is(0));
+    assertThat(this.table.contains(name), is(false));
+    assertThat(this.table.size(), is(0));
+    assertThat(this.table.decrement(name), is(-1));
+  }
+
+  @Test
+  public void nameIsCompared() {
+    final ObjectMetadata object = object();
+    final ObjectMetadata sameName =
+        LegacyObjectMetadata.fromMetadata(object.getName(), 10, 1, (byte) 0, -1);
+    this.table.increment(object.toBytes());
+    assertThat(this.table.count(sameName.toBytes()), is(1));
+    assertThat(this.table.contains(object().toBytes()), is(false));
+  }
+
+  @Test
+  public void putGetRemove() {
+    final ObjectMetadata object = object();
+    assertThat(this.table.put(object.toBytes(), object), nullValue());
+    assertThat(this.table.get(object.toBytes()), is(object));
+    assertThat(this.table.size(), is(1));
+    assertThat(this.table.remove(object.toBytes()), is(object));
+    assertThat(this.table.get(object.toBytes()), nullValue());
+    assertThat(this.table.remove(object.toBytes()), nullValue());
+    assertThat(this.table.size(), is(0));
+  }
+
+  @Test
+  public void growAndShrink() {
+    final List<ObjectMetadata> objects = Lists.newArrayList();
+    for (int i = 0; i < 10000; i++) {
+      final ObjectMetadata object = object();
+      objects.add(object);
+      this.table.put(object.toBytes(), object);
+    }
+    assertThat(this.table.size(), is(10000));
+    // remove every other name, which exercises deletion within probe sequences
+    for (int i = 0; i < objects.size(); i += 2) {
+      assertThat(this.table.remove(objects.get(i).toBytes()), is(objects.get(i)));
+    }
+    for (int i = 0; i < objects.size(); i++) {
+      final ObjectMetadata expected = i % 2 == 0 ? null : objects.get(i);
+      assertThat(this.table.get(objects.get(i).toBytes()), is(expected));
+    }
+    assertThat(this.table.size(), is(5000));
+  }
+
+  @Test
+  public void concurrentReferenceCounts() throws InterruptedException {
+    final List<ObjectMetadata> objects = Lists.newArrayList();
+    for (int i = 0; i < 64; i++) {
+      objects.add(object());
+    }
+    final int threads = 8;
+    final int iterations = 64 * 300;
+    final CountDownLatch start = new CountDownLatch(1);
+    final List<Thread> workers = Lists.newArrayList();
+    for (int t = 0; t < threads; t++) {
+      workers.add(new Thread(new Runnable() {
+        @Override
+        public void run() {
+          try {
+            start.await();
+          } catch (final InterruptedException e) {
+            return;
+          }
+          for (int i = 0; i < iterations; i++) {
+            final byte[] name = objects.get(i % objects.size()).toBytes();
+            ObjectNameTableTest.this.table.increment(name);
+            ObjectNameTableTest.this.table.decrement(name);
+            ObjectNameTableTest.this.table.increment(name);
+          }
+        }
+      }));
+    }
+    for (final Thread worker : workers) {
+      worker.start();
+    }
+    start.countDown();
+    for (final Thread worker : workers) {
+      worker.join();
+    }
+    final int expected = threads * iterations / objects.size();
+    for (final ObjectMetadata object : objects) {
+      assertThat(this.table.count(object.toBytes()), is(expected));
+    }
+  }
+}
@@ -0,0 +1,335 @@
+/* Copyright (c) IBM Corporation 2016. All Rights Reserved.
+ * Project name: Object Generator
+ * This project is licensed under the Apache License 2.0, see LICENSE.
+ */
+
+package com.ibm.og.object;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import com.google.common.base.Predicate;
+import com.google.common.collect.Lists;
+import com.tngtech.java.junit.dataprovider.DataProvider;
+import com.tngtech.java.junit.dataprovider.DataProviderRunner;
+import com.tngtech.java.junit.dataprovider.UseDataProvider;
+
+@RunWith(DataProviderRunner.class)
+public class OffHeapObjectIndexTest {
+  private OffHeapObjectIndex index;
+
+  @Before
+  public void before() {
+    this.index = new OffHeapObjectIndex();
+  }
+
+  private static ObjectMetadata object(final long size) {
+    final String name = UUID.randomUUID().toString().replace("-", "") + "0000";
+    return LegacyObjectMetadata.fromMetadata(name, size, 0, (byte) 0, -1);
+  }
+
+  @Test(expected = NullPointerException.class)
+  public void putNull() {
+    this.index.put(null);
+  }
+
+  @Test(expected = NullPointerException.class)
+  public void removeNull() {
+    this.index.remove(null);
+  }
+
+  @Test(expected = NullPointerException.class)
+  public void writeToNull() throws IOException {
+    this.index.writeTo(null);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void drainToNegativeCount() throws IOException {
+    this.index.drainTo(new ByteArrayOutputStream(), -1);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void putAllPartialRecord() {
+    this.index.putAll(ByteBuffer.allocate(LegacyObjectMetadata.OBJECT_SIZE + 1), 1);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void putAllZeroParallelism() {
+    this.index.putAll(ByteBuffer.allocate(0), 0);
+  }
+
+  @DataProvider
+  public static Object[][] provideInvalidStripes() {
+    return new Object[][] {{0}, {3}, {256}};
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  @UseDataProvider("provideInvalidStripes")
+  public void invalidStripes(final int stripes) {
+    new OffHeapObjectIndex(stripes);
+  }
+
+  @Test
+  public void empty() {
+    assertThat(this.index.size(), is(0));
+    assertThat(this.index.isEmpty(), is(true));
+    assertThat(this.index.getRandom(), nullValue());
+    assertThat(this.index.removeRandom(), nullValue());
+    assertThat(this.index.remove(object(1)), nullValue());
+  }
+
+  @Test
+  public void putGetRemove() {
+    final ObjectMetadata object = object(1024);
+    assertThat(this.index.put(object), nullValue());
+    assertThat(this.index.size(), is(1));
+    assertThat(this.index.contains(object), is(true));
+    assertThat(this.index.getRandom(), is(object));
+    assertThat(this.index.remove(object), is(object));
+    assertThat(this.index.contains(object), is(false));
+    assertThat(this.index.isEmpty(), is(true));
+  }
+
+  @Test
+  public void putReplacesSameName() {
+    final ObjectMetadata object = object(1024);
+    final ObjectMetadata updated =
+        LegacyObjectMetadata.fromMetadata(object.getName(), 2048, 3, (byte) 1, 100);
+    this.index.put(object);
+    assertThat(this.index.put(updated), is(object));
+    assertThat(this.index.size(), is(1));
+    final ObjectMetadata current = this.index.getRandom();
+    assertThat(current.getSize(), is(2048L));
+    assertThat(current.getContainerSuffix(), is(3));
+    assertThat(current.getNumberOfLegalHolds(), is(1));
+    assertThat(current.getRetention(), is(100));
+  }
+
+  @Test
+  public void manyObjects() {
+    // enough objects to span several record pages and table resizes
+    final int count = 200000;
+    final List<ObjectMetadata> objects = Lists.newArrayList();
+    for (int i = 0; i < count; i++) {
+      final ObjectMetadata object = object(i);
+      objects.add(object);
+      this.index.put(object);
+    }
+    assertThat(this.index.size(), is(count));
+
+    // remove every other object, which moves records and shifts hash table entries
+    for (int i = 0; i < count; i += 2) {
+      assertThat(this.index.remove(objects.get(i)), is(objects.get(i)));
+    }
+    assertThat(this.index.size(), is(count / 2));
+    for (int i = 0; i < count; i++) {
+      assertThat(this.index.contains(objects.get(i)), is(i % 2 == 1));
+    }
+
+    final Set<String> removed = new HashSet<String>();
+    ObjectMetadata object;
+    while ((object = this.index.removeRandom()) != null) {
+      assertThat(removed.add(object.getName()), is(true));
+    }
+    assertThat(removed.size(), is(count / 2));
+    assertThat(this.index.isEmpty(), is(true));
+  }
+
+  @Test
+  public void randomOperations() {
+    final Random random = new Random(0);
+    final List<ObjectMetadata> live = Lists.newArrayList();
+    for (int i = 0; i < 50000; i++) {
+      if (live.isEmpty() || random.nextInt(3) > 0) {
+        final ObjectMetadata object = object(i);
+        this.index.put(object);
+        live.add(object);
+      } else {
+        final ObjectMetadata object = live.remove(random.nextInt(live.size()));
+        assertThat(this.index.remove(object), is(object));
+      }
+    }
+    assertThat(this.index.size(), is(live.size()));
+    for (final ObjectMetadata object : live) {
+      assertThat(this.index.contains(object), is(true));
+    }
+  }
+
+  @Test
+  public void writeToAndDrainTo() throws IOException {
+    final int count = 100;
+    for (int i = 0; i < count; i++) {
+      this.index.put(object(i));
+    }
+    final ByteArrayOutputStream all = new ByteArrayOutputStream();
+    this.index.writeTo(all);
+    assertThat(all.size(), is(count * LegacyObjectMetadata.OBJECT_SIZE));
+    assertThat(this.index.size(), is(count));
+
+    final ByteArrayOutputStream drained = new ByteArrayOutputStream();
+    assertThat(this.index.drainTo(drained, 30), is(30));
+    assertThat(drained.size(), is(30 * LegacyObjectMetadata.OBJECT_SIZE));
+    assertThat(this.index.size(), is(count - 30));
+
+    final byte[] bytes = drained.toByteArray();
+    final byte[] record = new byte[LegacyObjectMetadata.OBJECT_SIZE];
+    for (int i = 0; i < 30; i++) {
+      System.arraycopy(bytes, i * record.length, record, 0, record.length);
+      assertThat(this.index.contains(LegacyObjectMetadata.fromBytes(record)), is(false));
+    }
+    assertThat(this.index.drainTo(new ByteArrayOutputStream(), count), is(count - 30));
+    assertThat(this.index.isEmpty(), is(true));
+  }
+
+  @DataProvider
+  public static Object[][] provideParallelism() {
+    return new Object[][] {{1}, {4}};
+  }
+
+  @Test
+  @UseDataProvider("provideParallelism")
+  public void putAll(final int parallelism) {
+    // start from a partially filled page so that copies span page boundaries
+    final ObjectMetadata existing = object(1);
+    this.index.put(existing);
+    final int count = 150000;
+    final List<ObjectMetadata> objects = Lists.newArrayList();
+    final ByteBuffer records = ByteBuffer.allocateDirect(count * LegacyObjectMetadata.OBJECT_SIZE);
+    for (int i = 0; i < count; i++) {
+      final ObjectMetadata object = object(i);
+      objects.add(object);
+      records.put(object.toBytes());
+    }
+    records.flip();
+
+    assertThat(this.index.putAll(records, parallelism), is(count));
+    assertThat(records.remaining(), is(count * LegacyObjectMetadata.OBJECT_SIZE));
+    assertThat(this.index.size(), is(count + 1));
+    assertThat(this.index.contains(existing), is(true));
+    for (final ObjectMetadata object : objects) {
+      assertThat(this.index.contains(object), is(true));
+    }
+    for (final ObjectMetadata object : objects) {
+      assertThat(this.index.remove(object), is(object));
+    }
+    assertThat(this.index.size(), is(1));
+  }
+
+  @Test
+  public void putAllDuplicates() {
+    final ObjectMetadata existing = object(1);
+    final ObjectMetadata other = object(2);
+    this.index.put(existing);
+    final ObjectMetadata updated =
+        LegacyObjectMetadata.fromMetadata(existing.getName(), 10, 0, (byte) 0, -1);
+    final ObjectMetadata updatedAgain =
+        LegacyObjectMetadata.fromMetadata(existing.getName(), 20, 0, (byte) 0, -1);
+    final ByteBuffer records = ByteBuffer.allocate(4 * LegacyObjectMetadata.OBJECT_SIZE);
+    records.put(updated.toBytes()).put(other.toBytes()).put(updatedAgain.toBytes())
+        .put(other.toBytes());
+    records.flip();
+
+    assertThat(this.index.putAll(records, 2), is(1));
+    assertThat(this.index.size(), is(2));
+    assertThat(this.index.remove(other), is(other));
+    assertThat(this.index.getRandom().getSize(), is(20L));
+  }
+
+  @Test
+  public void predicateRejectsCandidate() {
+    final ObjectMetadata reading = object(1);
+    final ObjectMetadata available = object(2);
+    this.index.put(reading);
+    this.index.put(available);
+    final Predicate<ObjectMetadata> notReading = new Predicate<ObjectMetadata>() {
+      @Override
+      public boolean apply(final ObjectMetadata input) {
+        return !input.getName().equals(reading.getName());
+      }
+    };
+    for (int i = 0; i < 100; i++) {
+      final ObjectMetadata selected = this.index.getRandom(notReading);
+      assertThat(selected == null || selected.equals(available), is(true));
+    }
+    assertThat(this.index.remove(reading, notReading), nullValue());
+    assertThat(this.index.contains(reading), is(true));
+
+    ObjectMetadata removed = null;
+    while (removed == null) {
+      removed = this.index.removeRandom(notReading);
+    }
+    assertThat(removed, is(available));
+    assertThat(this.index.removeRandom(notReading), nullValue());
+    assertThat(this.index.size(), is(1));
+  }
+
+  @Test
+  public void randomSelectionIsUniform() {
+    final int count = 64;
+    for (int i = 0; i < count; i++) {
+      this.index.put(object(i));
+    }
+    final int[] selected = new int[count];
+    for (int i = 0; i < count * 1000; i++) {
+      selected[(int) this.index.getRandom().getSize()]++;
+    }
+    for (final int n : selected) {
+      // expected 1000 per object
+      assertThat(n > 700 && n < 1300, is(true));
+    }
+  }
+
+  @Test
+  public void concurrentRemoveRandom() throws InterruptedException {
+    final int count = 100000;
+    for (int i = 0; i < count; i++) {
+      this.index.put(object(i));
+    }
+    final int threads = 8;
+    final Set<String> removed = Collections.synchronizedSet(new HashSet<String>());
+    final CountDownLatch done = new CountDownLatch(threads);
+    for (int t = 0; t < threads; t++) {
+      new Thread(new Runnable() {
+        @Override
+        public void run() {
+          ObjectMetadata object;
+          while ((object = OffHeapObjectIndexTest.this.index.removeRandom()) != null) {
+            removed.add(object.getName());
+            OffHeapObjectIndexTest.this.index.getRandom();
+          }
+          done.countDown();
+        }
+      }).start();
+    }
+    assertThat(done.await(60, TimeUnit.SECONDS), is(true));
+    assertThat(removed.size(), is(count));
+    assertThat(this.index.isEmpty(), is(true));
+  }
+
+  @Test
+  public void clear() {
+    this.index.put(object(1));
+    this.index.clear();
+    assertThat(this.index.isEmpty(), is(true));
+    this.index.put(object(2));
+    assertThat(this.index.getRandom(), notNullValue());
+  }
+}
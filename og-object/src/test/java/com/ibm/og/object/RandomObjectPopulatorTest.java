@@ -5,13 +5,16 @@
 
 package com.ibm.og.object;
 
+import java.io.BufferedInputStream;
 import java.io.BufferedOutputStream;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.FilenameFilter;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.OutputStream;
 import java.nio.ByteBuffer;
 import java.util.ArrayList;
@@ -157,7 +160,81 @@ public class RandomObjectPopulatorTest {
   }
 
   @Test
-  public void overflowIdFile() throws ObjectManagerException {
+  public void getOnceWaitsForAvailableObject()
+      throws ObjectManagerException, InterruptedException, ExecutionException {
+    final ObjectMetadata firstId = generateId();
+    final ObjectMetadata secondId = generateId();
+    final RandomObjectPopulator rop = new RandomObjectPopulator(this.vaultId);
+    rop.add(firstId);
+    rop.add(secondId);
+    final ObjectMetadata leased = rop.getOnce();
+    final ObjectMetadata read = rop.get();
+    Assert.assertFalse(leased.equals(read));
+    Assert.assertEquals(2, rop.getCurrentObjectCount());
+
+    // both objects are in use, so getOnce must wait for one to be returned
+    final Future<ObjectMetadata> future =
+        Executors.newSingleThreadExecutor().submit(new Callable<ObjectMetadata>() {
+          @Override
+          public ObjectMetadata call() {
+            return rop.getOnce();
+          }
+        });
+    Thread.sleep(200);
+    Assert.assertFalse(future.isDone());
+    rop.getComplete(leased);
+    Assert.assertEquals(leased, future.get());
+    rop.getComplete(read);
+    rop.getComplete(leased);
+    rop.shutdown();
+  }
+
+  @Test
+  public void getOnceExclusive() throws InterruptedException, ExecutionException {
+    final RandomObjectPopulator rop = new RandomObjectPopulator(this.vaultId);
+    for (int i = 0; i < 4; i++) {
+      rop.add(generateId());
+    }
+    final ConcurrentHashMap<ObjectMetadata, Boolean> inUse =
+        new ConcurrentHashMap<ObjectMetadata, Boolean>();
+    final ExecutorService executor = Executors.newFixedThreadPool(16);
+    final List<Future<Void>> futures = new ArrayList<Future<Void>>();
+    for (int i = 0; i < 16; i++) {
+      futures.add(executor.submit(new Callable<Void>() {
+        @Override
+        public Void call() {
+          for (int j = 0; j < 500; j++) {
+            final ObjectMetadata id = rop.getOnce();
+            Assert.assertNull(inUse.putIfAbsent(id, Boolean.TRUE));
+            inUse.remove(id);
+            rop.getComplete(id);
+          }
+          return null;
+        }
+      }));
+    }
+    for (final Future<Void> future : futures) {
+      future.get();
+    }
+    executor.shutdown();
+    Assert.assertEquals(4, rop.getCurrentObjectCount());
+    rop.shutdown();
+  }
+
+  @Test
+  public void leasedObjectIsPersisted() throws ObjectManagerException {
+    final ObjectMetadata sid = generateId();
+    RandomObjectPopulator rop = new RandomObjectPopulator(this.vaultId);
+    rop.add(sid);
+    Assert.assertEquals(sid, rop.getOnce());
+    rop.shutdown();
+    rop = new RandomObjectPopulator(this.vaultId);
+    Assert.assertEquals(sid, rop.get());
+    rop.shutdown();
+  }
+
+  @Test
+  public void overflowIdFile()throws ObjectManagerException {
     RandomObjectPopulator rop =
         new RandomObjectPopulator(this.vaultId, RandomObjectPopulatorTest.MAX_OBJECTS);
     for (int i = 0; i < RandomObjectPopulatorTest.MAX_OBJECTS; i++) {
@@ -411,8 +488,8 @@ public class RandomObjectPopulatorTest {
     ObjectFileUtil.writeObjectFileVersion(bos);
     ByteArrayInputStream bis = new ByteArrayInputStream(bos.toByteArray());
     ObjectFileVersion version = ObjectFileUtil.readObjectFileVersion(bis);
-    Assert.assertTrue(version.getMajorVersion() == (byte)0x2);
-    Assert.assertTrue(version.getMinorVersion() == (byte)0x0);
+    Assert.assertTrue(version.getMajorVersion() == LegacyObjectMetadata.MAJOR_VERSION);
+    Assert.assertTrue(version.getMinorVersion() == LegacyObjectMetadata.MINOR_VERSION);
 
   }
 
@@ -437,6 +514,38 @@ public class RandomObjectPopulatorTest {
     Assert.assertTrue(rop.getSavedObjectCount() == 4);
   }
 
+  @Test
+  public void testLoadSingleV2ObjectFile() throws IOException {
+
+    final OutputStream out = new BufferedOutputStream(new FileOutputStream( "id_0.object"));
+    out.write(ObjectFileVersion.fromMetadata((byte)2, (byte)0).getBytes());
+    for (int i = 0; i < 4; i++) {
+      final String objectId = UUID.randomUUID().toString().replace("-", "") + "0000";
+      final LegacyObjectMetadata object =
+          LegacyObjectMetadata.fromMetadata(objectId, 99L, 5000, (byte)1, 3600);
+      out.write(object.toBytes(), 0, ObjectFileUtil.OBJECT_SIZE_V2_0);
+    }
+    out.close();
+
+    RandomObjectPopulator rop =
+            new RandomObjectPopulator(this.vaultId, RandomObjectPopulatorTest.MAX_OBJECTS);
+    final ObjectMetadata object = rop.get();
+    Assert.assertTrue(object.getSize() == 99L);
+    Assert.assertTrue(object.getNumberOfLegalHolds() == 1);
+    Assert.assertTrue(object.getRetention() == 3600);
+    Assert.assertTrue(object.getDataType() == null);
+    rop.shutdown();
+    // the object file is rewritten in the current version
+    Assert.assertTrue(rop.getSavedObjectCount() == 4);
+    final InputStream in = new BufferedInputStream(new FileInputStream("id_0.object"));
+    try {
+      final ObjectFileVersion version = ObjectFileUtil.readObjectFileVersion(in);
+      Assert.assertTrue(version.getMajorVersion() == LegacyObjectMetadata.MAJOR_VERSION);
+    } finally {
+      in.close();
+    }
+  }
+
   @Test
   public void testLoadMultipleV1ObjectFile() throws IOException {
 
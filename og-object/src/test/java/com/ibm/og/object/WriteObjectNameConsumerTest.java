@@ -5,6 +5,8 @@
 
 package com.ibm.og.object;
 
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.isA;
 import static org.mockito.Mockito.doThrow;
@@ -15,11 +17,17 @@ import static org.mockito.Mockito.when;
 import java.util.Set;
 
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
 
+import com.ibm.og.api.Body;
+import com.ibm.og.api.DataType;
 import com.ibm.og.api.Method;
 import com.ibm.og.api.Operation;
 import com.ibm.og.util.Context;
+import com.ibm.og.http.Bodies;
 import com.google.common.collect.ImmutableMap;
+import com.tngtech.java.junit.dataprovider.DataProvider;
+import com.tngtech.java.junit.dataprovider.UseDataProvider;
 
 public class WriteObjectNameConsumerTest extends AbstractObjectNameConsumerTest {
   @Override
@@ -61,4 +69,23 @@ public class WriteObjectNameConsumerTest extends AbstractObjectNameConsumerTest
     this.objectNameConsumer.consume(this.operation);
     doVerify();
   }
+
+  @DataProvider
+  public static Object[][] provideBodies() {
+    return new Object[][] {{Bodies.unique(1024), DataType.UNIQUE},
+        {Bodies.random(1024), DataType.RANDOM}, {Bodies.zeroes(1024), DataType.ZEROES},
+        {Bodies.custom(1024, "a"), null}};
+  }
+
+  @Test
+  @UseDataProvider("provideBodies")
+  public void dataTypeAndSeed(final Body body, final DataType dataType) {
+    when(this.request.getBody()).thenReturn(body);
+    final ArgumentCaptor<ObjectMetadata> added = ArgumentCaptor.forClass(ObjectMetadata.class);
+
+    this.objectNameConsumer.consume(this.operation);
+    verify(this.objectManager).add(added.capture());
+    assertThat(added.getValue().getDataType(), is(dataType));
+    assertThat(added.getValue().getSeed(), is(dataType != null ? body.getRandomSeed() : 0L));
+  }
 }
@@ -12,7 +12,6 @@ import com.google.common.base.Joiner;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Maps;
-import com.google.common.eventbus.Subscribe;
 import com.ibm.og.api.Method;
 import com.ibm.og.api.Operation;
 import com.ibm.og.api.Request;
@@ -35,6 +34,7 @@ import com.ibm.og.supplier.RequestSupplier;
 import com.google.common.base.Supplier;
 import com.ibm.og.util.Context;
 import com.ibm.og.util.MoreFunctions;
+import com.ibm.og.util.OperationListener;
 import com.ibm.og.util.Pair;
 
 import org.slf4j.Logger;
@@ -58,7 +58,7 @@ import java.util.concurrent.atomic.AtomicInteger;
  *
  * @since 1.8.4
  */
-public class ListOperationsSupplier implements Supplier<Request>{
+public class ListOperationsSupplier implements Supplier<Request>, OperationListener {
 
   private static final Logger _logger = LoggerFactory.getLogger(ListOperationsSupplier.class);
 
@@ -138,7 +138,7 @@ public class ListOperationsSupplier implements Supplier<Request>{
 
   }
 
-  @Subscribe
+  @Override
   public void update(final Pair<Request, Response> result) {
     Request request = result.getKey();
     Response response = result.getValue();
@@ -13,6 +13,7 @@ import com.google.common.hash.HashFunction;
 import com.google.common.hash.Hashing;
 import com.google.common.io.BaseEncoding;
 import com.ibm.og.api.Body;
+import com.ibm.og.api.DataReduction;
 import com.ibm.og.api.DataType;
 import com.ibm.og.api.Method;
 import com.ibm.og.api.Operation;
@@ -24,6 +25,7 @@ import com.ibm.og.http.HttpRequest;
 import com.ibm.og.http.MD5DigestLoader;
 import com.ibm.og.http.Scheme;
 import com.ibm.og.util.Context;
+import com.ibm.og.util.OperationListener;
 import com.ibm.og.util.Pair;
 
 import com.google.common.base.Function;
@@ -32,7 +34,6 @@ import com.google.common.base.Supplier;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Maps;
-import com.google.common.eventbus.Subscribe;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -60,7 +61,7 @@ import static com.google.common.base.Preconditions.checkNotNull;
  * 
  * @since 1.0
  */
-public class MultipartRequestSupplier implements Supplier<Request> {
+public class MultipartRequestSupplier implements Supplier<Request>, OperationListener {
   private static final Logger _logger = LoggerFactory.getLogger(MultipartRequestSupplier.class);
 
   private static final Joiner.MapJoiner PARAM_JOINER = Joiner.on('&').withKeyValueSeparator("=");
@@ -85,6 +86,7 @@ public class MultipartRequestSupplier implements Supplier<Request> {
   private final Function<Map<String, String>, Long> retention;
   private final Supplier<Function<Map<String, String>, String>> legalHold;
   private final boolean contentMd5;
+  private final DataReduction dataReduction;
   private final LoadingCache<Long, byte[]> md5ContentCache;
 
 
@@ -117,6 +119,7 @@ public class MultipartRequestSupplier implements Supplier<Request> {
    * @param context request metadata to be sent with the created request
    * @param credentials username/password or keystone token
    * @param body a description of the request body to add to the request
+   * @param dataReduction the data reduction of part bodies when the body data type is reducible
    */
   // FIXME refactor username, password, and keystoneToken so they are embedded in headers rather
   // than separate fields
@@ -135,7 +138,8 @@ public class MultipartRequestSupplier implements Supplier<Request> {
       final Function<Map<String, String>, Body> body, final boolean virtualHost,
       final Function<Map<String, String>, Long> retention,
       final Supplier<Function<Map<String, String>, String>> legalHold,
-      final boolean contentMd5, final Function<Map<String, String>, String> delimiter) {
+      final boolean contentMd5, final Function<Map<String, String>, String> delimiter,
+      final DataReduction dataReduction) {
 
     this.id = id;
     this.scheme = checkNotNull(scheme);
@@ -158,6 +162,7 @@ public class MultipartRequestSupplier implements Supplier<Request> {
     this.retention = retention;
     this.legalHold = legalHold;
     this.contentMd5 = contentMd5;
+    this.dataReduction = dataReduction;
     this.randomNumber = new Random();
     this.actionableMultipartSessions = Collections.synchronizedList(new ArrayList<MultipartInfo>());
     this.multipartRequestMap = new ConcurrentHashMap<String, MultipartInfo>();
@@ -512,7 +517,7 @@ public class MultipartRequestSupplier implements Supplier<Request> {
     }
   }
 
-  @Subscribe
+  @Override
   public void update(final Pair<Request, Response> result) {
     Request request = result.getKey();
     Response response = result.getValue();
@@ -698,6 +703,12 @@ public class MultipartRequestSupplier implements Supplier<Request> {
     } else if(bodyDataType.equals(DataType.ZEROES.toString())) {
       body = Bodies.zeroes(partSize);
       builder.withBody(body);
+    } else if(bodyDataType.equals(DataType.UNIQUE.toString())) {
+      body = Bodies.unique(partSize);
+      builder.withBody(body);
+    } else if(bodyDataType.equals(DataType.REDUCIBLE.toString())) {
+      body = Bodies.reducible(partSize, this.dataReduction);
+      builder.withBody(body);
     } else {
       body = Bodies.random(partSize);
       builder.withBody(body);
@@ -0,0 +1,182 @@
+/* Copyright (c) IBM Corporation 2016. All Rights Reserved.
+ * Project name: Object Generator
+ * This project is licensed under the Apache License 2.0, see LICENSE.
+ */
+
+package com.ibm.og.s3;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.net.URI;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.amazonaws.SignableRequest;
+import com.amazonaws.auth.AWSCredentials;
+import com.amazonaws.auth.BasicAWSCredentials;
+import com.amazonaws.util.SdkHttpUtils;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.Maps;
+import com.google.common.net.HttpHeaders;
+import com.ibm.og.api.AuthenticatedRequest;
+import com.ibm.og.api.Request;
+import com.ibm.og.http.AuthenticatedHttpRequest;
+import com.ibm.og.http.HttpAuth;
+import com.ibm.og.http.HttpRequest;
+import com.ibm.og.s3.v4.SignableRequestAdapter;
+import com.ibm.og.util.Context;
+
+/**
+ * An http auth implementation which authenticates requests with query string presigned urls
+ * rather than an authorization header. Presigned urls are valid for a configured number of
+ * seconds, and may be cached so that repeated requests to the same object, such as reads of
+ * objects selected from the object manager, reuse a url rather than signing each request.
+ * <p>
+ * A presigned url signs the method, uri and query parameters of a request along with its
+ * {@code x-amz-*}, {@code Content-Type} and {@code Content-MD5} headers; other headers and the
+ * payload are not signed. Cached urls are reused for the first nine tenths of their validity, so
+ * that a request is not sent with a url which expires before it arrives.
+ *
+ * @since 1.9.0
+ */
+public abstract class PresignedUrlAuth implements HttpAuth {
+  private static final Logger _logger = LoggerFactory.getLogger(PresignedUrlAuth.class);
+  /** the longest validity of a presigned url, in seconds, which is the aws v4 limit of 7 days */
+  public static final int MAX_EXPIRY = 7 * 24 * 60 * 60;
+  private final int expiry;
+  private final int cacheSize;
+  private final Cache<String, URI> urls;
+
+  /**
+   * Constructs an instance
+   *
+   * @param expiry the number of seconds presigned urls are valid for
+   * @param cacheSize the maximum number of presigned urls to cache, or 0 to disable caching
+   * @throws IllegalArgumentException if expiry is not between 1 and {@link #MAX_EXPIRY}, or if
+   *         cacheSize is negative
+   */
+  protected PresignedUrlAuth(final int expiry, final int cacheSize) {
+    checkArgument(expiry > 0 && expiry <= MAX_EXPIRY, "expiry must be in range [1, %s] [%s]",
+        MAX_EXPIRY, expiry);
+    checkArgument(cacheSize >= 0, "cacheSize must be >= 0 [%s]", cacheSize);
+    this.expiry = expiry;
+    this.cacheSize = cacheSize;
+    if (cacheSize > 0) {
+      this.urls = CacheBuilder.newBuilder().maximumSize(cacheSize)
+          .expireAfterWrite(expiry * 900L, TimeUnit.MILLISECONDS).build();
+    } else {
+      this.urls = null;
+    }
+  }
+
+  @Override
+  public AuthenticatedRequest authenticate(final Request request) {
+    checkNotNull(request);
+    final String accessKeyId = checkNotNull(request.getContext().get(Context.X_OG_USERNAME));
+    final String secretAccessKey = checkNotNull(request.getContext().get(Context.X_OG_PASSWORD));
+    final SortedMap<String, String> signedHeaders = signedHeaders(request);
+
+    URI uri;
+    if (this.urls != null) {
+      final String key = cacheKey(request, accessKeyId, signedHeaders);
+      uri = this.urls.getIfPresent(key);
+      if (uri == null) {
+        uri = presignUrl(request, new BasicAWSCredentials(accessKeyId, secretAccessKey),
+            signedHeaders);
+        this.urls.put(key, uri);
+      }
+    } else {
+      uri = presignUrl(request, new BasicAWSCredentials(accessKeyId, secretAccessKey),
+          signedHeaders);
+    }
+
+    final AuthenticatedHttpRequest authenticatedRequest = new AuthenticatedHttpRequest(request);
+    authenticatedRequest.setUri(uri);
+    return authenticatedRequest;
+  }
+
+  private static SortedMap<String, String> signedHeaders(final Request request) {
+    final SortedMap<String, String> signedHeaders = Maps.newTreeMap();
+    for (final Map.Entry<String, String> header : request.headers().entrySet()) {
+      final String name = header.getKey().toLowerCase(Locale.ENGLISH);
+      if (name.startsWith("x-amz-") || HttpHeaders.CONTENT_TYPE.equalsIgnoreCase(name)
+          || HttpHeaders.CONTENT_MD5.equalsIgnoreCase(name)) {
+        signedHeaders.put(header.getKey(), header.getValue());
+      }
+    }
+    return signedHeaders;
+  }
+
+  // the secret access key is fixed for an access key id, so it is not part of the key and is not
+  // retained by the cache
+  private static String cacheKey(final Request request, final String accessKeyId,
+      final SortedMap<String, String> signedHeaders) {
+    final StringBuilder key = new StringBuilder(256);
+    key.append(accessKeyId).append('\n').append(request.getMethod()).append(' ').append(request.getUri());
+    for (final Map.Entry<String, String> header : signedHeaders.entrySet()) {
+      key.append('\n').append(header.getKey()).append(':').append(header.getValue());
+    }
+    return key.toString();
+  }
+
+  // presigns a request which carries only the signed parts of the provided request, and returns
+  // the request's uri with the query parameters added by presigning appended
+  private URI presignUrl(final Request request, final AWSCredentials credentials,
+      final SortedMap<String, String> signedHeaders) {
+    final HttpRequest.Builder builder =
+        new HttpRequest.Builder(request.getMethod(), request.getUri(), request.getOperation());
+    final Map<String, List<String>> queryParameters = request.getQueryParameters();
+    for (final Map.Entry<String, List<String>> parameter : queryParameters.entrySet()) {
+      for (final String value : parameter.getValue()) {
+        builder.withQueryParameter(parameter.getKey(), value);
+      }
+    }
+    for (final Map.Entry<String, String> header : signedHeaders.entrySet()) {
+      builder.withHeader(header.getKey(), header.getValue());
+    }
+    final AuthenticatedHttpRequest presigned = new AuthenticatedHttpRequest(builder.build());
+    final Date expiration = new Date(System.currentTimeMillis() + this.expiry * 1000L);
+    presign(new SignableRequestAdapter(presigned), credentials, expiration);
+
+    final StringBuilder uri = new StringBuilder(request.getUri().toString());
+    char separator = request.getUri().getRawQuery() != null ? '&' : '?';
+    for (final Map.Entry<String, List<String>> parameter : presigned.getQueryParameters()
+        .entrySet()) {
+      if (queryParameters.containsKey(parameter.getKey())) {
+        continue;
+      }
+      for (final String value : parameter.getValue()) {
+        uri.append(separator).append(SdkHttpUtils.urlEncode(parameter.getKey(), false))
+            .append('=').append(SdkHttpUtils.urlEncode(value, false));
+        separator = '&';
+      }
+    }
+    _logger.debug("Presigned url [{}]", uri);
+    return URI.create(uri.toString());
+  }
+
+  /**
+   * Presigns a request, adding the query parameters which authenticate it
+   *
+   * @param request the request to presign
+   * @param credentials the credentials to presign the request with
+   * @param expiration the time at which the presigned request expires
+   */
+  protected abstract void presign(SignableRequest<?> request, AWSCredentials credentials,
+      Date expiration);
+
+  @Override
+  public String toString() {
+    return String.format("%s [expiry=%s, cacheSize=%s]", getClass().getSimpleName(), this.expiry,
+        this.cacheSize);
+  }
+}
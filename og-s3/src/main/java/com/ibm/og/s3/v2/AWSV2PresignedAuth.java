@@ -0,0 +1,41 @@
+/* Copyright (c) IBM Corporation 2016. All Rights Reserved.
+ * Project name: Object Generator
+ * This project is licensed under the Apache License 2.0, see LICENSE.
+ */
+
+package com.ibm.og.s3.v2;
+
+import java.util.Date;
+
+import javax.inject.Inject;
+import javax.inject.Named;
+
+import com.amazonaws.SignableRequest;
+import com.amazonaws.auth.AWSCredentials;
+import com.amazonaws.services.s3.internal.S3QueryStringSigner;
+import com.ibm.og.s3.PresignedUrlAuth;
+
+/**
+ * An http auth implementation which authenticates using aws v2 query string presigned urls
+ *
+ * @since 1.9.0
+ */
+public class AWSV2PresignedAuth extends PresignedUrlAuth {
+  /**
+   * Constructs an instance
+   *
+   * @see PresignedUrlAuth#PresignedUrlAuth(int, int)
+   */
+  @Inject
+  public AWSV2PresignedAuth(@Named("authentication.awsPresignedExpiry") final int expiry,
+      @Named("authentication.awsPresignedCacheSize") final int cacheSize) {
+    super(expiry, cacheSize);
+  }
+
+  @Override
+  protected void presign(final SignableRequest<?> request, final AWSCredentials credentials,
+      final Date expiration) {
+    new S3QueryStringSigner(request.getHttpMethod().toString(), request.getResourcePath(),
+        expiration).sign(request, credentials);
+  }
+}
@@ -13,9 +13,17 @@
 package com.ibm.og.s3.v4;
 
 import static com.amazonaws.auth.internal.SignerConstants.X_AMZ_CONTENT_SHA256;
+import static com.google.common.base.Preconditions.checkArgument;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.text.SimpleDateFormat;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TimeZone;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ExecutionException;
 
 import javax.annotation.Nullable;
@@ -26,33 +34,204 @@ import com.amazonaws.Request;
 import com.amazonaws.ResetException;
 import com.amazonaws.SignableRequest;
 import com.amazonaws.auth.AWS4Signer;
+import com.amazonaws.auth.AWSCredentials;
+import com.amazonaws.auth.AWSSessionCredentials;
+import com.amazonaws.auth.AnonymousAWSCredentials;
+import com.amazonaws.auth.internal.SignerConstants;
 import com.amazonaws.auth.internal.AWS4SignerRequestParams;
 import com.amazonaws.http.HttpMethodName;
 import com.amazonaws.services.s3.Headers;
 import com.amazonaws.services.s3.request.S3HandlerContextKeys;
+import com.amazonaws.util.AwsHostNameUtils;
 import com.amazonaws.util.BinaryUtils;
+import com.amazonaws.util.SdkHttpUtils;
 import com.google.common.cache.LoadingCache;
+import com.google.common.collect.Maps;
+import com.ibm.og.api.Body;
+import com.ibm.og.http.ChecksumAlgorithm;
 
 /**
  * AWS4 signer implementation for AWS S3
  */
 public class AWSS3V4Signer extends AWS4Signer {
   private static final String CONTENT_SHA_256 = "STREAMING-AWS4-HMAC-SHA256-PAYLOAD";
+  private static final String X_AMZ_DECODED_CONTENT_LENGTH = "x-amz-decoded-content-length";
 
   private final boolean chunkedEncoding;
-  private final LoadingCache<Long, byte[]> digestCache;
+  private final ChecksumAlgorithm trailerChecksum;
+  private final int chunkSize;
+  private final LoadingCache<Long, byte[]> chunkDigestCache;
+  private final LoadingCache<Body, byte[]> digestCache;
+  private final SigningKeyCache signingKeys;
+  // regions parsed from endpoint hosts, when no region is configured
+  private final ConcurrentMap<String, String> regions;
 
   /**
    * Constructs the signer; configures whether to use aws chunking or not
    * 
    * @param chunkedEncoding whether to use standard or chunked signing
-   * @param digestCache optional digest cache for like-sized objects
+   * @param chunkDigestCache optional digest cache for like-sized zero filled chunks
+   * @param digestCache optional digest cache for bodies with reproducible content
    */
   public AWSS3V4Signer(final boolean chunkedEncoding,
-      @Nullable final LoadingCache<Long, byte[]> digestCache) {
+      @Nullable final LoadingCache<Long, byte[]> chunkDigestCache,
+      @Nullable final LoadingCache<Body, byte[]> digestCache) {
+    this(chunkedEncoding, null, chunkDigestCache, digestCache);
+  }
+
+  /**
+   * Constructs the signer; configures whether to use aws chunking, or an unsigned payload with a
+   * trailing checksum
+   * 
+   * @param chunkedEncoding whether to use standard or chunked signing
+   * @param trailerChecksum if not null, payloads are sent unsigned with a trailing checksum of this
+   *        algorithm rather than hashed before signing
+   * @param chunkDigestCache optional digest cache for like-sized zero filled chunks
+   * @param digestCache optional digest cache for bodies with reproducible content
+   * @since 1.9.0
+   */
+  public AWSS3V4Signer(final boolean chunkedEncoding,
+      @Nullable final ChecksumAlgorithm trailerChecksum,
+      @Nullable final LoadingCache<Long, byte[]> chunkDigestCache,
+      @Nullable final LoadingCache<Body, byte[]> digestCache) {
+    this(chunkedEncoding, trailerChecksum, AwsChunkedEncodingInputStream.DEFAULT_CHUNK_SIZE,
+        chunkDigestCache, digestCache);
+  }
+
+  /**
+   * Constructs the signer; configures whether to use aws chunking, or an unsigned payload with a
+   * trailing checksum, and the size of chunks
+   * 
+   * @param chunkedEncoding whether to use standard or chunked signing
+   * @param trailerChecksum if not null, payloads are sent unsigned with a trailing checksum of this
+   *        algorithm rather than hashed before signing
+   * @param chunkSize the maximum number of payload bytes per aws-chunked chunk
+   * @param chunkDigestCache optional digest cache for like-sized zero filled chunks
+   * @param digestCache optional digest cache for bodies with reproducible content
+   * @throws IllegalArgumentException if chunkSize is not positive
+   * @since 1.9.0
+   */
+  public AWSS3V4Signer(final boolean chunkedEncoding,
+      @Nullable final ChecksumAlgorithm trailerChecksum, final int chunkSize,
+      @Nullable final LoadingCache<Long, byte[]> chunkDigestCache,
+      @Nullable final LoadingCache<Body, byte[]> digestCache) {
     super(false);
+    checkArgument(chunkSize > 0, "chunkSize must be > 0 [%s]", chunkSize);
     this.chunkedEncoding = chunkedEncoding;
+    this.trailerChecksum = trailerChecksum;
+    this.chunkSize = chunkSize;
+    this.chunkDigestCache = chunkDigestCache;
     this.digestCache = digestCache;
+    this.signingKeys = new SigningKeyCache();
+    this.regions = Maps.newConcurrentMap();
+  }
+
+  /**
+   * Signs a request. This follows {@link AWS4Signer#sign(SignableRequest, AWSCredentials)}, but
+   * serves signing keys from a cache, computes digests with per thread {@code Mac} and
+   * {@code MessageDigest} instances, and builds the canonical headers and signed headers of the
+   * canonical request in a single pass over the sorted header names.
+   */
+  @Override
+  public void sign(final SignableRequest<?> request, final AWSCredentials credentials) {
+    if (credentials instanceof AnonymousAWSCredentials) {
+      return;
+    }
+    final AWSCredentials sanitizedCredentials = sanitizeCredentials(credentials);
+    if (sanitizedCredentials instanceof AWSSessionCredentials) {
+      addSessionCredentials(request, (AWSSessionCredentials) sanitizedCredentials);
+    }
+    final long signingTime = this.overriddenDate != null ? this.overriddenDate.getTime()
+        : System.currentTimeMillis() - request.getTimeOffset() * 1000L;
+    final SigningTime time = SigningTime.of(signingTime);
+    final String region = getRegion(request);
+    final String scope =
+        time.dateStamp + "/" + region + "/" + this.serviceName + "/" + SignerConstants.AWS4_TERMINATOR;
+
+    addHostHeader(request);
+    request.addHeader(SignerConstants.X_AMZ_DATE, time.timestamp);
+    final String contentSha256 = calculateContentHash(request);
+    if ("required".equals(request.getHeaders().get(X_AMZ_CONTENT_SHA256))) {
+      request.addHeader(X_AMZ_CONTENT_SHA256, contentSha256);
+    }
+
+    final StringBuilder signedHeaders = new StringBuilder(128);
+    final String canonicalRequest = createCanonicalRequest(request, contentSha256, signedHeaders);
+    final String stringToSign = SignerConstants.AWS4_SIGNING_ALGORITHM + "\n" + time.timestamp
+        + "\n" + scope + "\n" + BinaryUtils.toHex(SigningDigests.sha256(canonicalRequest));
+    final byte[] signingKey = this.signingKeys.get(sanitizedCredentials.getAWSAccessKeyId(),
+        sanitizedCredentials.getAWSSecretKey(), time.dateStamp, region, this.serviceName);
+    final byte[] signature = SigningDigests.hmacSha256(signingKey, stringToSign);
+
+    request.addHeader(SignerConstants.AUTHORIZATION,
+        SignerConstants.AWS4_SIGNING_ALGORITHM + " Credential="
+            + sanitizedCredentials.getAWSAccessKeyId() + "/" + scope + ", SignedHeaders="
+            + signedHeaders + ", Signature=" + BinaryUtils.toHex(signature));
+    processRequestPayload(request, signature, signingKey, time.timestamp, scope);
+  }
+
+  private String getRegion(final SignableRequest<?> request) {
+    if (this.regionName != null) {
+      return this.regionName;
+    }
+    final String host = request.getEndpoint().getHost();
+    String region = this.regions.get(host);
+    if (region == null) {
+      region = AwsHostNameUtils.parseRegionName(host, this.serviceName);
+      this.regions.put(host, region);
+    }
+    return region;
+  }
+
+  /**
+   * Creates the canonical request, appending the signed headers to the provided builder
+   */
+  private String createCanonicalRequest(final SignableRequest<?> request,
+      final String contentSha256, final StringBuilder signedHeaders) {
+    final String path =
+        SdkHttpUtils.appendUri(request.getEndpoint().getPath(), request.getResourcePath());
+    final StringBuilder canonicalRequest = new StringBuilder(512);
+    canonicalRequest.append(request.getHttpMethod().toString()).append('\n')
+        .append(getCanonicalizedResourcePath(path, this.doubleUrlEncode)).append('\n')
+        .append(getCanonicalizedQueryString(request)).append('\n');
+
+    final Map<String, String> headers = request.getHeaders();
+    final String[] names = headers.keySet().toArray(new String[headers.size()]);
+    Arrays.sort(names, String.CASE_INSENSITIVE_ORDER);
+    for (final String name : names) {
+      final String lowerCaseName = name.toLowerCase(Locale.ENGLISH);
+      appendCollapsingWhitespace(canonicalRequest, lowerCaseName);
+      canonicalRequest.append(':');
+      final String value = headers.get(name);
+      if (value != null) {
+        appendCollapsingWhitespace(canonicalRequest, value);
+      }
+      canonicalRequest.append('\n');
+
+      if (signedHeaders.length() > 0) {
+        signedHeaders.append(';');
+      }
+      signedHeaders.append(lowerCaseName);
+    }
+    canonicalRequest.append('\n').append(signedHeaders).append('\n').append(contentSha256);
+    return canonicalRequest.toString();
+  }
+
+  // appends s with each run of whitespace replaced by a single space, as s.replaceAll("\\s+", " ")
+  private static void appendCollapsingWhitespace(final StringBuilder builder, final String s) {
+    boolean whitespace = false;
+    for (int i = 0; i < s.length(); i++) {
+      final char c = s.charAt(i);
+      if (c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r') {
+        if (!whitespace) {
+          builder.append(' ');
+          whitespace = true;
+        }
+      } else {
+        builder.append(c);
+        whitespace = false;
+      }
+    }
   }
 
   /**
@@ -61,11 +240,55 @@ public class AWSS3V4Signer extends AWS4Signer {
   @Override
   protected void processRequestPayload(final SignableRequest<?> request, final byte[] signature,
       final byte[] signingKey, final AWS4SignerRequestParams signerRequestParams) {
+    processRequestPayload(request, signature, signingKey,
+        signerRequestParams.getFormattedSigningDateTime(), signerRequestParams.getScope());
+  }
+
+  private void processRequestPayload(final SignableRequest<?> request, final byte[] signature,
+      final byte[] signingKey, final String dateTime, final String scope) {
     if (useChunkEncoding(request)) {
-      final AwsChunkedEncodingInputStream chunkEncodededStream = new AwsChunkedEncodingInputStream(
-          request.getContent(), signingKey, signerRequestParams.getFormattedSigningDateTime(),
-          signerRequestParams.getScope(), BinaryUtils.toHex(signature), this, this.digestCache);
+      final AwsChunkedEncodingInputStream chunkEncodededStream =
+          new AwsChunkedEncodingInputStream(request.getContent(), this.chunkSize, signingKey,
+              dateTime, scope, BinaryUtils.toHex(signature), this.chunkDigestCache);
       request.setContent(chunkEncodededStream);
+    } else if (useTrailingChecksum(request)) {
+      final long decodedLength =
+          Long.parseLong(request.getHeaders().get(X_AMZ_DECODED_CONTENT_LENGTH));
+      request.setContent(new AwsTrailingChecksumInputStream(request.getContent(), decodedLength,
+          this.trailerChecksum, this.chunkSize));
+    }
+  }
+
+  // a signing time formatted as an aws v4 timestamp and date stamp; the most recently formatted
+  // time is kept per thread, so that requests signed within the same second share it
+  private static class SigningTime {
+    private static final ThreadLocal<SigningTime> LAST = new ThreadLocal<SigningTime>();
+    private static final ThreadLocal<SimpleDateFormat> FORMAT = new ThreadLocal<SimpleDateFormat>() {
+      @Override
+      protected SimpleDateFormat initialValue() {
+        final SimpleDateFormat format = new SimpleDateFormat("yyyyMMdd'T'HHmmss'Z'");
+        format.setTimeZone(TimeZone.getTimeZone("UTC"));
+        return format;
+      }
+    };
+    final long second;
+    final String timestamp;
+    final String dateStamp;
+
+    private SigningTime(final long second, final String timestamp) {
+      this.second = second;
+      this.timestamp = timestamp;
+      this.dateStamp = timestamp.substring(0, 8);
+    }
+
+    static SigningTime of(final long millis) {
+      final long second = millis / 1000;
+      SigningTime time = LAST.get();
+      if (time == null || time.second != second) {
+        time = new SigningTime(second, FORMAT.get().format(new Date(second * 1000)));
+        LAST.set(time);
+      }
+      return time;
     }
   }
 
@@ -86,7 +309,7 @@ public class AWSS3V4Signer extends AWS4Signer {
     // notified to pick up the header value returned by this method.
     request.addHeader(X_AMZ_CONTENT_SHA256, "required");
     final String contentLength = request.getHeaders().get(Headers.CONTENT_LENGTH);
-    if (useChunkEncoding(request)) {
+    if (useChunkEncoding(request) || useTrailingChecksum(request)) {
       final long originalContentLength;
       if (contentLength != null) {
         originalContentLength = Long.parseLong(contentLength);
@@ -105,18 +328,28 @@ public class AWSS3V4Signer extends AWS4Signer {
               e);
         }
       }
-      request.addHeader("x-amz-decoded-content-length", Long.toString(originalContentLength));
+      request.addHeader(X_AMZ_DECODED_CONTENT_LENGTH, Long.toString(originalContentLength));
+      if (useTrailingChecksum(request)) {
+        // the payload is checksummed as it is sent rather than hashed here
+        request.addHeader(Headers.CONTENT_ENCODING, "aws-chunked");
+        request.addHeader("x-amz-trailer",
+            AwsTrailingChecksumInputStream.trailerHeader(this.trailerChecksum));
+        request.addHeader(Headers.CONTENT_LENGTH,
+            Long.toString(AwsTrailingChecksumInputStream.calculateStreamContentLength(
+                originalContentLength, this.trailerChecksum, this.chunkSize)));
+        return AwsTrailingChecksumInputStream.CONTENT_SHA_256;
+      }
       // Make sure "Content-Length" header is not empty so that HttpClient
       // won't cache the stream again to recover Content-Length
-      request.addHeader(Headers.CONTENT_LENGTH, Long.toString(
-          AwsChunkedEncodingInputStream.calculateStreamContentLength(originalContentLength)));
+      request.addHeader(Headers.CONTENT_LENGTH, Long.toString(AwsChunkedEncodingInputStream
+          .calculateStreamContentLength(originalContentLength, this.chunkSize)));
       return CONTENT_SHA_256;
     }
 
-    if (this.digestCache != null) {
+    if (this.digestCache != null && request instanceof SignableRequestAdapter) {
       try {
-        final long length = contentLength != null ? Long.parseLong(contentLength) : 0;
-        return BinaryUtils.toHex(this.digestCache.get(length));
+        final Body body = ((SignableRequestAdapter) request).getBody();
+        return BinaryUtils.toHex(this.digestCache.get(body));
       } catch (final ExecutionException e) {
         throw new RuntimeException(e);
       }
@@ -137,6 +370,16 @@ public class AWSS3V4Signer extends AWS4Signer {
     return this.chunkedEncoding && request.getHttpMethod() == HttpMethodName.PUT;
   }
 
+  /**
+   * Determine whether to send the payload unsigned with a trailing checksum
+   */
+  private boolean useTrailingChecksum(final SignableRequest<?> request) {
+    if (isChunkedEncodingDisabled(request)) {
+      return false;
+    }
+    return this.trailerChecksum != null && request.getHttpMethod() == HttpMethodName.PUT;
+  }
+
   /**
    * @return True if chunked encoding has been explicitly disabled per the request. False otherwise.
    */
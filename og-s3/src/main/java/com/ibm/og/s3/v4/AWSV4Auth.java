@@ -8,10 +8,13 @@ package com.ibm.og.s3.v4;
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
 
+import javax.annotation.Nullable;
 import javax.inject.Inject;
 import javax.inject.Named;
 
 import com.ibm.og.http.AuthenticatedHttpRequest;
+import com.ibm.og.http.BodyDigestLoader;
+import com.ibm.og.http.ChecksumAlgorithm;
 import com.ibm.og.http.HttpAuth;
 import com.ibm.og.util.Context;
 import com.ibm.og.util.io.Streams;
@@ -22,6 +25,7 @@ import com.amazonaws.SignableRequest;
 import com.amazonaws.auth.AWSCredentials;
 import com.amazonaws.auth.BasicAWSCredentials;
 import com.ibm.og.api.AuthenticatedRequest;
+import com.ibm.og.api.Body;
 import com.ibm.og.api.DataType;
 import com.ibm.og.api.Request;
 import com.ibm.og.http.Bodies;
@@ -38,26 +42,90 @@ import com.google.common.hash.HashingInputStream;
  */
 public class AWSV4Auth implements HttpAuth {
   private static Logger _logger = LoggerFactory.getLogger(AWSV4Auth.class);
+  /** the smallest configurable aws-chunked chunk size, which is the smallest chunk s3 accepts */
+  public static final int MIN_CHUNK_SIZE = 8 * 1024;
+  /** the largest configurable aws-chunked chunk size */
+  public static final int MAX_CHUNK_SIZE = 8 * 1024 * 1024;
   private final boolean chunkedEncoding;
+  private final ChecksumAlgorithm trailerChecksum;
+  private final int chunkSize;
   private final int cacheSize;
   private final DataType data;
-  private final LoadingCache<Long, byte[]> digestCache;
+  private final int seedPoolSize;
+  private final LoadingCache<Long, byte[]> chunkDigestCache;
+  private final LoadingCache<Body, byte[]> digestCache;
+  // signers hold no per request state, so a single signer and its signing key cache are shared
+  private final AWSS3V4Signer signer;
+
+  public AWSV4Auth(final boolean chunkedEncoding, final int cacheSize, final DataType data) {
+    this(chunkedEncoding, null, cacheSize, data, 0);
+  }
+
+  /**
+   * Constructs an instance which uses the default aws-chunked chunk size
+   * 
+   * @see #AWSV4Auth(boolean, ChecksumAlgorithm, int, int, DataType, int)
+   * @since 1.9.0
+   */
+  public AWSV4Auth(final boolean chunkedEncoding, final ChecksumAlgorithm trailerChecksum,
+      final int cacheSize, final DataType data, final int seedPoolSize) {
+    this(chunkedEncoding, trailerChecksum, AwsChunkedEncodingInputStream.DEFAULT_CHUNK_SIZE,
+        cacheSize, data, seedPoolSize);
+  }
 
+  /**
+   * Constructs an instance. If cacheSize is positive, payload digests are cached per body, which
+   * requires bodies with reproducible content: either zeroes data or bodies drawn from a seed pool
+   * 
+   * @param chunkedEncoding whether to sign requests using aws chunked encoding
+   * @param trailerChecksum if not null, payloads are sent unsigned using aws chunked encoding, with
+   *        a trailing checksum of this algorithm computed as the payload is sent
+   * @param chunkSize the maximum number of payload bytes per chunk, for aws chunked encoding or a
+   *        trailing checksum
+   * @param cacheSize the maximum number of payload digests to cache, or 0 to disable caching
+   * @param data the configured data type of request bodies
+   * @param seedPoolSize the number of seeds bodies are drawn from, or 0 if bodies are not pooled
+   * @throws IllegalArgumentException if chunkSize is not between {@link #MIN_CHUNK_SIZE} and
+   *         {@link #MAX_CHUNK_SIZE}, if cacheSize or seedPoolSize is negative, if data is NONE, if
+   *         cacheSize is positive and data is neither ZEROES nor drawn from a seed pool, or if both
+   *         chunkedEncoding and trailerChecksum are configured
+   * @since 1.9.0
+   */
   @Inject
   public AWSV4Auth(@Named("authentication.awsChunked") final boolean chunkedEncoding,
-      @Named("authentication.awsCacheSize") final int cacheSize, final DataType data) {
+      @Nullable @Named("authentication.awsTrailerChecksum") final ChecksumAlgorithm trailerChecksum,
+      @Named("authentication.awsChunkSize") final int chunkSize,
+      @Named("authentication.awsCacheSize") final int cacheSize, final DataType data,
+      @Named("seedPoolSize") final int seedPoolSize) {
+    checkArgument(!(chunkedEncoding && trailerChecksum != null),
+        "chunkedEncoding and trailerChecksum are mutually exclusive");
     this.chunkedEncoding = chunkedEncoding;
+    this.trailerChecksum = trailerChecksum;
+    checkArgument(chunkSize >= MIN_CHUNK_SIZE && chunkSize <= MAX_CHUNK_SIZE,
+        "chunkSize must be in range [%s, %s] [%s]", MIN_CHUNK_SIZE, MAX_CHUNK_SIZE, chunkSize);
+    this.chunkSize = chunkSize;
     checkArgument(cacheSize >= 0, "cacheSize must be >= 0 [%s]", cacheSize);
+    checkArgument(seedPoolSize >= 0, "seedPoolSize must be >= 0 [%s]", seedPoolSize);
     this.cacheSize = cacheSize;
     this.data = checkNotNull(data);
+    this.seedPoolSize = seedPoolSize;
     checkArgument(data != DataType.NONE, "data must not be NONE");
 
     if (cacheSize > 0) {
-      checkArgument(data == DataType.ZEROES, "If cacheSize > 0, data must be ZEROES [%s]", data);
-      this.digestCache = CacheBuilder.newBuilder().maximumSize(cacheSize).build(new DigestLoader());
+      checkArgument(data == DataType.ZEROES || seedPoolSize > 0,
+          "If cacheSize > 0, data must be ZEROES or seedPoolSize must be > 0 [%s]", data);
+      this.digestCache = CacheBuilder.newBuilder().maximumSize(cacheSize)
+          .build(new BodyDigestLoader(Hashing.sha256()));
+      // chunks of seeded bodies differ from one another, only zero filled chunks can be shared
+      this.chunkDigestCache = data == DataType.ZEROES
+          ? CacheBuilder.newBuilder().maximumSize(cacheSize).build(new DigestLoader()) : null;
     } else {
       this.digestCache = null;
+      this.chunkDigestCache = null;
     }
+    this.signer = new AWSS3V4Signer(this.chunkedEncoding, this.trailerChecksum, this.chunkSize,
+        this.chunkDigestCache, this.digestCache);
+    this.signer.setServiceName("s3");
   }
 
   static class DigestLoader extends CacheLoader<Long, byte[]> {
@@ -85,21 +153,21 @@ public class AWSV4Auth implements HttpAuth {
     final String secretAccessKey = checkNotNull(request.getContext().get(Context.X_OG_PASSWORD));
     final AWSCredentials credentials = new BasicAWSCredentials(accessKeyId, secretAccessKey);
 
-    final AWSS3V4Signer signer = new AWSS3V4Signer(this.chunkedEncoding, this.digestCache);
-    signer.setServiceName("s3");
-
     final AuthenticatedHttpRequest authenticatedRequest = new AuthenticatedHttpRequest(request);
     final SignableRequest<Request> signableRequest =
         new SignableRequestAdapter(authenticatedRequest);
 
-    signer.sign(signableRequest, credentials);
+    this.signer.sign(signableRequest, credentials);
 
     return authenticatedRequest;
   }
 
   @Override
   public String toString() {
-    return String.format("AWSV4Auth [chunkedEncoding=%s, cacheSize=%s, data=%s]",
-        this.chunkedEncoding, this.cacheSize, this.data);
+    return String.format(
+        "AWSV4Auth [chunkedEncoding=%s, trailerChecksum=%s, chunkSize=%s, cacheSize=%s, data=%s,"
+            + " seedPoolSize=%s]",
+        this.chunkedEncoding, this.trailerChecksum, this.chunkSize, this.cacheSize, this.data,
+        this.seedPoolSize);
   }
 }
@@ -0,0 +1,46 @@
+/* Copyright (c) IBM Corporation 2016. All Rights Reserved.
+ * Project name: Object Generator
+ * This project is licensed under the Apache License 2.0, see LICENSE.
+ */
+
+package com.ibm.og.s3.v4;
+
+import java.util.Date;
+
+import javax.inject.Inject;
+import javax.inject.Named;
+
+import com.amazonaws.SignableRequest;
+import com.amazonaws.auth.AWSCredentials;
+import com.ibm.og.s3.PresignedUrlAuth;
+
+/**
+ * An http auth implementation which authenticates using aws v4 query string presigned urls. The
+ * payload of presigned requests is not signed.
+ *
+ * @since 1.9.0
+ */
+public class AWSV4PresignedAuth extends PresignedUrlAuth {
+  private final AWSS3V4Signer signer;
+
+  /**
+   * Constructs an instance
+   *
+   * @see PresignedUrlAuth#PresignedUrlAuth(int, int)
+   */
+  @Inject
+  public AWSV4PresignedAuth(@Named("authentication.awsPresignedExpiry") final int expiry,
+      @Named("authentication.awsPresignedCacheSize") final int cacheSize) {
+    super(expiry, cacheSize);
+    this.signer = new AWSS3V4Signer(false, null, null);
+    this.signer.setServiceName("s3");
+  }
+
+  @Override
+  protected void presign(final SignableRequest<?> request, final AWSCredentials credentials,
+      final Date expiration) {
+    // the signer truncates the seconds remaining until expiration, which have begun to elapse by
+    // the time it signs, so round up to the next whole second
+    this.signer.presignRequest(request, credentials, new Date(expiration.getTime() + 999));
+  }
+}
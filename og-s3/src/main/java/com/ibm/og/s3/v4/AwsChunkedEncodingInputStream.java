@@ -12,27 +12,16 @@
  */
 package com.ibm.og.s3.v4;
 
-import static com.amazonaws.util.StringUtils.UTF8;
-
 import java.io.IOException;
 import java.io.InputStream;
-import java.security.InvalidKeyException;
-import java.security.MessageDigest;
-import java.security.NoSuchAlgorithmException;
-import java.util.Arrays;
 import java.util.concurrent.ExecutionException;
 
 import javax.annotation.Nullable;
-import javax.crypto.Mac;
-import javax.crypto.spec.SecretKeySpec;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
-import com.amazonaws.AmazonClientException;
-import com.amazonaws.auth.AWS4Signer;
 import com.amazonaws.auth.AbstractAWSSigner;
-import com.amazonaws.auth.SigningAlgorithm;
 import com.amazonaws.internal.SdkInputStream;
 import com.amazonaws.util.BinaryUtils;
 import com.google.common.cache.LoadingCache;
@@ -43,25 +32,31 @@ import com.google.common.cache.LoadingCache;
 public final class AwsChunkedEncodingInputStream extends SdkInputStream {
   protected static final String DEFAULT_ENCODING = "UTF-8";
 
-  private static final int DEFAULT_CHUNK_SIZE = 128 * 1024;
+  /** the default maximum number of payload bytes per chunk */
+  public static final int DEFAULT_CHUNK_SIZE = 128 * 1024;
   private static final int DEFAULT_BUFFER_SIZE = 256 * 1024;
 
   private static final String CRLF = "\r\n";
   private static final String CHUNK_STRING_TO_SIGN_PREFIX = "AWS4-HMAC-SHA256-PAYLOAD";
   private static final String CHUNK_SIGNATURE_HEADER = ";chunk-signature=";
   private static final int SIGNATURE_LENGTH = 64;
-  private static final byte[] FINAL_CHUNK = new byte[0];
 
   private InputStream is = null;
+  private final int chunkSize;
   private final int maxBufferSize;
-  private final String dateTime;
-  private final String keyPath;
+  private final byte[] kSigning;
+  // the algorithm, datetime and scope lines shared by the string to sign of each chunk
+  private final String stringToSignPrefix;
   private final String headerSignature;
   private String priorChunkSignature;
-  private final AWS4Signer aws4Signer;
 
-  private final MessageDigest sha256;
-  private final Mac hmacSha256;
+  /**
+   * Buffer which each signed chunk is built in and read from. Chunk data is read in at
+   * {@link #dataOffset}, and the chunk header is then written immediately before it, so that a
+   * chunk is never copied.
+   */
+  private final byte[] signedChunk;
+  private final int dataOffset;
 
   /** Iterator on the current chunk that has been signed */
   private ChunkContentIterator currentChunkIterator;
@@ -81,32 +76,35 @@ public final class AwsChunkedEncodingInputStream extends SdkInputStream {
 
   public AwsChunkedEncodingInputStream(final InputStream in, final byte[] kSigning,
       final String datetime, final String keyPath, final String headerSignature,
-      final AWS4Signer aws4Signer, @Nullable final LoadingCache<Long, byte[]> digestCache) {
-    this(in, DEFAULT_BUFFER_SIZE, kSigning, datetime, keyPath, headerSignature, aws4Signer,
-        digestCache);
+      @Nullable final LoadingCache<Long, byte[]> digestCache) {
+    this(in, DEFAULT_CHUNK_SIZE, kSigning, datetime, keyPath, headerSignature, digestCache);
   }
 
   /**
    * A wrapper of InputStream that implements pseudo-chunked-encoding. Each chunk will be buffered
    * for the calculation of the chunk signature which is added at the head of each chunk.<br>
-   * The default chunk size cannot be customized, since we need to calculate the expected encoded
-   * stream length before reading the wrapped stream.<br>
+   * The chunk size must be the same as the one used to calculate the expected encoded stream
+   * length via {@link #calculateStreamContentLength(long, int)}.<br>
    * This class will use the mark() & reset() of the wrapped InputStream if they are supported,
    * otherwise it will create a buffer for bytes read from the wrapped stream.
    * 
    * @param in The original InputStream.
-   * @param maxBufferSize Maximum number of bytes buffered by this class.
+   * @param chunkSize The maximum number of payload bytes per chunk.
    * @param kSigning Signing key.
    * @param datetime Datetime, as used in SigV4.
    * @param keyPath Keypath/Scope, as used in SigV4.
    * @param headerSignature The signature of the signed headers. This will be used for calculating
    *        the signature of the first chunk.
-   * @param aws4Signer The AWS4Signer used for hashing and signing.
+   * @param digestCache optional digest cache for like-sized zero filled chunks
+   * @since 1.9.0
    */
-  public AwsChunkedEncodingInputStream(final InputStream in, int maxBufferSize,
+  public AwsChunkedEncodingInputStream(final InputStream in, final int chunkSize,
       final byte[] kSigning, final String datetime, final String keyPath,
-      final String headerSignature, final AWS4Signer aws4Signer,
-      final LoadingCache<Long, byte[]> digestCache) {
+      final String headerSignature, @Nullable final LoadingCache<Long, byte[]> digestCache) {
+    if (chunkSize <= 0) {
+      throw new IllegalArgumentException("Chunk size should be positive");
+    }
+    int maxBufferSize = Math.max(DEFAULT_BUFFER_SIZE, chunkSize);
     if (in instanceof AwsChunkedEncodingInputStream) {
       // This could happen when the request is retried, and we need to re-calculate the signatures.
       final AwsChunkedEncodingInputStream originalChunkedStream =
@@ -119,26 +117,16 @@ public final class AwsChunkedEncodingInputStream extends SdkInputStream {
       this.decodedStreamBuffer = null;
     }
 
-    if (maxBufferSize < DEFAULT_CHUNK_SIZE) {
-      throw new IllegalArgumentException("Max buffer size should not be less than chunk size");
-    }
-    try {
-      this.sha256 = MessageDigest.getInstance("SHA-256");
-      final String signingAlgo = SigningAlgorithm.HmacSHA256.toString();
-      this.hmacSha256 = Mac.getInstance(signingAlgo);
-      this.hmacSha256.init(new SecretKeySpec(kSigning, signingAlgo));
-    } catch (final NoSuchAlgorithmException e) {
-      throw new IllegalStateException(e);
-    } catch (final InvalidKeyException e) {
-      throw new IllegalArgumentException(e);
-    }
+    this.chunkSize = chunkSize;
     this.maxBufferSize = maxBufferSize;
-    this.dateTime = datetime;
-    this.keyPath = keyPath;
+    this.kSigning = kSigning;
+    this.stringToSignPrefix =
+        CHUNK_STRING_TO_SIGN_PREFIX + "\n" + datetime + "\n" + keyPath + "\n";
     this.headerSignature = headerSignature;
     this.priorChunkSignature = headerSignature;
-    this.aws4Signer = aws4Signer;
     this.digestCache = digestCache;
+    this.dataOffset = (int) (calculateSignedChunkLength(chunkSize) - chunkSize - CRLF.length());
+    this.signedChunk = new byte[this.dataOffset + chunkSize + CRLF.length()];
   }
 
   @Override
@@ -191,7 +179,7 @@ public final class AwsChunkedEncodingInputStream extends SdkInputStream {
       return 0;
     }
     long remaining = n;
-    final int toskip = (int) Math.min(DEFAULT_BUFFER_SIZE, n);
+    final int toskip = (int) Math.min(this.chunkSize, n);
     final byte[] temp = new byte[toskip];
     while (remaining > 0) {
       int count;
@@ -271,13 +259,29 @@ public final class AwsChunkedEncodingInputStream extends SdkInputStream {
   }
 
   public static long calculateStreamContentLength(final long originalLength) {
+    return calculateStreamContentLength(originalLength, DEFAULT_CHUNK_SIZE);
+  }
+
+  /**
+   * Calculates the length of the encoded stream for a payload
+   * 
+   * @param originalLength the length of the payload
+   * @param chunkSize the maximum number of payload bytes per chunk
+   * @return the number of bytes read from a stream which encodes the payload
+   * @since 1.9.0
+   */
+  public static long calculateStreamContentLength(final long originalLength,
+      final int chunkSize) {
     if (originalLength < 0) {
       throw new IllegalArgumentException("Nonnegative content length expected.");
     }
+    if (chunkSize <= 0) {
+      throw new IllegalArgumentException("Chunk size should be positive");
+    }
 
-    final long maxSizeChunks = originalLength / DEFAULT_CHUNK_SIZE;
-    final long remainingBytes = originalLength % DEFAULT_CHUNK_SIZE;
-    return maxSizeChunks * calculateSignedChunkLength(DEFAULT_CHUNK_SIZE)
+    final long maxSizeChunks = originalLength / chunkSize;
+    final long remainingBytes = originalLength % chunkSize;
+    return maxSizeChunks * calculateSignedChunkLength(chunkSize)
         + (remainingBytes > 0 ? calculateSignedChunkLength(remainingBytes) : 0)
         + calculateSignedChunkLength(0);
   }
@@ -293,77 +297,66 @@ public final class AwsChunkedEncodingInputStream extends SdkInputStream {
    * @return Returns true if next chunk is the last empty chunk.
    */
   private boolean setUpNextChunk() throws IOException {
-    byte[] chunkData = new byte[DEFAULT_CHUNK_SIZE];
-    int chunkSizeInBytes = 0;
-    while (chunkSizeInBytes < DEFAULT_CHUNK_SIZE) {
+    final byte[] chunkData = this.signedChunk;
+    final int chunkEnd = this.dataOffset + this.chunkSize;
+    int pos = this.dataOffset;
+    while (pos < chunkEnd) {
       /** Read from the buffer of the decoded stream */
       if (null != this.decodedStreamBuffer && this.decodedStreamBuffer.hasNext()) {
-        chunkData[chunkSizeInBytes++] = this.decodedStreamBuffer.next();
+        chunkData[pos++] = this.decodedStreamBuffer.next();
       }
       /** Read from the wrapped stream */
       else {
-        final int bytesToRead = DEFAULT_CHUNK_SIZE - chunkSizeInBytes;
-        final int count = this.is.read(chunkData, chunkSizeInBytes, bytesToRead);
+        final int count = this.is.read(chunkData, pos, chunkEnd - pos);
         if (count != -1) {
           if (null != this.decodedStreamBuffer) {
-            this.decodedStreamBuffer.buffer(chunkData, chunkSizeInBytes, count);
+            this.decodedStreamBuffer.buffer(chunkData, pos, count);
           }
-          chunkSizeInBytes += count;
+          pos += count;
         } else {
           break;
         }
       }
     }
-    if (chunkSizeInBytes == 0) {
-      final byte[] signedFinalChunk = createSignedChunk(FINAL_CHUNK);
-      this.currentChunkIterator = new ChunkContentIterator(signedFinalChunk);
-      return true;
-    } else {
-      if (chunkSizeInBytes < chunkData.length) {
-        chunkData = Arrays.copyOf(chunkData, chunkSizeInBytes);
-      }
-      final byte[] signedChunkContent = createSignedChunk(chunkData);
-      this.currentChunkIterator = new ChunkContentIterator(signedChunkContent);
-      return false;
-    }
+    final int chunkSizeInBytes = pos - this.dataOffset;
+    this.currentChunkIterator = createSignedChunk(chunkSizeInBytes);
+    return chunkSizeInBytes == 0;
   }
 
-  private byte[] createSignedChunk(final byte[] chunkData) {
-    final StringBuilder chunkHeader = new StringBuilder();
-    // chunk-size
-    chunkHeader.append(Integer.toHexString(chunkData.length));
-
+  /**
+   * Signs the chunk data in the signed chunk buffer, writing the chunk header before it and the
+   * trailing CRLF after it
+   */
+  private ChunkContentIterator createSignedChunk(final int chunkSizeInBytes) {
     byte[] chunkDigest;
     if (this.digestCache != null) {
       try {
-        chunkDigest = this.digestCache.get((long) chunkData.length);
+        chunkDigest = this.digestCache.get((long) chunkSizeInBytes);
       } catch (final ExecutionException e) {
         throw new RuntimeException(e);
       }
     } else {
-      chunkDigest = this.sha256.digest(chunkData);
+      chunkDigest =
+          SigningDigests.sha256(this.signedChunk, this.dataOffset, chunkSizeInBytes);
     }
 
     // sig-extension
-    final String chunkStringToSign = CHUNK_STRING_TO_SIGN_PREFIX + "\n" + this.dateTime + "\n"
-        + this.keyPath + "\n" + this.priorChunkSignature + "\n"
+    final String chunkStringToSign = this.stringToSignPrefix + this.priorChunkSignature + "\n"
         + AbstractAWSSigner.EMPTY_STRING_SHA256_HEX + "\n" + BinaryUtils.toHex(chunkDigest);
-
     final String chunkSignature =
-        BinaryUtils.toHex(this.aws4Signer.signWithMac(chunkStringToSign, this.hmacSha256));
+        BinaryUtils.toHex(SigningDigests.hmacSha256(this.kSigning, chunkStringToSign));
     this.priorChunkSignature = chunkSignature;
-    chunkHeader.append(CHUNK_SIGNATURE_HEADER).append(chunkSignature).append(CRLF);
-    try {
-      final byte[] header = chunkHeader.toString().getBytes(UTF8);
-      final byte[] trailer = CRLF.getBytes(UTF8);
-      final byte[] signedChunk = new byte[header.length + chunkData.length + trailer.length];
-      System.arraycopy(header, 0, signedChunk, 0, header.length);
-      System.arraycopy(chunkData, 0, signedChunk, header.length, chunkData.length);
-      System.arraycopy(trailer, 0, signedChunk, header.length + chunkData.length, trailer.length);
-      return signedChunk;
-    } catch (final Exception e) {
-      throw new AmazonClientException("Unable to sign the chunked data. " + e.getMessage(), e);
+
+    final String chunkHeader = Integer.toHexString(chunkSizeInBytes) + CHUNK_SIGNATURE_HEADER
+        + chunkSignature + CRLF;
+    final int start = this.dataOffset - chunkHeader.length();
+    for (int i = 0; i < chunkHeader.length(); i++) {
+      this.signedChunk[start + i] = (byte) chunkHeader.charAt(i);
     }
+    final int end = this.dataOffset + chunkSizeInBytes;
+    this.signedChunk[end] = '\r';
+    this.signedChunk[end + 1] = '\n';
+    return new ChunkContentIterator(this.signedChunk, start, end + CRLF.length());
   }
 
   @Override
@@ -0,0 +1,273 @@
+/* Copyright (c) IBM Corporation 2016. All Rights Reserved.
+ * Project name: Object Generator
+ * This project is licensed under the Apache License 2.0, see LICENSE.
+ */
+
+package com.ibm.og.s3.v4;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkPositionIndexes;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.zip.Checksum;
+
+import com.google.common.base.Charsets;
+import com.google.common.io.BaseEncoding;
+import com.google.common.primitives.Ints;
+import com.ibm.og.http.ChecksumAlgorithm;
+
+/**
+ * An input stream which frames a payload with unsigned aws-chunked encoding and appends a checksum
+ * of the payload as a trailing header, for requests signed with
+ * {@code STREAMING-UNSIGNED-PAYLOAD-TRAILER}. The checksum is computed as payload bytes are read
+ * through this stream, so the payload is only read once per request.
+ * <p>
+ * Unlike {@link AwsChunkedEncodingInputStream}, chunks are not buffered; payload bytes are read
+ * directly into the caller's buffer.
+ *
+ * @since 1.9.0
+ */
+public class AwsTrailingChecksumInputStream extends InputStream {
+  /** the content sha256 value which requests using this stream are signed with */
+  public static final String CONTENT_SHA_256 = "STREAMING-UNSIGNED-PAYLOAD-TRAILER";
+  static final int DEFAULT_CHUNK_SIZE = 128 * 1024;
+  private static final byte[] CRLF = "\r\n".getBytes(Charsets.US_ASCII);
+  private static final byte[] EMPTY = new byte[0];
+
+  private final InputStream in;
+  private final long decodedLength;
+  private final ChecksumAlgorithm algorithm;
+  private final int chunkSize;
+  private final Checksum crc32c;
+  private final MessageDigest sha256;
+  // framing bytes which are read before any further payload bytes
+  private byte[] pending;
+  private int pendingOffset;
+  private long remaining;
+  private long chunkRemaining;
+  private boolean finished;
+  private boolean atStart;
+
+  /**
+   * Constructs a stream which frames a payload using the default chunk size
+   *
+   * @param in the payload stream
+   * @param decodedLength the length of the payload
+   * @param algorithm the algorithm to checksum the payload with
+   * @throws NullPointerException if in or algorithm is null
+   * @throws IllegalArgumentException if decodedLength is negative
+   */
+  public AwsTrailingChecksumInputStream(final InputStream in, final long decodedLength,
+      final ChecksumAlgorithm algorithm) {
+    this(in, decodedLength, algorithm, DEFAULT_CHUNK_SIZE);
+  }
+
+  /**
+   * Constructs a stream which frames a payload
+   *
+   * @param in the payload stream
+   * @param decodedLength the length of the payload
+   * @param algorithm the algorithm to checksum the payload with
+   * @param chunkSize the maximum number of payload bytes per chunk
+   * @throws NullPointerException if in or algorithm is null
+   * @throws IllegalArgumentException if decodedLength is negative or chunkSize is not positive
+   */
+  public AwsTrailingChecksumInputStream(final InputStream in, final long decodedLength,
+      final ChecksumAlgorithm algorithm, final int chunkSize) {
+    this.in = checkNotNull(in);
+    checkArgument(decodedLength >= 0, "decodedLength must be >= 0 [%s]", decodedLength);
+    this.algorithm = checkNotNull(algorithm);
+    checkArgument(chunkSize > 0, "chunkSize must be > 0 [%s]", chunkSize);
+    this.decodedLength = decodedLength;
+    this.chunkSize = chunkSize;
+    if (algorithm == ChecksumAlgorithm.CRC32C) {
+      this.crc32c = Crc32c.create();
+      this.sha256 = null;
+    } else {
+      this.crc32c = null;
+      try {
+        this.sha256 = MessageDigest.getInstance("SHA-256");
+      } catch (final NoSuchAlgorithmException e) {
+        throw new IllegalStateException(e);
+      }
+    }
+    start();
+  }
+
+  private void start() {
+    this.pending = EMPTY;
+    this.pendingOffset = 0;
+    this.remaining = this.decodedLength;
+    this.chunkRemaining = 0;
+    this.finished = false;
+    this.atStart = true;
+  }
+
+  /**
+   * @param algorithm a checksum algorithm
+   * @return the name of the trailing header which carries a checksum of the provided algorithm
+   */
+  public static String trailerHeader(final ChecksumAlgorithm algorithm) {
+    return "x-amz-checksum-" + checkNotNull(algorithm).toString().toLowerCase();
+  }
+
+  /**
+   * Calculates the length of the encoded stream for a payload
+   *
+   * @param decodedLength the length of the payload
+   * @param algorithm the algorithm the payload is checksummed with
+   * @param chunkSize the maximum number of payload bytes per chunk
+   * @return the number of bytes read from a stream which encodes the payload
+   * @throws IllegalArgumentException if decodedLength is negative or chunkSize is not positive
+   */
+  public static long calculateStreamContentLength(final long decodedLength,
+      final ChecksumAlgorithm algorithm, final int chunkSize) {
+    checkArgument(decodedLength >= 0, "decodedLength must be >= 0 [%s]", decodedLength);
+    checkArgument(chunkSize > 0, "chunkSize must be > 0 [%s]", chunkSize);
+    final long fullChunks = decodedLength / chunkSize;
+    final long remainingBytes = decodedLength % chunkSize;
+    return fullChunks * chunkLength(chunkSize)
+        + (remainingBytes > 0 ? chunkLength(remainingBytes) : 0)
+        + finalChunk(algorithm, new byte[checksumLength(algorithm)]).length;
+  }
+
+  /**
+   * Calculates the length of the encoded stream for a payload using the default chunk size
+   *
+   * @see #calculateStreamContentLength(long, ChecksumAlgorithm, int)
+   */
+  public static long calculateStreamContentLength(final long decodedLength,
+      final ChecksumAlgorithm algorithm) {
+    return calculateStreamContentLength(decodedLength, algorithm, DEFAULT_CHUNK_SIZE);
+  }
+
+  private static long chunkLength(final long chunkDataSize) {
+    return Long.toHexString(chunkDataSize).length() + CRLF.length + chunkDataSize + CRLF.length;
+  }
+
+  private static int checksumLength(final ChecksumAlgorithm algorithm) {
+    return algorithm == ChecksumAlgorithm.CRC32C ? 4 : 32;
+  }
+
+  // the zero length chunk, the trailing checksum header, and the end of the trailer
+  private static byte[] finalChunk(final ChecksumAlgorithm algorithm, final byte[] checksum) {
+    final String trailer = "0\r\n" + trailerHeader(algorithm) + ":"
+        + BaseEncoding.base64().encode(checksum) + "\r\n\r\n";
+    return trailer.getBytes(Charsets.US_ASCII);
+  }
+
+  @Override
+  public int read() throws IOException {
+    final byte[] b = new byte[1];
+    final int count = read(b, 0, 1);
+    return count < 0 ? -1 : b[0] & 0xFF;
+  }
+
+  @Override
+  public int read(final byte[] b, final int off, final int len) throws IOException {
+    checkNotNull(b);
+    checkPositionIndexes(off, off + len, b.length);
+    if (len == 0) {
+      return 0;
+    }
+    this.atStart = false;
+    while (true) {
+      if (this.pendingOffset < this.pending.length) {
+        final int count = Math.min(len, this.pending.length - this.pendingOffset);
+        System.arraycopy(this.pending, this.pendingOffset, b, off, count);
+        this.pendingOffset += count;
+        return count;
+      }
+      if (this.chunkRemaining > 0) {
+        return readPayload(b, off, len);
+      }
+      if (this.remaining > 0) {
+        this.chunkRemaining = Math.min(this.chunkSize, this.remaining);
+        setPending((Long.toHexString(this.chunkRemaining) + "\r\n").getBytes(Charsets.US_ASCII));
+      } else if (!this.finished) {
+        this.finished = true;
+        setPending(finalChunk(this.algorithm, checksum()));
+      } else {
+        return -1;
+      }
+    }
+  }
+
+  private int readPayload(final byte[] b, final int off, final int len) throws IOException {
+    final int count = this.in.read(b, off, (int) Math.min(len, this.chunkRemaining));
+    if (count < 0) {
+      throw new EOFException(String.format("payload ended %s bytes before its decoded length [%s]",
+          this.remaining, this.decodedLength));
+    }
+    if (this.crc32c != null) {
+      this.crc32c.update(b, off, count);
+    } else {
+      this.sha256.update(b, off, count);
+    }
+    this.chunkRemaining -= count;
+    this.remaining -= count;
+    if (this.chunkRemaining == 0) {
+      setPending(CRLF);
+    }
+    return count;
+  }
+
+  private void setPending(final byte[] pending) {
+    this.pending = pending;
+    this.pendingOffset = 0;
+  }
+
+  private byte[] checksum() {
+    if (this.crc32c != null) {
+      return Ints.toByteArray((int) this.crc32c.getValue());
+    }
+    return this.sha256.digest();
+  }
+
+  @Override
+  public boolean markSupported() {
+    return this.in.markSupported();
+  }
+
+  /**
+   * Marks the start of the stream; the readlimit parameter is ignored
+   *
+   * @throws UnsupportedOperationException if bytes have been read from this stream
+   */
+  @Override
+  public synchronized void mark(final int readlimit) {
+    if (!this.atStart) {
+      throw new UnsupportedOperationException(
+          "Trailing checksum stream only supports mark() at the start of the stream.");
+    }
+    this.in.mark(readlimit);
+  }
+
+  @Override
+  public synchronized void reset() throws IOException {
+    this.in.reset();
+    if (this.crc32c != null) {
+      this.crc32c.reset();
+    } else {
+      this.sha256.reset();
+    }
+    start();
+  }
+
+  @Override
+  public void close() throws IOException {
+    this.in.close();
+  }
+
+  @Override
+  public String toString() {
+    return String.format(
+        "AwsTrailingChecksumInputStream [decodedLength=%s, algorithm=%s, chunkSize=%s]",
+        this.decodedLength, this.algorithm, this.chunkSize);
+  }
+}
@@ -15,14 +15,29 @@ package com.ibm.og.s3.v4;
 class ChunkContentIterator {
 
   private final byte[] signedChunk;
+  private final int end;
   private int pos;
 
   public ChunkContentIterator(final byte[] signedChunk) {
+    this(signedChunk, 0, signedChunk.length);
+  }
+
+  /**
+   * Iterates over a signed chunk held in a region of a larger buffer
+   * 
+   * @param signedChunk the buffer holding the signed chunk
+   * @param start the index of the first byte of the signed chunk
+   * @param end the index after the last byte of the signed chunk
+   * @since 1.9.0
+   */
+  public ChunkContentIterator(final byte[] signedChunk, final int start, final int end) {
     this.signedChunk = signedChunk;
+    this.pos = start;
+    this.end = end;
   }
 
   public boolean hasNext() {
-    return this.pos < this.signedChunk.length;
+    return this.pos < this.end;
   }
 
   public int read(final byte[] output, final int offset, final int length) {
@@ -32,7 +47,7 @@ class ChunkContentIterator {
     if (!hasNext()) {
       return -1;
     }
-    final int remaingBytesNum = this.signedChunk.length - this.pos;
+    final int remaingBytesNum = this.end - this.pos;
     final int bytesToRead = Math.min(remaingBytesNum, length);
     System.arraycopy(this.signedChunk, this.pos, output, offset, bytesToRead);
     this.pos += bytesToRead;
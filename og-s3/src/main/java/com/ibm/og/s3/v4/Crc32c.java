@@ -0,0 +1,123 @@
+/* Copyright (c) IBM Corporation 2016. All Rights Reserved.
+ * Project name: Object Generator
+ * This project is licensed under the Apache License 2.0, see LICENSE.
+ */
+
+package com.ibm.og.s3.v4;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkPositionIndexes;
+
+import java.lang.reflect.Constructor;
+import java.util.zip.Checksum;
+
+/**
+ * A CRC32C (Castagnoli) checksum. On runtimes which provide {@code java.util.zip.CRC32C}, which is
+ * hardware accelerated, {@link #create()} returns an instance of it; otherwise it returns this
+ * table driven implementation, which processes eight bytes per step.
+ *
+ * @since 1.9.0
+ */
+public class Crc32c implements Checksum {
+  private static final int POLYNOMIAL = 0x82F63B78;
+  private static final int[][] TABLES = createTables();
+  private static final Constructor<? extends Checksum> JDK_CRC32C = findJdkCrc32c();
+  private int crc;
+
+  public Crc32c() {
+    reset();
+  }
+
+  /**
+   * Creates a CRC32C checksum, using the runtime's implementation if one is available
+   *
+   * @return a new checksum instance
+   */
+  public static Checksum create() {
+    if (JDK_CRC32C != null) {
+      try {
+        return JDK_CRC32C.newInstance();
+      } catch (final Exception e) {
+        // fall through to the table driven implementation
+      }
+    }
+    return new Crc32c();
+  }
+
+  private static Constructor<? extends Checksum> findJdkCrc32c() {
+    try {
+      return Class.forName("java.util.zip.CRC32C").asSubclass(Checksum.class).getConstructor();
+    } catch (final Exception e) {
+      return null;
+    }
+  }
+
+  // table k maps a byte to its crc contribution when followed by k more bytes
+  private static int[][] createTables() {
+    final int[][] tables = new int[8][256];
+    for (int i = 0; i < 256; i++) {
+      int c = i;
+      for (int j = 0; j < 8; j++) {
+        c = (c & 1) != 0 ? (c >>> 1) ^ POLYNOMIAL : c >>> 1;
+      }
+      tables[0][i] = c;
+    }
+    for (int k = 1; k < 8; k++) {
+      for (int i = 0; i < 256; i++) {
+        final int c = tables[k - 1][i];
+        tables[k][i] = (c >>> 8) ^ tables[0][c & 0xFF];
+      }
+    }
+    return tables;
+  }
+
+  @Override
+  public void update(final int b) {
+    this.crc = (this.crc >>> 8) ^ TABLES[0][(this.crc ^ b) & 0xFF];
+  }
+
+  @Override
+  public void update(final byte[] b, int off, int len) {
+    checkNotNull(b);
+    checkPositionIndexes(off, off + len, b.length);
+    final int[] t0 = TABLES[0];
+    final int[] t1 = TABLES[1];
+    final int[] t2 = TABLES[2];
+    final int[] t3 = TABLES[3];
+    final int[] t4 = TABLES[4];
+    final int[] t5 = TABLES[5];
+    final int[] t6 = TABLES[6];
+    final int[] t7 = TABLES[7];
+    int c = this.crc;
+    while (len >= 8) {
+      c ^= (b[off] & 0xFF) | (b[off + 1] & 0xFF) << 8 | (b[off + 2] & 0xFF) << 16
+          | (b[off + 3] & 0xFF) << 24;
+      c = t7[c & 0xFF] ^ t6[(c >>> 8) & 0xFF] ^ t5[(c >>> 16) & 0xFF] ^ t4[c >>> 24]
+          ^ t3[b[off + 4] & 0xFF] ^ t2[b[off + 5] & 0xFF] ^ t1[b[off + 6] & 0xFF]
+          ^ t0[b[off + 7] & 0xFF];
+      off += 8;
+      len -= 8;
+    }
+    while (len > 0) {
+      c = (c >>> 8) ^ t0[(c ^ b[off]) & 0xFF];
+      off++;
+      len--;
+    }
+    this.crc = c;
+  }
+
+  @Override
+  public long getValue() {
+    return ~this.crc & 0xFFFFFFFFL;
+  }
+
+  @Override
+  public void reset() {
+    this.crc = 0xFFFFFFFF;
+  }
+
+  @Override
+  public String toString() {
+    return String.format("Crc32c [value=%08x]", getValue());
+  }
+}
@@ -18,6 +18,7 @@ import org.slf4j.LoggerFactory;
 import com.amazonaws.ReadLimitInfo;
 import com.amazonaws.SignableRequest;
 import com.amazonaws.http.HttpMethodName;
+import com.ibm.og.api.Body;
 import com.ibm.og.api.Request;
 import com.ibm.og.http.AuthenticatedHttpRequest;
 
@@ -103,6 +104,14 @@ public class SignableRequestAdapter implements SignableRequest<Request> {
     return this.readLimitInfo;
   }
 
+  /**
+   * @return the body of the adapted request
+   * @since 1.9.0
+   */
+  public Body getBody() {
+    return this.request.getBody();
+  }
+
   @Override
   public Object getOriginalRequestObject() {
     return null;
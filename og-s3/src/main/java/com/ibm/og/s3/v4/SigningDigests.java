@@ -0,0 +1,99 @@
+/* Copyright (c) IBM Corporation 2016. All Rights Reserved.
+ * Project name: Object Generator
+ * This project is licensed under the Apache License 2.0, see LICENSE.
+ */
+
+package com.ibm.og.s3.v4;
+
+import java.security.InvalidKeyException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import com.google.common.base.Charsets;
+
+/**
+ * HmacSHA256 and SHA-256 computed with per thread {@code Mac} and {@code MessageDigest}
+ * instances, so that signing a request does not look up security providers or allocate digest
+ * state. A thread's {@code Mac} is only reinitialized when it is used with a different key array
+ * than its previous use; signing keys served from a {@link SigningKeyCache} are the same array
+ * across requests.
+ *
+ * @since 1.9.0
+ */
+final class SigningDigests {
+  private static final String HMAC_SHA_256 = "HmacSHA256";
+  private static final ThreadLocal<KeyedMac> HMAC = new ThreadLocal<KeyedMac>() {
+    @Override
+    protected KeyedMac initialValue() {
+      try {
+        return new KeyedMac(Mac.getInstance(HMAC_SHA_256));
+      } catch (final NoSuchAlgorithmException e) {
+        throw new IllegalStateException(e);
+      }
+    }
+  };
+  private static final ThreadLocal<MessageDigest> SHA_256 = new ThreadLocal<MessageDigest>() {
+    @Override
+    protected MessageDigest initialValue() {
+      try {
+        return MessageDigest.getInstance("SHA-256");
+      } catch (final NoSuchAlgorithmException e) {
+        throw new IllegalStateException(e);
+      }
+    }
+  };
+
+  private SigningDigests() {}
+
+  /**
+   * @return the HmacSHA256 of the utf-8 bytes of data, keyed by key
+   */
+  static byte[] hmacSha256(final byte[] key, final String data) {
+    return hmacSha256(key, data.getBytes(Charsets.UTF_8));
+  }
+
+  /**
+   * @return the HmacSHA256 of data, keyed by key
+   */
+  static byte[] hmacSha256(final byte[] key, final byte[] data) {
+    final KeyedMac keyedMac = HMAC.get();
+    if (keyedMac.key != key) {
+      try {
+        keyedMac.mac.init(new SecretKeySpec(key, HMAC_SHA_256));
+      } catch (final InvalidKeyException e) {
+        throw new IllegalArgumentException(e);
+      }
+      keyedMac.key = key;
+    }
+    return keyedMac.mac.doFinal(data);
+  }
+
+  /**
+   * @return the SHA-256 of the utf-8 bytes of data
+   */
+  static byte[] sha256(final String data) {
+    return SHA_256.get().digest(data.getBytes(Charsets.UTF_8));
+  }
+
+  /**
+   * @return the SHA-256 of len bytes of data starting at off
+   */
+  static byte[] sha256(final byte[] data, final int off, final int len) {
+    final MessageDigest sha256 = SHA_256.get();
+    sha256.update(data, off, len);
+    return sha256.digest();
+  }
+
+  private static class KeyedMac {
+    final Mac mac;
+    // the key the mac is initialized with, compared by identity
+    byte[] key;
+
+    KeyedMac(final Mac mac) {
+      this.mac = mac;
+    }
+  }
+}
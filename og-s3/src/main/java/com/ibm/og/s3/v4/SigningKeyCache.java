@@ -0,0 +1,87 @@
+/* Copyright (c) IBM Corporation 2016. All Rights Reserved.
+ * Project name: Object Generator
+ * This project is licensed under the Apache License 2.0, see LICENSE.
+ */
+
+package com.ibm.og.s3.v4;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.concurrent.ConcurrentMap;
+
+import com.google.common.base.Charsets;
+import com.google.common.collect.Maps;
+
+/**
+ * A cache of aws v4 signing keys. A signing key is derived from a secret key by a chain of four
+ * HmacSHA256 operations over the date, region and service, and is valid for the whole UTC day.
+ * This cache holds one key per access key, region and service, which is replaced when a request
+ * is signed with a different date stamp, i.e. at UTC midnight, or with a different secret key.
+ *
+ * @since 1.9.0
+ */
+class SigningKeyCache {
+  private static final byte[] TERMINATOR = "aws4_request".getBytes(Charsets.UTF_8);
+  private final ConcurrentMap<String, SigningKey> keys;
+
+  SigningKeyCache() {
+    this.keys = Maps.newConcurrentMap();
+  }
+
+  /**
+   * Returns the signing key for the provided credentials and scope, deriving it if it is not
+   * cached. The returned array must not be modified.
+   *
+   * @param accessKey the access key id
+   * @param secretKey the secret access key
+   * @param dateStamp the date of the signature, formatted as yyyyMMdd
+   * @param region the region of the signature
+   * @param service the service of the signature
+   * @return the signing key
+   */
+  byte[] get(final String accessKey, final String secretKey, final String dateStamp,
+      final String region, final String service) {
+    checkNotNull(secretKey);
+    final String name = accessKey + '/' + region + '/' + service;
+    final SigningKey cached = this.keys.get(name);
+    if (cached != null && cached.dateStamp.equals(dateStamp)
+        && cached.secretKey.equals(secretKey)) {
+      return cached.key;
+    }
+    // concurrent misses derive the same key, the last one to be put wins
+    final SigningKey derived =
+        new SigningKey(secretKey, dateStamp, derive(secretKey, dateStamp, region, service));
+    this.keys.put(name, derived);
+    return derived.key;
+  }
+
+  static byte[] derive(final String secretKey, final String dateStamp, final String region,
+      final String service) {
+    final byte[] secret = ("AWS4" + secretKey).getBytes(Charsets.UTF_8);
+    final byte[] date = SigningDigests.hmacSha256(secret, dateStamp);
+    final byte[] regionKey = SigningDigests.hmacSha256(date, region);
+    final byte[] serviceKey = SigningDigests.hmacSha256(regionKey, service);
+    return SigningDigests.hmacSha256(serviceKey, TERMINATOR);
+  }
+
+  int size() {
+    return this.keys.size();
+  }
+
+  private static class SigningKey {
+    final String secretKey;
+    final String dateStamp;
+    final byte[] key;
+
+    SigningKey(final String secretKey, final String dateStamp, final byte[] key) {
+      this.secretKey = secretKey;
+      this.dateStamp = dateStamp;
+      this.key = key;
+    }
+  }
+
+  @Override
+  public String toString() {
+    return String.format("SigningKeyCache [size=%s]", this.keys.size());
+  }
+}
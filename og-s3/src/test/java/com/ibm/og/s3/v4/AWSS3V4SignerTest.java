@@ -0,0 +1,114 @@
+/* Copyright (c) IBM Corporation 2016. All Rights Reserved.
+ * Project name: Object Generator
+ * This project is licensed under the Apache License 2.0, see LICENSE.
+ */
+
+package com.ibm.og.s3.v4;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+import java.net.URI;
+import java.util.Date;
+import java.util.Map;
+
+import org.junit.Test;
+
+import com.amazonaws.auth.AWS4Signer;
+import com.amazonaws.auth.AWSCredentials;
+import com.amazonaws.auth.BasicAWSCredentials;
+import com.amazonaws.auth.BasicSessionCredentials;
+import com.ibm.og.api.Method;
+import com.ibm.og.api.Operation;
+import com.ibm.og.http.AuthenticatedHttpRequest;
+import com.ibm.og.http.Bodies;
+import com.ibm.og.http.HttpRequest;
+
+public class AWSS3V4SignerTest {
+  private static final Date DATE = new Date(1475280000000L);
+  private static final AWSCredentials CREDENTIALS = new BasicAWSCredentials("user", "password");
+
+  private static HttpRequest.Builder builder(final Method method, final String uri) {
+    return new HttpRequest.Builder(method, URI.create(uri), Operation.WRITE);
+  }
+
+  // signs the request with both the sdk signer and AWSS3V4Signer, returning the latter's headers
+  private static Map<String, String> assertSignedLikeSdk(final HttpRequest request,
+      final AWSCredentials credentials) {
+    final AuthenticatedHttpRequest expected = new AuthenticatedHttpRequest(request);
+    // AWSS3V4Signer sets this header, the sdk signer then replaces it with the payload digest
+    expected.addHeader("x-amz-content-sha256", "required");
+    final AWS4Signer sdkSigner = new AWS4Signer(false) {
+      {
+        this.overriddenDate = DATE;
+      }
+    };
+    sdkSigner.setServiceName("s3");
+    sdkSigner.sign(new SignableRequestAdapter(expected), credentials);
+
+    final AuthenticatedHttpRequest actual = new AuthenticatedHttpRequest(request);
+    final AWSS3V4Signer signer = new AWSS3V4Signer(false, null, null) {
+      {
+        this.overriddenDate = DATE;
+      }
+    };
+    signer.setServiceName("s3");
+    signer.sign(new SignableRequestAdapter(actual), credentials);
+
+    assertThat(actual.headers(), is(expected.headers()));
+    return actual.headers();
+  }
+
+  @Test
+  public void get() {
+    final Map<String, String> headers =
+        assertSignedLikeSdk(builder(Method.GET, "http://127.0.0.1:8080/container/object").build(),
+            CREDENTIALS);
+    assertThat(headers.get("X-Amz-Date"), is("20161001T000000Z"));
+  }
+
+  @Test
+  public void putWithBody() {
+    assertSignedLikeSdk(builder(Method.PUT, "http://127.0.0.1/container/object")
+        .withBody(Bodies.random(1024)).withHeader("Content-Length", "1024").build(), CREDENTIALS);
+  }
+
+  @Test
+  public void queryParameters() {
+    assertSignedLikeSdk(builder(Method.GET, "http://127.0.0.1/container")
+        .withQueryParameter("prefix", "a b/c").withQueryParameter("max-keys", "10")
+        .withQueryParameter("acl", null).build(), CREDENTIALS);
+  }
+
+  @Test
+  public void headerWhitespace() {
+    assertSignedLikeSdk(builder(Method.GET, "http://127.0.0.1/container/object")
+        .withHeader("X-Custom", " a  \t b ").withHeader("x-aNother", "c\r\n d")
+        .withHeader("Empty", "").build(), CREDENTIALS);
+  }
+
+  @Test
+  public void sessionCredentials() {
+    final Map<String, String> headers =
+        assertSignedLikeSdk(builder(Method.GET, "http://127.0.0.1/container/object").build(),
+            new BasicSessionCredentials("user", "password", "token"));
+    assertThat(headers.get("X-Amz-Security-Token"), is("token"));
+  }
+
+  @Test
+  public void repeatedSigning() {
+    final AWSS3V4Signer signer = new AWSS3V4Signer(false, null, null) {
+      {
+        this.overriddenDate = DATE;
+      }
+    };
+    signer.setServiceName("s3");
+    final HttpRequest request = builder(Method.GET, "http://127.0.0.1/container/object").build();
+    final AuthenticatedHttpRequest first = new AuthenticatedHttpRequest(request);
+    signer.sign(new SignableRequestAdapter(first), CREDENTIALS);
+    final AuthenticatedHttpRequest second = new AuthenticatedHttpRequest(request);
+    signer.sign(new SignableRequestAdapter(second), CREDENTIALS);
+
+    assertThat(second.headers().get("Authorization"), is(first.headers().get("Authorization")));
+  }
+}
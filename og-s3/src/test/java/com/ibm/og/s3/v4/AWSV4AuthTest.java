@@ -8,10 +8,27 @@ package com.ibm.og.s3.v4;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.is;
 
+import java.io.IOException;
+import java.net.URI;
+
 import org.junit.Test;
 
 import com.amazonaws.util.BinaryUtils;
+import com.google.common.base.Charsets;
+import com.google.common.hash.Hashing;
+import com.google.common.io.BaseEncoding;
+import com.google.common.io.ByteStreams;
+import com.ibm.og.api.AuthenticatedRequest;
+import com.ibm.og.api.Body;
 import com.ibm.og.api.DataType;
+import com.ibm.og.api.Method;
+import com.ibm.og.api.Operation;
+import com.ibm.og.api.Request;
+import com.ibm.og.http.Bodies;
+import com.ibm.og.http.ChecksumAlgorithm;
+import com.ibm.og.http.HttpRequest;
+import com.ibm.og.util.Context;
+import com.ibm.og.util.io.Streams;
 import com.ibm.og.s3.v4.AWSV4Auth.DigestLoader;
 
 public class AWSV4AuthTest {
@@ -35,6 +52,91 @@ public class AWSV4AuthTest {
     new AWSV4Auth(false, 1, DataType.RANDOM);
   }
 
+  @Test(expected = IllegalArgumentException.class)
+  public void negativeSeedPoolSize() {
+    new AWSV4Auth(false, null, 0, DataType.RANDOM, -1);
+  }
+
+  @Test
+  public void positiveCacheSizeSeedPool() {
+    new AWSV4Auth(false, null, 1, DataType.RANDOM, 16);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void chunkedEncodingAndTrailerChecksum() {
+    new AWSV4Auth(true, ChecksumAlgorithm.CRC32C, 0, DataType.RANDOM, 0);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void chunkSizeTooSmall() {
+    new AWSV4Auth(true, null, AWSV4Auth.MIN_CHUNK_SIZE - 1, 0, DataType.RANDOM, 0);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void chunkSizeTooLarge() {
+    new AWSV4Auth(true, null, AWSV4Auth.MAX_CHUNK_SIZE + 1, 0, DataType.RANDOM, 0);
+  }
+
+  @Test
+  public void chunkedEncodingChunkSize() throws IOException {
+    final Body body = Bodies.fromSeed(DataType.RANDOM, 100000, 42, null);
+    final AuthenticatedRequest request =
+        authenticate(new AWSV4Auth(true, null, 8192, 0, DataType.RANDOM, 0), body);
+    assertThat(request.headers().get("x-amz-content-sha256"),
+        is("STREAMING-AWS4-HMAC-SHA256-PAYLOAD"));
+    assertThat(request.headers().get("x-amz-decoded-content-length"), is("100000"));
+
+    final byte[] encoded = ByteStreams.toByteArray(request.getContent());
+    assertThat((long) encoded.length, is(request.getContentLength()));
+    assertThat(request.getContentLength(),
+        is(AwsChunkedEncodingInputStream.calculateStreamContentLength(100000, 8192)));
+  }
+
+  private static AuthenticatedRequest authenticate(final AWSV4Auth auth, final Body body) {
+    final Request request =
+        new HttpRequest.Builder(Method.PUT, URI.create("http://127.0.0.1/container/object"),
+            Operation.WRITE).withBody(body).withContext(Context.X_OG_USERNAME, "user")
+                .withContext(Context.X_OG_PASSWORD, "password").build();
+    return auth.authenticate(request);
+  }
+
+  private static String contentSha256(final AWSV4Auth auth, final Body body) {
+    return authenticate(auth, body).headers().get("x-amz-content-sha256");
+  }
+
+  @Test
+  public void trailerChecksum() throws IOException {
+    final Body body = Bodies.fromSeed(DataType.RANDOM, 300000, 42, null);
+    final AuthenticatedRequest request =
+        authenticate(new AWSV4Auth(false, ChecksumAlgorithm.SHA256, 0, DataType.RANDOM, 0), body);
+    assertThat(request.headers().get("x-amz-content-sha256"),
+        is("STREAMING-UNSIGNED-PAYLOAD-TRAILER"));
+    assertThat(request.headers().get("Content-Encoding"), is("aws-chunked"));
+    assertThat(request.headers().get("x-amz-trailer"), is("x-amz-checksum-sha256"));
+    assertThat(request.headers().get("x-amz-decoded-content-length"), is("300000"));
+
+    final byte[] content = ByteStreams.toByteArray(Streams.create(body));
+    final byte[] encoded = ByteStreams.toByteArray(request.getContent());
+    assertThat((long) encoded.length, is(request.getContentLength()));
+    final String trailer = "0\r\nx-amz-checksum-sha256:"
+        + BaseEncoding.base64().encode(Hashing.sha256().hashBytes(content).asBytes())
+        + "\r\n\r\n";
+    assertThat(new String(encoded, Charsets.US_ASCII).endsWith(trailer), is(true));
+  }
+
+  @Test
+  public void cachedSeedPoolDigest() {
+    final Body body = Bodies.fromSeed(DataType.RANDOM, 10000, 42, null);
+    final String expected =
+        contentSha256(new AWSV4Auth(false, null, 0, DataType.RANDOM, 16), body);
+    final AWSV4Auth auth = new AWSV4Auth(false, null, 2, DataType.RANDOM, 16);
+    assertThat(contentSha256(auth, body), is(expected));
+    assertThat(contentSha256(auth, Bodies.fromSeed(DataType.RANDOM, 10000, 42, null)),
+        is(expected));
+    assertThat(contentSha256(auth, Bodies.fromSeed(DataType.RANDOM, 10000, 43, null))
+        .equals(expected), is(false));
+  }
+
   @Test
   public void digestLoaderCacheZeroDigest() throws Exception {
     final DigestLoader loader = new AWSV4Auth.DigestLoader();
@@ -0,0 +1,148 @@
+/* Copyright (c) IBM Corporation 2016. All Rights Reserved.
+ * Project name: Object Generator
+ * This project is licensed under the Apache License 2.0, see LICENSE.
+ */
+
+package com.ibm.og.s3.v4;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Random;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import com.amazonaws.auth.AbstractAWSSigner;
+import com.amazonaws.util.BinaryUtils;
+import com.google.common.base.Charsets;
+import com.google.common.hash.Hashing;
+import com.google.common.io.ByteStreams;
+import com.tngtech.java.junit.dataprovider.DataProvider;
+import com.tngtech.java.junit.dataprovider.DataProviderRunner;
+import com.tngtech.java.junit.dataprovider.UseDataProvider;
+
+@RunWith(DataProviderRunner.class)
+public class AwsChunkedEncodingInputStreamTest {
+  private static final byte[] KEY = SigningKeyCache.derive("password", "20161001", "us-east-1",
+      "s3");
+  private static final String DATE_TIME = "20161001T000000Z";
+  private static final String SCOPE = "20161001/us-east-1/s3/aws4_request";
+  private static final String SEED_SIGNATURE =
+      "4f232c4386841ef735655705268965c44a0e4690baa4adea153f7db9fa80a0a9";
+
+  private static byte[] content(final int length) {
+    final byte[] content = new byte[length];
+    new Random(42).nextBytes(content);
+    return content;
+  }
+
+  private static AwsChunkedEncodingInputStream stream(final InputStream in, final int chunkSize) {
+    return new AwsChunkedEncodingInputStream(in, chunkSize, KEY, DATE_TIME, SCOPE, SEED_SIGNATURE,
+        null);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void zeroChunkSize() {
+    stream(new ByteArrayInputStream(content(1)), 0);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void zeroChunkSizeContentLength() {
+    AwsChunkedEncodingInputStream.calculateStreamContentLength(1, 0);
+  }
+
+  @DataProvider
+  public static Object[][] provideEncoding() {
+    return new Object[][] {{0, 8192}, {1, 8192}, {8192, 8192}, {8193, 8192}, {100000, 8192},
+        {100000, 131072}, {300000, 131072}, {1048576, 1048576}};
+  }
+
+  @Test
+  @UseDataProvider("provideEncoding")
+  public void encoding(final int length, final int chunkSize) throws Exception {
+    final byte[] content = content(length);
+    final byte[] encoded =
+        ByteStreams.toByteArray(stream(new ByteArrayInputStream(content), chunkSize));
+
+    assertThat(AwsChunkedEncodingInputStream.calculateStreamContentLength(length, chunkSize),
+        is((long) encoded.length));
+    assertThat(decode(encoded, chunkSize), is(content));
+  }
+
+  @Test
+  public void defaultChunkSize() {
+    assertThat(AwsChunkedEncodingInputStream.calculateStreamContentLength(300000),
+        is(AwsChunkedEncodingInputStream.calculateStreamContentLength(300000,
+            AwsChunkedEncodingInputStream.DEFAULT_CHUNK_SIZE)));
+  }
+
+  @Test
+  public void resetMarkSupported() throws Exception {
+    final byte[] content = content(20000);
+    final InputStream in = stream(new ByteArrayInputStream(content), 8192);
+    in.mark(Integer.MAX_VALUE);
+    final byte[] first = ByteStreams.toByteArray(in);
+    in.reset();
+    assertThat(ByteStreams.toByteArray(in), is(first));
+  }
+
+  @Test
+  public void resetMarkUnsupported() throws Exception {
+    final byte[] content = content(20000);
+    final InputStream wrapped = new ByteArrayInputStream(content) {
+      @Override
+      public boolean markSupported() {
+        return false;
+      }
+    };
+    final InputStream in = stream(wrapped, 8192);
+    in.mark(Integer.MAX_VALUE);
+    final byte[] first = ByteStreams.toByteArray(in);
+    in.reset();
+    assertThat(ByteStreams.toByteArray(in), is(first));
+    assertThat(decode(first, 8192), is(content));
+  }
+
+  // decodes an aws-chunked stream, verifying the size and signature of each chunk
+  private static byte[] decode(final byte[] encoded, final int chunkSize) throws Exception {
+    final String s = new String(encoded, Charsets.ISO_8859_1);
+    final StringBuilder decoded = new StringBuilder();
+    String priorSignature = SEED_SIGNATURE;
+    int pos = 0;
+    while (true) {
+      final int headerEnd = s.indexOf("\r\n", pos);
+      final String[] header = s.substring(pos, headerEnd).split(";chunk-signature=");
+      final int size = Integer.parseInt(header[0], 16);
+      assertThat(size <= chunkSize, is(true));
+      final String data = s.substring(headerEnd + 2, headerEnd + 2 + size);
+      assertThat(s.substring(headerEnd + 2 + size, headerEnd + 4 + size), is("\r\n"));
+
+      final String stringToSign = "AWS4-HMAC-SHA256-PAYLOAD\n" + DATE_TIME + "\n" + SCOPE + "\n"
+          + priorSignature + "\n" + AbstractAWSSigner.EMPTY_STRING_SHA256_HEX + "\n"
+          + Hashing.sha256().hashBytes(data.getBytes(Charsets.ISO_8859_1)).toString();
+      final String signature = BinaryUtils.toHex(hmacSha256(stringToSign));
+      assertThat(header[1], is(signature));
+      priorSignature = signature;
+      decoded.append(data);
+      pos = headerEnd + 4 + size;
+      if (size == 0) {
+        break;
+      }
+    }
+    assertThat(pos, is(encoded.length));
+    return decoded.toString().getBytes(Charsets.ISO_8859_1);
+  }
+
+  private static byte[] hmacSha256(final String data) throws Exception {
+    final Mac mac = Mac.getInstance("HmacSHA256");
+    mac.init(new SecretKeySpec(KEY, "HmacSHA256"));
+    return mac.doFinal(data.getBytes(Charsets.UTF_8));
+  }
+}
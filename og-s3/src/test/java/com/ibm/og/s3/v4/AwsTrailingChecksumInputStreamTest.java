@@ -0,0 +1,116 @@
+/* Copyright (c) IBM Corporation 2016. All Rights Reserved.
+ * Project name: Object Generator
+ * This project is licensed under the Apache License 2.0, see LICENSE.
+ */
+
+package com.ibm.og.s3.v4;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+import java.io.ByteArrayInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import com.google.common.base.Charsets;
+import com.google.common.io.ByteStreams;
+import com.ibm.og.http.ChecksumAlgorithm;
+import com.tngtech.java.junit.dataprovider.DataProvider;
+import com.tngtech.java.junit.dataprovider.DataProviderRunner;
+import com.tngtech.java.junit.dataprovider.UseDataProvider;
+
+@RunWith(DataProviderRunner.class)
+public class AwsTrailingChecksumInputStreamTest {
+  private static final byte[] CONTENT = "123456789".getBytes(Charsets.US_ASCII);
+
+  private static InputStream in() {
+    return new ByteArrayInputStream(CONTENT);
+  }
+
+  @Test(expected = NullPointerException.class)
+  public void nullStream() {
+    new AwsTrailingChecksumInputStream(null, 9, ChecksumAlgorithm.CRC32C);
+  }
+
+  @Test(expected = NullPointerException.class)
+  public void nullAlgorithm() {
+    new AwsTrailingChecksumInputStream(in(), 9, null);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void negativeDecodedLength() {
+    new AwsTrailingChecksumInputStream(in(), -1, ChecksumAlgorithm.CRC32C);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void zeroChunkSize() {
+    new AwsTrailingChecksumInputStream(in(), 9, ChecksumAlgorithm.CRC32C, 0);
+  }
+
+  @DataProvider
+  public static Object[][] provideEncoding() {
+    return new Object[][] {
+        {9, ChecksumAlgorithm.CRC32C, 4,
+            "4\r\n1234\r\n4\r\n5678\r\n1\r\n9\r\n0\r\nx-amz-checksum-crc32c:4waSgw==\r\n\r\n"},
+        {9, ChecksumAlgorithm.CRC32C, 16,
+            "9\r\n123456789\r\n0\r\nx-amz-checksum-crc32c:4waSgw==\r\n\r\n"},
+        {0, ChecksumAlgorithm.CRC32C, 16, "0\r\nx-amz-checksum-crc32c:AAAAAA==\r\n\r\n"},
+        {9, ChecksumAlgorithm.SHA256, 9, "9\r\n123456789\r\n0\r\nx-amz-checksum-sha256:"
+            + "FeKw08M4keuw8e9gnsQZQgwg4yDOlMZfvIwzEkSOsiU=\r\n\r\n"}};
+  }
+
+  @Test
+  @UseDataProvider("provideEncoding")
+  public void encoding(final int decodedLength, final ChecksumAlgorithm algorithm,
+      final int chunkSize, final String expected) throws IOException {
+    final InputStream encoded =
+        new AwsTrailingChecksumInputStream(in(), decodedLength, algorithm, chunkSize);
+    final byte[] b = ByteStreams.toByteArray(encoded);
+    assertThat(new String(b, Charsets.US_ASCII), is(expected));
+    assertThat(AwsTrailingChecksumInputStream.calculateStreamContentLength(decodedLength,
+        algorithm, chunkSize), is((long) b.length));
+    assertThat(encoded.read(), is(-1));
+  }
+
+  @Test
+  public void singleByteReads() throws IOException {
+    final InputStream encoded =
+        new AwsTrailingChecksumInputStream(in(), 9, ChecksumAlgorithm.CRC32C, 4);
+    final StringBuilder s = new StringBuilder();
+    int b;
+    while ((b = encoded.read()) >= 0) {
+      s.append((char) b);
+    }
+    assertThat(s.toString(),
+        is("4\r\n1234\r\n4\r\n5678\r\n1\r\n9\r\n0\r\nx-amz-checksum-crc32c:4waSgw==\r\n\r\n"));
+  }
+
+  @Test
+  public void reset() throws IOException {
+    final InputStream encoded =
+        new AwsTrailingChecksumInputStream(in(), 9, ChecksumAlgorithm.CRC32C, 4);
+    assertThat(encoded.markSupported(), is(true));
+    encoded.mark(Integer.MAX_VALUE);
+    final byte[] first = ByteStreams.toByteArray(encoded);
+    encoded.reset();
+    assertThat(ByteStreams.toByteArray(encoded), is(first));
+  }
+
+  @Test(expected = UnsupportedOperationException.class)
+  public void markAfterRead() throws IOException {
+    final InputStream encoded = new AwsTrailingChecksumInputStream(in(), 9,
+        ChecksumAlgorithm.CRC32C);
+    encoded.read();
+    encoded.mark(Integer.MAX_VALUE);
+  }
+
+  @Test(expected = EOFException.class)
+  public void shortPayload() throws IOException {
+    ByteStreams.toByteArray(new AwsTrailingChecksumInputStream(in(), 10,
+        ChecksumAlgorithm.CRC32C));
+  }
+}
@@ -0,0 +1,72 @@
+/* Copyright (c) IBM Corporation 2016. All Rights Reserved.
+ * Project name: Object Generator
+ * This project is licensed under the Apache License 2.0, see LICENSE.
+ */
+
+package com.ibm.og.s3.v4;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+import java.util.Random;
+import java.util.zip.Checksum;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import com.google.common.base.Charsets;
+import com.tngtech.java.junit.dataprovider.DataProvider;
+import com.tngtech.java.junit.dataprovider.DataProviderRunner;
+import com.tngtech.java.junit.dataprovider.UseDataProvider;
+
+@RunWith(DataProviderRunner.class)
+public class Crc32cTest {
+  @DataProvider
+  public static Object[][] provideVectors() {
+    return new Object[][] {{new byte[0], 0x00000000L},
+        {"123456789".getBytes(Charsets.US_ASCII), 0xE3069283L}, {new byte[32], 0x8A9136AAL},
+        {ones(32), 0x62A8AB43L}};
+  }
+
+  private static byte[] ones(final int length) {
+    final byte[] b = new byte[length];
+    java.util.Arrays.fill(b, (byte) 0xFF);
+    return b;
+  }
+
+  @Test
+  @UseDataProvider("provideVectors")
+  public void vectors(final byte[] data, final long expected) {
+    final Crc32c crc = new Crc32c();
+    crc.update(data, 0, data.length);
+    assertThat(crc.getValue(), is(expected));
+
+    final Checksum created = Crc32c.create();
+    created.update(data, 0, data.length);
+    assertThat(created.getValue(), is(expected));
+  }
+
+  @Test
+  public void incremental() {
+    final byte[] data = new byte[10000];
+    new Random(1).nextBytes(data);
+    final Crc32c whole = new Crc32c();
+    whole.update(data, 0, data.length);
+
+    final Crc32c parts = new Crc32c();
+    parts.update(data[0]);
+    parts.update(data, 1, 4095);
+    parts.update(data, 4096, 3);
+    parts.update(data, 4099, data.length - 4099);
+    assertThat(parts.getValue(), is(whole.getValue()));
+
+    parts.reset();
+    parts.update(data, 0, data.length);
+    assertThat(parts.getValue(), is(whole.getValue()));
+  }
+
+  @Test(expected = IndexOutOfBoundsException.class)
+  public void invalidUpdate() {
+    new Crc32c().update(new byte[10], 5, 6);
+  }
+}
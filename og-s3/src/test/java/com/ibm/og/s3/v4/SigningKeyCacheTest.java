@@ -0,0 +1,72 @@
+/* Copyright (c) IBM Corporation 2016. All Rights Reserved.
+ * Project name: Object Generator
+ * This project is licensed under the Apache License 2.0, see LICENSE.
+ */
+
+package com.ibm.og.s3.v4;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.amazonaws.util.BinaryUtils;
+
+public class SigningKeyCacheTest {
+  private SigningKeyCache cache;
+
+  @Before
+  public void before() {
+    this.cache = new SigningKeyCache();
+  }
+
+  @Test(expected = NullPointerException.class)
+  public void nullSecretKey() {
+    this.cache.get("user", null, "20161001", "us-east-1", "s3");
+  }
+
+  @Test
+  public void derive() {
+    // example from the aws signature version 4 documentation
+    final byte[] key = SigningKeyCache.derive("wJalrXUtnFEMI/K7MDENG+bPxRfiCYEXAMPLEKEY",
+        "20120215", "us-east-1", "iam");
+    assertThat(BinaryUtils.toHex(key),
+        is("f4780e2d9f65fa895f9c67b32ce1baf0b0d8a43505a000a1a9e090d414db404d"));
+  }
+
+  @Test
+  public void cachedKey() {
+    final byte[] key = this.cache.get("user", "password", "20161001", "us-east-1", "s3");
+    assertThat(this.cache.get("user", "password", "20161001", "us-east-1", "s3"),
+        sameInstance(key));
+    assertThat(this.cache.size(), is(1));
+  }
+
+  @Test
+  public void dateRollover() {
+    final byte[] key = this.cache.get("user", "password", "20161001", "us-east-1", "s3");
+    final byte[] nextDay = this.cache.get("user", "password", "20161002", "us-east-1", "s3");
+    assertThat(nextDay, not(key));
+    assertThat(nextDay, is(SigningKeyCache.derive("password", "20161002", "us-east-1", "s3")));
+    assertThat(this.cache.size(), is(1));
+  }
+
+  @Test
+  public void secretKeyChange() {
+    final byte[] key = this.cache.get("user", "password", "20161001", "us-east-1", "s3");
+    final byte[] changed = this.cache.get("user", "password2", "20161001", "us-east-1", "s3");
+    assertThat(changed, not(key));
+    assertThat(changed, is(SigningKeyCache.derive("password2", "20161001", "us-east-1", "s3")));
+  }
+
+  @Test
+  public void distinctScopes() {
+    this.cache.get("user", "password", "20161001", "us-east-1", "s3");
+    this.cache.get("user2", "password", "20161001", "us-east-1", "s3");
+    this.cache.get("user", "password", "20161001", "us-west-1", "s3");
+    assertThat(this.cache.size(), is(3));
+  }
+}
@@ -87,12 +87,14 @@ public class ConcurrentRequestScheduler implements Scheduler {
   /**
    * {@inheritDoc}
    * 
-   * This implementation blocks until a previously scheduled request has completed
+   * This implementation blocks until a previously scheduled request has completed, and has no
+   * intended time
    */
   @Override
-  public void schedule() {
+  public long schedule() {
     this.started.countDown();
     this.permits.acquireUninterruptibly();
+    return 0;
   }
 
   /**
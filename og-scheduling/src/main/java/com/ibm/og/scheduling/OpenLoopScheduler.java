@@ -0,0 +1,115 @@
+/* Copyright (c) IBM Corporation 2016. All Rights Reserved.
+ * Project name: Object Generator
+ * This project is licensed under the Apache License 2.0, see LICENSE.
+ */
+
+package com.ibm.og.scheduling;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.util.concurrent.Uninterruptibles;
+
+/**
+ * A scheduler which permits calls according to a fixed arrival schedule derived from a configured
+ * rate. Unlike {@link RequestRateScheduler}, the schedule does not shift when a caller is late; the
+ * n-th call is always intended to occur at {@code start + n / rate} (following a linear ramp when
+ * a rampup is configured). A caller which falls behind the schedule is permitted to continue
+ * immediately until it has caught up, and the intended time returned by {@link #schedule} allows
+ * latency to be measured from the time a request should have been sent rather than from the time
+ * it was actually sent.
+ *
+ * @since 1.9.0
+ */
+public class OpenLoopScheduler implements Scheduler {
+  private static final Logger _logger = LoggerFactory.getLogger(OpenLoopScheduler.class);
+  private final double rate;
+  private final TimeUnit unit;
+  private final double rampup;
+  private final TimeUnit rampupUnit;
+  private final double nanosPerRequest;
+  private final double rampNanos;
+  private long start;
+  private long scheduled;
+
+  /**
+   * Constructs an instance using the provided rate {@code count / unit }
+   *
+   * @param rate the numerator of the rate to configure
+   * @param unit the denominator of the rate to configure
+   * @param rampup the duration to linearly ramp up to the stable request rate
+   * @param rampupUnit the rampup duration unit
+   * @throws IllegalArgumentException if rate is zero or negative, or if rampup is negative
+   * @throws NullPointerException if unit or rampupUnit are null
+   */
+  public OpenLoopScheduler(final double rate, final TimeUnit unit, final double rampup,
+      final TimeUnit rampupUnit) {
+    checkArgument(rate > 0.0, "rate must be > 0.0 [%s]", rate);
+    this.rate = rate;
+    this.unit = checkNotNull(unit);
+    checkArgument(rampup >= 0.0, "rampup must be >= 0.0 [%s]", rampup);
+    this.rampup = rampup;
+    this.rampupUnit = checkNotNull(rampupUnit);
+    this.nanosPerRequest = unit.toNanos(1) / rate;
+    this.rampNanos = rampup * rampupUnit.toNanos(1);
+    _logger.debug("Calculated nanoseconds per request [{}]", this.nanosPerRequest);
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * This implementation blocks until the intended time of the next call in the arrival schedule.
+   * If that time has already passed, this method returns immediately
+   */
+  @Override
+  public long schedule() {
+    final long intended;
+    synchronized (this) {
+      if (this.scheduled == 0) {
+        this.start = System.nanoTime();
+      }
+      intended = this.start + offset(this.scheduled);
+      this.scheduled++;
+    }
+    final long delay = intended - System.nanoTime();
+    if (delay > 0) {
+      Uninterruptibles.sleepUninterruptibly(delay, TimeUnit.NANOSECONDS);
+    }
+    return intended;
+  }
+
+  /**
+   * Calculates the offset of a call from the start of the schedule
+   *
+   * @param n the zero based index of the call
+   * @return the offset of the call, in nanoseconds
+   */
+  long offset(final long n) {
+    if (this.rampNanos <= 0.0) {
+      return (long) (n * this.nanosPerRequest);
+    }
+    // the rate increases linearly during rampup, so the number of calls scheduled by time t is
+    // rate * t^2 / (2 * rampup), and rate * rampup / 2 calls are scheduled during the ramp
+    final double rampCalls = this.rampNanos / this.nanosPerRequest / 2;
+    if (n < rampCalls) {
+      return (long) Math.sqrt(2 * this.rampNanos * n * this.nanosPerRequest);
+    }
+    return (long) (this.rampNanos + (n - rampCalls) * this.nanosPerRequest);
+  }
+
+  @Override
+  public void complete() {
+    // nothing to do for this scheduler type
+  }
+
+  @Override
+  public String toString() {
+    return String.format("OpenLoopScheduler [rate=%s, unit=%s, rampup=%s, rampupUnit=%s]",
+        this.rate, this.unit, this.rampup, this.rampupUnit);
+  }
+}
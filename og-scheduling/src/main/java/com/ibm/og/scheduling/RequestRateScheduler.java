@@ -113,10 +113,17 @@ public class RequestRateScheduler implements Scheduler {
     return rate / (unit.toNanos(1) / (double) TimeUnit.SECONDS.toNanos(1));
   }
 
+  /**
+   * {@inheritDoc}
+   *
+   * This implementation blocks until a permit is available at the configured rate, and has no
+   * intended time
+   */
   @Override
-  public void schedule() {
+  public long schedule() {
     this.started.countDown();
     this.permits.get().acquire();
+    return 0;
   }
 
   @Override
@@ -13,8 +13,12 @@ package com.ibm.og.scheduling;
 public interface Scheduler {
   /**
    * Blocks until permitted to continue
+   * 
+   * @return the time at which the caller was intended to continue, in {@link System#nanoTime}
+   *         terms, or 0 for schedulers which do not follow a fixed arrival schedule and so have no
+   *         intended time
    */
-  void schedule();
+  long schedule();
   /**
    * Signals request completion
    */
@@ -58,6 +58,13 @@ public class ConcurrentRequestSchedulerTest {
     concurrentRequestScheduler(10);
   }
 
+  @Test
+  public void noIntendedStart() {
+    final ConcurrentRequestScheduler scheduler =
+        new ConcurrentRequestScheduler(1, 0.0, TimeUnit.SECONDS);
+    assertThat(scheduler.schedule(), is(0L));
+  }
+
   private void concurrentRequestScheduler(final int concurrentRequests) {
     final ConcurrentRequestScheduler scheduler =
         new ConcurrentRequestScheduler(concurrentRequests, 0.0, TimeUnit.SECONDS);
@@ -0,0 +1,90 @@
+/* Copyright (c) IBM Corporation 2016. All Rights Reserved.
+ * Project name: Object Generator
+ * This project is licensed under the Apache License 2.0, see LICENSE.
+ */
+
+package com.ibm.og.scheduling;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.runner.RunWith;
+
+import com.google.common.util.concurrent.Uninterruptibles;
+import com.tngtech.java.junit.dataprovider.DataProvider;
+import com.tngtech.java.junit.dataprovider.DataProviderRunner;
+import com.tngtech.java.junit.dataprovider.UseDataProvider;
+
+@RunWith(DataProviderRunner.class)
+public class OpenLoopSchedulerTest {
+  @Rule
+  public ExpectedException thrown = ExpectedException.none();
+
+  @DataProvider
+  public static Object[][] provideInvalidOpenLoopScheduler() {
+    final double rate = 10.0;
+    final TimeUnit unit = TimeUnit.SECONDS;
+    return new Object[][] {{0.0, unit, 0.0, unit, IllegalArgumentException.class},
+        {-1.0, unit, 0.0, unit, IllegalArgumentException.class},
+        {rate, null, 0.0, unit, NullPointerException.class},
+        {rate, unit, -1.0, unit, IllegalArgumentException.class},
+        {rate, unit, 0.0, null, NullPointerException.class}};
+  }
+
+  @Test
+  @UseDataProvider("provideInvalidOpenLoopScheduler")
+  public void invalidOpenLoopScheduler(final double rate, final TimeUnit unit, final double rampup,
+      final TimeUnit rampupUnit, final Class<Exception> expectedException) {
+    this.thrown.expect(expectedException);
+    new OpenLoopScheduler(rate, unit, rampup, rampupUnit);
+  }
+
+  @Test
+  public void offset() {
+    final OpenLoopScheduler s = new OpenLoopScheduler(10.0, TimeUnit.SECONDS, 0.0, TimeUnit.SECONDS);
+    assertThat(s.offset(0), is(0L));
+    assertThat(s.offset(1), is(TimeUnit.MILLISECONDS.toNanos(100)));
+    assertThat(s.offset(25), is(TimeUnit.MILLISECONDS.toNanos(2500)));
+  }
+
+  @Test
+  public void offsetWithRampup() {
+    // 10 calls are scheduled during a 2 second ramp to 10 op/s
+    final OpenLoopScheduler s = new OpenLoopScheduler(10.0, TimeUnit.SECONDS, 2.0, TimeUnit.SECONDS);
+    assertThat(s.offset(0), is(0L));
+    assertThat(s.offset(5), is((long) Math.sqrt(2.0 * 2e9 * 5 * 1e8)));
+    assertThat(s.offset(10), is(TimeUnit.SECONDS.toNanos(2)));
+    assertThat(s.offset(20), is(TimeUnit.SECONDS.toNanos(3)));
+  }
+
+  @Test
+  public void scheduleFollowsArrivalSchedule() {
+    final OpenLoopScheduler s =
+        new OpenLoopScheduler(100.0, TimeUnit.SECONDS, 0.0, TimeUnit.SECONDS);
+    final long first = s.schedule();
+    final long second = s.schedule();
+    assertThat(second - first, is(TimeUnit.MILLISECONDS.toNanos(10)));
+    assertThat(System.nanoTime(), greaterThanOrEqualTo(second));
+  }
+
+  @Test
+  public void scheduleDoesNotWaitWhenBehind() {
+    final OpenLoopScheduler s =
+        new OpenLoopScheduler(100.0, TimeUnit.SECONDS, 0.0, TimeUnit.SECONDS);
+    final long first = s.schedule();
+    // simulate a stalled caller; the missed calls are still scheduled at their intended times
+    Uninterruptibles.sleepUninterruptibly(100, TimeUnit.MILLISECONDS);
+    final long before = System.nanoTime();
+    for (int i = 1; i <= 5; i++) {
+      assertThat(s.schedule(), is(first + TimeUnit.MILLISECONDS.toNanos(10 * i)));
+    }
+    assertThat(System.nanoTime() - before, lessThan(TimeUnit.MILLISECONDS.toNanos(50)));
+  }
+}
@@ -6,10 +6,24 @@
 package com.ibm.og.statistic;
 
 /**
- * A query-able type of counter
+ * A query-able type of counter. {@code CONTENT_VERIFIED} and {@code CONTENT_MISMATCHES} count the
+ * read responses whose content matched, or did not match, the content the object was written with.
+ * {@code LATENCY}, {@code INTENDED_LATENCY}, {@code QUEUEING_DELAY}, {@code TIME_TO_FIRST_BYTE},
+ * {@code TIME_TO_LAST_BYTE} and {@code SIGNING_TIME} are totals across operations, in
+ * microseconds measured from nanosecond timestamps. {@code SIGNING_TIME} is the total time spent
+ * authenticating requests.
+ * <p>
+ * {@code CONNECTIONS} counts the operations which opened a new connection, and
+ * {@code CONNECT_TIME} and {@code HANDSHAKE_TIME} are the total time those operations spent
+ * connecting, excluding the tls handshake, and on the tls handshake. {@code CONNECTION_LEASE_TIME}
+ * is the total time spent waiting to lease a connection from the pool and {@code SERVER_TIME} the
+ * total time from sending the last byte of a request to receiving the response headers, in
+ * microseconds. Connection phases are only recorded by clients which support them
  * 
  * @since 1.0
  */
 public enum Counter {
-  OPERATIONS, ACTIVE_OPERATIONS, BYTES, LATENCY;
+  OPERATIONS, ACTIVE_OPERATIONS, BYTES, LATENCY, INTENDED_LATENCY, QUEUEING_DELAY, SIGNING_TIME,
+  CONTENT_VERIFIED, CONTENT_MISMATCHES, TIME_TO_FIRST_BYTE, TIME_TO_LAST_BYTE, CONNECTIONS,
+  CONNECTION_LEASE_TIME, CONNECT_TIME, HANDSHAKE_TIME, SERVER_TIME;
 }
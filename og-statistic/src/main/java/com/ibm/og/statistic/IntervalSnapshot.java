@@ -0,0 +1,93 @@
+/* Copyright (c) IBM Corporation 2016. All Rights Reserved.
+ * Project name: Object Generator
+ * This project is licensed under the Apache License 2.0, see LICENSE.
+ */
+
+package com.ibm.og.statistic;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.Map;
+
+import com.ibm.og.api.Operation;
+
+/**
+ * An immutable copy of the counters, status codes and latency histograms of the operations which
+ * completed during an interval, as returned by {@link Statistics#intervalSnapshot()}. Every value
+ * of a snapshot describes the same set of operations.
+ *
+ * @since 1.9.0
+ */
+public class IntervalSnapshot implements OperationCounters {
+  private final long[][] counters;
+  private final long[][] statusCodes;
+  private final LatencyHistogram.Snapshot[] latencyHistograms;
+  private final LatencyHistogram.Snapshot[] intendedLatencyHistograms;
+
+  IntervalSnapshot(final long[][] counters, final long[][] statusCodes,
+      final LatencyHistogram.Snapshot[] latencyHistograms,
+      final LatencyHistogram.Snapshot[] intendedLatencyHistograms) {
+    this.counters = counters;
+    this.statusCodes = statusCodes;
+    this.latencyHistograms = latencyHistograms;
+    this.intendedLatencyHistograms = intendedLatencyHistograms;
+  }
+
+  /**
+   * Gets a counter
+   *
+   * @param operation the operation type of the counter to get
+   * @param counter the counter type to get
+   * @return the counter's value for the interval
+   */
+  @Override
+  public long get(final Operation operation, final Counter counter) {
+    checkNotNull(operation);
+    checkNotNull(counter);
+    return this.counters[operation.ordinal()][counter.ordinal()];
+  }
+
+  /**
+   * Gets the latency histogram for an operation type. Latencies are recorded in microseconds
+   *
+   * @param operation the operation type of the histogram to get
+   * @return the latencies of the interval
+   */
+  @Override
+  public LatencyHistogram.Snapshot getLatencyHistogram(final Operation operation) {
+    checkNotNull(operation);
+    return this.latencyHistograms[operation.ordinal()];
+  }
+
+  /**
+   * Gets the intended latency histogram for an operation type, which includes the queueing delay
+   * of each operation. Latencies are recorded in microseconds
+   *
+   * @param operation the operation type of the histogram to get
+   * @return the intended latencies of the interval
+   */
+  @Override
+  public LatencyHistogram.Snapshot getIntendedLatencyHistogram(final Operation operation) {
+    checkNotNull(operation);
+    return this.intendedLatencyHistograms[operation.ordinal()];
+  }
+
+  /**
+   * Gets a read-only map of status code counters for a given operation type, which includes the
+   * status codes counted during the interval, in ascending order
+   *
+   * @param operation the operation type to get status code counter values for
+   * @return a map of status code counters
+   */
+  @Override
+  public Map<Integer, Long> statusCodes(final Operation operation) {
+    checkNotNull(operation);
+    return Statistics.statusCodes(this.statusCodes[operation.ordinal()]);
+  }
+
+  @Override
+  public String toString() {
+    return String.format("IntervalSnapshot [operations=%s]",
+        get(Operation.ALL, Counter.OPERATIONS));
+  }
+}
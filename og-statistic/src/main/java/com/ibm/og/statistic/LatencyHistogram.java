@@ -0,0 +1,215 @@
+/* Copyright (c) IBM Corporation 2016. All Rights Reserved.
+ * Project name: Object Generator
+ * This project is licensed under the Apache License 2.0, see LICENSE.
+ */
+
+package com.ibm.og.statistic;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A fixed memory, high dynamic range histogram of non-negative values. Values are counted in
+ * log-linear buckets: values below {@code 256} are counted exactly, and larger values are counted
+ * in buckets whose width is at most 1/128 of the value, so that reported percentiles are within
+ * 0.8% of the recorded values. Values larger than {@link #MAX_VALUE} are counted as
+ * {@code MAX_VALUE}.
+ * <p>
+ * Recording is lock-free and costs a single atomic increment in the common case, so that a single
+ * instance may be shared by all threads completing requests.
+ *
+ * @since 1.9.0
+ */
+public class LatencyHistogram {
+  // number of linear sub-buckets in each power of two range, and its log2
+  private static final int SUB_BUCKET_BITS = 7;
+  private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+  private static final int MAX_BITS = 36;
+  /** the largest value which is tracked without clamping */
+  public static final long MAX_VALUE = (1L << MAX_BITS) - 1;
+  private static final int LENGTH = index(MAX_VALUE) + 1;
+
+  private final AtomicLongArray counts;
+  private final AtomicLong max;
+
+  /**
+   * Constructs an empty histogram
+   */
+  public LatencyHistogram() {
+    this.counts = new AtomicLongArray(LENGTH);
+    this.max = new AtomicLong();
+  }
+
+  /**
+   * Records a value
+   *
+   * @param value the value to record
+   * @throws IllegalArgumentException if value is negative
+   */
+  public void record(final long value) {
+    checkArgument(value >= 0, "value must be >= 0 [%s]", value);
+    final long clamped = Math.min(value, MAX_VALUE);
+    this.counts.incrementAndGet(index(clamped));
+    long currentMax = this.max.get();
+    while (clamped > currentMax) {
+      if (this.max.compareAndSet(currentMax, clamped)) {
+        break;
+      }
+      currentMax = this.max.get();
+    }
+  }
+
+  /**
+   * Creates a point in time copy of this histogram. Values recorded concurrently with this call may
+   * or may not be included
+   *
+   * @return a snapshot of this histogram
+   */
+  public Snapshot snapshot() {
+    final long[] copy = new long[LENGTH];
+    long count = 0;
+    for (int i = 0; i < LENGTH; i++) {
+      copy[i] = this.counts.get(i);
+      count += copy[i];
+    }
+    return new Snapshot(copy, count, this.max.get());
+  }
+
+  /**
+   * Removes all recorded values. Values recorded concurrently with this call may or may not be
+   * removed
+   */
+  public void reset() {
+    for (int i = 0; i < LENGTH; i++) {
+      if (this.counts.get(i) != 0) {
+        this.counts.set(i, 0);
+      }
+    }
+    this.max.set(0);
+  }
+
+  static int index(final long value) {
+    if (value < 2 * SUB_BUCKETS) {
+      return (int) value;
+    }
+    final int shift = 64 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS - 1;
+    return SUB_BUCKETS * shift + (int) (value >>> shift);
+  }
+
+  static long highestEquivalentValue(final int index) {
+    if (index < 2 * SUB_BUCKETS) {
+      return index;
+    }
+    final int shift = index / SUB_BUCKETS - 1;
+    final long mantissa = index - (long) SUB_BUCKETS * shift;
+    return ((mantissa + 1) << shift) - 1;
+  }
+
+  @Override
+  public String toString() {
+    return String.format("LatencyHistogram [max=%s]", this.max.get());
+  }
+
+  /**
+   * An immutable copy of the counts of a {@code LatencyHistogram}
+   *
+   * @since 1.9.0
+   */
+  public static class Snapshot {
+    private static final Snapshot EMPTY = new Snapshot(new long[LENGTH], 0, 0);
+    private final long[] counts;
+    private final long count;
+    private final long max;
+
+    private Snapshot(final long[] counts, final long count, final long max) {
+      this.counts = counts;
+      this.count = count;
+      this.max = max;
+    }
+
+    /**
+     * Returns a snapshot with no recorded values
+     *
+     * @return an empty snapshot
+     */
+    public static Snapshot empty() {
+      return EMPTY;
+    }
+
+    /**
+     * Gets the number of recorded values
+     *
+     * @return the number of recorded values
+     */
+    public long getCount() {
+      return this.count;
+    }
+
+    /**
+     * Gets the largest recorded value
+     *
+     * @return the largest recorded value, or zero if no values have been recorded
+     */
+    public long getMax() {
+      return this.max;
+    }
+
+    /**
+     * Gets the value at the provided percentile. The returned value is the highest value which is
+     * counted in the same bucket as the value at the percentile, bounded by the largest recorded
+     * value
+     *
+     * @param percentile the percentile, between 0.0 and 100.0 inclusive
+     * @return the value at the provided percentile, or zero if no values have been recorded
+     * @throws IllegalArgumentException if percentile is outside of the range 0.0 - 100.0
+     */
+    public long getValueAtPercentile(final double percentile) {
+      checkArgument(percentile >= 0.0 && percentile <= 100.0,
+          "percentile must be in range [0.0, 100.0] [%s]", percentile);
+      if (this.count == 0) {
+        return 0;
+      }
+      final long target = Math.max((long) Math.ceil(percentile / 100.0 * this.count), 1);
+      long total = 0;
+      for (int i = 0; i < this.counts.length; i++) {
+        total += this.counts[i];
+        if (total >= target) {
+          return Math.min(highestEquivalentValue(i), this.max);
+        }
+      }
+      return this.max;
+    }
+
+    /**
+     * Creates a snapshot of the values which were recorded after a previous snapshot of the same
+     * histogram was taken. The largest value of the difference is approximated by its highest
+     * non-empty bucket
+     *
+     * @param previous an earlier snapshot of the same histogram
+     * @return a snapshot of the values recorded since {@code previous}
+     * @throws NullPointerException if previous is null
+     */
+    public Snapshot minus(final Snapshot previous) {
+      checkNotNull(previous);
+      final long[] diff = new long[this.counts.length];
+      long diffCount = 0;
+      long diffMax = 0;
+      for (int i = 0; i < diff.length; i++) {
+        diff[i] = Math.max(this.counts[i] - previous.counts[i], 0);
+        if (diff[i] > 0) {
+          diffCount += diff[i];
+          diffMax = Math.min(highestEquivalentValue(i), this.max);
+        }
+      }
+      return new Snapshot(diff, diffCount, diffMax);
+    }
+
+    @Override
+    public String toString() {
+      return String.format("LatencyHistogram.Snapshot [count=%s, max=%s]", this.count, this.max);
+    }
+  }
+}
@@ -0,0 +1,52 @@
+/* Copyright (c) IBM Corporation 2016. All Rights Reserved.
+ * Project name: Object Generator
+ * This project is licensed under the Apache License 2.0, see LICENSE.
+ */
+
+package com.ibm.og.statistic;
+
+import java.util.Map;
+
+import com.ibm.og.api.Operation;
+
+/**
+ * A read-only view of the counters, status codes and latency histograms recorded for each
+ * operation type, either for the whole test or for an interval
+ *
+ * @since 1.9.0
+ */
+public interface OperationCounters {
+  /**
+   * Gets a counter
+   *
+   * @param operation the operation type of the counter to get
+   * @param counter the counter type to get
+   * @return the counter's value
+   */
+  long get(Operation operation, Counter counter);
+
+  /**
+   * Gets the latency histogram for an operation type. Latencies are recorded in microseconds
+   *
+   * @param operation the operation type of the histogram to get
+   * @return a snapshot of the latency histogram
+   */
+  LatencyHistogram.Snapshot getLatencyHistogram(Operation operation);
+
+  /**
+   * Gets the intended latency histogram for an operation type, which includes the queueing delay
+   * of each operation. Latencies are recorded in microseconds
+   *
+   * @param operation the operation type of the histogram to get
+   * @return a snapshot of the intended latency histogram
+   */
+  LatencyHistogram.Snapshot getIntendedLatencyHistogram(Operation operation);
+
+  /**
+   * Gets a read-only map of status code counters for a given operation type, in ascending order
+   *
+   * @param operation the operation type to get status code counter values for
+   * @return a map of status code counters
+   */
+  Map<Integer, Long> statusCodes(Operation operation);
+}
@@ -8,9 +8,10 @@ package com.ibm.og.statistic;
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.EnumSet;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
 
 import javax.inject.Inject;
 import javax.inject.Singleton;
@@ -23,11 +24,13 @@ import com.ibm.og.api.Request;
 import com.ibm.og.api.Response;
 import com.ibm.og.http.HttpUtil;
 import com.ibm.og.api.Operation;
+import com.ibm.og.util.Context;
+import com.ibm.og.util.OperationListener;
 import com.ibm.og.util.Pair;
+import com.ibm.og.util.RequestListener;
 import com.ibm.og.util.TestState;
-import com.google.common.collect.Maps;
+import com.google.common.collect.ImmutableSortedMap;
 import com.google.common.eventbus.Subscribe;
-import com.google.common.util.concurrent.AtomicLongMap;
 
 /**
  * An aggregator of counters including:
@@ -35,6 +38,7 @@ import com.google.common.util.concurrent.AtomicLongMap;
  * <li>operations</li>
  * <li>bytes</li>
  * <li>status codes</li>
+ * <li>verified and mismatched read content</li>
  * </ul>
  * <p>
  * statistics are gathered and stored for the following operation types:
@@ -44,15 +48,34 @@ import com.google.common.util.concurrent.AtomicLongMap;
  * <li>read</li>
  * <li>delete</li>
  * </ul>
+ * <p>
+ * Counters are held in {@link StripedCounters} indexed by operation ordinal and counter ordinal
+ * or status code, so that updating them neither allocates nor contends on a single shared value
+ * when many client threads complete requests at once.
+ * <p>
+ * Once {@link #intervalSnapshot()} is first called, completed operations are also recorded in one
+ * of a pair of interval accumulators. Taking a snapshot switches updates to the other accumulator,
+ * waits for updates already in progress on the previous one to finish and then copies and clears
+ * it, so that every value of a snapshot describes exactly the operations completed during the
+ * interval, at a cost which depends on the number of operation types rather than the number of
+ * operations.
  * 
  * @since 1.0
  */
 @Singleton
-public class Statistics {
+public class Statistics implements RequestListener, OperationListener, OperationCounters {
   private static final Logger _logger = LoggerFactory.getLogger(Statistics.class);
+  private static final int MIN_STATUS_CODE = 100;
+  private static final int MAX_STATUS_CODE = 599;
+  // multipart operations whose parts are counted by their individual requests
+  private static final Set<Operation> UNCOUNTED_IN_ALL = EnumSet.of(Operation.MULTIPART_WRITE,
+      Operation.MULTIPART_WRITE_INITIATE, Operation.MULTIPART_WRITE_PART);
   private volatile boolean running;
-  private final Map<Operation, AtomicLongMap<Counter>> counters;
-  private final Map<Operation, AtomicLongMap<Integer>> scCounters;
+  private final Accumulator totals;
+  // the accumulator being updated and the one which will replace it at the next snapshot, both
+  // null until interval snapshots are requested
+  private volatile Accumulator interval;
+  private Accumulator spare;
 
   /**
    * Constructs an instance
@@ -60,12 +83,7 @@ public class Statistics {
   @Inject
   public Statistics() {
     this.running = true;
-    this.counters = Maps.newHashMap();
-    this.scCounters = Maps.newHashMap();
-    for (final Operation operation : Operation.values()) {
-      this.counters.put(operation, AtomicLongMap.<Counter>create());
-      this.scCounters.put(operation, AtomicLongMap.<Integer>create());
-    }
+    this.totals = new Accumulator();
   }
 
   /**
@@ -87,14 +105,13 @@ public class Statistics {
    * 
    * @param request an in-progress request
    */
-
-  @Subscribe
+  @Override
   public void update(final Request request) {
     checkNotNull(request);
 
     final Operation operation = request.getOperation();
-    updateCounter(operation, Counter.ACTIVE_OPERATIONS, 1);
-    updateCounter(Operation.ALL, Counter.ACTIVE_OPERATIONS, 1);
+    updateCounter(this.totals, operation, Counter.ACTIVE_OPERATIONS, 1);
+    updateCounter(this.totals, Operation.ALL, Counter.ACTIVE_OPERATIONS, 1);
 
     _logger.trace("Statistics request updated: {}", request);
   }
@@ -105,40 +122,79 @@ public class Statistics {
    * 
    * @param result the completed operation
    */
-  @Subscribe
+  @Override
   public void update(final Pair<Request, Response> result) {
     checkNotNull(result);
     final Request request = result.getKey();
     final Response response = result.getValue();
 
     final Operation operation = request.getOperation();
-    updateCounter(operation, Counter.ACTIVE_OPERATIONS, -1);
-    updateCounter(Operation.ALL, Counter.ACTIVE_OPERATIONS, -1);
+    updateCounter(this.totals, operation, Counter.ACTIVE_OPERATIONS, -1);
+    updateCounter(this.totals, Operation.ALL, Counter.ACTIVE_OPERATIONS, -1);
 
     // do not record operations with 599 status after shutdown (known client aborts)
     if (this.running || response.getStatusCode() != 599) {
-      updateCounter(operation, Counter.OPERATIONS, 1);
-      final long latency = getLatency(operation, request, response);
-      updateCounter(operation, Counter.LATENCY, latency);
-      List<Operation> invalidCountOps = new ArrayList<Operation>();
-      invalidCountOps.add(Operation.MULTIPART_WRITE);
-      invalidCountOps.add(Operation.MULTIPART_WRITE_INITIATE);
-      invalidCountOps.add(Operation.MULTIPART_WRITE_PART);
-      if (!invalidCountOps.contains(operation)) {
-        updateCounter(Operation.ALL, Counter.OPERATIONS, 1);
+      final int statusCode = response.getStatusCode();
+      if (statusCode < MIN_STATUS_CODE || statusCode > MAX_STATUS_CODE) {
+        _logger.warn("Not counting invalid status code [{}]", statusCode);
       }
-
-      if (HttpUtil.SUCCESS_STATUS_CODES.contains(response.getStatusCode())) {
-        final long bytes = getBytes(operation, request, response);
-        updateCounter(operation, Counter.BYTES, bytes);
-        updateCounter(Operation.ALL, Counter.BYTES, bytes);
+      record(this.totals, operation, request, response);
+      if (this.interval != null) {
+        recordInterval(operation, request, response);
       }
-      updateStatusCode(operation, response.getStatusCode());
-      updateStatusCode(Operation.ALL, response.getStatusCode());
     }
     _logger.trace("Statistics operation updated: {}, {}", request, response);
   }
 
+  // an update which began on an accumulator that has since been replaced is retried on the
+  // current one, so that a snapshot never misses or partially includes an operation
+  private void recordInterval(final Operation operation, final Request request,
+      final Response response) {
+    Accumulator interval = this.interval;
+    interval.enter();
+    while (interval != this.interval) {
+      interval.exit();
+      interval = this.interval;
+      interval.enter();
+    }
+    try {
+      record(interval, operation, request, response);
+    } finally {
+      interval.exit();
+    }
+  }
+
+  private void record(final Accumulator accumulator, final Operation operation,
+      final Request request, final Response response) {
+    updateCounter(accumulator, operation, Counter.OPERATIONS, 1);
+    final RequestTimestamps timestamps = response.getRequestTimestamps();
+    final long latency = getLatency(timestamps);
+    updateCounter(accumulator, operation, Counter.LATENCY, latency);
+    final long queueingDelay = getQueueingDelay(timestamps);
+    updateCounter(accumulator, operation, Counter.INTENDED_LATENCY, latency + queueingDelay);
+    updateCounter(accumulator, operation, Counter.QUEUEING_DELAY, queueingDelay);
+    updateCounter(accumulator, operation, Counter.TIME_TO_FIRST_BYTE,
+        getTimeToFirstByte(timestamps, latency));
+    updateCounter(accumulator, operation, Counter.TIME_TO_LAST_BYTE,
+        getTimeToLastByte(timestamps, latency));
+    updateCounter(accumulator, operation, Counter.SIGNING_TIME, getSigningTime(timestamps));
+    updateConnectionPhases(accumulator, operation, timestamps);
+    accumulator.latencyHistograms[operation.ordinal()].record(latency);
+    accumulator.intendedLatencyHistograms[operation.ordinal()].record(latency + queueingDelay);
+    if (!UNCOUNTED_IN_ALL.contains(operation)) {
+      updateCounter(accumulator, Operation.ALL, Counter.OPERATIONS, 1);
+    }
+
+    if (HttpUtil.SUCCESS_STATUS_CODES.contains(response.getStatusCode())) {
+      final long bytes = getBytes(operation, request, response);
+      updateCounter(accumulator, operation, Counter.BYTES, bytes);
+      updateCounter(accumulator, Operation.ALL, Counter.BYTES, bytes);
+    }
+    updateStatusCode(accumulator, operation, response.getStatusCode());
+    updateStatusCode(accumulator, Operation.ALL, response.getStatusCode());
+    updateContentVerification(accumulator, operation, response);
+  }
+
   public void setOperation(final Operation operation) {
 
   }
@@ -154,17 +210,119 @@ public class Statistics {
     return 0;
   }
 
-  private long getLatency(final Operation operation, final Request request, final Response response) {
-    RequestTimestamps timestamps =  response.getRequestTimestamps();
-    return timestamps.finishMillis - timestamps.startMillis;
+  // latency measured from nanosecond timestamps, falling back to wall clock millis for responses
+  // which were not timed by a client
+  private static long getLatency(final RequestTimestamps timestamps) {
+    if (timestamps == null) {
+      return 0;
+    }
+    if (timestamps.start != 0 && timestamps.finish != 0) {
+      return micros(timestamps.start, timestamps.finish);
+    }
+    return TimeUnit.MILLISECONDS.toMicros(
+        Math.max(timestamps.finishMillis - timestamps.startMillis, 0));
+  }
+
+  // the time between the intended send time from the arrival schedule and the actual send time
+  private static long getQueueingDelay(final RequestTimestamps timestamps) {
+    if (timestamps == null || timestamps.intendedStartMillis <= 0) {
+      return 0;
+    }
+    if (timestamps.intendedStart != 0 && timestamps.start != 0) {
+      return micros(timestamps.intendedStart, timestamps.start);
+    }
+    return TimeUnit.MILLISECONDS.toMicros(
+        Math.max(timestamps.startMillis - timestamps.intendedStartMillis, 0));
+  }
+
+  // the time until the first byte of response content was read, or until the response headers
+  // were read if the response has no content; responses without content timestamps, such as
+  // requests which failed before a response arrived, use their latency
+  private static long getTimeToFirstByte(final RequestTimestamps timestamps, final long latency) {
+    if (timestamps == null || timestamps.start == 0) {
+      return latency;
+    }
+    if (timestamps.responseContentFirstBytes != 0) {
+      return micros(timestamps.start, timestamps.responseContentFirstBytes);
+    }
+    if (timestamps.responseContentStart != 0) {
+      return micros(timestamps.start, timestamps.responseContentStart);
+    }
+    return latency;
+  }
+
+  // the time until the last byte of response content was read, which excludes the time spent
+  // closing the request after the response was consumed
+  private static long getTimeToLastByte(final RequestTimestamps timestamps, final long latency) {
+    if (timestamps == null || timestamps.start == 0 || timestamps.responseContentFinish == 0) {
+      return latency;
+    }
+    return micros(timestamps.start, timestamps.responseContentFinish);
+  }
+
+  // the time spent authenticating the request, whether before or during its execution
+  private static long getSigningTime(final RequestTimestamps timestamps) {
+    if (timestamps == null || timestamps.signingStart == 0) {
+      return 0;
+    }
+    return micros(timestamps.signingStart, timestamps.signingFinish);
+  }
+
+  // connect and handshake times are only recorded by requests which opened a new connection
+  private void updateConnectionPhases(final Accumulator accumulator, final Operation operation,
+      final RequestTimestamps timestamps) {
+    if (timestamps == null) {
+      return;
+    }
+    if (timestamps.connectionLeaseStart != 0 && timestamps.connectionLeaseFinish != 0) {
+      updateCounter(accumulator, operation, Counter.CONNECTION_LEASE_TIME,
+          micros(timestamps.connectionLeaseStart, timestamps.connectionLeaseFinish));
+    }
+    if (timestamps.connectStart != 0 && timestamps.connectFinish != 0) {
+      long handshake = 0;
+      if (timestamps.handshakeStart != 0 && timestamps.handshakeFinish != 0) {
+        handshake = micros(timestamps.handshakeStart, timestamps.handshakeFinish);
+      }
+      final long connect = micros(timestamps.connectStart, timestamps.connectFinish);
+      updateCounter(accumulator, operation, Counter.CONNECTIONS, 1);
+      updateCounter(accumulator, operation, Counter.CONNECT_TIME, Math.max(connect - handshake, 0));
+      updateCounter(accumulator, operation, Counter.HANDSHAKE_TIME, handshake);
+    }
+    if (timestamps.requestFinish != 0 && timestamps.responseHeadersFinish != 0) {
+      updateCounter(accumulator, operation, Counter.SERVER_TIME,
+          micros(timestamps.requestFinish, timestamps.responseHeadersFinish));
+    }
+  }
+
+  private static long micros(final long startNanos, final long finishNanos) {
+    return TimeUnit.NANOSECONDS.toMicros(Math.max(finishNanos - startNanos, 0));
+  }
+
+  // content mismatches are counted separately from status codes, so that a corrupt read is not
+  // mistaken for a failed request
+  private void updateContentVerification(final Accumulator accumulator,
+      final Operation operation, final Response response) {
+    final String verification = response.getContext().get(Context.X_OG_CONTENT_VERIFICATION);
+    if (Context.CONTENT_VERIFIED.equals(verification)) {
+      updateCounter(accumulator, operation, Counter.CONTENT_VERIFIED, 1);
+      updateCounter(accumulator, Operation.ALL, Counter.CONTENT_VERIFIED, 1);
+    } else if (Context.CONTENT_MISMATCH.equals(verification)) {
+      updateCounter(accumulator, operation, Counter.CONTENT_MISMATCHES, 1);
+      updateCounter(accumulator, Operation.ALL, Counter.CONTENT_MISMATCHES, 1);
+    }
   }
 
-  private void updateCounter(final Operation operation, final Counter counter, final long value) {
-    this.counters.get(operation).addAndGet(counter, value);
+  private static void updateCounter(final Accumulator accumulator, final Operation operation,
+      final Counter counter, final long value) {
+    accumulator.counters.add(operation.ordinal(), counter.ordinal(), value);
   }
 
-  private void updateStatusCode(final Operation operation, final int statusCode) {
-    this.scCounters.get(operation).incrementAndGet(statusCode);
+  // invalid status codes are logged when the operation is recorded
+  private static void updateStatusCode(final Accumulator accumulator, final Operation operation,
+      final int statusCode) {
+    if (statusCode >= MIN_STATUS_CODE && statusCode <= MAX_STATUS_CODE) {
+      accumulator.scCounters.add(operation.ordinal(), statusCode - MIN_STATUS_CODE, 1);
+    }
   }
 
   /**
@@ -174,10 +332,37 @@ public class Statistics {
    * @param counter the counter type to get
    * @return the counter's current value
    */
+  @Override
   public long get(final Operation operation, final Counter counter) {
     checkNotNull(operation);
     checkNotNull(counter);
-    return this.counters.get(operation).get(counter);
+    return this.totals.counters.get(operation.ordinal(), counter.ordinal());
+  }
+
+  /**
+   * Gets a snapshot of the latency histogram for an operation type. Latencies are recorded in
+   * microseconds
+   *
+   * @param operation the operation type of the histogram to get
+   * @return a point in time snapshot of the latency histogram
+   */
+  @Override
+  public LatencyHistogram.Snapshot getLatencyHistogram(final Operation operation) {
+    checkNotNull(operation);
+    return this.totals.latencyHistograms[operation.ordinal()].snapshot();
+  }
+
+  /**
+   * Gets a snapshot of the intended latency histogram for an operation type, which includes the
+   * queueing delay of each operation. Latencies are recorded in microseconds
+   *
+   * @param operation the operation type of the histogram to get
+   * @return a point in time snapshot of the intended latency histogram
+   */
+  @Override
+  public LatencyHistogram.Snapshot getIntendedLatencyHistogram(final Operation operation) {
+    checkNotNull(operation);
+    return this.totals.intendedLatencyHistograms[operation.ordinal()].snapshot();
   }
 
   /**
@@ -192,22 +377,126 @@ public class Statistics {
     checkArgument(HttpUtil.VALID_STATUS_CODES.contains(statusCode),
         "statusCode must be a valid status code [%s]", statusCode);
 
-    return this.scCounters.get(operation).get(statusCode);
+    return this.totals.scCounters.get(operation.ordinal(), statusCode - MIN_STATUS_CODE);
   }
 
   /**
-   * Gets a read-only map of status code counters for a given operation type
+   * Gets a read-only map of status code counters for a given operation type. The map is a point
+   * in time copy which includes the status codes that have been counted, in ascending order
    * 
    * @param operation the operatino type to get status code counter values for
    * @return a map of status code counters
    */
+  @Override
   public Map<Integer, Long> statusCodes(final Operation operation) {
     checkNotNull(operation);
-    return this.scCounters.get(operation).asMap();
+    return statusCodes(this.totals.scCounters.getRow(operation.ordinal()));
+  }
+
+  static Map<Integer, Long> statusCodes(final long[] counts) {
+    final ImmutableSortedMap.Builder<Integer, Long> statusCodes =
+        ImmutableSortedMap.naturalOrder();
+    for (int i = 0; i < counts.length; i++) {
+      if (counts[i] != 0) {
+        statusCodes.put(MIN_STATUS_CODE + i, counts[i]);
+      }
+    }
+    return statusCodes.build();
+  }
+
+  /**
+   * Ends the current interval and returns the counters, status codes and latency histograms of
+   * the operations completed during it. Intervals are only recorded once this method is first
+   * called, so the first snapshot is of the operations completed during the call, and so is
+   * usually empty
+   *
+   * @return a snapshot of the operations completed since the previous call
+   * @since 1.9.0
+   */
+  public synchronized IntervalSnapshot intervalSnapshot() {
+    if (this.interval == null) {
+      this.spare = new Accumulator();
+      this.interval = new Accumulator();
+    }
+    final Accumulator previous = this.interval;
+    this.interval = this.spare;
+    previous.awaitUpdates();
+    final IntervalSnapshot snapshot = previous.snapshot();
+    previous.reset();
+    this.spare = previous;
+    return snapshot;
   }
 
   @Override
   public String toString() {
     return "Statistics []";
   }
+
+  // the counters, status codes and latency histograms of a set of operations, along with a count
+  // of the updates in progress
+  private static class Accumulator {
+    private final StripedCounters counters;
+    private final StripedCounters scCounters;
+    private final LatencyHistogram[] latencyHistograms;
+    private final LatencyHistogram[] intendedLatencyHistograms;
+    private final StripedCounters updates;
+
+    Accumulator() {
+      final int operations = Operation.values().length;
+      this.counters = new StripedCounters(operations, Counter.values().length);
+      this.scCounters = new StripedCounters(operations, MAX_STATUS_CODE - MIN_STATUS_CODE + 1);
+      this.latencyHistograms = new LatencyHistogram[operations];
+      this.intendedLatencyHistograms = new LatencyHistogram[operations];
+      for (int i = 0; i < operations; i++) {
+        this.latencyHistograms[i] = new LatencyHistogram();
+        this.intendedLatencyHistograms[i] = new LatencyHistogram();
+      }
+      this.updates = new StripedCounters(1, 1);
+    }
+
+    void enter() {
+      this.updates.add(0, 0, 1);
+    }
+
+    void exit() {
+      this.updates.add(0, 0, -1);
+    }
+
+    // an update enters and exits on the same stripe, so a sum of zero means that no update which
+    // began before this accumulator was replaced is still in progress
+    void awaitUpdates() {
+      while (this.updates.get(0, 0) != 0) {
+        Thread.yield();
+      }
+    }
+
+    IntervalSnapshot snapshot() {
+      final int operations = this.latencyHistograms.length;
+      final long[][] counters = new long[operations][];
+      final long[][] statusCodes = new long[operations][];
+      final LatencyHistogram.Snapshot[] latencyHistograms =
+          new LatencyHistogram.Snapshot[operations];
+      final LatencyHistogram.Snapshot[] intendedLatencyHistograms =
+          new LatencyHistogram.Snapshot[operations];
+      for (int i = 0; i < operations; i++) {
+        counters[i] = this.counters.getRow(i);
+        statusCodes[i] = this.scCounters.getRow(i);
+        latencyHistograms[i] = this.latencyHistograms[i].snapshot();
+        intendedLatencyHistograms[i] = this.intendedLatencyHistograms[i].snapshot();
+      }
+      return new IntervalSnapshot(counters, statusCodes, latencyHistograms,
+          intendedLatencyHistograms);
+    }
+
+    void reset() {
+      this.counters.reset();
+      this.scCounters.reset();
+      for (final LatencyHistogram histogram : this.latencyHistograms) {
+        histogram.reset();
+      }
+      for (final LatencyHistogram histogram : this.intendedLatencyHistograms) {
+        histogram.reset();
+      }
+    }
+  }
 }
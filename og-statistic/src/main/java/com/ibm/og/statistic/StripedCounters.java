@@ -0,0 +1,166 @@
+/* Copyright (c) IBM Corporation 2016. All Rights Reserved.
+ * Project name: Object Generator
+ * This project is licensed under the Apache License 2.0, see LICENSE.
+ */
+
+package com.ibm.og.statistic;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkElementIndex;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A table of counters addressed by row and column, such as operation and counter type, which is
+ * updated concurrently by many threads. Each counter is split across a number of stripes, and a
+ * thread adds to the stripe selected by its thread id, so that threads updating the same counter
+ * usually update different cache lines; reading a counter sums its stripes. Rows of a stripe are
+ * allocated on first update and padded at both ends, so rows which are never updated use no
+ * memory and updates after the first allocate nothing.
+ * <p>
+ * As with {@code java.util.concurrent.atomic.LongAdder}, a read concurrent with updates returns a
+ * value which includes some, but not necessarily all, of those updates.
+ *
+ * @since 1.9.0
+ */
+class StripedCounters {
+  // longs of padding before and after each row, the size of a 64 byte cache line
+  private static final int PADDING = 8;
+  private static final int MAX_STRIPES = 64;
+  private final int rows;
+  private final int columns;
+  private final int stripeMask;
+  // row r of stripe s is at index s * rows + r
+  private final AtomicReferenceArray<AtomicLongArray> cells;
+
+  /**
+   * Constructs an instance with a stripe count based on the number of available processors
+   *
+   * @param rows the number of rows
+   * @param columns the number of columns
+   */
+  StripedCounters(final int rows, final int columns) {
+    this(rows, columns, Runtime.getRuntime().availableProcessors());
+  }
+
+  /**
+   * Constructs an instance
+   *
+   * @param rows the number of rows
+   * @param columns the number of columns
+   * @param concurrency the expected number of concurrently updating threads; the stripe count is
+   *        the next power of two, at most 64
+   * @throws IllegalArgumentException if rows, columns or concurrency are not positive
+   */
+  StripedCounters(final int rows, final int columns, final int concurrency) {
+    checkArgument(rows > 0, "rows must be > 0 [%s]", rows);
+    checkArgument(columns > 0, "columns must be > 0 [%s]", columns);
+    checkArgument(concurrency > 0, "concurrency must be > 0 [%s]", concurrency);
+    this.rows = rows;
+    this.columns = columns;
+    int stripes = 1;
+    while (stripes < concurrency && stripes < MAX_STRIPES) {
+      stripes <<= 1;
+    }
+    this.stripeMask = stripes - 1;
+    this.cells = new AtomicReferenceArray<AtomicLongArray>(stripes * rows);
+  }
+
+  /**
+   * Adds to a counter
+   *
+   * @param row the row of the counter
+   * @param column the column of the counter
+   * @param delta the value to add
+   */
+  void add(final int row, final int column, final long delta) {
+    checkElementIndex(row, this.rows);
+    checkElementIndex(column, this.columns);
+    final int index = stripe() * this.rows + row;
+    AtomicLongArray cell = this.cells.get(index);
+    if (cell == null) {
+      cell = allocate(index);
+    }
+    cell.addAndGet(PADDING + column, delta);
+  }
+
+  private AtomicLongArray allocate(final int index) {
+    final AtomicLongArray cell = new AtomicLongArray(PADDING + this.columns + PADDING);
+    if (this.cells.compareAndSet(index, null, cell)) {
+      return cell;
+    }
+    return this.cells.get(index);
+  }
+
+  // thread ids are usually sequential, so that threads created together use distinct stripes
+  private int stripe() {
+    final long id = Thread.currentThread().getId();
+    return (int) (id ^ (id >>> 16)) & this.stripeMask;
+  }
+
+  /**
+   * Gets the value of a counter
+   *
+   * @param row the row of the counter
+   * @param column the column of the counter
+   * @return the sum of the counter's stripes
+   */
+  long get(final int row, final int column) {
+    checkElementIndex(row, this.rows);
+    checkElementIndex(column, this.columns);
+    long sum = 0;
+    for (int index = row; index < this.cells.length(); index += this.rows) {
+      final AtomicLongArray cell = this.cells.get(index);
+      if (cell != null) {
+        sum += cell.get(PADDING + column);
+      }
+    }
+    return sum;
+  }
+
+  /**
+   * Gets the values of all counters of a row
+   *
+   * @param row the row of the counters
+   * @return an array of the counters' values, indexed by column
+   */
+  long[] getRow(final int row) {
+    checkElementIndex(row, this.rows);
+    final long[] values = new long[this.columns];
+    for (int index = row; index < this.cells.length(); index += this.rows) {
+      final AtomicLongArray cell = this.cells.get(index);
+      if (cell != null) {
+        for (int column = 0; column < this.columns; column++) {
+          values[column] += cell.get(PADDING + column);
+        }
+      }
+    }
+    return values;
+  }
+
+  /**
+   * Sets all counters to zero, keeping the rows which have been allocated. Updates concurrent with
+   * this call may or may not be cleared
+   */
+  void reset() {
+    for (int index = 0; index < this.cells.length(); index++) {
+      final AtomicLongArray cell = this.cells.get(index);
+      if (cell != null) {
+        for (int column = 0; column < this.columns; column++) {
+          cell.set(PADDING + column, 0);
+        }
+      }
+    }
+  }
+
+  int stripes() {
+    return this.stripeMask + 1;
+  }
+
+  @Override
+  public String toString() {
+    return String.format("StripedCounters [rows=%s, columns=%s, stripes=%s]", this.rows,
+        this.columns, stripes());
+  }
+}
@@ -0,0 +1,147 @@
+/* Copyright (c) IBM Corporation 2016. All Rights Reserved.
+ * Project name: Object Generator
+ * This project is licensed under the Apache License 2.0, see LICENSE.
+ */
+
+package com.ibm.og.statistic;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.closeTo;
+import static org.hamcrest.Matchers.is;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import com.tngtech.java.junit.dataprovider.DataProvider;
+import com.tngtech.java.junit.dataprovider.DataProviderRunner;
+import com.tngtech.java.junit.dataprovider.UseDataProvider;
+
+@RunWith(DataProviderRunner.class)
+public class LatencyHistogramTest {
+  private LatencyHistogram histogram;
+
+  @Before
+  public void before() {
+    this.histogram = new LatencyHistogram();
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void negativeValue() {
+    this.histogram.record(-1);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void invalidPercentile() {
+    this.histogram.snapshot().getValueAtPercentile(100.1);
+  }
+
+  @Test(expected = NullPointerException.class)
+  public void minusNullSnapshot() {
+    this.histogram.snapshot().minus(null);
+  }
+
+  @Test
+  public void empty() {
+    final LatencyHistogram.Snapshot snapshot = this.histogram.snapshot();
+    assertThat(snapshot.getCount(), is(0L));
+    assertThat(snapshot.getMax(), is(0L));
+    assertThat(snapshot.getValueAtPercentile(99.0), is(0L));
+  }
+
+  @DataProvider
+  public static Object[][] provideValues() {
+    return new Object[][] {{0L}, {1L}, {255L}, {256L}, {257L}, {1000L}, {123456L}, {987654321L},
+        {LatencyHistogram.MAX_VALUE}};
+  }
+
+  @Test
+  @UseDataProvider("provideValues")
+  public void bucketPrecision(final long value) {
+    final long highest = LatencyHistogram.highestEquivalentValue(LatencyHistogram.index(value));
+    assertThat((double) highest, closeTo(value, value / 128.0));
+    assertThat(highest >= value, is(true));
+  }
+
+  @Test
+  public void bucketsAreContiguous() {
+    for (int i = 1; i <= LatencyHistogram.index(LatencyHistogram.MAX_VALUE); i++) {
+      final long lowest = LatencyHistogram.highestEquivalentValue(i - 1) + 1;
+      assertThat(LatencyHistogram.index(lowest), is(i));
+    }
+  }
+
+  @Test
+  public void percentiles() {
+    for (long i = 1; i <= 10000; i++) {
+      this.histogram.record(i);
+    }
+    final LatencyHistogram.Snapshot snapshot = this.histogram.snapshot();
+    assertThat(snapshot.getCount(), is(10000L));
+    assertThat(snapshot.getMax(), is(10000L));
+    assertThat((double) snapshot.getValueAtPercentile(50.0), closeTo(5000, 5000 / 128.0));
+    assertThat((double) snapshot.getValueAtPercentile(90.0), closeTo(9000, 9000 / 128.0));
+    assertThat((double) snapshot.getValueAtPercentile(99.0), closeTo(9900, 9900 / 128.0));
+    assertThat(snapshot.getValueAtPercentile(100.0), is(10000L));
+    assertThat(snapshot.getValueAtPercentile(0.0), is(1L));
+  }
+
+  @Test
+  public void clampLargeValues() {
+    this.histogram.record(Long.MAX_VALUE);
+    final LatencyHistogram.Snapshot snapshot = this.histogram.snapshot();
+    assertThat(snapshot.getMax(), is(LatencyHistogram.MAX_VALUE));
+    assertThat(snapshot.getValueAtPercentile(50.0), is(LatencyHistogram.MAX_VALUE));
+  }
+
+  @Test
+  public void reset() {
+    this.histogram.record(10);
+    this.histogram.record(5000);
+    this.histogram.reset();
+    assertThat(this.histogram.snapshot().getCount(), is(0L));
+    assertThat(this.histogram.snapshot().getMax(), is(0L));
+    this.histogram.record(20);
+    assertThat(this.histogram.snapshot().getMax(), is(20L));
+  }
+
+  @Test
+  public void minus() {
+    this.histogram.record(10);
+    this.histogram.record(5000);
+    final LatencyHistogram.Snapshot first = this.histogram.snapshot();
+    this.histogram.record(20);
+    this.histogram.record(30);
+    final LatencyHistogram.Snapshot interval = this.histogram.snapshot().minus(first);
+    assertThat(interval.getCount(), is(2L));
+    assertThat(interval.getMax(), is(30L));
+    assertThat(interval.getValueAtPercentile(50.0), is(20L));
+    assertThat(this.histogram.snapshot().minus(LatencyHistogram.Snapshot.empty()).getCount(),
+        is(4L));
+  }
+
+  @Test
+  public void concurrentRecord() throws InterruptedException {
+    final int threads = 4;
+    final int values = 100000;
+    final CountDownLatch done = new CountDownLatch(threads);
+    for (int t = 0; t < threads; t++) {
+      new Thread(new Runnable() {
+        @Override
+        public void run() {
+          for (int i = 0; i < values; i++) {
+            LatencyHistogramTest.this.histogram.record(i % 1000);
+          }
+          done.countDown();
+        }
+      }).start();
+    }
+    assertThat(done.await(30, TimeUnit.SECONDS), is(true));
+    final LatencyHistogram.Snapshot snapshot = this.histogram.snapshot();
+    assertThat(snapshot.getCount(), is((long) threads * values));
+    assertThat(snapshot.getMax(), is(999L));
+  }
+}
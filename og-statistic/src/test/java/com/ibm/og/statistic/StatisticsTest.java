@@ -11,6 +11,7 @@ import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Map.Entry;
 
 import com.ibm.og.api.RequestTimestamps;
@@ -25,8 +26,10 @@ import com.ibm.og.api.Request;
 import com.ibm.og.api.Response;
 import com.ibm.og.http.Bodies;
 import com.ibm.og.api.Operation;
+import com.ibm.og.util.Context;
 import com.ibm.og.util.Pair;
 import com.ibm.og.util.TestState;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Lists;
 import com.tngtech.java.junit.dataprovider.DataProvider;
 import com.tngtech.java.junit.dataprovider.DataProviderRunner;
@@ -118,6 +121,122 @@ public class StatisticsTest {
     assertAll(Operation.WRITE, 2, 2048, 201, 2);
   }
 
+  @Test
+  public void updateLatency() {
+    this.stats.update(this.operation);
+    assertThat(this.stats.get(Operation.WRITE, Counter.LATENCY), is(17000L));
+    assertThat(this.stats.get(Operation.WRITE, Counter.INTENDED_LATENCY), is(17000L));
+    assertThat(this.stats.get(Operation.WRITE, Counter.QUEUEING_DELAY), is(0L));
+    assertThat(this.stats.get(Operation.WRITE, Counter.TIME_TO_FIRST_BYTE), is(17000L));
+    assertThat(this.stats.get(Operation.WRITE, Counter.TIME_TO_LAST_BYTE), is(17000L));
+    assertThat(this.stats.getLatencyHistogram(Operation.WRITE).getCount(), is(1L));
+    assertThat(this.stats.getLatencyHistogram(Operation.WRITE).getMax(), is(17000L));
+    assertThat(this.stats.getLatencyHistogram(Operation.READ).getCount(), is(0L));
+  }
+
+  @Test
+  public void updateIntendedLatency() {
+    final RequestTimestamps timestamps = this.response.getRequestTimestamps();
+    timestamps.intendedStartMillis = timestamps.startMillis - 5;
+    this.stats.update(this.operation);
+    assertThat(this.stats.get(Operation.WRITE, Counter.LATENCY), is(17000L));
+    assertThat(this.stats.get(Operation.WRITE, Counter.INTENDED_LATENCY), is(22000L));
+    assertThat(this.stats.get(Operation.WRITE, Counter.QUEUEING_DELAY), is(5000L));
+  }
+
+  @Test
+  public void updateIntendedLatencyHistogram() {
+    final RequestTimestamps timestamps = this.response.getRequestTimestamps();
+    timestamps.intendedStartMillis = timestamps.startMillis - 5;
+    this.stats.intervalSnapshot();
+    this.stats.update(this.operation);
+    final LatencyHistogram.Snapshot latency = this.stats.getLatencyHistogram(Operation.WRITE);
+    final LatencyHistogram.Snapshot intendedLatency =
+        this.stats.getIntendedLatencyHistogram(Operation.WRITE);
+    assertThat(latency.getValueAtPercentile(50.0), is(17000L));
+    assertThat(latency.getMax(), is(17000L));
+    assertThat(intendedLatency.getCount(), is(1L));
+    assertThat(intendedLatency.getValueAtPercentile(50.0), is(22000L));
+    assertThat(intendedLatency.getMax(), is(22000L));
+    assertThat(this.stats.getIntendedLatencyHistogram(Operation.READ).getCount(), is(0L));
+
+    final IntervalSnapshot snapshot = this.stats.intervalSnapshot();
+    assertThat(snapshot.getLatencyHistogram(Operation.WRITE).getMax(), is(17000L));
+    assertThat(snapshot.getIntendedLatencyHistogram(Operation.WRITE).getMax(), is(22000L));
+  }
+
+  @Test
+  public void updateNanosecondLatency() {
+    final RequestTimestamps timestamps = this.response.getRequestTimestamps();
+    timestamps.intendedStartMillis = timestamps.startMillis;
+    timestamps.intendedStart = 1000000;
+    timestamps.start = 1250000;
+    timestamps.responseContentStart = 1400000;
+    timestamps.responseContentFirstBytes = 1450000;
+    timestamps.responseContentFinish = 1600000;
+    timestamps.finish = 1700000;
+    this.stats.update(this.operation);
+    assertThat(this.stats.get(Operation.WRITE, Counter.LATENCY), is(450L));
+    assertThat(this.stats.get(Operation.WRITE, Counter.QUEUEING_DELAY), is(250L));
+    assertThat(this.stats.get(Operation.WRITE, Counter.INTENDED_LATENCY), is(700L));
+    assertThat(this.stats.get(Operation.WRITE, Counter.TIME_TO_FIRST_BYTE), is(200L));
+    assertThat(this.stats.get(Operation.WRITE, Counter.TIME_TO_LAST_BYTE), is(350L));
+    assertThat(this.stats.getLatencyHistogram(Operation.WRITE).getMax(), is(450L));
+  }
+
+  @Test
+  public void updateTimeToFirstByteWithoutContent() {
+    final RequestTimestamps timestamps = this.response.getRequestTimestamps();
+    timestamps.start = 1000000;
+    timestamps.responseContentStart = 1300000;
+    timestamps.finish = 1500000;
+    this.stats.update(this.operation);
+    assertThat(this.stats.get(Operation.WRITE, Counter.TIME_TO_FIRST_BYTE), is(300L));
+    assertThat(this.stats.get(Operation.WRITE, Counter.TIME_TO_LAST_BYTE), is(500L));
+  }
+
+  @Test
+  public void updateSigningTime() {
+    final RequestTimestamps timestamps = this.response.getRequestTimestamps();
+    timestamps.signingStart = 1000000;
+    timestamps.signingFinish = 1250000;
+    this.stats.update(this.operation);
+    this.stats.update(this.operation);
+    assertThat(this.stats.get(Operation.WRITE, Counter.SIGNING_TIME), is(500L));
+    assertThat(this.stats.get(Operation.WRITE, Counter.LATENCY), is(34000L));
+  }
+
+  @Test
+  public void updateConnectionPhases() {
+    final RequestTimestamps timestamps = this.response.getRequestTimestamps();
+    timestamps.connectionLeaseStart = 1000000;
+    timestamps.connectionLeaseFinish = 1010000;
+    timestamps.connectStart = 1010000;
+    timestamps.handshakeStart = 1100000;
+    timestamps.handshakeFinish = 1400000;
+    timestamps.connectFinish = 1400000;
+    timestamps.requestFinish = 1500000;
+    timestamps.responseHeadersFinish = 1750000;
+    this.stats.update(this.operation);
+    assertThat(this.stats.get(Operation.WRITE, Counter.CONNECTIONS), is(1L));
+    assertThat(this.stats.get(Operation.WRITE, Counter.CONNECTION_LEASE_TIME), is(10L));
+    assertThat(this.stats.get(Operation.WRITE, Counter.CONNECT_TIME), is(90L));
+    assertThat(this.stats.get(Operation.WRITE, Counter.HANDSHAKE_TIME), is(300L));
+    assertThat(this.stats.get(Operation.WRITE, Counter.SERVER_TIME), is(250L));
+  }
+
+  @Test
+  public void updateReusedConnection() {
+    final RequestTimestamps timestamps = this.response.getRequestTimestamps();
+    timestamps.connectionLeaseStart = 1000000;
+    timestamps.connectionLeaseFinish = 1005000;
+    this.stats.update(this.operation);
+    assertThat(this.stats.get(Operation.WRITE, Counter.CONNECTION_LEASE_TIME), is(5L));
+    assertThat(this.stats.get(Operation.WRITE, Counter.CONNECTIONS), is(0L));
+    assertThat(this.stats.get(Operation.WRITE, Counter.CONNECT_TIME), is(0L));
+    assertThat(this.stats.get(Operation.WRITE, Counter.SERVER_TIME), is(0L));
+  }
+
   @Test
   public void updateUnsuccessfulStatusCode() {
     this.stats.update(this.operation);
@@ -149,6 +268,29 @@ public class StatisticsTest {
     assertAll(Operation.READ, 2, 1024, 201, 1);
   }
 
+  @Test
+  public void updateContentVerification() {
+    when(this.request.getMethod()).thenReturn(Method.GET);
+    when(this.request.getOperation()).thenReturn(Operation.READ);
+    when(this.request.getBody()).thenReturn(Bodies.none());
+    when(this.response.getStatusCode()).thenReturn(200);
+    when(this.response.getBody()).thenReturn(Bodies.zeroes(1024));
+    when(this.response.getContext()).thenReturn(
+        ImmutableMap.of(Context.X_OG_CONTENT_VERIFICATION, Context.CONTENT_VERIFIED));
+    this.stats.update(this.operation);
+    this.stats.update(this.operation);
+    when(this.response.getContext()).thenReturn(
+        ImmutableMap.of(Context.X_OG_CONTENT_VERIFICATION, Context.CONTENT_MISMATCH));
+    this.stats.update(this.operation);
+
+    // a mismatch is counted separately, the status code of the response is unaffected
+    assertAll(Operation.READ, 3, 3072, 200, 3);
+    assertThat(this.stats.get(Operation.READ, Counter.CONTENT_VERIFIED), is(2L));
+    assertThat(this.stats.get(Operation.READ, Counter.CONTENT_MISMATCHES), is(1L));
+    assertThat(this.stats.get(Operation.ALL, Counter.CONTENT_VERIFIED), is(2L));
+    assertThat(this.stats.get(Operation.ALL, Counter.CONTENT_MISMATCHES), is(1L));
+  }
+
   @Test
   public void updateDeleteBytes() {
     when(this.request.getMethod()).thenReturn(Method.DELETE);
@@ -214,6 +356,69 @@ public class StatisticsTest {
     assertAll(Operation.WRITE, 1000, 1024 * operationCount, 201, 1000);
   }
 
+  @Test
+  public void intervalSnapshot() {
+    this.stats.update(this.operation);
+    final IntervalSnapshot first = this.stats.intervalSnapshot();
+    assertThat(first.get(Operation.WRITE, Counter.OPERATIONS), is(0L));
+
+    this.stats.update(this.operation);
+    this.stats.update(this.operation);
+    final IntervalSnapshot second = this.stats.intervalSnapshot();
+    assertThat(second.get(Operation.WRITE, Counter.OPERATIONS), is(2L));
+    assertThat(second.get(Operation.ALL, Counter.BYTES), is(2048L));
+    assertThat(second.get(Operation.WRITE, Counter.LATENCY), is(34000L));
+    assertThat(second.statusCodes(Operation.WRITE),
+        is((Map<Integer, Long>) ImmutableMap.of(201, 2L)));
+    assertThat(second.getLatencyHistogram(Operation.WRITE).getCount(), is(2L));
+
+    final IntervalSnapshot third = this.stats.intervalSnapshot();
+    assertThat(third.get(Operation.WRITE, Counter.OPERATIONS), is(0L));
+    assertThat(third.statusCodes(Operation.WRITE).isEmpty(), is(true));
+    assertThat(third.getLatencyHistogram(Operation.WRITE).getCount(), is(0L));
+    assertThat(this.stats.get(Operation.WRITE, Counter.OPERATIONS), is(3L));
+  }
+
+  @Test
+  public void concurrentIntervalSnapshots() throws InterruptedException {
+    final int threadCount = 8;
+    final int operationCount = 20000;
+    final List<Thread> threads = Lists.newArrayList();
+    for (int i = 0; i < threadCount; i++) {
+      threads.add(new Thread(new Runnable() {
+        @Override
+        public void run() {
+          for (int j = 0; j < operationCount / threadCount; j++) {
+            StatisticsTest.this.stats.update(StatisticsTest.this.operation);
+          }
+        }
+      }));
+    }
+
+    this.stats.intervalSnapshot();
+    for (final Thread t : threads) {
+      t.start();
+    }
+    long operations = 0;
+    boolean running = true;
+    while (running) {
+      running = false;
+      for (final Thread t : threads) {
+        running |= t.isAlive();
+      }
+      final IntervalSnapshot snapshot = this.stats.intervalSnapshot();
+      final long intervalOperations = snapshot.get(Operation.WRITE, Counter.OPERATIONS);
+      // every value of a snapshot describes the same operations
+      assertThat(snapshot.get(Operation.WRITE, Counter.BYTES), is(1024 * intervalOperations));
+      assertThat(snapshot.getLatencyHistogram(Operation.WRITE).getCount(),
+          is(intervalOperations));
+      final Long statusCodes = snapshot.statusCodes(Operation.WRITE).get(201);
+      assertThat(statusCodes != null ? statusCodes : 0L, is(intervalOperations));
+      operations += intervalOperations;
+    }
+    assertThat(operations, is((long) operationCount));
+  }
+
   private void assertAll(final Operation operation, final long opCount, final long byteCount,
       final int statusCode, final long statusCodeCount) {
     assertThat(this.stats.get(operation, Counter.OPERATIONS), is(opCount));
@@ -0,0 +1,102 @@
+/* Copyright (c) IBM Corporation 2016. All Rights Reserved.
+ * Project name: Object Generator
+ * This project is licensed under the Apache License 2.0, see LICENSE.
+ */
+
+package com.ibm.og.statistic;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+import java.util.List;
+
+import org.junit.Test;
+
+import com.google.common.collect.Lists;
+
+public class StripedCountersTest {
+  @Test(expected = IllegalArgumentException.class)
+  public void zeroRows() {
+    new StripedCounters(0, 1, 1);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void zeroColumns() {
+    new StripedCounters(1, 0, 1);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void zeroConcurrency() {
+    new StripedCounters(1, 1, 0);
+  }
+
+  @Test(expected = IndexOutOfBoundsException.class)
+  public void addRowOutOfBounds() {
+    new StripedCounters(2, 2, 1).add(2, 0, 1);
+  }
+
+  @Test(expected = IndexOutOfBoundsException.class)
+  public void getColumnOutOfBounds() {
+    new StripedCounters(2, 2, 1).get(0, 2);
+  }
+
+  @Test
+  public void stripes() {
+    assertThat(new StripedCounters(1, 1, 1).stripes(), is(1));
+    assertThat(new StripedCounters(1, 1, 3).stripes(), is(4));
+    assertThat(new StripedCounters(1, 1, 8).stripes(), is(8));
+    assertThat(new StripedCounters(1, 1, 1000).stripes(), is(64));
+  }
+
+  @Test
+  public void addAndGet() {
+    final StripedCounters counters = new StripedCounters(3, 4, 4);
+    assertThat(counters.get(1, 2), is(0L));
+    counters.add(1, 2, 5);
+    counters.add(1, 2, -2);
+    counters.add(2, 0, 7);
+    assertThat(counters.get(1, 2), is(3L));
+    assertThat(counters.get(2, 0), is(7L));
+    assertThat(counters.get(0, 0), is(0L));
+    final long[] row = counters.getRow(1);
+    assertThat(row.length, is(4));
+    assertThat(row[2], is(3L));
+    assertThat(row[0], is(0L));
+  }
+
+  @Test
+  public void reset() {
+    final StripedCounters counters = new StripedCounters(2, 2, 4);
+    counters.add(1, 1, 5);
+    counters.reset();
+    assertThat(counters.get(1, 1), is(0L));
+    counters.add(1, 1, 2);
+    assertThat(counters.get(1, 1), is(2L));
+  }
+
+  @Test
+  public void concurrentAdd() throws InterruptedException {
+    final StripedCounters counters = new StripedCounters(2, 2, 4);
+    final List<Thread> threads = Lists.newArrayList();
+    for (int i = 0; i < 8; i++) {
+      threads.add(new Thread(new Runnable() {
+        @Override
+        public void run() {
+          for (int j = 0; j < 10000; j++) {
+            counters.add(1, 1, 1);
+            counters.add(0, 1, 2);
+          }
+        }
+      }));
+    }
+    for (final Thread thread : threads) {
+      thread.start();
+    }
+    for (final Thread thread : threads) {
+      thread.join();
+    }
+    assertThat(counters.get(1, 1), is(80000L));
+    assertThat(counters.get(0, 1), is(160000L));
+    assertThat(counters.getRow(0)[1], is(160000L));
+  }
+}
@@ -122,7 +122,8 @@ public class CredentialGetterFunction implements Function<Map<String, String>, C
         } else if (AuthType.IAM == authType) {
             // TODO with full iam_token available, parse the structure
             credential = new Credential(null, null, null, account.getToken(), null);
-        } else if (AuthType.AWSV2 == authType || AuthType.AWSV4 == authType) {
+        } else if (AuthType.AWSV2 == authType || AuthType.AWSV4 == authType
+            || AuthType.AWSV2_PRESIGNED == authType || AuthType.AWSV4_PRESIGNED == authType) {
             if (api == Api.OPENSTACK) {
                 credential = new Credential(account.getAccessKey(), account.getSecretKey(), null, null, accountName);
             } else {
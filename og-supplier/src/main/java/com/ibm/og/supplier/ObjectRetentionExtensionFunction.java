@@ -39,6 +39,8 @@ public class ObjectRetentionExtensionFunction implements Function<Map<String, St
      * <li>Headers.X_OG_OBJECT_SIZE</li>
      * <li>Headers.X_OG_CONTAINER_SUFFIX</li>
      * <li>Headers.X_OG_OBJECT_RETENTION</li>
+     * <li>Headers.X_OG_OBJECT_DATA_TYPE, if the object content is reproducible</li>
+     * <li>Headers.X_OG_OBJECT_SEED, if the object content is reproducible</li>
      * </ul>
      *
      * @param context a request creation context for storing metadata to be used by other functions
@@ -51,6 +53,10 @@ public class ObjectRetentionExtensionFunction implements Function<Map<String, St
         context.put(Context.X_OG_CONTAINER_SUFFIX, String.valueOf(objectMetadata.getContainerSuffix()));
         context.put(Context.X_OG_LEGAL_HOLD_SUFFIX, String.valueOf(objectMetadata.getNumberOfLegalHolds()));
         context.put(Context.X_OG_OBJECT_RETENTION, String.valueOf(objectMetadata.getRetention()));
+        if (objectMetadata.getDataType() != null) {
+            context.put(Context.X_OG_OBJECT_DATA_TYPE, objectMetadata.getDataType().name());
+            context.put(Context.X_OG_OBJECT_SEED, String.valueOf(objectMetadata.getSeed()));
+        }
         return objectMetadata.getName();
     }
 
@@ -22,7 +22,7 @@ import com.ibm.og.api.Body;
 import com.ibm.og.api.Method;
 import com.ibm.og.api.Operation;
 import com.ibm.og.api.Request;
-import com.ibm.og.http.MD5DigestLoader;
+import com.ibm.og.http.BodyDigestLoader;
 import com.ibm.og.http.Credential;
 import com.ibm.og.http.HttpRequest;
 import com.ibm.og.http.QueryParameters;
@@ -67,7 +67,8 @@ public class RequestSupplier implements Supplier<Request> {
   private final Supplier<Function<Map<String, String>, String>> legalHold;
   private final Operation operation;
   private final boolean contentMd5;
-  private final LoadingCache<Long, byte[]> md5ContentCache;
+  // keyed by body, so that zeroes bodies and bodies from a seed pool share their digests
+  private final LoadingCache<Body, byte[]> md5ContentCache;
 
 
 
@@ -129,7 +130,8 @@ public class RequestSupplier implements Supplier<Request> {
     this.retention = retention;
     this.legalHold = legalHold;
     this.contentMd5 = contentMd5;
-    this.md5ContentCache = CacheBuilder.newBuilder().maximumSize(100).build(new MD5DigestLoader());
+    this.md5ContentCache = CacheBuilder.newBuilder().maximumSize(1024)
+        .build(new BodyDigestLoader(Hashing.md5()));
 
     checkArgument(!(this.container == null && this.object != null));
   }
@@ -237,7 +239,6 @@ public class RequestSupplier implements Supplier<Request> {
       builder.withBody(body);
       if (this.contentMd5) {
         try {
-          Long size = body.getSize();
           byte[] md5;
           if (this.operation == Operation.PUT_CONTAINER_LIFECYCLE ||
               this.operation == Operation.PUT_CONTAINER_PROTECTION ||
@@ -247,7 +248,7 @@ public class RequestSupplier implements Supplier<Request> {
                             .putString(body.getContent(), Charsets.UTF_8).hash().asBytes()));
           }
           else {
-            md5 = md5ContentCache.get(size);
+            md5 = md5ContentCache.get(body);
             builder.withHeader(Context.X_OG_CONTENT_MD5, BaseEncoding.base64().encode(md5));
           }
 
@@ -39,6 +39,8 @@ public class SourceReadObjectNameFunction implements Function<Map<String, String
    * <li>Headers.X_SSE_SOURCE_OG_OBJECT_NAME
    * <li>Headers.X_SSE_SOURCE_OG_OBJECT_SIZE</li>
    * <li>Headers.X_SSE_SOURCE_OG_CONTAINER_SUFFIX</li>
+   * <li>Headers.X_OG_OBJECT_DATA_TYPE, if the object content is reproducible</li>
+   * <li>Headers.X_OG_OBJECT_SEED, if the object content is reproducible</li>
    * </ul>
    * 
    * @param context a request creation context for storing metadata to be used by other functions
@@ -50,6 +52,10 @@ public class SourceReadObjectNameFunction implements Function<Map<String, String
     context.put(Context.X_OG_SSE_SOURCE_OBJECT_SIZE, String.valueOf(objectMetadata.getSize()));
     context.put(Context.X_OG_SSE_SOURCE_OBJECT_CONTAINER_SUFFIX, String.valueOf(objectMetadata.getContainerSuffix()));
     context.put(Context.X_OG_OBJECT_SIZE, String.valueOf(objectMetadata.getSize()));
+    if (objectMetadata.getDataType() != null) {
+      context.put(Context.X_OG_OBJECT_DATA_TYPE, objectMetadata.getDataType().name());
+      context.put(Context.X_OG_OBJECT_SEED, String.valueOf(objectMetadata.getSeed()));
+    }
 
     return objectMetadata.getName();
   }
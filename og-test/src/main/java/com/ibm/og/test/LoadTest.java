@@ -10,8 +10,10 @@ import static com.google.common.base.Preconditions.checkNotNull;
 import java.util.ArrayList;
 import java.util.concurrent.Callable;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 
+import javax.annotation.Nullable;
 import javax.inject.Inject;
 import javax.inject.Named;
 import javax.inject.Singleton;
@@ -25,9 +27,11 @@ import org.slf4j.LoggerFactory;
 
 import com.ibm.og.api.Client;
 import com.ibm.og.api.Request;
+import com.ibm.og.api.RequestTimestamps;
 import com.ibm.og.api.Response;
-import com.ibm.og.util.Pair;
 import com.ibm.og.util.TestState;
+import com.ibm.og.util.io.PayloadPool;
+import com.ibm.og.util.io.Streams;
 import com.google.common.eventbus.EventBus;
 import com.google.common.util.concurrent.FutureCallback;
 import com.google.common.util.concurrent.Futures;
@@ -48,8 +52,10 @@ public class LoadTest implements Callable<LoadTestResult> {
   private final Scheduler scheduler;
   private final Thread schedulerThread;
   private final EventBus eventBus;
+  private final OperationDispatcher dispatcher;
   private final boolean shutdownImmediate;
   private final int shutdownTimeout;
+  private final PayloadPool payloadPool;
   private final AtomicBoolean running;
   private long timestampStart;
   private long timestampFinish;
@@ -66,25 +72,33 @@ public class LoadTest implements Callable<LoadTestResult> {
    * @param requestManager a generator of request instances
    * @param client a request executor
    * @param scheduler a scheduler which determines request rate
-   * @param eventBus an event bus for notifying components of events in the system
+   * @param eventBus an event bus for notifying components of test state changes
+   * @param dispatcher a dispatcher for notifying components of sent requests and completed
+   *        operations
    * @param shutdownImmediate if true, abort all in-progress requests at shutdown,
    *        else wait for all current requests to finish and shutdown
    * @param shutdownTimeout time in seconds to wait for requests to gracefully complete
-   * @throws NullPointerException if requestSupplier, client, scheduler, or eventBus are null
+   * @param payloadPool a pool which random request bodies are served from while this test runs, or
+   *        null to generate them individually
+   * @throws NullPointerException if requestSupplier, client, scheduler, eventBus, or dispatcher
+   *         are null
    */
   @Inject
   public LoadTest(final RequestManager requestManager, final Client client,
-      final Scheduler scheduler, final EventBus eventBus,
+      final Scheduler scheduler, final EventBus eventBus, final OperationDispatcher dispatcher,
       @Named("shutdownImmediate") final boolean shutdownImmediate,
-      @Named("shutdownTimeout") final int shutdownTimeout) {
+      @Named("shutdownTimeout") final int shutdownTimeout,
+      @Nullable final PayloadPool payloadPool) {
     this.requestManager = checkNotNull(requestManager);
     this.client = checkNotNull(client);
     this.scheduler = checkNotNull(scheduler);
     this.schedulerThread = new Thread(new SchedulerRunnable(), "loadtest-scheduler");
     this.schedulerThread.setDaemon(true);
     this.eventBus = checkNotNull(eventBus);
+    this.dispatcher = checkNotNull(dispatcher);
     this.shutdownImmediate = shutdownImmediate;
     this.shutdownTimeout = shutdownTimeout;
+    this.payloadPool = payloadPool;
     this.running = new AtomicBoolean(true);
     this.result = RESULT_SUCCESS;
     this.completed = new CountDownLatch(1);
@@ -97,7 +111,7 @@ public class LoadTest implements Callable<LoadTestResult> {
     public void run() {
       try {
         while (LoadTest.this.running.get()) {
-          LoadTest.this.scheduler.schedule();
+          final long intendedStart = LoadTest.this.scheduler.schedule();
           if (LoadTest.this.running.get()) {
             final Request request = LoadTest.this.requestManager.get();
             _logger.trace("Created request {}", request);
@@ -106,8 +120,8 @@ public class LoadTest implements Callable<LoadTestResult> {
             // still running.
             if (LoadTest.this.running.get()) {
               final ListenableFuture<Response> future = LoadTest.this.client.execute(request);
-              LoadTest.this.eventBus.post(request);
-              addCallback(request, future);
+              LoadTest.this.dispatcher.post(request);
+              addCallback(request, future, intendedStart);
             }
           }
         }
@@ -128,6 +142,9 @@ public class LoadTest implements Callable<LoadTestResult> {
    */
   @Override
   public LoadTestResult call() {
+    if (this.payloadPool != null) {
+      Streams.usePayloadPool(this.payloadPool);
+    }
     this.timestampStart = System.currentTimeMillis();
     _logger.debug("Posting TestState.RUNNING to event bus");
     this.eventBus.post(TestState.RUNNING);
@@ -137,6 +154,9 @@ public class LoadTest implements Callable<LoadTestResult> {
 
     _logger.debug("Waiting for test complete");
     Uninterruptibles.awaitUninterruptibly(this.completed);
+    if (this.payloadPool != null) {
+      Streams.resetPayloadPool();
+    }
     this.timestampFinish = System.currentTimeMillis();
     return new LoadTestResult(this.timestampStart, this.timestampFinish, this.result, ImmutableList.copyOf(this.messages));
   }
@@ -152,7 +172,7 @@ public class LoadTest implements Callable<LoadTestResult> {
       this.schedulerThread.interrupt();
 
       // currently a new thread is required here to run shutdown logic because stopTest can be
-      // called via a client worker thread via client -> eventbus -> stopping condition -> stopTest,
+      // called via a client worker thread via client -> dispatcher -> stopping condition -> stopTest,
       // which will introduce a deadlock since stopTest waits until all client threads are done. An
       // alternative approach is to us an async eventbus, but this requires managing the shutdown of
       // the async eventbus' executor somewhere
@@ -179,6 +199,8 @@ public class LoadTest implements Callable<LoadTestResult> {
           } catch (final Exception e) {
             _logger.error("Exception while attempting to shutdown client", e);
           }
+          releasePreparedRequests();
+          LoadTest.this.dispatcher.shutdown();
           LoadTest.this.completed.countDown();
         }
       }.start();
@@ -204,7 +226,25 @@ public class LoadTest implements Callable<LoadTestResult> {
     stopTest();
   }
 
-  private void addCallback(final Request request, final ListenableFuture<Response> future) {
+  // requests which were prepared ahead of dispatch but never sent are released as failed requests,
+  // so that objects they selected are returned to the object manager; as the test is stopping,
+  // they are not counted as operations
+  private void releasePreparedRequests() {
+    if (!(this.requestManager instanceof PreparedRequestManager)) {
+      return;
+    }
+    try {
+      for (final Request request : ((PreparedRequestManager) this.requestManager).shutdown()) {
+        this.dispatcher.post(request);
+        this.dispatcher.post(request, new HttpResponse.Builder().withStatusCode(599).build());
+      }
+    } catch (final Exception e) {
+      _logger.error("Exception while releasing prepared requests", e);
+    }
+  }
+
+  private void addCallback(final Request request, final ListenableFuture<Response> future,
+      final long intendedStart) {
     Futures.addCallback(future, new FutureCallback<Response>() {
       @Override
       public void onSuccess(final Response response) {
@@ -220,13 +260,26 @@ public class LoadTest implements Callable<LoadTestResult> {
       }
 
       private void postOperation(final Response response) {
-        LoadTest.this.eventBus.post(response);
-        LoadTest.this.eventBus.post(Pair.of(request, response));
+        setIntendedStart(response.getRequestTimestamps(), intendedStart);
+        LoadTest.this.dispatcher.post(request, response);
         LoadTest.this.scheduler.complete();
       }
     });
   }
 
+  // record the intended send time of a request, in both nanos and the equivalent wall clock millis,
+  // so that latency can be reported from the time a request should have been sent; requests from
+  // a scheduler without an arrival schedule have no intended send time and so no queueing delay
+  private static void setIntendedStart(final RequestTimestamps timestamps,
+      final long intendedStart) {
+    if (intendedStart == 0 || timestamps == null || timestamps.startMillis <= 0) {
+      return;
+    }
+    final long delay = Math.max(timestamps.start - intendedStart, 0);
+    timestamps.intendedStart = timestamps.start - delay;
+    timestamps.intendedStartMillis = timestamps.startMillis - TimeUnit.NANOSECONDS.toMillis(delay);
+  }
+
   @Override
   public String toString() {
     return String.format(
@@ -37,6 +37,19 @@ public class LoadTestSubscriberExceptionHandler implements SubscriberExceptionHa
     this.test.abortTest(String.format("%s %s", getClass().getSimpleName(), exception.getMessage()));
   }
 
+  /**
+   * Handles an exception thrown by a listener registered with an {@link OperationDispatcher}
+   *
+   * @param exception the exception thrown by the listener
+   * @param listener the listener which threw the exception
+   * @since 1.9.0
+   */
+  public void handleException(final Throwable exception, final Object listener) {
+    _logger.error(String.format("Exception while processing listener [%s]", listener), exception);
+    _exceptionLogger.error("Exception while processing listener", exception);
+    this.test.abortTest(String.format("%s %s", getClass().getSimpleName(), exception.getMessage()));
+  }
+
   /**
    * Set the load test for this instance to abort in the event that an event bus exception occurs
    * 
@@ -0,0 +1,322 @@
+/* Copyright (c) IBM Corporation 2016. All Rights Reserved.
+ * Project name: Object Generator
+ * This project is licensed under the Apache License 2.0, see LICENSE.
+ */
+
+package com.ibm.og.test;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+import com.google.common.util.concurrent.Uninterruptibles;
+import com.ibm.og.api.Operation;
+import com.ibm.og.api.Request;
+import com.ibm.og.api.Response;
+import com.ibm.og.util.OperationListener;
+import com.ibm.og.util.Pair;
+import com.ibm.og.util.RequestListener;
+
+/**
+ * Dispatches sent requests and completed operations to registered listeners. Listeners are
+ * registered for the operation types they handle and are held in arrays indexed by operation
+ * ordinal, so that dispatching an event calls only the listeners for its operation, directly and
+ * without synchronization. Listeners are called in the order they were registered, on the thread
+ * which posts the event.
+ * <p>
+ * Operation listeners which need not complete before the client moves on, such as those updating
+ * the object manager, may instead be registered with {@link #registerAsync}. If this dispatcher is
+ * configured with listener threads, completed operations for such listeners are placed on a
+ * bounded queue, which the listener threads drain in batches; otherwise they are called
+ * synchronously like other listeners. {@link #shutdown()} waits for queued operations to be
+ * dispatched; operations are only queued while the listener threads are running, and those posted
+ * during or after shutdown are dispatched synchronously.
+ * <p>
+ * An exception thrown by a listener is passed to the exception handler, which aborts the test, and
+ * does not prevent the event from being dispatched to other listeners.
+ *
+ * @since 1.9.0
+ */
+public class OperationDispatcher {
+  private static final Logger _logger = LoggerFactory.getLogger(OperationDispatcher.class);
+  private static final int QUEUE_SIZE = 8192;
+  private static final int BATCH_SIZE = 256;
+  private static final int OPERATIONS = Operation.values().length;
+  private final LoadTestSubscriberExceptionHandler handler;
+  private final int threads;
+  // listener arrays are replaced rather than modified on registration
+  private volatile RequestListener[][] requestListeners;
+  private volatile OperationListener[][] operationListeners;
+  private volatile OperationListener[][] asyncListeners;
+  private final Set<Object> registered;
+  private final BlockingQueue<Pair<Request, Response>> queue;
+  private final List<Thread> workers;
+  // held for reading while queueing, and for writing while stopping queueing, so that no operation
+  // is queued once the listener threads may have stopped
+  private final ReadWriteLock queueLock;
+  private volatile boolean async;
+
+  /**
+   * Constructs an instance
+   *
+   * @param handler the handler for exceptions thrown by listeners
+   * @param threads the number of threads which call listeners registered with
+   *        {@code registerAsync}, or 0 to call them synchronously
+   * @throws NullPointerException if handler is null
+   * @throws IllegalArgumentException if threads is negative
+   */
+  public OperationDispatcher(final LoadTestSubscriberExceptionHandler handler, final int threads) {
+    this.handler = checkNotNull(handler);
+    checkArgument(threads >= 0, "threads must be >= 0 [%s]", threads);
+    this.threads = threads;
+    this.requestListeners = new RequestListener[OPERATIONS][0];
+    this.operationListeners = new OperationListener[OPERATIONS][0];
+    this.asyncListeners = new OperationListener[OPERATIONS][0];
+    this.registered = Sets.newHashSet();
+    this.queue = threads > 0 ? new ArrayBlockingQueue<Pair<Request, Response>>(QUEUE_SIZE) : null;
+    this.workers = Lists.newArrayList();
+    this.queueLock = new ReentrantReadWriteLock();
+    this.async = false;
+  }
+
+  /**
+   * Registers a listener for sent requests. A listener which is already registered for requests
+   * is not registered again
+   *
+   * @param listener the listener to register
+   * @param operations the operation types to notify the listener of, or none to notify it of all
+   *        operation types
+   */
+  public synchronized void register(final RequestListener listener,
+      final Operation... operations) {
+    checkNotNull(listener);
+    if (this.registered.add(new RegistrationKey(listener, RequestListener.class))) {
+      this.requestListeners = add(this.requestListeners, listener, operations);
+    }
+  }
+
+  /**
+   * Registers a listener for completed operations, which is called synchronously. A listener which
+   * is already registered for operations is not registered again
+   *
+   * @param listener the listener to register
+   * @param operations the operation types to notify the listener of, or none to notify it of all
+   *        operation types
+   */
+  public synchronized void register(final OperationListener listener,
+      final Operation... operations) {
+    checkNotNull(listener);
+    if (this.registered.add(new RegistrationKey(listener, OperationListener.class))) {
+      this.operationListeners = add(this.operationListeners, listener, operations);
+    }
+  }
+
+  /**
+   * Registers a listener for completed operations, which is called by a listener thread if this
+   * dispatcher has any, or synchronously otherwise. A listener which is already registered for
+   * operations is not registered again
+   *
+   * @param listener the listener to register
+   * @param operations the operation types to notify the listener of, or none to notify it of all
+   *        operation types
+   */
+  public synchronized void registerAsync(final OperationListener listener,
+      final Operation... operations) {
+    checkNotNull(listener);
+    if (this.threads == 0) {
+      register(listener, operations);
+      return;
+    }
+    if (this.registered.add(new RegistrationKey(listener, OperationListener.class))) {
+      this.asyncListeners = add(this.asyncListeners, listener, operations);
+      start();
+    }
+  }
+
+  private void start() {
+    if (this.async) {
+      return;
+    }
+    for (int i = 0; i < this.threads; i++) {
+      final Thread worker = new Thread(new Worker(), "operation-dispatcher-" + i);
+      worker.setDaemon(true);
+      worker.start();
+      this.workers.add(worker);
+    }
+    this.async = true;
+  }
+
+  private static <T> T[][] add(final T[][] listeners, final T listener,
+      final Operation... operations) {
+    final T[][] copy = listeners.clone();
+    final List<Operation> selected =
+        operations.length > 0 ? Arrays.asList(operations) : Arrays.asList(Operation.values());
+    for (final Operation operation : selected) {
+      final T[] current = copy[checkNotNull(operation).ordinal()];
+      final T[] updated = Arrays.copyOf(current, current.length + 1);
+      updated[current.length] = listener;
+      copy[operation.ordinal()] = updated;
+    }
+    return copy;
+  }
+
+  /**
+   * Dispatches a sent request to the request listeners registered for its operation type
+   *
+   * @param request a sent request
+   */
+  public void post(final Request request) {
+    for (final RequestListener listener : this.requestListeners[request.getOperation()
+        .ordinal()]) {
+      try {
+        listener.update(request);
+      } catch (final RuntimeException e) {
+        this.handler.handleException(e, listener);
+      }
+    }
+  }
+
+  /**
+   * Dispatches a completed operation to the operation listeners registered for its operation type
+   *
+   * @param request a sent request
+   * @param response the response to the request
+   */
+  public void post(final Request request, final Response response) {
+    final int operation = request.getOperation().ordinal();
+    final Pair<Request, Response> result = Pair.of(request, response);
+    dispatch(this.operationListeners[operation], result);
+    final OperationListener[] async = this.asyncListeners[operation];
+    if (async.length > 0 && !enqueue(result)) {
+      dispatch(async, result);
+    }
+  }
+
+  private boolean enqueue(final Pair<Request, Response> result) {
+    if (!this.async) {
+      return false;
+    }
+    this.queueLock.readLock().lock();
+    try {
+      // listener threads run until async is cleared, which cannot happen while the lock is held,
+      // so a blocked put is always drained
+      if (!this.async) {
+        return false;
+      }
+      Uninterruptibles.putUninterruptibly(this.queue, result);
+      return true;
+    } finally {
+      this.queueLock.readLock().unlock();
+    }
+  }
+
+  private void dispatch(final OperationListener[] listeners,
+      final Pair<Request, Response> result) {
+    for (final OperationListener listener : listeners) {
+      try {
+        listener.update(result);
+      } catch (final RuntimeException e) {
+        this.handler.handleException(e, listener);
+      }
+    }
+  }
+
+  /**
+   * Waits for queued operations to be dispatched and stops the listener threads. Operations posted
+   * after this method is called are dispatched synchronously
+   */
+  public synchronized void shutdown() {
+    if (!this.async) {
+      return;
+    }
+    // waits for in progress puts to complete
+    this.queueLock.writeLock().lock();
+    try {
+      this.async = false;
+    } finally {
+      this.queueLock.writeLock().unlock();
+    }
+    for (final Thread worker : this.workers) {
+      Uninterruptibles.joinUninterruptibly(worker);
+    }
+    this.workers.clear();
+    // operations queued after a listener thread last checked the queue are dispatched here
+    final List<Pair<Request, Response>> remaining = Lists.newArrayList();
+    this.queue.drainTo(remaining);
+    for (final Pair<Request, Response> result : remaining) {
+      dispatch(this.asyncListeners[result.getKey().getOperation().ordinal()], result);
+    }
+    _logger.info("Operation dispatcher shut down");
+  }
+
+  private class Worker implements Runnable {
+    @Override
+    public void run() {
+      final BlockingQueue<Pair<Request, Response>> queue = OperationDispatcher.this.queue;
+      final List<Pair<Request, Response>> batch = Lists.newArrayListWithCapacity(BATCH_SIZE);
+      // runs until shutdown, then until the queue is empty
+      while (OperationDispatcher.this.async || !queue.isEmpty()) {
+        final Pair<Request, Response> first;
+        try {
+          first = queue.poll(100, TimeUnit.MILLISECONDS);
+        } catch (final InterruptedException e) {
+          _logger.warn("Operation dispatcher thread interrupted");
+          return;
+        }
+        if (first == null) {
+          continue;
+        }
+        batch.add(first);
+        queue.drainTo(batch, BATCH_SIZE - 1);
+        for (final Pair<Request, Response> result : batch) {
+          dispatch(OperationDispatcher.this.asyncListeners[result.getKey().getOperation()
+              .ordinal()], result);
+        }
+        batch.clear();
+      }
+    }
+  }
+
+  // a listener may be registered once as a request listener and once as an operation listener
+  private static class RegistrationKey {
+    private final Object listener;
+    private final Class<?> type;
+
+    RegistrationKey(final Object listener, final Class<?> type) {
+      this.listener = listener;
+      this.type = type;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+      if (!(o instanceof RegistrationKey)) {
+        return false;
+      }
+      final RegistrationKey other = (RegistrationKey) o;
+      return this.listener == other.listener && this.type == other.type;
+    }
+
+    @Override
+    public int hashCode() {
+      return 31 * System.identityHashCode(this.listener) + this.type.hashCode();
+    }
+  }
+
+  @Override
+  public String toString() {
+    return String.format("OperationDispatcher [threads=%s]", this.threads);
+  }
+}
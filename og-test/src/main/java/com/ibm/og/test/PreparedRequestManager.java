@@ -0,0 +1,204 @@
+/* Copyright (c) IBM Corporation 2016. All Rights Reserved.
+ * Project name: Object Generator
+ * This project is licensed under the Apache License 2.0, see LICENSE.
+ */
+
+package com.ibm.og.test;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.collect.Lists;
+import com.ibm.og.api.Request;
+import com.ibm.og.http.HttpAuth;
+import com.ibm.og.http.PreparedRequest;
+
+/**
+ * A request manager which authenticates requests ahead of their dispatch. Worker threads take
+ * requests from an underlying request manager, authenticate them, and place them on a bounded
+ * ready queue which {@link #get()} takes from, so that requests leave at their scheduled time
+ * already signed and signing time is not counted in request latency. Requests are supplied as
+ * {@link PreparedRequest} instances, which clients send without authenticating them again.
+ * <p>
+ * Workers are started by the first call to {@code get}. Requests are taken from the underlying
+ * request manager by one worker at a time, so it need not be thread safe. If the underlying
+ * request manager or authentication throws an exception, it is rethrown by {@code get}.
+ *
+ * @since 1.9.0
+ */
+public class PreparedRequestManager implements RequestManager {
+  private static final Logger _logger = LoggerFactory.getLogger(PreparedRequestManager.class);
+  private final RequestManager requestManager;
+  private final HttpAuth authentication;
+  private final BlockingQueue<Prepared> ready;
+  private final List<Thread> workers;
+  // prepared requests which could not be queued because the manager was shut down
+  private final List<Request> unqueued;
+  private volatile boolean running;
+  private boolean started;
+
+  /**
+   * Constructs an instance
+   * 
+   * @param requestManager the request manager to take requests from
+   * @param authentication the authentication to apply to requests
+   * @param threads the number of worker threads which authenticate requests
+   * @param queueSize the maximum number of prepared requests waiting to be dispatched
+   * @throws NullPointerException if requestManager or authentication are null
+   * @throws IllegalArgumentException if threads or queueSize are not positive
+   */
+  public PreparedRequestManager(final RequestManager requestManager,
+      final HttpAuth authentication, final int threads, final int queueSize) {
+    this.requestManager = checkNotNull(requestManager);
+    this.authentication = checkNotNull(authentication);
+    checkArgument(threads > 0, "threads must be > 0 [%s]", threads);
+    checkArgument(queueSize > 0, "queueSize must be > 0 [%s]", queueSize);
+    this.ready = new ArrayBlockingQueue<Prepared>(queueSize);
+    this.workers = Lists.newArrayList();
+    for (int i = 0; i < threads; i++) {
+      final Thread worker = new Thread(new Worker(), "request-preparer-" + i);
+      worker.setDaemon(true);
+      this.workers.add(worker);
+    }
+    this.unqueued = Lists.newArrayList();
+    this.running = true;
+  }
+
+  /**
+   * Takes the next prepared request, blocking until one is ready. Returns null if the calling
+   * thread is interrupted.
+   * 
+   * @throws IllegalStateException if this manager has been shut down
+   */
+  @Override
+  public Request get() {
+    start();
+    final Prepared prepared;
+    try {
+      prepared = this.ready.take();
+    } catch (final InterruptedException e) {
+      _logger.info("Interrupted while waiting for a prepared request");
+      Thread.currentThread().interrupt();
+      return null;
+    }
+    if (prepared.exception != null) {
+      throw prepared.exception;
+    }
+    return prepared.request;
+  }
+
+  private synchronized void start() {
+    checkState();
+    if (!this.started) {
+      this.started = true;
+      for (final Thread worker : this.workers) {
+        worker.start();
+      }
+    }
+  }
+
+  private void checkState() {
+    if (!this.running) {
+      throw new IllegalStateException("PreparedRequestManager is shut down");
+    }
+  }
+
+  /**
+   * Stops the worker threads and returns the requests which were prepared but not taken. Such
+   * requests were never sent, but may hold resources, such as objects selected for reading or
+   * deletion, which must be released as if the requests failed.
+   * 
+   * @return the prepared requests which were not taken
+   */
+  public List<Request> shutdown() {
+    this.running = false;
+    for (final Thread worker : this.workers) {
+      worker.interrupt();
+    }
+    for (final Thread worker : this.workers) {
+      if (worker.isAlive()) {
+        try {
+          worker.join();
+        } catch (final InterruptedException e) {
+          _logger.warn("Interrupted while waiting for request preparer shutdown");
+          Thread.currentThread().interrupt();
+          break;
+        }
+      }
+    }
+    final List<Request> pending = Lists.newArrayList();
+    synchronized (this.unqueued) {
+      pending.addAll(this.unqueued);
+      this.unqueued.clear();
+    }
+    Prepared prepared;
+    while ((prepared = this.ready.poll()) != null) {
+      if (prepared.request != null) {
+        pending.add(prepared.request);
+      }
+    }
+    _logger.info("Request preparer shut down with [{}] pending requests", pending.size());
+    return pending;
+  }
+
+  private class Worker implements Runnable {
+    @Override
+    public void run() {
+      while (PreparedRequestManager.this.running) {
+        Prepared prepared;
+        try {
+          final Request request;
+          synchronized (PreparedRequestManager.this.requestManager) {
+            request = PreparedRequestManager.this.requestManager.get();
+          }
+          if (request == null) {
+            // the underlying request manager was interrupted
+            continue;
+          }
+          prepared = new Prepared(
+              PreparedRequest.prepare(PreparedRequestManager.this.authentication, request), null);
+        } catch (final RuntimeException e) {
+          prepared = new Prepared(null, e);
+        }
+        try {
+          PreparedRequestManager.this.ready.put(prepared);
+        } catch (final InterruptedException e) {
+          if (prepared.request != null) {
+            synchronized (PreparedRequestManager.this.unqueued) {
+              PreparedRequestManager.this.unqueued.add(prepared.request);
+            }
+          }
+          return;
+        }
+        if (prepared.exception != null) {
+          return;
+        }
+      }
+    }
+  }
+
+  // a prepared request, or the exception which prevented preparing one
+  private static class Prepared {
+    final Request request;
+    final RuntimeException exception;
+
+    Prepared(final Request request, final RuntimeException exception) {
+      this.request = request;
+      this.exception = exception;
+    }
+  }
+
+  @Override
+  public String toString() {
+    return String.format("PreparedRequestManager [requestManager=%s, threads=%s, queueSize=%s]",
+        this.requestManager, this.workers.size(),
+        this.ready.size() + this.ready.remainingCapacity());
+  }
+}
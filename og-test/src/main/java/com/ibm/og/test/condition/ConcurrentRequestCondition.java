@@ -12,21 +12,21 @@ import com.ibm.og.statistic.Statistics;
 import com.ibm.og.test.LoadTest;
 import com.ibm.og.api.Operation;
 import com.ibm.og.util.Pair;
-import com.google.common.eventbus.Subscribe;
+import com.ibm.og.util.RequestListener;
 
 /**
  * A test condition which is triggered when a threshold number of concurrent requests is met
  * 
  * @since 1.0
  */
-public class ConcurrentRequestCondition extends CounterCondition {
+public class ConcurrentRequestCondition extends CounterCondition implements RequestListener {
 
   public ConcurrentRequestCondition(final Operation operation, final long thresholdValue,
                                     final LoadTest test, final Statistics stats, final boolean failureCondition) {
     super(operation, Counter.ACTIVE_OPERATIONS, thresholdValue, test, stats, failureCondition);
   }
 
-  @Subscribe
+  @Override
   public void update(final Request request) {
     if (isTriggered()) {
       if (this.failureCondition) {
@@ -37,7 +37,6 @@ public class ConcurrentRequestCondition extends CounterCondition {
     }
   }
 
-  @Subscribe
   @Override
   public void update(final Pair<Request, Response> operation) {
     // prevent parent class implementation from being invoked
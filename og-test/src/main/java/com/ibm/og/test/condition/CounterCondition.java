@@ -17,15 +17,15 @@ import com.ibm.og.statistic.Counter;
 import com.ibm.og.statistic.Statistics;
 import com.ibm.og.test.LoadTest;
 import com.ibm.og.api.Operation;
+import com.ibm.og.util.OperationListener;
 import com.ibm.og.util.Pair;
-import com.google.common.eventbus.Subscribe;
 
 /**
  * A test condition which is triggered when a counter reaches a threshold value
  * 
  * @since 1.0
  */
-public class CounterCondition implements TestCondition {
+public class CounterCondition implements TestCondition, OperationListener {
   private static final Logger _logger = LoggerFactory.getLogger(CounterCondition.class);
   protected final Operation operation;
   private final Counter counter;
@@ -61,7 +61,7 @@ public class CounterCondition implements TestCondition {
    * 
    * @param operation a completed request
    */
-  @Subscribe
+  @Override
   public void update(final Pair<Request, Response> operation) {
     if (isTriggered()) {
       if (this.failureCondition) {
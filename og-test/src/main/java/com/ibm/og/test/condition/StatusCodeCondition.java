@@ -17,15 +17,15 @@ import com.ibm.og.http.HttpUtil;
 import com.ibm.og.statistic.Statistics;
 import com.ibm.og.test.LoadTest;
 import com.ibm.og.api.Operation;
+import com.ibm.og.util.OperationListener;
 import com.ibm.og.util.Pair;
-import com.google.common.eventbus.Subscribe;
 
 /**
  * A test condition which is triggered when a status code counter reaches a threshold value
  * 
  * @since 1.0
  */
-public class StatusCodeCondition implements TestCondition {
+public class StatusCodeCondition implements TestCondition, OperationListener {
   private static final Logger _logger = LoggerFactory.getLogger(StatusCodeCondition.class);
   private final Operation operation;
   private final int statusCode;
@@ -64,7 +64,7 @@ public class StatusCodeCondition implements TestCondition {
    * 
    * @param operation a completed request
    */
-  @Subscribe
+  @Override
   public void update(final Pair<Request, Response> operation) {
     if (isTriggered()) {
       if (this.failureCondition) {
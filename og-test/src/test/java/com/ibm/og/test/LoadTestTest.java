@@ -39,9 +39,10 @@ import com.ibm.og.statistic.Counter;
 import com.ibm.og.statistic.Statistics;
 import com.ibm.og.test.condition.TestCondition;
 import com.ibm.og.util.Context;
+import com.ibm.og.util.OperationListener;
 import com.ibm.og.util.Pair;
+import com.ibm.og.util.RequestListener;
 import com.google.common.eventbus.EventBus;
-import com.google.common.eventbus.Subscribe;
 import com.google.common.util.concurrent.SettableFuture;
 import com.tngtech.java.junit.dataprovider.DataProvider;
 import com.tngtech.java.junit.dataprovider.DataProviderRunner;
@@ -58,6 +59,7 @@ public class LoadTestTest {
   private Scheduler scheduler;
   private LoadTestSubscriberExceptionHandler handler;
   private EventBus eventBus;
+  private OperationDispatcher dispatcher;
   private Statistics stats;
   private LoadTest test;
 
@@ -82,8 +84,10 @@ public class LoadTestTest {
     this.scheduler = new ConcurrentRequestScheduler(1, 0.0, TimeUnit.SECONDS);
     this.handler = new LoadTestSubscriberExceptionHandler();
     this.eventBus = new EventBus(this.handler);
+    this.dispatcher = new OperationDispatcher(this.handler, 0);
     this.stats = new Statistics();
-    this.test = new LoadTest(this.requestManager, this.client, this.scheduler, this.eventBus, true, 0);
+    this.test = new LoadTest(this.requestManager, this.client, this.scheduler, this.eventBus,
+        this.dispatcher, true, 0, null);
     this.handler.setLoadTest(this.test);
 
     final TestCondition condition =
@@ -91,7 +95,9 @@ public class LoadTestTest {
 
     this.eventBus.register(this.scheduler);
     this.eventBus.register(this.stats);
-    this.eventBus.register(condition);
+    this.dispatcher.register((RequestListener) this.stats);
+    this.dispatcher.register((OperationListener) this.stats);
+    this.dispatcher.register((OperationListener) condition);
   }
 
   @DataProvider
@@ -100,17 +106,20 @@ public class LoadTestTest {
     final Client client = mock(Client.class);
     final Scheduler scheduler = mock(Scheduler.class);
     final EventBus eventBus = mock(EventBus.class);
-    return new Object[][] {{null, client, scheduler, eventBus},
-        {requestSupplier, null, scheduler, eventBus}, {requestSupplier, client, null, eventBus},
-        {requestSupplier, client, scheduler, null}};
+    final OperationDispatcher dispatcher = mock(OperationDispatcher.class);
+    return new Object[][] {{null, client, scheduler, eventBus, dispatcher},
+        {requestSupplier, null, scheduler, eventBus, dispatcher},
+        {requestSupplier, client, null, eventBus, dispatcher},
+        {requestSupplier, client, scheduler, null, dispatcher},
+        {requestSupplier, client, scheduler, eventBus, null}};
   }
 
   @Test
   @UseDataProvider("provideInvalidLoadTest")
   public void invalidLoadTest(final RequestManager requestManager, final Client client,
-      final Scheduler scheduler, final EventBus eventBus) {
+      final Scheduler scheduler, final EventBus eventBus, final OperationDispatcher dispatcher) {
     this.thrown.expect(NullPointerException.class);
-    new LoadTest(requestManager, client, scheduler, eventBus, true, 0);
+    new LoadTest(requestManager, client, scheduler, eventBus, dispatcher, true, 0, null);
   }
 
   @Test
@@ -122,10 +131,10 @@ public class LoadTestTest {
   }
 
   @Test
-  public void eventBusSubscriberException() {
-    this.eventBus.register(new Object() {
-      @Subscribe
-      public void consume(final Pair<Request, Response> operation) {
+  public void operationListenerException() {
+    this.dispatcher.register(new OperationListener() {
+      @Override
+      public void update(final Pair<Request, Response> operation) {
         throw new RuntimeException();
       }
     });
@@ -139,4 +148,14 @@ public class LoadTestTest {
     verify(this.client, atLeast(5)).execute(this.request);
     verify(this.client, times(1)).shutdown(true, 0);
   }
+
+  @Test
+  public void closedLoopNoIntendedStart() {
+    assertThat(this.test.call().result, is(0));
+    assertThat(this.response.getRequestTimestamps().intendedStartMillis, is(0L));
+    assertThat(this.response.getRequestTimestamps().intendedStart, is(0L));
+    assertThat(this.stats.get(Operation.WRITE, Counter.QUEUEING_DELAY), is(0L));
+    assertThat(this.stats.get(Operation.WRITE, Counter.INTENDED_LATENCY),
+        is(this.stats.get(Operation.WRITE, Counter.LATENCY)));
+  }
 }
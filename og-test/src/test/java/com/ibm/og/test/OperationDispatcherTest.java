@@ -0,0 +1,230 @@
+/* Copyright (c) IBM Corporation 2016. All Rights Reserved.
+ * Project name: Object Generator
+ * This project is licensed under the Apache License 2.0, see LICENSE.
+ */
+
+package com.ibm.og.test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import java.net.URI;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.collect.Lists;
+import com.ibm.og.api.Method;
+import com.ibm.og.api.Operation;
+import com.ibm.og.api.Request;
+import com.ibm.og.api.Response;
+import com.ibm.og.http.HttpRequest;
+import com.ibm.og.http.HttpResponse;
+import com.ibm.og.util.OperationListener;
+import com.ibm.og.util.Pair;
+import com.ibm.og.util.RequestListener;
+
+public class OperationDispatcherTest {
+  private LoadTestSubscriberExceptionHandler handler;
+  private Request write;
+  private Request read;
+  private Response response;
+
+  @Before
+  public void before() {
+    this.handler = mock(LoadTestSubscriberExceptionHandler.class);
+    this.write = new HttpRequest.Builder(Method.PUT, URI.create("http://127.0.0.1/container"),
+        Operation.WRITE).build();
+    this.read = new HttpRequest.Builder(Method.GET,
+        URI.create("http://127.0.0.1/container/object"), Operation.READ).build();
+    this.response = new HttpResponse.Builder().withStatusCode(200).build();
+  }
+
+  @Test(expected = NullPointerException.class)
+  public void nullHandler() {
+    new OperationDispatcher(null, 0);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void negativeThreads() {
+    new OperationDispatcher(this.handler, -1);
+  }
+
+  @Test(expected = NullPointerException.class)
+  public void nullListener() {
+    new OperationDispatcher(this.handler, 0).register((OperationListener) null);
+  }
+
+  @Test
+  public void requestListener() {
+    final OperationDispatcher dispatcher = new OperationDispatcher(this.handler, 0);
+    final RequestListener listener = mock(RequestListener.class);
+    dispatcher.register(listener, Operation.WRITE);
+    dispatcher.post(this.write);
+    dispatcher.post(this.read);
+    verify(listener).update(this.write);
+    verify(listener, never()).update(this.read);
+  }
+
+  @Test
+  public void operationListener() {
+    final OperationDispatcher dispatcher = new OperationDispatcher(this.handler, 0);
+    final RecordingListener all = new RecordingListener();
+    final RecordingListener reads = new RecordingListener();
+    dispatcher.register((OperationListener) all);
+    dispatcher.register((OperationListener) reads, Operation.READ);
+    dispatcher.post(this.write, this.response);
+    dispatcher.post(this.read, this.response);
+    assertThat(all.requests, is((List<Request>) Lists.newArrayList(this.write, this.read)));
+    assertThat(reads.requests, is((List<Request>) Lists.newArrayList(this.read)));
+    assertThat(reads.responses.get(0), sameInstance(this.response));
+  }
+
+  @Test
+  public void duplicateRegistration() {
+    final OperationDispatcher dispatcher = new OperationDispatcher(this.handler, 0);
+    final RecordingListener listener = new RecordingListener();
+    dispatcher.register((OperationListener) listener, Operation.WRITE);
+    dispatcher.register((OperationListener) listener);
+    dispatcher.post(this.write, this.response);
+    dispatcher.post(this.read, this.response);
+    assertThat(listener.requests, is((List<Request>) Lists.newArrayList(this.write)));
+  }
+
+  @Test
+  public void requestAndOperationListener() {
+    final OperationDispatcher dispatcher = new OperationDispatcher(this.handler, 0);
+    final RecordingListener listener = new RecordingListener();
+    dispatcher.register((RequestListener) listener);
+    dispatcher.register((OperationListener) listener);
+    dispatcher.post(this.write);
+    dispatcher.post(this.write, this.response);
+    assertThat(listener.sent, is((List<Request>) Lists.newArrayList(this.write)));
+    assertThat(listener.requests, is((List<Request>) Lists.newArrayList(this.write)));
+  }
+
+  @Test
+  public void registrationOrder() {
+    final OperationDispatcher dispatcher = new OperationDispatcher(this.handler, 0);
+    final List<Integer> order = Lists.newArrayList();
+    for (int i = 0; i < 3; i++) {
+      final int index = i;
+      dispatcher.register(new OperationListener() {
+        @Override
+        public void update(final Pair<Request, Response> operation) {
+          order.add(index);
+        }
+      });
+    }
+    dispatcher.post(this.write, this.response);
+    assertThat(order, is((List<Integer>) Lists.newArrayList(0, 1, 2)));
+  }
+
+  @Test
+  public void listenerException() {
+    final OperationDispatcher dispatcher = new OperationDispatcher(this.handler, 0);
+    final RuntimeException exception = new RuntimeException();
+    final OperationListener failing = new OperationListener() {
+      @Override
+      public void update(final Pair<Request, Response> operation) {
+        throw exception;
+      }
+    };
+    final RecordingListener listener = new RecordingListener();
+    dispatcher.register(failing);
+    dispatcher.register((OperationListener) listener);
+    dispatcher.post(this.write, this.response);
+    verify(this.handler).handleException(exception, failing);
+    assertThat(listener.requests.size(), is(1));
+  }
+
+  @Test
+  public void asyncListener() {
+    final OperationDispatcher dispatcher = new OperationDispatcher(this.handler, 2);
+    final Thread caller = Thread.currentThread();
+    final RecordingListener listener = new RecordingListener();
+    dispatcher.registerAsync(listener, Operation.WRITE);
+    for (int i = 0; i < 10000; i++) {
+      dispatcher.post(this.write, this.response);
+      dispatcher.post(this.read, this.response);
+    }
+    dispatcher.shutdown();
+    assertThat(listener.requests.size(), is(10000));
+    for (final Thread thread : listener.threads) {
+      assertThat(thread, not(sameInstance(caller)));
+    }
+    verify(this.handler, never()).handleException(any(Throwable.class), any());
+  }
+
+  @Test
+  public void asyncListenerWithoutThreads() {
+    final OperationDispatcher dispatcher = new OperationDispatcher(this.handler, 0);
+    final RecordingListener listener = new RecordingListener();
+    dispatcher.registerAsync(listener, Operation.READ);
+    dispatcher.post(this.read, this.response);
+    assertThat(listener.threads, is((List<Thread>) Lists.newArrayList(Thread.currentThread())));
+    dispatcher.shutdown();
+  }
+
+  @Test
+  public void postAfterShutdown() {
+    final OperationDispatcher dispatcher = new OperationDispatcher(this.handler, 1);
+    final RecordingListener listener = new RecordingListener();
+    dispatcher.registerAsync(listener);
+    dispatcher.shutdown();
+    dispatcher.post(this.write, this.response);
+    assertThat(listener.threads, is((List<Thread>) Lists.newArrayList(Thread.currentThread())));
+  }
+
+  @Test
+  public void postDuringShutdown() throws InterruptedException {
+    final OperationDispatcher dispatcher = new OperationDispatcher(this.handler, 1);
+    final RecordingListener listener = new RecordingListener();
+    dispatcher.registerAsync(listener);
+    final List<Thread> callers = Lists.newArrayList();
+    for (int i = 0; i < 4; i++) {
+      final Thread caller = new Thread(new Runnable() {
+        @Override
+        public void run() {
+          for (int j = 0; j < 20000; j++) {
+            dispatcher.post(OperationDispatcherTest.this.write,
+                OperationDispatcherTest.this.response);
+          }
+        }
+      });
+      caller.start();
+      callers.add(caller);
+    }
+    dispatcher.shutdown();
+    for (final Thread caller : callers) {
+      caller.join();
+    }
+    assertThat(listener.requests.size(), is(80000));
+  }
+
+  private static class RecordingListener implements RequestListener, OperationListener {
+    final List<Request> sent = Lists.newArrayList();
+    final List<Request> requests = Lists.newArrayList();
+    final List<Response> responses = Lists.newArrayList();
+    final List<Thread> threads = Lists.newArrayList();
+
+    @Override
+    public synchronized void update(final Request request) {
+      this.sent.add(request);
+    }
+
+    @Override
+    public synchronized void update(final Pair<Request, Response> operation) {
+      this.requests.add(operation.getKey());
+      this.responses.add(operation.getValue());
+      this.threads.add(Thread.currentThread());
+    }
+  }
+}
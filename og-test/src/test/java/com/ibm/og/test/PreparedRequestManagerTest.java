@@ -0,0 +1,126 @@
+/* Copyright (c) IBM Corporation 2016. All Rights Reserved.
+ * Project name: Object Generator
+ * This project is licensed under the Apache License 2.0, see LICENSE.
+ */
+
+package com.ibm.og.test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.net.URI;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+import com.ibm.og.api.AuthenticatedRequest;
+import com.ibm.og.api.Method;
+import com.ibm.og.api.Operation;
+import com.ibm.og.api.Request;
+import com.ibm.og.http.AuthenticatedHttpRequest;
+import com.ibm.og.http.HttpAuth;
+import com.ibm.og.http.HttpRequest;
+import com.ibm.og.http.PreparedRequest;
+import com.ibm.og.util.Context;
+
+public class PreparedRequestManagerTest {
+  private RequestManager requestManager;
+  private HttpAuth authentication;
+  private AtomicInteger id;
+
+  @Before
+  public void before() {
+    final AtomicInteger id = new AtomicInteger();
+    this.id = id;
+    this.requestManager = new RequestManager() {
+      @Override
+      public Request get() {
+        return new HttpRequest.Builder(Method.GET, URI.create("http://127.0.0.1/container/object"),
+            Operation.READ).withContext(Context.X_OG_REQUEST_ID,
+                String.valueOf(id.getAndIncrement())).build();
+      }
+    };
+    this.authentication = mock(HttpAuth.class);
+    when(this.authentication.authenticate(any(Request.class)))
+        .thenAnswer(new Answer<AuthenticatedRequest>() {
+          @Override
+          public AuthenticatedRequest answer(final InvocationOnMock invocation) {
+            return new AuthenticatedHttpRequest((Request) invocation.getArguments()[0]);
+          }
+        });
+  }
+
+  @Test(expected = NullPointerException.class)
+  public void nullRequestManager() {
+    new PreparedRequestManager(null, this.authentication, 1, 1);
+  }
+
+  @Test(expected = NullPointerException.class)
+  public void nullAuthentication() {
+    new PreparedRequestManager(this.requestManager, null, 1, 1);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void zeroThreads() {
+    new PreparedRequestManager(this.requestManager, this.authentication, 0, 1);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void zeroQueueSize() {
+    new PreparedRequestManager(this.requestManager, this.authentication, 1, 0);
+  }
+
+  @Test
+  public void get() {
+    final PreparedRequestManager manager =
+        new PreparedRequestManager(this.requestManager, this.authentication, 2, 4);
+    for (int i = 0; i < 100; i++) {
+      final Request request = manager.get();
+      assertThat(request, instanceOf(PreparedRequest.class));
+      final PreparedRequest prepared = (PreparedRequest) request;
+      assertThat(prepared.getAuthenticatedRequest().getContext(),
+          sameInstance(prepared.getRequest().getContext()));
+    }
+    final List<Request> pending = manager.shutdown();
+    // every request taken from the underlying manager was either dispatched or is pending
+    assertThat(100 + pending.size(), is(this.id.get()));
+    for (final Request request : pending) {
+      assertThat(request, instanceOf(PreparedRequest.class));
+    }
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void getAfterShutdown() {
+    final PreparedRequestManager manager =
+        new PreparedRequestManager(this.requestManager, this.authentication, 1, 1);
+    manager.get();
+    manager.shutdown();
+    manager.get();
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void requestManagerException() {
+    final RequestManager failing = new RequestManager() {
+      @Override
+      public Request get() {
+        throw new IllegalArgumentException();
+      }
+    };
+    new PreparedRequestManager(failing, this.authentication, 1, 1).get();
+  }
+
+  @Test
+  public void shutdownBeforeGet() {
+    assertThat(new PreparedRequestManager(this.requestManager, this.authentication, 1, 1)
+        .shutdown().isEmpty(), is(true));
+  }
+}
@@ -16,6 +16,14 @@ public class Context {
   // FIXME header to differentiate between objects which can be stored in the object manager
   public static final String X_OG_SEQUENTIAL_OBJECT_NAME = "x-og-sequential-object-name";
   public static final String X_OG_OBJECT_SIZE = "x-og-object-size";
+  // data type and seed an object was written with, when its content is reproducible
+  public static final String X_OG_OBJECT_DATA_TYPE = "x-og-object-data-type";
+  public static final String X_OG_OBJECT_SEED = "x-og-object-seed";
+  // response content verification result, and the offset of the first mismatched byte
+  public static final String X_OG_CONTENT_VERIFICATION = "x-og-content-verification";
+  public static final String X_OG_CONTENT_MISMATCH_OFFSET = "x-og-content-mismatch-offset";
+  public static final String CONTENT_VERIFIED = "verified";
+  public static final String CONTENT_MISMATCH = "mismatch";
   public static final String X_OG_CONTAINER_PREFIX = "x-og-container-prefix";
   public static final String X_OG_CONTAINER_SUFFIX = "x-og-container-suffix";
   public static final String X_OG_CONTAINER_NAME = "x-og-container-name";
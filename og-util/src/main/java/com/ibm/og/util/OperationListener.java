@@ -0,0 +1,23 @@
+/* Copyright (c) IBM Corporation 2016. All Rights Reserved.
+ * Project name: Object Generator
+ * This project is licensed under the Apache License 2.0, see LICENSE.
+ */
+
+package com.ibm.og.util;
+
+import com.ibm.og.api.Request;
+import com.ibm.og.api.Response;
+
+/**
+ * A listener which is notified of completed operations
+ * 
+ * @since 1.9.0
+ */
+public interface OperationListener {
+  /**
+   * Notifies this listener of a completed operation
+   * 
+   * @param operation a request and its response
+   */
+  void update(Pair<Request, Response> operation);
+}
@@ -0,0 +1,22 @@
+/* Copyright (c) IBM Corporation 2016. All Rights Reserved.
+ * Project name: Object Generator
+ * This project is licensed under the Apache License 2.0, see LICENSE.
+ */
+
+package com.ibm.og.util;
+
+import com.ibm.og.api.Request;
+
+/**
+ * A listener which is notified of requests as they are sent
+ * 
+ * @since 1.9.0
+ */
+public interface RequestListener {
+  /**
+   * Notifies this listener of an in-progress request
+   * 
+   * @param request a request which has been sent
+   */
+  void update(Request request);
+}
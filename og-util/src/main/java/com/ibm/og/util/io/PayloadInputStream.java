@@ -0,0 +1,139 @@
+/* Copyright (c) IBM Corporation 2016. All Rights Reserved.
+ * Project name: Object Generator
+ * This project is licensed under the Apache License 2.0, see LICENSE.
+ */
+
+package com.ibm.og.util.io;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * An input stream over a slice of a {@link PayloadPool}. In addition to the usual read methods,
+ * the remaining content can be written directly from the pool's memory with
+ * {@link #writeTo(OutputStream, int)}, which avoids copying through an intermediate buffer.
+ *
+ * @since 1.9.0
+ */
+public class PayloadInputStream extends InputStream {
+  private final byte[] pool;
+  private final int start;
+  private final long length;
+  private long position;
+  private long markPosition;
+
+  PayloadInputStream(final byte[] pool, final int start, final long length) {
+    checkArgument(length >= 0, "length must be >= 0 [%s]", length);
+    this.pool = pool;
+    this.start = start;
+    this.length = length;
+    this.position = 0;
+    this.markPosition = 0;
+  }
+
+  @Override
+  public int read() {
+    if (this.position >= this.length) {
+      return -1;
+    }
+    return this.pool[poolIndex(this.position++)] & 0xFF;
+  }
+
+  @Override
+  public int read(final byte[] b) {
+    return this.read(b, 0, b.length);
+  }
+
+  @Override
+  public int read(final byte[] b, final int off, final int len) {
+    checkNotNull(b);
+    if (off < 0 || len < 0 || len > b.length - off) {
+      throw new IndexOutOfBoundsException();
+    } else if (len == 0) {
+      return 0;
+    } else if (this.position >= this.length) {
+      return -1;
+    }
+
+    final int toRead = (int) Math.min(len, this.length - this.position);
+    int copied = 0;
+    while (copied < toRead) {
+      final int index = poolIndex(this.position);
+      final int n = Math.min(this.pool.length - index, toRead - copied);
+      System.arraycopy(this.pool, index, b, off + copied, n);
+      copied += n;
+      this.position += n;
+    }
+    return toRead;
+  }
+
+  /**
+   * Writes the remaining content of this stream to an output stream, passing slices of the pool
+   * directly to {@code out} rather than copying through an intermediate buffer
+   *
+   * @param out the output stream to write to
+   * @param maxWriteSize the maximum number of bytes passed to each call of
+   *        {@link OutputStream#write(byte[], int, int)}
+   * @return the number of bytes written
+   * @throws NullPointerException if out is null
+   * @throws IllegalArgumentException if maxWriteSize is negative or zero
+   * @throws IOException if an I/O error occurs while writing
+   */
+  public long writeTo(final OutputStream out, final int maxWriteSize) throws IOException {
+    checkNotNull(out);
+    checkArgument(maxWriteSize > 0, "maxWriteSize must be > 0 [%s]", maxWriteSize);
+    final long remaining = this.length - this.position;
+    while (this.position < this.length) {
+      final int index = poolIndex(this.position);
+      final int n = (int) Math.min(Math.min(this.pool.length - index, maxWriteSize),
+          this.length - this.position);
+      out.write(this.pool, index, n);
+      this.position += n;
+    }
+    return Math.max(remaining, 0);
+  }
+
+  private int poolIndex(final long position) {
+    return (int) ((this.start + position) % this.pool.length);
+  }
+
+  @Override
+  public long skip(final long n) {
+    if (n <= 0) {
+      return 0;
+    }
+    final long skipped = Math.max(Math.min(n, this.length - this.position), 0);
+    this.position += skipped;
+    return skipped;
+  }
+
+  @Override
+  public int available() {
+    return (int) Math.max(Math.min(this.length - this.position, Integer.MAX_VALUE), 0);
+  }
+
+  @Override
+  public void mark(final int readlimit) {
+    this.markPosition = this.position;
+  }
+
+  @Override
+  public void reset() {
+    this.position = this.markPosition;
+  }
+
+  @Override
+  public boolean markSupported() {
+    return true;
+  }
+
+  @Override
+  public String toString() {
+    return String.format("PayloadInputStream [start=%s, length=%s, position=%s]", this.start,
+        this.length, this.position);
+  }
+}
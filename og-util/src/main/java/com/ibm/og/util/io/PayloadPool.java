@@ -0,0 +1,63 @@
+/* Copyright (c) IBM Corporation 2016. All Rights Reserved.
+ * Project name: Object Generator
+ * This project is licensed under the Apache License 2.0, see LICENSE.
+ */
+
+package com.ibm.og.util.io;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * A large buffer of pseudo random bytes which is generated once and shared by every body created
+ * from it. Bodies are slices of the pool which start at an offset determined by their seed and
+ * wrap around at the end of the pool, so no bytes are generated or copied per request and
+ * {@link PayloadInputStream#writeTo(java.io.OutputStream, int)} can hand the pool's memory
+ * directly to an output stream.
+ * <p>
+ * Pool content is determined by its size alone, so pools of the same size created by different
+ * processes contain the same bytes. Bodies larger than the pool repeat with a period of the pool
+ * size.
+ *
+ * @since 1.9.0
+ */
+public class PayloadPool {
+  private static final long POOL_SEED = 0x6f672d7061796cL;
+  private final byte[] buf;
+
+  /**
+   * Constructs a pool, generating its content
+   *
+   * @param size the size of the pool, in bytes
+   * @throws IllegalArgumentException if size is negative or zero
+   */
+  public PayloadPool(final int size) {
+    checkArgument(size > 0, "size must be > 0 [%s]", size);
+    this.buf = new byte[size];
+    UniqueRandomInputStream.fill(POOL_SEED, 0, this.buf, 0, size);
+  }
+
+  /**
+   * @return the size of this pool, in bytes
+   */
+  public int getSize() {
+    return this.buf.length;
+  }
+
+  /**
+   * Creates an input stream over a slice of this pool
+   *
+   * @param seed the seed which determines the offset of the slice within this pool
+   * @param length the length of the slice
+   * @return an input stream which returns {@code length} bytes of this pool
+   * @throws IllegalArgumentException if length is negative
+   */
+  public PayloadInputStream create(final long seed, final long length) {
+    return new PayloadInputStream(this.buf, (int) ((seed & Long.MAX_VALUE) % this.buf.length),
+        length);
+  }
+
+  @Override
+  public String toString() {
+    return String.format("PayloadPool [size=%s]", this.buf.length);
+  }
+}
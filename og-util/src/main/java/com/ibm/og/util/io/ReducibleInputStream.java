@@ -0,0 +1,175 @@
+/* Copyright (c) IBM Corporation 2016. All Rights Reserved.
+ * Project name: Object Generator
+ * This project is licensed under the Apache License 2.0, see LICENSE.
+ */
+
+package com.ibm.og.util.io;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.io.InputStream;
+import java.util.Arrays;
+
+import com.ibm.og.api.DataReduction;
+
+/**
+ * An input stream of pseudo random bytes which compress and deduplicate at the ratios of a
+ * {@link DataReduction}.
+ * <p>
+ * The stream is divided into blocks of the configured block size. Each block is either unique to
+ * the stream, or a copy of one of {@link #DEDUP_POOL_BLOCKS} pool blocks which are identical for
+ * every stream with the same block size, with a block being unique with probability
+ * {@code 1 / dedupRatio}. Within every block, each segment of up to {@link #SEGMENT_SIZE} bytes
+ * starts with {@code 1 / compressionRatio} of its length in random bytes and is zero filled after
+ * that. Random bytes come from {@link UniqueRandomInputStream}, so like that stream, the content is
+ * determined by the seed and any offset can be regenerated.
+ *
+ * @since 1.9.0
+ */
+public class ReducibleInputStream extends InputStream {
+  /** The size of the segments which are each compressible by the compression ratio */
+  public static final int SEGMENT_SIZE = 4096;
+  /** The number of distinct blocks which duplicate blocks are selected from */
+  public static final int DEDUP_POOL_BLOCKS = 1024;
+  private static final long GAMMA = 0x9e3779b97f4a7c15L;
+  private static final long POOL_SEED = 0x6f672d706f6f6cL;
+  private static final long DEDUP_SALT = 0x6f672d6465647570L;
+  private final long key;
+  private final long dedupKey;
+  private final int blockSize;
+  private final int segmentSize;
+  private final int randomLength;
+  // a block is unique when the top 53 bits of its hash are below this threshold
+  private final long uniqueThreshold;
+  private final byte[] single;
+  private long position;
+  private long markPosition;
+  // generator key and stream offset of the block containing position
+  private long block;
+  private long blockKey;
+  private long blockBase;
+
+  /**
+   * Constructs an input stream positioned at the start of the stream for the provided seed
+   *
+   * @param seed the seed which determines the content of this stream
+   * @param reduction the data reduction this stream's content should achieve
+   * @throws NullPointerException if reduction is null
+   */
+  public ReducibleInputStream(final long seed, final DataReduction reduction) {
+    this(seed, reduction, 0);
+  }
+
+  /**
+   * Constructs an input stream positioned at an offset within the stream for the provided seed
+   *
+   * @param seed the seed which determines the content of this stream
+   * @param reduction the data reduction this stream's content should achieve
+   * @param offset the offset of the first byte returned by this stream
+   * @throws NullPointerException if reduction is null
+   * @throws IllegalArgumentException if offset is negative
+   */
+  public ReducibleInputStream(final long seed, final DataReduction reduction,
+      final long offset) {
+    checkNotNull(reduction);
+    checkArgument(offset >= 0, "offset must be >= 0 [%s]", offset);
+    this.key = UniqueRandomInputStream.key(seed);
+    this.dedupKey = UniqueRandomInputStream.mix(seed ^ DEDUP_SALT);
+    this.blockSize = reduction.getBlockSize();
+    this.segmentSize = Math.min(this.blockSize, SEGMENT_SIZE);
+    this.randomLength =
+        Math.max(1, (int) Math.round(this.segmentSize / reduction.getCompressionRatio()));
+    this.uniqueThreshold = (long) ((1L << 53) / reduction.getDedupRatio());
+    this.single = new byte[1];
+    this.position = offset;
+    this.markPosition = offset;
+    this.block = -1;
+  }
+
+  @Override
+  public int read() {
+    read(this.single, 0, 1);
+    return this.single[0] & 0xFF;
+  }
+
+  @Override
+  public int read(final byte[] b) {
+    return this.read(b, 0, b.length);
+  }
+
+  @Override
+  public int read(final byte[] b, final int off, final int len) {
+    UniqueRandomInputStream.checkBounds(b, off, len);
+    int i = off;
+    int remaining = len;
+    while (remaining > 0) {
+      final long currentBlock = this.position / this.blockSize;
+      if (currentBlock != this.block) {
+        selectBlock(currentBlock);
+      }
+      final int within = (int) (this.position - currentBlock * this.blockSize);
+      final int segmentPosition = within % this.segmentSize;
+      final int toBlockEnd = Math.min(this.blockSize - within, remaining);
+      final int n;
+      if (segmentPosition < this.randomLength) {
+        n = Math.min(this.randomLength - segmentPosition, toBlockEnd);
+        UniqueRandomInputStream.fillKeyed(this.blockKey, this.blockBase + within, b, i, n);
+      } else {
+        n = Math.min(this.segmentSize - segmentPosition, toBlockEnd);
+        Arrays.fill(b, i, i + n, (byte) 0);
+      }
+      i += n;
+      remaining -= n;
+      this.position += n;
+    }
+    return len;
+  }
+
+  private void selectBlock(final long currentBlock) {
+    this.block = currentBlock;
+    final long hash = UniqueRandomInputStream.mix(this.dedupKey + currentBlock * GAMMA);
+    if ((hash >>> 11) < this.uniqueThreshold) {
+      this.blockKey = this.key;
+      this.blockBase = currentBlock * this.blockSize;
+    } else {
+      final long poolBlock = (hash & Long.MAX_VALUE) % DEDUP_POOL_BLOCKS;
+      this.blockKey = UniqueRandomInputStream.key(POOL_SEED + poolBlock);
+      this.blockBase = 0;
+    }
+  }
+
+  @Override
+  public long skip(final long n) {
+    if (n <= 0) {
+      return 0;
+    }
+    this.position += n;
+    return n;
+  }
+
+  @Override
+  public int available() {
+    return Integer.MAX_VALUE;
+  }
+
+  @Override
+  public void mark(final int readlimit) {
+    this.markPosition = this.position;
+  }
+
+  @Override
+  public void reset() {
+    this.position = this.markPosition;
+  }
+
+  @Override
+  public boolean markSupported() {
+    return true;
+  }
+
+  @Override
+  public String toString() {
+    return String.format("ReducibleInputStream [position=%s]", this.position);
+  }
+}
@@ -12,6 +12,7 @@ import java.io.OutputStream;
 import java.util.Random;
 
 import com.ibm.og.api.Body;
+import com.ibm.og.api.DataType;
 import com.google.common.base.Charsets;
 import com.google.common.io.ByteStreams;
 
@@ -37,9 +38,33 @@ public class Streams {
     @Override
     public void reset() {}
   };
+  private static volatile PayloadPool payloadPool;
 
   private Streams() {}
 
+  /**
+   * Configures a payload pool which {@link DataType#RANDOM} bodies are served from, in place of a
+   * short random buffer generated for each body. Bodies served from a pool are slices of the pool
+   * selected by the body's seed. The pool applies to every caller in the process, so callers
+   * which install a pool must remove it with {@link #resetPayloadPool()} when they are done.
+   * 
+   * @param pool the payload pool to use
+   * @throws NullPointerException if pool is null
+   * @since 1.9.0
+   */
+  public static void usePayloadPool(final PayloadPool pool) {
+    payloadPool = checkNotNull(pool);
+  }
+
+  /**
+   * Removes any configured payload pool, so that random bodies are generated individually
+   * 
+   * @since 1.9.0
+   */
+  public static void resetPayloadPool() {
+    payloadPool = null;
+  }
+
   /**
    * Creates an input stream from the provided body description. The size of this stream and its
    * data are determined by the provided body's size and type, respectively.
@@ -56,7 +81,18 @@ public class Streams {
         return create(ZERO_BUF, body.getSize());
       case CUSTOM:
         return create(body.getContent().getBytes(Charsets.UTF_8), body.getSize());
+      case UNIQUE:
+        return ByteStreams.limit(new UniqueRandomInputStream(body.getRandomSeed()),
+            body.getSize());
+      case REDUCIBLE:
+        return ByteStreams.limit(
+            new ReducibleInputStream(body.getRandomSeed(), body.getDataReduction()),
+            body.getSize());
       default:
+        final PayloadPool pool = payloadPool;
+        if (pool != null) {
+          return pool.create(body.getRandomSeed(), body.getSize());
+        }
         return create(createRandomBuffer(body.getRandomSeed()), body.getSize());
     }
   }
@@ -0,0 +1,206 @@
+/* Copyright (c) IBM Corporation 2016. All Rights Reserved.
+ * Project name: Object Generator
+ * This project is licensed under the Apache License 2.0, see LICENSE.
+ */
+
+package com.ibm.og.util.io;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * An input stream of non repeating pseudo random bytes.
+ * <p>
+ * Data is produced by a counter based generator: each 8 byte word of the stream is an independent
+ * function of the seed and the word's position, so the byte at any offset can be reproduced from
+ * {@code (seed, offset)} alone via {@link #fill(long, long, byte[], int, int)}, and skipping is
+ * free. Unlike {@link InfiniteInputStream} over a random buffer, the stream never repeats, so its
+ * content is neither compressible nor deduplicable.
+ *
+ * @since 1.9.0
+ */
+public class UniqueRandomInputStream extends InputStream {
+  // golden ratio increment and finalizer from the SplitMix64 generator
+  private static final long GAMMA = 0x9e3779b97f4a7c15L;
+  private static final int SCRATCH_SIZE = 8192;
+  private static final ThreadLocal<ByteBuffer> SCRATCH = new ThreadLocal<ByteBuffer>() {
+    @Override
+    protected ByteBuffer initialValue() {
+      return ByteBuffer.allocateDirect(SCRATCH_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+    }
+  };
+  private final long key;
+  private long position;
+  private long markPosition;
+
+  /**
+   * Constructs an input stream positioned at the start of the stream for the provided seed
+   *
+   * @param seed the seed which determines the content of this stream
+   */
+  public UniqueRandomInputStream(final long seed) {
+    this(seed, 0);
+  }
+
+  /**
+   * Constructs an input stream positioned at an offset within the stream for the provided seed
+   *
+   * @param seed the seed which determines the content of this stream
+   * @param offset the offset of the first byte returned by this stream
+   * @throws IllegalArgumentException if offset is negative
+   */
+  public UniqueRandomInputStream(final long seed, final long offset) {
+    checkArgument(offset >= 0, "offset must be >= 0 [%s]", offset);
+    this.key = key(seed);
+    this.position = offset;
+    this.markPosition = offset;
+  }
+
+  /**
+   * Fills a region of a byte array with the bytes at an offset within the stream for a seed
+   *
+   * @param seed the seed which determines the content of the stream
+   * @param offset the offset within the stream of the first byte to fill
+   * @param b the destination byte array
+   * @param off the start offset in {@code b}
+   * @param len the number of bytes to fill
+   * @throws NullPointerException if b is null
+   * @throws IllegalArgumentException if offset is negative
+   * @throws IndexOutOfBoundsException if off or len are out of range for {@code b}
+   */
+  public static void fill(final long seed, final long offset, final byte[] b, final int off,
+      final int len) {
+    checkArgument(offset >= 0, "offset must be >= 0 [%s]", offset);
+    checkBounds(b, off, len);
+    fillKeyed(key(seed), offset, b, off, len);
+  }
+
+  // the generator key for a seed, so callers filling repeatedly need only mix the seed once
+  static long key(final long seed) {
+    return mix(seed);
+  }
+
+  static void checkBounds(final byte[] b, final int off, final int len) {
+    checkNotNull(b);
+    if (off < 0 || len < 0 || len > b.length - off) {
+      throw new IndexOutOfBoundsException();
+    }
+  }
+
+  static void fillKeyed(final long key, final long position, final byte[] b,
+      final int off, final int len) {
+    final int end = off + len;
+    int i = off;
+    long index = position >>> 3;
+    int skip = (int) (position & 7);
+    if (skip != 0 && i < end) {
+      long w = word(key, index++) >>> (8 * skip);
+      for (; skip < 8 && i < end; skip++) {
+        b[i++] = (byte) w;
+        w >>>= 8;
+      }
+    }
+    // whole words are generated into a direct buffer, whose long stores are single instructions,
+    // and bulk copied out
+    if (end - i >= SCRATCH_SIZE / 4) {
+      final ByteBuffer scratch = SCRATCH.get();
+      while (end - i >= 8) {
+        final int words = Math.min(end - i, SCRATCH_SIZE) >>> 3;
+        scratch.clear();
+        for (int n = 0; n < words; n++) {
+          scratch.putLong(n << 3, word(key, index++));
+        }
+        scratch.limit(words << 3);
+        scratch.get(b, i, words << 3);
+        i += words << 3;
+      }
+    }
+    for (; end - i >= 8; i += 8) {
+      final long w = word(key, index++);
+      b[i] = (byte) w;
+      b[i + 1] = (byte) (w >>> 8);
+      b[i + 2] = (byte) (w >>> 16);
+      b[i + 3] = (byte) (w >>> 24);
+      b[i + 4] = (byte) (w >>> 32);
+      b[i + 5] = (byte) (w >>> 40);
+      b[i + 6] = (byte) (w >>> 48);
+      b[i + 7] = (byte) (w >>> 56);
+    }
+    if (i < end) {
+      long w = word(key, index);
+      while (i < end) {
+        b[i++] = (byte) w;
+        w >>>= 8;
+      }
+    }
+  }
+
+  private static long word(final long key, final long index) {
+    return mix(key + (index + 1) * GAMMA);
+  }
+
+  static long mix(final long value) {
+    long z = value;
+    z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+    z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+    return z ^ (z >>> 31);
+  }
+
+  @Override
+  public int read() {
+    final int value = (int) (word(this.key, this.position >>> 3) >>> (8 * (this.position & 7)));
+    this.position++;
+    return value & 0xFF;
+  }
+
+  @Override
+  public int read(final byte[] b) {
+    return this.read(b, 0, b.length);
+  }
+
+  @Override
+  public int read(final byte[] b, final int off, final int len) {
+    checkBounds(b, off, len);
+    fillKeyed(this.key, this.position, b, off, len);
+    this.position += len;
+    return len;
+  }
+
+  @Override
+  public long skip(final long n) {
+    if (n <= 0) {
+      return 0;
+    }
+    this.position += n;
+    return n;
+  }
+
+  @Override
+  public int available() {
+    return Integer.MAX_VALUE;
+  }
+
+  @Override
+  public void mark(final int readlimit) {
+    this.markPosition = this.position;
+  }
+
+  @Override
+  public void reset() {
+    this.position = this.markPosition;
+  }
+
+  @Override
+  public boolean markSupported() {
+    return true;
+  }
+
+  @Override
+  public String toString() {
+    return String.format("UniqueRandomInputStream [position=%s]", this.position);
+  }
+}
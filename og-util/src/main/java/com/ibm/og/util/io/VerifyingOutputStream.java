@@ -0,0 +1,173 @@
+/* Copyright (c) IBM Corporation 2016. All Rights Reserved.
+ * Project name: Object Generator
+ * This project is licensed under the Apache License 2.0, see LICENSE.
+ */
+
+package com.ibm.og.util.io;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkPositionIndexes;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import com.google.common.io.ByteStreams;
+
+/**
+ * An output stream which compares the bytes written to it with the bytes of an expected input
+ * stream. Comparison stops at the first mismatched byte; bytes written after a mismatch are only
+ * counted. {@link #close()} completes verification by checking that no expected bytes remain.
+ * <p>
+ * Bytes are compared a word at a time through per thread direct buffers, so that verifying a
+ * response body costs little more than generating its expected content.
+ *
+ * @since 1.9.0
+ */
+public class VerifyingOutputStream extends OutputStream {
+  private static final int BLOCK_SIZE = 8192;
+  private static final ThreadLocal<Scratch> SCRATCH = new ThreadLocal<Scratch>() {
+    @Override
+    protected Scratch initialValue() {
+      return new Scratch();
+    }
+  };
+  private final InputStream expected;
+  private long position;
+  private long mismatchOffset;
+  private boolean closed;
+
+  /**
+   * Constructs an output stream which verifies written bytes against an expected input stream
+   *
+   * @param expected the input stream of bytes this output stream is expected to be written
+   * @throws NullPointerException if expected is null
+   */
+  public VerifyingOutputStream(final InputStream expected) {
+    this.expected = checkNotNull(expected);
+    this.position = 0;
+    this.mismatchOffset = -1;
+    this.closed = false;
+  }
+
+  @Override
+  public void write(final int b) throws IOException {
+    if (this.mismatchOffset < 0 && this.expected.read() != (b & 0xFF)) {
+      this.mismatchOffset = this.position;
+    }
+    this.position++;
+  }
+
+  @Override
+  public void write(final byte[] b) throws IOException {
+    this.write(b, 0, b.length);
+  }
+
+  @Override
+  public void write(final byte[] b, final int off, final int len) throws IOException {
+    checkNotNull(b);
+    checkPositionIndexes(off, off + len, b.length);
+    if (this.mismatchOffset < 0) {
+      compare(b, off, len);
+    }
+    this.position += len;
+  }
+
+  private void compare(final byte[] b, final int off, final int len) throws IOException {
+    final Scratch scratch = SCRATCH.get();
+    int compared = 0;
+    while (compared < len) {
+      final int n = Math.min(len - compared, BLOCK_SIZE);
+      final int read = ByteStreams.read(this.expected, scratch.bytes, 0, n);
+      final int mismatch = scratch.mismatch(b, off + compared, read);
+      if (mismatch >= 0) {
+        this.mismatchOffset = this.position + compared + mismatch;
+        return;
+      }
+      // the expected stream ended before the written bytes did
+      if (read < n) {
+        this.mismatchOffset = this.position + compared + read;
+        return;
+      }
+      compared += n;
+    }
+  }
+
+  /**
+   * Completes verification. If every written byte matched, checks that the expected stream has
+   * no bytes remaining, recording a mismatch at the end of the written bytes otherwise
+   *
+   * @throws IOException if an I/O error occurs reading from the expected stream
+   */
+  @Override
+  public void close() throws IOException {
+    if (this.closed) {
+      return;
+    }
+    this.closed = true;
+    try {
+      if (this.mismatchOffset < 0 && this.expected.read() >= 0) {
+        this.mismatchOffset = this.position;
+      }
+    } finally {
+      this.expected.close();
+    }
+  }
+
+  /**
+   * @return true if no mismatch has been found in the bytes written so far
+   */
+  public boolean isVerified() {
+    return this.mismatchOffset < 0;
+  }
+
+  /**
+   * @return the offset of the first mismatched byte, or -1 if no mismatch has been found
+   */
+  public long getMismatchOffset() {
+    return this.mismatchOffset;
+  }
+
+  /**
+   * @return the number of bytes written to this stream
+   */
+  public long getBytesWritten() {
+    return this.position;
+  }
+
+  // a block of expected bytes, and direct buffers which the compared blocks are copied into so
+  // that they can be compared with word loads
+  private static class Scratch {
+    final byte[] bytes = new byte[BLOCK_SIZE];
+    final ByteBuffer actualWords =
+        ByteBuffer.allocateDirect(BLOCK_SIZE).order(ByteOrder.nativeOrder());
+    final ByteBuffer expectedWords =
+        ByteBuffer.allocateDirect(BLOCK_SIZE).order(ByteOrder.nativeOrder());
+
+    // the index of the first byte of b which differs from the first len expected bytes, or -1
+    int mismatch(final byte[] b, final int off, final int len) {
+      this.actualWords.clear();
+      this.actualWords.put(b, off, len);
+      this.expectedWords.clear();
+      this.expectedWords.put(this.bytes, 0, len);
+      int i = 0;
+      while (i <= len - 8 && this.actualWords.getLong(i) == this.expectedWords.getLong(i)) {
+        i += 8;
+      }
+      for (; i < len; i++) {
+        if (b[off + i] != this.bytes[i]) {
+          return i;
+        }
+      }
+      return -1;
+    }
+  }
+
+  @Override
+  public String toString() {
+    return String.format("VerifyingOutputStream [position=%s, mismatchOffset=%s]", this.position,
+        this.mismatchOffset);
+  }
+}
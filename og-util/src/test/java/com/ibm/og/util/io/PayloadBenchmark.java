@@ -0,0 +1,189 @@
+/* Copyright (c) IBM Corporation 2016. All Rights Reserved.
+ * Project name: Object Generator
+ * This project is licensed under the Apache License 2.0, see LICENSE.
+ */
+
+package com.ibm.og.util.io;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.zip.Deflater;
+
+import com.ibm.og.api.Body;
+import com.ibm.og.api.DataReduction;
+import com.ibm.og.api.DataType;
+import com.google.common.io.ByteStreams;
+
+/**
+ * A manually run benchmark which compares the throughput of body streams created by
+ * {@link Streams#create(Body)} for each random data type, on a single thread. For each data type,
+ * a stream of the configured object size is read repeatedly into a buffer which is written to an
+ * output stream, as a request entity would be, and the throughput is reported along with the
+ * deflate ratio of the first object as a measure of compressibility. Reducible bodies use a 2:1
+ * compression ratio and a 4:1 dedup ratio over 64 KB blocks. The POOLED row serves random bodies
+ * from a 64 MB {@link PayloadPool}, written directly to the output stream with
+ * {@link PayloadInputStream#writeTo(OutputStream, int)}, and the POOLED COPY row copies the same
+ * bodies to the output stream with {@link ByteStreams#copy(InputStream, OutputStream)}, as a
+ * request entity which does not know about the pool would.
+ * <p>
+ * The VERIFY rows measure reading a body with content verification, as a read response is
+ * verified: the body is read and written to a {@link VerifyingOutputStream} which regenerates
+ * the same body and compares it. The reported throughput covers generating the body twice and
+ * comparing it.
+ * <p>
+ * Usage: {@code PayloadBenchmark [objectSizeMB] [iterations] [bufferKB]}. Defaults are 1024 MB
+ * objects, 10 measured iterations after 3 warmup iterations, and a 64 KB read buffer.
+ *
+ * @since 1.9.0
+ */
+public class PayloadBenchmark {
+  private static final int WARMUP_ITERATIONS = 3;
+  private static final DataReduction REDUCTION = new DataReduction(2.0, 4.0, 64 * 1024);
+  private static final int POOL_SIZE = 64 * 1024 * 1024;
+  // copies writes into a scratch buffer, standing in for the copy a socket write makes
+  private static final OutputStream SINK = new OutputStream() {
+    private final byte[] scratch = new byte[1024 * 1024];
+
+    @Override
+    public void write(final int b) {
+      this.scratch[0] = (byte) b;
+    }
+
+    @Override
+    public void write(final byte[] b, final int off, final int len) {
+      for (int i = 0; i < len; i += this.scratch.length) {
+        System.arraycopy(b, off + i, this.scratch, 0, Math.min(len - i, this.scratch.length));
+      }
+    }
+  };
+
+  private PayloadBenchmark() {}
+
+  public static void main(final String[] args) throws IOException {
+    final long objectSize = (args.length > 0 ? Long.parseLong(args[0]) : 1024) * 1024 * 1024;
+    final int iterations = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+    final byte[] buf = new byte[(args.length > 2 ? Integer.parseInt(args[2]) : 64) * 1024];
+
+    System.out.printf("java.version=%s objectSize=%sMB iterations=%s buffer=%sKB%n",
+        System.getProperty("java.version"), objectSize / (1024 * 1024), iterations,
+        buf.length / 1024);
+    System.out.printf("%-16s %10s %14s%n", "data", "GB/s", "deflate ratio");
+    for (final DataType data : new DataType[] {DataType.RANDOM, DataType.UNIQUE,
+        DataType.REDUCIBLE}) {
+      run(data.toString(), data, objectSize, iterations, buf, false);
+    }
+    for (final DataType data : new DataType[] {DataType.UNIQUE, DataType.REDUCIBLE}) {
+      verify("VERIFY " + data, data, objectSize, iterations, buf);
+    }
+    Streams.usePayloadPool(new PayloadPool(POOL_SIZE));
+    run("POOLED", DataType.RANDOM, objectSize, iterations, buf, false);
+    run("POOLED COPY", DataType.RANDOM, objectSize, iterations, buf, true);
+    verify("VERIFY POOLED", DataType.RANDOM, objectSize, iterations, buf);
+  }
+
+  private static void run(final String name, final DataType data, final long objectSize,
+      final int iterations, final byte[] buf, final boolean copy) throws IOException {
+    for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+      drain(body(data, objectSize, i), buf, copy);
+    }
+    final long start = System.nanoTime();
+    for (int i = 0; i < iterations; i++) {
+      drain(body(data, objectSize, i), buf, copy);
+    }
+    final long nanos = System.nanoTime() - start;
+    final double gbPerSecond = (double) objectSize * iterations / nanos;
+    System.out.printf("%-16s %10.2f %14.3f%n", name, gbPerSecond,
+        deflateRatio(body(data, objectSize, 0)));
+  }
+
+  private static void verify(final String name, final DataType data, final long objectSize,
+      final int iterations, final byte[] buf) throws IOException {
+    for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+      verify(body(data, objectSize, i), buf);
+    }
+    final long start = System.nanoTime();
+    for (int i = 0; i < iterations; i++) {
+      verify(body(data, objectSize, i), buf);
+    }
+    final long nanos = System.nanoTime() - start;
+    System.out.printf("%-16s %10.2f%n", name, (double) objectSize * iterations / nanos);
+  }
+
+  private static Body body(final DataType data, final long size, final long seed) {
+    return new Body() {
+      @Override
+      public DataType getDataType() {
+        return data;
+      }
+
+      @Override
+      public long getRandomSeed() {
+        return seed;
+      }
+
+      @Override
+      public long getSize() {
+        return size;
+      }
+
+      @Override
+      public DataReduction getDataReduction() {
+        return data == DataType.REDUCIBLE ? REDUCTION : null;
+      }
+
+      @Override
+      public String getContent() {
+        return null;
+      }
+    };
+  }
+
+  private static long drain(final Body body, final byte[] buf, final boolean copy)
+      throws IOException {
+    final InputStream in = Streams.create(body);
+    if (copy) {
+      return ByteStreams.copy(in, SINK);
+    }
+    if (in instanceof PayloadInputStream) {
+      return ((PayloadInputStream) in).writeTo(SINK, buf.length);
+    }
+    long total = 0;
+    for (int read = in.read(buf); read > 0; read = in.read(buf)) {
+      SINK.write(buf, 0, read);
+      total += read;
+    }
+    return total;
+  }
+
+  private static void verify(final Body body, final byte[] buf) throws IOException {
+    final InputStream in = Streams.create(body);
+    final VerifyingOutputStream out = new VerifyingOutputStream(Streams.create(body));
+    for (int read = in.read(buf); read > 0; read = in.read(buf)) {
+      out.write(buf, 0, read);
+    }
+    out.close();
+    if (!out.isVerified()) {
+      throw new IllegalStateException("verification failed " + out);
+    }
+  }
+
+  // compressed size divided by original size for the first 16 MB of a body
+  private static double deflateRatio(final Body body) throws IOException {
+    final byte[] sample = new byte[(int) Math.min(body.getSize(), 16 * 1024 * 1024)];
+    final InputStream in = Streams.create(body);
+    for (int off = 0; off < sample.length;) {
+      off += in.read(sample, off, sample.length - off);
+    }
+    final Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+    deflater.setInput(sample);
+    deflater.finish();
+    final byte[] out = new byte[64 * 1024];
+    long compressed = 0;
+    while (!deflater.finished()) {
+      compressed += deflater.deflate(out);
+    }
+    deflater.end();
+    return (double) compressed / sample.length;
+  }
+}
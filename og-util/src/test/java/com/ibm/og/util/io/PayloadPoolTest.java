@@ -0,0 +1,117 @@
+/* Copyright (c) IBM Corporation 2016. All Rights Reserved.
+ * Project name: Object Generator
+ * This project is licensed under the Apache License 2.0, see LICENSE.
+ */
+
+package com.ibm.og.util.io;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import com.tngtech.java.junit.dataprovider.DataProvider;
+import com.tngtech.java.junit.dataprovider.DataProviderRunner;
+import com.tngtech.java.junit.dataprovider.UseDataProvider;
+
+@RunWith(DataProviderRunner.class)
+public class PayloadPoolTest {
+  private static final int SIZE = 1000;
+
+  @DataProvider
+  public static Object[][] provideInvalidSize() {
+    return new Object[][] {{-1}, {0}};
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  @UseDataProvider("provideInvalidSize")
+  public void invalidSize(final int size) {
+    new PayloadPool(size);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void negativeLength() {
+    new PayloadPool(SIZE).create(0, -1);
+  }
+
+  @Test
+  public void content() {
+    final byte[] expected = new byte[SIZE];
+    new PayloadPool(SIZE).create(0, SIZE).read(expected);
+    final byte[] other = new byte[SIZE];
+    new PayloadPool(SIZE).create(0, SIZE).read(other);
+    assertThat(other, is(expected));
+  }
+
+  @DataProvider
+  public static Object[][] provideSlice() {
+    return new Object[][] {{0, 10}, {1, 999}, {990, 20}, {-1, 5}, {Long.MIN_VALUE, 5},
+        {5, 2500}, {123, 0}};
+  }
+
+  @Test
+  @UseDataProvider("provideSlice")
+  public void slice(final long seed, final int length) throws IOException {
+    final PayloadPool pool = new PayloadPool(SIZE);
+    final byte[] content = new byte[SIZE];
+    pool.create(0, SIZE).read(content);
+    final int start = (int) ((seed & Long.MAX_VALUE) % SIZE);
+    final byte[] expected = new byte[length];
+    for (int i = 0; i < length; i++) {
+      expected[i] = content[(start + i) % SIZE];
+    }
+
+    final PayloadInputStream in = pool.create(seed, length);
+    final byte[] buf = new byte[length + 1];
+    assertThat(in.read(buf), is(length > 0 ? length : -1));
+    assertThat(Arrays.copyOf(buf, length), is(expected));
+    assertThat(in.read(), is(-1));
+
+    in.reset();
+    final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    assertThat(in.writeTo(out, 64), is((long) length));
+    assertThat(out.toByteArray(), is(expected));
+    assertThat(in.writeTo(out, 64), is(0L));
+  }
+
+  @Test
+  public void writeToMaxWriteSize() throws IOException {
+    final PayloadInputStream in = new PayloadPool(SIZE).create(900, 2000);
+    final int[] maxWrite = new int[1];
+    in.writeTo(new OutputStream() {
+      @Override
+      public void write(final int b) {
+        throw new AssertionError("single byte write");
+      }
+
+      @Override
+      public void write(final byte[] b, final int off, final int len) {
+        maxWrite[0] = Math.max(maxWrite[0], len);
+      }
+    }, 300);
+    assertThat(maxWrite[0], is(300));
+  }
+
+  @Test
+  public void readAndSkip() {
+    final PayloadInputStream in = new PayloadPool(SIZE).create(0, 10);
+    final byte[] buf = new byte[10];
+    new PayloadPool(SIZE).create(0, 10).read(buf);
+
+    assertThat(in.read(), is(buf[0] & 0xFF));
+    assertThat(in.skip(3), is(3L));
+    assertThat(in.available(), is(6));
+    in.mark(Integer.MAX_VALUE);
+    assertThat(in.read(), is(buf[4] & 0xFF));
+    in.reset();
+    assertThat(in.skip(100), is(6L));
+    assertThat(in.read(), is(-1));
+    assertThat(in.available(), is(0));
+  }
+}
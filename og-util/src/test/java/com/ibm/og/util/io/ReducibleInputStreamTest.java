@@ -0,0 +1,142 @@
+/* Copyright (c) IBM Corporation 2016. All Rights Reserved.
+ * Project name: Object Generator
+ * This project is licensed under the Apache License 2.0, see LICENSE.
+ */
+
+package com.ibm.og.util.io;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.closeTo;
+import static org.hamcrest.Matchers.is;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.zip.Deflater;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hashing;
+import com.ibm.og.api.DataReduction;
+import com.tngtech.java.junit.dataprovider.DataProvider;
+import com.tngtech.java.junit.dataprovider.DataProviderRunner;
+import com.tngtech.java.junit.dataprovider.UseDataProvider;
+
+@SuppressWarnings("resource")
+@RunWith(DataProviderRunner.class)
+public class ReducibleInputStreamTest {
+  private static final long SEED = 7;
+
+  private static byte[] read(final long seed, final DataReduction reduction, final long offset,
+      final int length) {
+    final byte[] buf = new byte[length];
+    new ReducibleInputStream(seed, reduction, offset).read(buf);
+    return buf;
+  }
+
+  @Test(expected = NullPointerException.class)
+  public void nullReduction() {
+    new ReducibleInputStream(SEED, null);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void negativeOffset() {
+    new ReducibleInputStream(SEED, new DataReduction(1.0, 1.0, 4096), -1);
+  }
+
+  @Test
+  public void noReductionIsIncompressible() {
+    final DataReduction reduction = new DataReduction(1.0, 1.0, 4096);
+    assertThat(compressionRatio(read(SEED, reduction, 0, 1 << 20)) < 1.0, is(true));
+  }
+
+  @DataProvider
+  public static Object[][] provideCompressionRatios() {
+    return new Object[][] {{1.5}, {2.0}, {4.0}, {8.0}};
+  }
+
+  @Test
+  @UseDataProvider("provideCompressionRatios")
+  public void compressionRatio(final double ratio) {
+    final DataReduction reduction = new DataReduction(ratio, 1.0, 65536);
+    final double actual = compressionRatio(read(SEED, reduction, 0, 1 << 20));
+    // the compressor's own overhead for each zero run grows in relative terms as ratios increase
+    assertThat(actual, closeTo(ratio, ratio * 0.1));
+  }
+
+  @DataProvider
+  public static Object[][] provideDedupRatios() {
+    return new Object[][] {{1.0, 4096}, {2.0, 4096}, {4.0, 16384}, {10.0, 4096}};
+  }
+
+  @Test
+  @UseDataProvider("provideDedupRatios")
+  public void dedupRatio(final double ratio, final int blockSize) {
+    final DataReduction reduction = new DataReduction(1.0, ratio, blockSize);
+    final int blocks = 8192;
+    final Set<HashCode> distinct = new HashSet<HashCode>();
+    int unique = 0;
+    for (int object = 0; object < 4; object++) {
+      final byte[] buf = read(SEED + object, reduction, 0, blocks / 4 * blockSize);
+      for (int i = 0; i < blocks / 4; i++) {
+        if (distinct.add(Hashing.md5().hashBytes(buf, i * blockSize, blockSize))) {
+          unique++;
+        }
+      }
+    }
+    // duplicates across objects come from the shared pool, which is stored once
+    final int pool = ratio > 1.0 ? ReducibleInputStream.DEDUP_POOL_BLOCKS : 0;
+    final double expectedUnique = blocks / ratio;
+    assertThat((double) unique, closeTo(expectedUnique, pool + expectedUnique * 0.05));
+    assertThat(unique >= (int) (expectedUnique * 0.95), is(true));
+  }
+
+  @Test
+  public void reproducibleFromOffset() {
+    final DataReduction reduction = new DataReduction(3.0, 2.0, 8192);
+    final byte[] whole = read(SEED, reduction, 0, 10 * 8192);
+    for (final int offset : new int[] {0, 1, 2730, 4095, 4096, 8191, 8192, 50000}) {
+      final byte[] part = read(SEED, reduction, offset, 3000);
+      assertThat(part, is(Arrays.copyOfRange(whole, offset, offset + 3000)));
+    }
+  }
+
+  @Test
+  public void readOneByteAtATime() {
+    final DataReduction reduction = new DataReduction(2.0, 2.0, 4096);
+    final byte[] expected = read(SEED, reduction, 0, 3 * 4096);
+    final ReducibleInputStream in = new ReducibleInputStream(SEED, reduction);
+    for (int i = 0; i < expected.length; i++) {
+      assertThat(in.read(), is(expected[i] & 0xFF));
+    }
+  }
+
+  @Test
+  public void reset() {
+    final ReducibleInputStream in =
+        new ReducibleInputStream(SEED, new DataReduction(2.0, 2.0, 4096));
+    in.skip(5000);
+    in.mark(Integer.MAX_VALUE);
+    final byte[] first = new byte[5000];
+    in.read(first);
+    in.reset();
+    final byte[] second = new byte[5000];
+    in.read(second);
+    assertThat(second, is(first));
+  }
+
+  private static double compressionRatio(final byte[] buf) {
+    final Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+    deflater.setInput(buf);
+    deflater.finish();
+    final byte[] out = new byte[64 * 1024];
+    long compressed = 0;
+    while (!deflater.finished()) {
+      compressed += deflater.deflate(out);
+    }
+    deflater.end();
+    return (double) buf.length / compressed;
+  }
+}
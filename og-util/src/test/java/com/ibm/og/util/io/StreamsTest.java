@@ -14,10 +14,12 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 
+import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 
 import com.ibm.og.api.Body;
+import com.ibm.og.api.DataReduction;
 import com.ibm.og.api.DataType;
 
 public class StreamsTest {
@@ -28,6 +30,11 @@ public class StreamsTest {
     this.body = mock(Body.class);
   }
 
+  @After
+  public void after() {
+    Streams.resetPayloadPool();
+  }
+
   @Test(expected = NullPointerException.class)
   public void nullBody() {
     Streams.create(null);
@@ -57,6 +64,55 @@ public class StreamsTest {
     assertThat(nonZero, is(true));
   }
 
+  @Test
+  public void createRandomPooled() throws IOException {
+    final PayloadPool pool = new PayloadPool(4096);
+    Streams.usePayloadPool(pool);
+    when(this.body.getDataType()).thenReturn(DataType.RANDOM);
+    when(this.body.getSize()).thenReturn(1024L);
+    when(this.body.getRandomSeed()).thenReturn(10L);
+    final InputStream in = Streams.create(this.body);
+    final byte[] buf = new byte[1024];
+    final byte[] expected = new byte[1024];
+    pool.create(10L, 1024).read(expected);
+
+    assertThat(in.read(buf), is(1024));
+    assertThat(buf, is(expected));
+    assertThat(in.read(), is(-1));
+  }
+
+  @Test
+  public void createUnique() throws IOException {
+    when(this.body.getDataType()).thenReturn(DataType.UNIQUE);
+    when(this.body.getSize()).thenReturn(4096L);
+    when(this.body.getRandomSeed()).thenReturn(1L);
+    final InputStream in = Streams.create(this.body);
+    final byte[] buf = new byte[4096];
+    final byte[] expected = new byte[4096];
+    UniqueRandomInputStream.fill(1L, 0, expected, 0, expected.length);
+
+    assertThat(in.read(buf), is(4096));
+    assertThat(buf, is(expected));
+    assertThat(in.read(), is(-1));
+  }
+
+  @Test
+  public void createReducible() throws IOException {
+    final DataReduction reduction = new DataReduction(2.0, 2.0, 4096);
+    when(this.body.getDataType()).thenReturn(DataType.REDUCIBLE);
+    when(this.body.getSize()).thenReturn(8192L);
+    when(this.body.getRandomSeed()).thenReturn(1L);
+    when(this.body.getDataReduction()).thenReturn(reduction);
+    final InputStream in = Streams.create(this.body);
+    final byte[] buf = new byte[8192];
+    final byte[] expected = new byte[8192];
+    new ReducibleInputStream(1L, reduction).read(expected);
+
+    assertThat(in.read(buf), is(8192));
+    assertThat(buf, is(expected));
+    assertThat(in.read(), is(-1));
+  }
+
   @Test
   public void createZeroes() throws IOException {
     when(this.body.getDataType()).thenReturn(DataType.ZEROES);
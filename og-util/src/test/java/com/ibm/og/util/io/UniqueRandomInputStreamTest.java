@@ -0,0 +1,151 @@
+/* Copyright (c) IBM Corporation 2016. All Rights Reserved.
+ * Project name: Object Generator
+ * This project is licensed under the Apache License 2.0, see LICENSE.
+ */
+
+package com.ibm.og.util.io;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.zip.Deflater;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.runner.RunWith;
+
+import com.tngtech.java.junit.dataprovider.DataProvider;
+import com.tngtech.java.junit.dataprovider.DataProviderRunner;
+import com.tngtech.java.junit.dataprovider.UseDataProvider;
+
+@SuppressWarnings("resource")
+@RunWith(DataProviderRunner.class)
+public class UniqueRandomInputStreamTest {
+  @Rule
+  public ExpectedException thrown = ExpectedException.none();
+  private static final long SEED = 42;
+  private UniqueRandomInputStream in;
+
+  @Before
+  public void before() {
+    this.in = new UniqueRandomInputStream(SEED);
+  }
+
+  private static byte[] expected(final long offset, final int length) {
+    final byte[] buf = new byte[length];
+    UniqueRandomInputStream.fill(SEED, offset, buf, 0, length);
+    return buf;
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void negativeOffset() {
+    new UniqueRandomInputStream(SEED, -1);
+  }
+
+  @DataProvider
+  public static Object[][] provideInvalidRead() {
+    final byte[] buf = new byte[1];
+    return new Object[][] {{null, 0, 1, NullPointerException.class},
+        {buf, -1, 1, IndexOutOfBoundsException.class},
+        {buf, buf.length, 1, IndexOutOfBoundsException.class},
+        {buf, 0, -1, IndexOutOfBoundsException.class},
+        {buf, 0, buf.length + 1, IndexOutOfBoundsException.class},
+        {buf, 1, buf.length, IndexOutOfBoundsException.class}};
+  }
+
+  @Test
+  @UseDataProvider("provideInvalidRead")
+  public void invalidRead(final byte[] buf, final int off, final int len,
+      final Class<Exception> expectedException) {
+    this.thrown.expect(expectedException);
+    this.in.read(buf, off, len);
+  }
+
+  @Test
+  public void readOneByteAtATime() {
+    final byte[] expected = expected(0, 100);
+    for (int i = 0; i < expected.length; i++) {
+      assertThat(this.in.read(), is(expected[i] & 0xFF));
+    }
+  }
+
+  @DataProvider
+  public static Object[][] provideOffsets() {
+    return new Object[][] {{0L, 64}, {1L, 7}, {3L, 100}, {7L, 1}, {8L, 9}, {1L << 40, 33}};
+  }
+
+  // reading from an arbitrary offset must match the same region of a stream read from the start
+  @Test
+  @UseDataProvider("provideOffsets")
+  public void reproducibleFromOffset(final long offset, final int length) {
+    final byte[] buf = new byte[length];
+    assertThat(new UniqueRandomInputStream(SEED, offset).read(buf), is(length));
+    assertThat(buf, is(expected(offset, length)));
+
+    if (offset < 1024) {
+      final byte[] whole = expected(0, (int) offset + length);
+      assertThat(buf, is(Arrays.copyOfRange(whole, (int) offset, whole.length)));
+    }
+  }
+
+  @Test
+  public void skip() {
+    assertThat(this.in.skip(13), is(13L));
+    assertThat(this.in.skip(-1), is(0L));
+    final byte[] buf = new byte[16];
+    this.in.read(buf);
+    assertThat(buf, is(expected(13, 16)));
+  }
+
+  @Test
+  public void reset() {
+    this.in.read(new byte[5]);
+    this.in.mark(Integer.MAX_VALUE);
+    final byte[] first = new byte[20];
+    this.in.read(first);
+    this.in.reset();
+    final byte[] second = new byte[20];
+    this.in.read(second);
+    assertThat(second, is(first));
+    assertThat(this.in.markSupported(), is(true));
+  }
+
+  @Test
+  public void seedsDiffer() {
+    final byte[] other = new byte[64];
+    new UniqueRandomInputStream(SEED + 1).read(other);
+    assertThat(other, is(not(expected(0, 64))));
+  }
+
+  @Test
+  public void noRepeatedBlocks() {
+    final int blockSize = 4096;
+    final int blocks = 256;
+    final byte[] buf = expected(0, blockSize * blocks);
+    final Set<String> seen = new HashSet<String>();
+    for (int i = 0; i < blocks; i++) {
+      final byte[] block = Arrays.copyOfRange(buf, i * blockSize, (i + 1) * blockSize);
+      assertThat(seen.add(Arrays.toString(block)), is(true));
+    }
+  }
+
+  @Test
+  public void incompressible() {
+    final byte[] buf = expected(0, 1 << 20);
+    final Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+    deflater.setInput(buf);
+    deflater.finish();
+    final byte[] out = new byte[buf.length + 1024];
+    final int compressed = deflater.deflate(out);
+    deflater.end();
+    // deflate only adds framing overhead to random data
+    assertThat(compressed, greaterThan(buf.length));
+  }
+}
@@ -0,0 +1,132 @@
+/* Copyright (c) IBM Corporation 2016. All Rights Reserved.
+ * Project name: Object Generator
+ * This project is licensed under the Apache License 2.0, see LICENSE.
+ */
+
+package com.ibm.og.util.io;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import com.tngtech.java.junit.dataprovider.DataProvider;
+import com.tngtech.java.junit.dataprovider.DataProviderRunner;
+import com.tngtech.java.junit.dataprovider.UseDataProvider;
+
+@SuppressWarnings("resource")
+@RunWith(DataProviderRunner.class)
+public class VerifyingOutputStreamTest {
+  private static final int SIZE = 20000;
+
+  private static byte[] content() {
+    final byte[] content = new byte[SIZE];
+    new Random(1).nextBytes(content);
+    return content;
+  }
+
+  private static VerifyingOutputStream verifier(final byte[] expected) {
+    return new VerifyingOutputStream(new ByteArrayInputStream(expected));
+  }
+
+  // writes content in writes of the provided size
+  private static void write(final VerifyingOutputStream out, final byte[] content,
+      final int writeSize) throws IOException {
+    for (int off = 0; off < content.length; off += writeSize) {
+      out.write(content, off, Math.min(writeSize, content.length - off));
+    }
+    out.close();
+  }
+
+  @Test(expected = NullPointerException.class)
+  public void nullExpected() {
+    new VerifyingOutputStream(null);
+  }
+
+  @Test(expected = IndexOutOfBoundsException.class)
+  public void invalidWrite() throws IOException {
+    verifier(content()).write(new byte[10], 5, 6);
+  }
+
+  @DataProvider
+  public static Object[][] provideWriteSize() {
+    return new Object[][] {{1}, {7}, {4096}, {8192}, {8193}, {SIZE}};
+  }
+
+  @Test
+  @UseDataProvider("provideWriteSize")
+  public void verified(final int writeSize) throws IOException {
+    final byte[] content = content();
+    final VerifyingOutputStream out = verifier(content);
+    write(out, content, writeSize);
+    assertThat(out.isVerified(), is(true));
+    assertThat(out.getMismatchOffset(), is(-1L));
+    assertThat(out.getBytesWritten(), is((long) SIZE));
+  }
+
+  @DataProvider
+  public static Object[][] provideMismatch() {
+    return new Object[][] {{0, 4096}, {3, 4096}, {7, 1}, {8, 7}, {4095, 4096}, {8191, 8193},
+        {8192, 8192}, {12345, 4096}, {SIZE - 1, 4096}, {SIZE - 1, SIZE}};
+  }
+
+  @Test
+  @UseDataProvider("provideMismatch")
+  public void mismatch(final int offset, final int writeSize) throws IOException {
+    final byte[] content = content();
+    final byte[] corrupt = Arrays.copyOf(content, content.length);
+    corrupt[offset] ^= 0x10;
+    // a second corruption after the first is not reported
+    corrupt[Math.min(offset + 100, SIZE - 1)] ^= 0x01;
+    final VerifyingOutputStream out = verifier(content);
+    write(out, corrupt, writeSize);
+    assertThat(out.isVerified(), is(false));
+    assertThat(out.getMismatchOffset(), is((long) offset));
+    assertThat(out.getBytesWritten(), is((long) SIZE));
+  }
+
+  @Test
+  public void shortContent() throws IOException {
+    final byte[] content = content();
+    final VerifyingOutputStream out = verifier(content);
+    out.write(content, 0, 1000);
+    assertThat(out.isVerified(), is(true));
+    out.close();
+    assertThat(out.getMismatchOffset(), is(1000L));
+  }
+
+  @Test
+  public void longContent() throws IOException {
+    final byte[] content = content();
+    final VerifyingOutputStream out = verifier(Arrays.copyOf(content, 1000));
+    write(out, content, 4096);
+    assertThat(out.getMismatchOffset(), is(1000L));
+  }
+
+  @Test
+  public void emptyContent() throws IOException {
+    final VerifyingOutputStream out = verifier(new byte[0]);
+    out.close();
+    assertThat(out.isVerified(), is(true));
+  }
+
+  @Test
+  public void generatedContent() throws IOException {
+    final byte[] content = new byte[SIZE];
+    new UniqueRandomInputStream(5).read(content);
+    final VerifyingOutputStream out =
+        new VerifyingOutputStream(new UniqueRandomInputStream(5, 0));
+    out.write(content);
+    assertThat(out.isVerified(), is(true));
+
+    final VerifyingOutputStream other = new VerifyingOutputStream(new UniqueRandomInputStream(6));
+    other.write(content);
+    assertThat(other.isVerified(), is(false));
+  }
+}